@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.audio.formats;
+
+import com.google.common.io.ByteStreams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.assets.format.AssetDataFile;
+import org.terasology.audio.StaticSoundData;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for {@link SoundLoadingService} and the Ogg streams it decodes ahead.
+ */
+public class SoundLoadingServiceTest {
+
+    private static final String SOUND = "assets/sounds/camera.ogg";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private byte[] encoded;
+    private byte[] expectedPcm;
+    private SoundLoadingService service;
+
+    @Before
+    public void setUp() throws IOException {
+        try (InputStream stream = getClass().getClassLoader().getResourceAsStream(SOUND)) {
+            encoded = ByteStreams.toByteArray(stream);
+        }
+        try (OggReader reader = new OggReader(new ByteArrayInputStream(encoded))) {
+            ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+            ByteStreams.copy(reader, pcm);
+            expectedPcm = pcm.toByteArray();
+        }
+        service = new SoundLoadingService(2, null);
+    }
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testDecode() throws IOException {
+        StaticSoundData data = service.decode(mockAssetDataFile());
+
+        assertTrue(expectedPcm.length > 0);
+        assertEquals(0, data.getData().position());
+        assertArrayEquals(expectedPcm, toArray(data.getData()));
+    }
+
+    @Test
+    public void testDecodeAsync() throws Exception {
+        StaticSoundData data = service.decodeAsync(mockAssetDataFile()).get();
+
+        assertArrayEquals(expectedPcm, toArray(data.getData()));
+    }
+
+    @Test
+    public void testDecodedSoundsAreCached() throws IOException {
+        Path cacheDirectory = tempFolder.getRoot().toPath();
+        SoundLoadingService cachingService = new SoundLoadingService(1, cacheDirectory);
+        StaticSoundData decoded = cachingService.decode(mockAssetDataFile());
+        cachingService.shutdown();
+        assertEquals(1, Files.list(cacheDirectory).count());
+
+        SoundLoadingService restartedService = new SoundLoadingService(1, cacheDirectory);
+        StaticSoundData cached = restartedService.decode(mockAssetDataFile());
+        restartedService.shutdown();
+
+        assertEquals(decoded.getChannels(), cached.getChannels());
+        assertEquals(decoded.getSampleRate(), cached.getSampleRate());
+        assertEquals(decoded.getBufferBits(), cached.getBufferBits());
+        assertArrayEquals(expectedPcm, toArray(cached.getData()));
+    }
+
+    @Test
+    public void testDamagedCacheFilesAreDecodedAgain() throws IOException {
+        Path cacheDirectory = tempFolder.getRoot().toPath();
+        SoundLoadingService cachingService = new SoundLoadingService(1, cacheDirectory);
+        cachingService.decode(mockAssetDataFile());
+        Path cacheFile = Files.list(cacheDirectory).findFirst().get();
+        Files.write(cacheFile, new byte[]{1, 2, 3});
+
+        StaticSoundData data = cachingService.decode(mockAssetDataFile());
+        cachingService.shutdown();
+
+        assertArrayEquals(expectedPcm, toArray(data.getData()));
+    }
+
+    @Test
+    public void testStreamingMatchesStaticDecoding() {
+        OggStreamingSoundData stream = new OggStreamingSoundData(mockAssetDataFile(), service);
+
+        assertArrayEquals(expectedPcm, readAll(stream, 4096 * 8));
+        stream.dispose();
+    }
+
+    @Test
+    public void testStreamingWithOtherBufferSize() {
+        OggStreamingSoundData stream = new OggStreamingSoundData(mockAssetDataFile(), service);
+
+        assertArrayEquals(expectedPcm, readAll(stream, 5000));
+        stream.dispose();
+    }
+
+    @Test
+    public void testStreamingRestartsAfterReset() {
+        OggStreamingSoundData stream = new OggStreamingSoundData(mockAssetDataFile(), service);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4096);
+        stream.readNextInto(buffer);
+        stream.readNextInto(buffer);
+
+        stream.reset();
+
+        assertArrayEquals(expectedPcm, readAll(stream, 4096));
+        stream.dispose();
+    }
+
+    @Test
+    public void testBufferPoolReusesReleasedBuffers() {
+        DirectBufferPool pool = new DirectBufferPool(1);
+        ByteBuffer first = pool.acquire(128);
+        ByteBuffer second = pool.acquire(128);
+        first.putInt(42);
+
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.getPooledBufferCount());
+        ByteBuffer reused = pool.acquire(128);
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertNotSame(reused, pool.acquire(128));
+        assertEquals(64, pool.acquire(64).capacity());
+    }
+
+    @Test
+    public void testLastGranulePosition() throws IOException {
+        long samples = OggPages.lastGranulePosition(encoded);
+        try (OggReader reader = new OggReader(new ByteArrayInputStream(encoded))) {
+            // The decoder may output up to one block more than the length stored in the file
+            long decodedSamples = expectedPcm.length / (reader.getChannels() * 2);
+            assertTrue(samples > 0);
+            assertTrue(Math.abs(decodedSamples - samples) <= 8192);
+        }
+        assertEquals(-1, OggPages.lastGranulePosition(new byte[100]));
+    }
+
+    private byte[] readAll(OggStreamingSoundData stream, int bufferSize) {
+        ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        while (stream.readNextInto(buffer).hasRemaining()) {
+            pcm.write(toArray(buffer), 0, buffer.limit());
+        }
+        return pcm.toByteArray();
+    }
+
+    private AssetDataFile mockAssetDataFile() {
+        AssetDataFile assetDataFile = mock(AssetDataFile.class);
+        try {
+            when(assetDataFile.openStream()).thenAnswer(invocation -> new ByteArrayInputStream(encoded));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        when(assetDataFile.getFilename()).thenReturn("camera.ogg");
+        return assetDataFile;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        ByteBuffer data = buffer.duplicate();
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.modes;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Test;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.modes.loadProcesses.CacheBlocks;
+import org.terasology.engine.modes.loadProcesses.CacheTextures;
+import org.terasology.engine.modes.loadProcesses.InitialiseComponentSystemManager;
+import org.terasology.engine.modes.loadProcesses.InitialiseEntitySystem;
+import org.terasology.engine.modes.loadProcesses.InitialiseGraphics;
+import org.terasology.engine.modes.loadProcesses.LoadPrefabs;
+import org.terasology.engine.modes.loadProcesses.ProcessBlockPrefabs;
+import org.terasology.engine.modes.loadProcesses.RegisterBlocks;
+import org.terasology.game.GameManifest;
+import org.terasology.network.NetworkMode;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit test for {@link LoadProcessScheduler}.
+ */
+public class LoadProcessSchedulerTest {
+
+    private final LoadProcessScheduler scheduler = new LoadProcessScheduler();
+    private final List<String> finishedProcesses = Collections.synchronizedList(Lists.newArrayList());
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testMainThreadProcessesRunInOrder() {
+        scheduler.add(new TestProcess("first", 3));
+        scheduler.add(new TestProcess("second", 1));
+        scheduler.add(new TestProcess("third", 2));
+
+        runOnMainThread();
+
+        assertEquals(Lists.newArrayList("first", "second", "third"), finishedProcesses);
+        assertEquals(1, scheduler.getProgress(), 0);
+        assertEquals(3, scheduler.getDurationsInMs().size());
+    }
+
+    @Test
+    public void testBackgroundProcessRunsAlongsideLaterProcesses() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TestProcess background = new TestProcess("background", 1).inBackground().awaiting(release);
+        scheduler.add(new TestProcess("first", 1));
+        scheduler.add(background);
+        scheduler.add(new TestProcess("second", 1).independent());
+
+        while (scheduler.step()) {
+            // runs all main thread processes, as the second one does not wait for the background process
+        }
+
+        assertEquals(Lists.newArrayList("first", "second"), finishedProcesses);
+        assertFalse(scheduler.isFinished());
+        assertSame(background, scheduler.getCurrentProcess());
+
+        release.countDown();
+        runOnMainThread();
+
+        assertTrue(finishedProcesses.contains("background"));
+        assertNotSame(Thread.currentThread(), background.thread);
+    }
+
+    @Test
+    public void testBackgroundProcessWaitsForDependencies() {
+        TestProcess background = new TestProcess("background", 1).inBackground().dependingOn(SlowProcess.class);
+        scheduler.add(new TestProcess("first", 1));
+        scheduler.add(new SlowProcess());
+        scheduler.add(background);
+
+        runOnMainThread();
+
+        assertEquals(Lists.newArrayList("first", "slow", "background"), finishedProcesses);
+    }
+
+    @Test
+    public void testMainThreadProcessWaitsForDeclaredBackgroundProcess() {
+        scheduler.add(new SlowProcess().inBackground());
+        scheduler.add(new TestProcess("dependent", 1).dependingOn(SlowProcess.class));
+
+        runOnMainThread();
+
+        assertEquals(Lists.newArrayList("slow", "dependent"), finishedProcesses);
+    }
+
+    @Test
+    public void testProcessWithoutDeclaredDependenciesWaitsForEarlierBackgroundProcess() {
+        scheduler.add(new TestProcess("first", 1));
+        scheduler.add(new SlowProcess().inBackground());
+        scheduler.add(new TestProcess("later", 1));
+
+        runOnMainThread();
+
+        assertEquals(Lists.newArrayList("first", "slow", "later"), finishedProcesses);
+    }
+
+    @Test
+    public void testHostLoadingRunsBackgroundProcessesAlongsideMainThreadProcesses() {
+        List<LoadProcess> added = Lists.newArrayList();
+        LoadProcessScheduler hostScheduler = new LoadProcessScheduler() {
+            @Override
+            void add(LoadProcess process) {
+                added.add(process);
+                super.add(process);
+            }
+        };
+        StateLoading.addHostProcesses(hostScheduler, new ContextImpl(), new GameManifest(), NetworkMode.NONE);
+
+        LoadProcess cacheTextures = find(added, CacheTextures.class);
+        LoadProcess loadPrefabs = find(added, LoadPrefabs.class);
+        for (Class<? extends LoadProcess> type : ImmutableSet.of(InitialiseEntitySystem.class, RegisterBlocks.class,
+                InitialiseGraphics.class, CacheBlocks.class, LoadPrefabs.class, ProcessBlockPrefabs.class)) {
+            assertTrue(type.getSimpleName(), hostScheduler.mayRunConcurrently(cacheTextures, find(added, type)));
+        }
+        assertTrue(hostScheduler.mayRunConcurrently(loadPrefabs, find(added, InitialiseGraphics.class)));
+        assertTrue(hostScheduler.mayRunConcurrently(loadPrefabs, find(added, CacheBlocks.class)));
+
+        assertFalse(hostScheduler.mayRunConcurrently(loadPrefabs, find(added, ProcessBlockPrefabs.class)));
+        LoadProcess componentSystemManager = find(added, InitialiseComponentSystemManager.class);
+        assertFalse(hostScheduler.mayRunConcurrently(cacheTextures, componentSystemManager));
+        assertFalse(hostScheduler.mayRunConcurrently(loadPrefabs, componentSystemManager));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBackgroundFailureIsRethrown() {
+        scheduler.add(new TestProcess("failing", 1).inBackground().failing());
+
+        runOnMainThread();
+    }
+
+    @Test
+    public void testInterruptedBackgroundProcessIsReportedAsFailure() {
+        TestProcess background = new TestProcess("background", 1).inBackground().awaiting(new CountDownLatch(1));
+        scheduler.add(background);
+        scheduler.add(new TestProcess("dependent", 1));
+
+        try {
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (background.thread == null) {
+                scheduler.step();
+                Thread.yield();
+                assertTrue("Background process did not start", System.currentTimeMillis() < deadline);
+            }
+            background.thread.interrupt();
+            runOnMainThread();
+            fail("Interrupting a background process should fail the loading");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+        assertFalse(finishedProcesses.contains("dependent"));
+    }
+
+    private static LoadProcess find(List<LoadProcess> processes, Class<? extends LoadProcess> type) {
+        return processes.stream().filter(type::isInstance).findFirst()
+                .orElseThrow(() -> new AssertionError(type.getSimpleName() + " was not added"));
+    }
+
+    private void runOnMainThread() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!scheduler.isFinished()) {
+            if (!scheduler.step()) {
+                Thread.yield();
+            }
+            assertTrue("Loading did not finish", System.currentTimeMillis() < deadline);
+        }
+    }
+
+    private class TestProcess implements LoadProcess {
+        private final String name;
+        private final int steps;
+        private int stepsDone;
+        private boolean mainThread = true;
+        private Set<Class<? extends LoadProcess>> dependencies;
+        private CountDownLatch latch;
+        private boolean fail;
+        private volatile Thread thread;
+
+        TestProcess(String name, int steps) {
+            this.name = name;
+            this.steps = steps;
+        }
+
+        TestProcess inBackground() {
+            mainThread = false;
+            return this;
+        }
+
+        TestProcess dependingOn(Class<? extends LoadProcess> dependency) {
+            dependencies = ImmutableSet.of(dependency);
+            return this;
+        }
+
+        TestProcess independent() {
+            dependencies = Collections.emptySet();
+            return this;
+        }
+
+        TestProcess awaiting(CountDownLatch awaitedLatch) {
+            latch = awaitedLatch;
+            return this;
+        }
+
+        TestProcess failing() {
+            fail = true;
+            return this;
+        }
+
+        @Override
+        public String getMessage() {
+            return name;
+        }
+
+        @Override
+        public boolean step() {
+            thread = Thread.currentThread();
+            if (fail) {
+                throw new IllegalStateException("Failed on purpose");
+            }
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            stepsDone++;
+            if (stepsDone == steps) {
+                finishedProcesses.add(name);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public float getProgress() {
+            return (float) stepsDone / steps;
+        }
+
+        @Override
+        public int getExpectedCost() {
+            return 1;
+        }
+
+        @Override
+        public boolean requiresMainThread() {
+            return mainThread;
+        }
+
+        @Override
+        public Set<Class<? extends LoadProcess>> getDependencies() {
+            return dependencies;
+        }
+    }
+
+    private class SlowProcess extends TestProcess {
+        SlowProcess() {
+            super("slow", 50);
+        }
+
+        @Override
+        public boolean step() {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.step();
+        }
+    }
+}
@@ -19,6 +19,7 @@
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.terasology.assets.AssetFactory;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
@@ -59,6 +60,7 @@
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.terasology.entitySystem.entity.internal.EntityScope.CHUNK;
@@ -331,6 +333,65 @@ public void testPrefabCopiedCorrectly() {
         assertEquals("Test", entity2.getComponent(StringComponent.class).value);
     }
 
+    @Test
+    public void testCreateBatch() {
+        List<EntityRef> entities = entityManager.createBatch(prefab, 3, (builder, index) -> builder.addComponent(new IntegerComponent(index)));
+
+        assertEquals(3, entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            EntityRef entity = entities.get(i);
+            assertTrue(entity.exists());
+            assertEquals(prefab, entity.getParentPrefab());
+            assertEquals("Test", entity.getComponent(StringComponent.class).value);
+            assertEquals(i, entity.getComponent(IntegerComponent.class).value);
+            assertTrue(entityManager.getGlobalPool().contains(entity.getId()));
+        }
+        assertFalse(entities.get(0).getComponent(StringComponent.class) == entities.get(1).getComponent(StringComponent.class));
+        assertFalse(entities.get(0).getComponent(StringComponent.class) == prefab.getComponent(StringComponent.class));
+    }
+
+    @Test
+    public void testCreateBatchSendsLifecycleEventsAfterAllEntitiesExist() {
+        EventSystem eventSystem = mock(EventSystem.class);
+        entityManager.setEventSystem(eventSystem);
+
+        List<EntityRef> entities = entityManager.createBatch(prefab, 2, null);
+
+        InOrder inOrder = inOrder(eventSystem);
+        inOrder.verify(eventSystem).send(entities.get(0), OnAddedComponent.newInstance());
+        inOrder.verify(eventSystem).send(entities.get(1), OnAddedComponent.newInstance());
+        inOrder.verify(eventSystem).send(entities.get(0), OnActivatedComponent.newInstance());
+        inOrder.verify(eventSystem).send(entities.get(1), OnActivatedComponent.newInstance());
+    }
+
+    @Test
+    public void testPrefabReloadedAfterInstantiation() {
+        entityManager.create(prefab);
+
+        PrefabData reloadedPrefab = new PrefabData();
+        reloadedPrefab.addComponent(new StringComponent("Reloaded"));
+        prefab.reload(reloadedPrefab);
+
+        EntityRef entity = entityManager.create(prefab);
+        assertEquals("Reloaded", entity.getComponent(StringComponent.class).value);
+    }
+
+    @Test
+    public void testPrefabReloadAddingComponentAfterInstantiation() {
+        entityManager.create(prefab);
+
+        PrefabData reloadedPrefab = new PrefabData();
+        // the unchanged component is kept, so only the added component tells the reload apart
+        reloadedPrefab.addComponent(prefab.getComponent(StringComponent.class));
+        reloadedPrefab.addComponent(new IntegerComponent(3));
+        prefab.reload(reloadedPrefab);
+
+        EntityRef entity = entityManager.create(prefab);
+        assertEquals("Test", entity.getComponent(StringComponent.class).value);
+        assertNotNull(entity.getComponent(IntegerComponent.class));
+        assertEquals(3, entity.getComponent(IntegerComponent.class).value);
+    }
+
     @Test
     public void testPrefabCopiedCorrectly2() {
         EntityRef test1 = entityManager.create("unittest:myprefab");
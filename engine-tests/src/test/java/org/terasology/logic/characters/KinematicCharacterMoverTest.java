@@ -15,8 +15,25 @@
  */
 package org.terasology.logic.characters;
 
+import com.google.common.collect.Lists;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Answers;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.engine.CharacterCollider;
+import org.terasology.physics.engine.PhysicsEngine;
+import org.terasology.physics.engine.SweepCallback;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  */
@@ -87,4 +104,75 @@ public void testUpdateMode() {
         KinematicCharacterMover.updateMode(state, false, false, false, true);
         Assert.assertSame(MovementMode.CROUCHING, state.getMode());
     }
+
+    @Test
+    public void testBatchedStepsMatchStep() {
+        KinematicCharacterMover mover = createCollidingMover();
+        List<KinematicCharacterMover.PendingStep> steps = Lists.newArrayList();
+        List<CharacterStateEvent> expectedStates = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            CharacterStateEvent initial = createState(i);
+            expectedStates.add(mover.step(initial, createInput(i), createCharacter()));
+            steps.add(mover.beginStep(initial, createInput(i), createCharacter()));
+        }
+
+        for (KinematicCharacterMover.PendingStep step : steps) {
+            mover.sweep(step);
+        }
+
+        for (int i = 0; i < steps.size(); i++) {
+            CharacterStateEvent expected = expectedStates.get(i);
+            CharacterStateEvent actual = mover.finishStep(steps.get(i));
+            Assert.assertEquals(expected.getPosition(), actual.getPosition());
+            Assert.assertEquals(expected.getVelocity(), actual.getVelocity());
+            Assert.assertEquals(expected.isGrounded(), actual.isGrounded());
+            Assert.assertEquals(expected.getSequenceNumber(), actual.getSequenceNumber());
+            Assert.assertEquals(expected.getTime(), actual.getTime());
+        }
+    }
+
+    /**
+     * Creates a mover in an empty world whose sweeps are cut short at half of their length, so that the characters
+     * collide on every step.
+     */
+    private static KinematicCharacterMover createCollidingMover() {
+        Block air = new Block();
+        WorldProvider worldProvider = mock(WorldProvider.class, invocation -> {
+            if (invocation.getMethod().getReturnType() == Block.class) {
+                return air;
+            } else if (invocation.getMethod().getReturnType() == boolean.class) {
+                return true;
+            }
+            return Answers.RETURNS_DEFAULTS.answer(invocation);
+        });
+
+        SweepCallback sweepCallback = mock(SweepCallback.class);
+        when(sweepCallback.hasHit()).thenReturn(true);
+        when(sweepCallback.getClosestHitFraction()).thenReturn(0.5f);
+        when(sweepCallback.getHitNormalWorld()).thenReturn(new Vector3f(0, 1, 0));
+        CharacterCollider collider = mock(CharacterCollider.class);
+        when(collider.sweep(any(), any(), anyFloat(), anyFloat())).thenReturn(sweepCallback);
+        PhysicsEngine physics = mock(PhysicsEngine.class);
+        when(physics.getEpsilon()).thenReturn(0.0001f);
+        when(physics.getCharacterCollider(any())).thenReturn(collider);
+
+        return new KinematicCharacterMover(worldProvider, physics);
+    }
+
+    private static EntityRef createCharacter() {
+        EntityRef character = mock(EntityRef.class);
+        when(character.getComponent(CharacterMovementComponent.class)).thenReturn(new CharacterMovementComponent());
+        return character;
+    }
+
+    private static CharacterStateEvent createState(int index) {
+        return new CharacterStateEvent(100, 0, new Vector3f(index, 10, 0), new Quat4f(0, 0, 0, 1),
+                new Vector3f(0, -index * 0.5f, 0), 0, 0, MovementMode.WALKING, index % 2 == 0);
+    }
+
+    private static CharacterMoveInputEvent createInput(int index) {
+        float angle = index * 0.3f;
+        return new CharacterMoveInputEvent(index + 1, 0, 0, new Vector3f((float) Math.sin(angle), 0, (float) Math.cos(angle)),
+                index % 3 == 0, index % 4 == 0, 16);
+    }
 }
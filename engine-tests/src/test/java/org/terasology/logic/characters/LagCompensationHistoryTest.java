@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.characters;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.HitResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LagCompensationHistoryTest {
+
+    private static final float EPSILON = 0.0001f;
+
+    private LagCompensationHistory history;
+    private EntityRef first;
+    private EntityRef second;
+
+    @Before
+    public void setup() {
+        history = new LagCompensationHistory(4);
+        first = createCharacter(1);
+        second = createCharacter(2);
+    }
+
+    @Test
+    public void testRayTraceInterpolatesBetweenSnapshots() {
+        history.startSnapshot(100);
+        history.record(first, new Vector3f(0, 0, 10), 0.5f, 2f);
+        history.startSnapshot(200);
+        history.record(first, new Vector3f(10, 0, 10), 0.5f, 2f);
+
+        Vector3f origin = new Vector3f(5, 0, 0);
+        Vector3f forward = new Vector3f(0, 0, 1);
+        HitResult hit = history.rayTrace(150, origin, forward, 100, EntityRef.NULL);
+        assertTrue(hit.isHit());
+        assertEquals(first, hit.getEntity());
+        assertEquals(9.5f, hit.getHitPoint().z, EPSILON);
+        assertEquals(-1f, hit.getHitNormal().z, EPSILON);
+
+        assertFalse(history.rayTrace(100, origin, forward, 100, EntityRef.NULL).isHit());
+        assertFalse(history.rayTrace(200, origin, forward, 100, EntityRef.NULL).isHit());
+    }
+
+    @Test
+    public void testRayTraceFindsClosestCharacter() {
+        history.startSnapshot(100);
+        history.record(first, new Vector3f(0, 0, 20), 0.5f, 2f);
+        history.record(second, new Vector3f(0, 0, 10), 0.5f, 2f);
+
+        HitResult hit = history.rayTrace(100, new Vector3f(), new Vector3f(0, 0, 2), 100, EntityRef.NULL);
+        assertEquals(second, hit.getEntity());
+        assertEquals(first, history.rayTrace(100, new Vector3f(), new Vector3f(0, 0, 2), 100, second).getEntity());
+        assertFalse(history.rayTrace(100, new Vector3f(), new Vector3f(0, 0, 2), 5, EntityRef.NULL).isHit());
+    }
+
+    @Test
+    public void testCharactersInArea() {
+        history.startSnapshot(100);
+        history.record(first, new Vector3f(0, 0, 0), 0.5f, 2f);
+        history.record(second, new Vector3f(10, 0, 0), 0.5f, 2f);
+
+        assertEquals(1, history.getCharactersInArea(100, new Vector3f(2, 0, 0), 1.6f, EntityRef.NULL).size());
+        assertEquals(2, history.getCharactersInArea(100, new Vector3f(5, 0, 0), 4.6f, EntityRef.NULL).size());
+        assertEquals(1, history.getCharactersInArea(100, new Vector3f(5, 0, 0), 4.6f, first).size());
+        assertTrue(history.getCharactersInArea(100, new Vector3f(5, 0, 0), 1f, EntityRef.NULL).isEmpty());
+    }
+
+    @Test
+    public void testOldSnapshotsAreReplaced() {
+        for (int i = 0; i < 6; i++) {
+            history.startSnapshot(i * 100);
+            history.record(first, new Vector3f(i, 0, 0), 0.5f, 2f);
+        }
+        assertEquals(200, history.getOldestTime());
+        assertEquals(500, history.getNewestTime());
+
+        // Times before the history are clamped to its oldest snapshot
+        assertEquals(first, history.getCharactersInArea(0, new Vector3f(2, 0, 0), 0.1f, EntityRef.NULL).get(0));
+        assertTrue(history.getCharactersInArea(0, new Vector3f(0, 0, 0), 0.1f, EntityRef.NULL).isEmpty());
+    }
+
+    @Test
+    public void testForgottenCharacterStaysInOlderSnapshots() {
+        history.startSnapshot(100);
+        history.record(first, new Vector3f(0, 0, 0), 0.5f, 2f);
+        history.forget(first);
+        history.startSnapshot(200);
+        history.record(second, new Vector3f(10, 0, 0), 0.5f, 2f);
+
+        assertEquals(first, history.getCharactersInArea(100, new Vector3f(), 1f, EntityRef.NULL).get(0));
+        assertTrue(history.getCharactersInArea(200, new Vector3f(), 1f, EntityRef.NULL).isEmpty());
+        // The second character reuses the slot of the first, so between the snapshots it must not be interpolated
+        assertEquals(first, history.getCharactersInArea(150, new Vector3f(), 1f, EntityRef.NULL).get(0));
+    }
+
+    private static EntityRef createCharacter(long id) {
+        EntityRef character = mock(EntityRef.class);
+        when(character.getId()).thenReturn(id);
+        when(character.exists()).thenReturn(true);
+        return character;
+    }
+}
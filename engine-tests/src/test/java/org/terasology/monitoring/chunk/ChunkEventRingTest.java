@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkEventRingTest {
+
+    @Test
+    public void testEventsAreDrainedInOrder() {
+        ChunkEventRing ring = new ChunkEventRing(4, Thread.currentThread());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(ring.offer(event(i)));
+        }
+
+        List<ChunkMonitorEvent> drained = Lists.newArrayList();
+
+        assertEquals(3, ring.drainTo(drained::add));
+        assertEquals(3, drained.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, ((ChunkMonitorEvent.BasicChunkEvent) drained.get(i)).getPosition().x);
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void testFullRingRejectsEvents() {
+        ChunkEventRing ring = new ChunkEventRing(2, Thread.currentThread());
+
+        assertTrue(ring.offer(event(0)));
+        assertTrue(ring.offer(event(1)));
+        assertFalse(ring.offer(event(2)));
+
+        ring.drainTo(event -> { });
+
+        assertTrue(ring.offer(event(3)));
+    }
+
+    @Test
+    public void testRingIsReusedAfterWrapping() {
+        ChunkEventRing ring = new ChunkEventRing(4, Thread.currentThread());
+        List<ChunkMonitorEvent> drained = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(ring.offer(event(i)));
+            ring.drainTo(drained::add);
+        }
+
+        assertEquals(10, drained.size());
+        assertEquals(9, ((ChunkMonitorEvent.BasicChunkEvent) drained.get(9)).getPosition().x);
+    }
+
+    @Test
+    public void testConcurrentWriterLosesOnlyRejectedEvents() throws InterruptedException {
+        int eventCount = 200000;
+        AtomicInteger rejected = new AtomicInteger();
+        ChunkEventRing[] ring = new ChunkEventRing[1];
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < eventCount; i++) {
+                if (!ring[0].offer(event(i))) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        ring[0] = new ChunkEventRing(64, writer);
+
+        List<ChunkMonitorEvent> drained = Lists.newArrayList();
+        writer.start();
+        while (writer.isAlive()) {
+            ring[0].drainTo(drained::add);
+        }
+        writer.join();
+        ring[0].drainTo(drained::add);
+
+        assertEquals(eventCount, drained.size() + rejected.get());
+        int previous = -1;
+        for (ChunkMonitorEvent event : drained) {
+            int index = ((ChunkMonitorEvent.BasicChunkEvent) event).getPosition().x;
+            assertTrue(index > previous);
+            previous = index;
+        }
+        assertTrue(ring[0].isAbandoned());
+    }
+
+    private static ChunkMonitorEvent event(int index) {
+        return new ChunkMonitorEvent.Revived(new Vector3i(index, 0, 0));
+    }
+}
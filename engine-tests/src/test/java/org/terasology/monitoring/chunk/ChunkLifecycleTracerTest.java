@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChunkLifecycleTracerTest {
+
+    private final Vector3i chunkPos = new Vector3i(1, 2, 3);
+
+    @Before
+    public void setup() {
+        ChunkMonitor.setEnabled(true);
+        ChunkLifecycleTracer.reset();
+    }
+
+    @After
+    public void cleanup() {
+        ChunkMonitor.setEnabled(true);
+        ChunkLifecycleTracer.reset();
+    }
+
+    @Test
+    public void testQueueAndRunTimesAreRecorded() {
+        ChunkLifecycleTracer.enqueued(chunkPos, ChunkStage.LOAD);
+        long startTime = ChunkLifecycleTracer.started(new Vector3i(chunkPos), ChunkStage.LOAD);
+        ChunkLifecycleTracer.finished(ChunkStage.LOAD, startTime);
+
+        ChunkPipelineStatistics statistics = ChunkLifecycleTracer.getStatistics();
+        assertEquals(1, statistics.getQueueTimes(ChunkStage.LOAD).getCount());
+        assertEquals(1, statistics.getRunTimes(ChunkStage.LOAD).getCount());
+        assertEquals(0, statistics.getRunTimes(ChunkStage.GENERATE).getCount());
+    }
+
+    @Test
+    public void testStageWithoutQueueOnlyRecordsRunTime() {
+        long startTime = ChunkLifecycleTracer.started(chunkPos, ChunkStage.DEFLATE);
+        ChunkLifecycleTracer.finished(ChunkStage.DEFLATE, startTime);
+
+        ChunkPipelineStatistics statistics = ChunkLifecycleTracer.getStatistics();
+        assertEquals(0, statistics.getQueueTimes(ChunkStage.DEFLATE).getCount());
+        assertEquals(1, statistics.getRunTimes(ChunkStage.DEFLATE).getCount());
+    }
+
+    @Test
+    public void testTotalTimeIsRecordedWhenReady() {
+        ChunkLifecycleTracer.requested(chunkPos);
+        assertEquals(1, ChunkLifecycleTracer.getPendingCount());
+
+        ChunkLifecycleTracer.ready(chunkPos);
+
+        assertEquals(0, ChunkLifecycleTracer.getPendingCount());
+        assertEquals(1, ChunkLifecycleTracer.getStatistics().getTotalTimes().getCount());
+    }
+
+    @Test
+    public void testDiscardedChunksAreForgotten() {
+        ChunkLifecycleTracer.requested(chunkPos);
+        ChunkLifecycleTracer.enqueued(chunkPos, ChunkStage.MAKE_AVAILABLE);
+
+        ChunkLifecycleTracer.discarded(chunkPos);
+        ChunkLifecycleTracer.started(chunkPos, ChunkStage.MAKE_AVAILABLE);
+        ChunkLifecycleTracer.ready(chunkPos);
+
+        ChunkPipelineStatistics statistics = ChunkLifecycleTracer.getStatistics();
+        assertEquals(0, ChunkLifecycleTracer.getPendingCount());
+        assertEquals(0, statistics.getQueueTimes(ChunkStage.MAKE_AVAILABLE).getCount());
+        assertEquals(0, statistics.getTotalTimes().getCount());
+    }
+
+    @Test
+    public void testNothingIsRecordedWhileDisabled() {
+        ChunkMonitor.setEnabled(false);
+
+        ChunkLifecycleTracer.requested(chunkPos);
+        ChunkLifecycleTracer.enqueued(chunkPos, ChunkStage.MESH);
+        long startTime = ChunkLifecycleTracer.started(chunkPos, ChunkStage.MESH);
+        ChunkMonitor.setEnabled(true);
+        ChunkLifecycleTracer.finished(ChunkStage.MESH, startTime);
+
+        ChunkPipelineStatistics statistics = ChunkLifecycleTracer.getStatistics();
+        assertEquals(0, ChunkLifecycleTracer.getPendingCount());
+        assertEquals(0, statistics.getRunTimes(ChunkStage.MESH).getCount());
+    }
+
+    @Test
+    public void testTimesOfTerminatedThreadsAreKept() throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            long startTime = ChunkLifecycleTracer.started(chunkPos, ChunkStage.GENERATE);
+            ChunkLifecycleTracer.finished(ChunkStage.GENERATE, startTime);
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals(1, ChunkLifecycleTracer.getStatistics().getRunTimes(ChunkStage.GENERATE).getCount());
+        // the times of the thread are retired by the first read and must not be counted twice
+        assertEquals(1, ChunkLifecycleTracer.getStatistics().getRunTimes(ChunkStage.GENERATE).getCount());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ActivityHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        ActivityHistogram histogram = new ActivityHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMean(), 0);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        for (int i = 1; i <= 4; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(2, histogram.getPercentile(50));
+        assertEquals(4, histogram.getPercentile(100));
+        assertEquals(2.5, histogram.getMean(), 0.0001);
+    }
+
+    @Test
+    public void testAddedHistogramsAreMerged() {
+        ActivityHistogram first = new ActivityHistogram();
+        ActivityHistogram second = new ActivityHistogram();
+        first.record(1);
+        first.record(2);
+        second.record(3);
+        second.record(4);
+
+        first.add(second);
+
+        assertEquals(4, first.getCount());
+        assertEquals(10, first.getTotal());
+        assertEquals(4, first.getMax());
+        assertEquals(2, first.getPercentile(50));
+        assertEquals(2, second.getCount());
+    }
+
+    @Test
+    public void testPercentilesAreWithinBucketPrecision() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertWithin(50_000_000, histogram.getPercentile(50));
+        assertWithin(95_000_000, histogram.getPercentile(95));
+        assertWithin(99_000_000, histogram.getPercentile(99));
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(100_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testOutlierOnlyAffectsHighPercentiles() {
+        ActivityHistogram histogram = new ActivityHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1_000_000);
+        }
+        histogram.record(1_000_000_000);
+
+        assertWithin(1_000_000, histogram.getPercentile(99));
+        assertEquals(1_000_000_000, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        for (long value : new long[]{0, 1, 7, 8, 9, 1023, 1024, Integer.MAX_VALUE, Long.MAX_VALUE}) {
+            long bucketValue = ActivityHistogram.valueOf(ActivityHistogram.bucketOf(value));
+            assertTrue("bucket of " + value, Math.abs(bucketValue - value) <= value / 8 + 1);
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 8);
+    }
+}
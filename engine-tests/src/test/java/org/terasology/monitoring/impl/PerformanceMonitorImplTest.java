@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.junit.Test;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityStatistics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PerformanceMonitorImplTest {
+
+    private final PerformanceMonitorImpl monitor = new PerformanceMonitorImpl();
+
+    @Test
+    public void testNestedActivityIsNotChargedToOuterActivity() throws InterruptedException {
+        try (Activity ignored = monitor.startActivity("outer")) {
+            try (Activity ignored2 = monitor.startActivity("inner")) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        }
+        monitor.rollCycle();
+
+        Map<String, ActivityStatistics> statistics = monitor.getActivityStatistics();
+        assertEquals(1, statistics.get("outer").getCount());
+        assertEquals(1, statistics.get("inner").getCount());
+        assertTrue(statistics.get("inner").getMeanNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(statistics.get("outer").getMeanNanos() < TimeUnit.MILLISECONDS.toNanos(25));
+    }
+
+    @Test
+    public void testActivitiesOfOtherThreadsAreRecorded() throws InterruptedException {
+        Thread worker = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                try (Activity ignored = monitor.startActivity("worker")) {
+                    Thread.yield();
+                }
+            }
+        });
+        worker.start();
+        worker.join();
+        monitor.rollCycle();
+
+        assertEquals(10, monitor.getActivityStatistics().get("worker").getCount());
+        assertTrue(monitor.getRunningMean().containsKey("worker"));
+    }
+
+    @Test
+    public void testThreadsKeepSeparateNesting() throws InterruptedException {
+        Activity mainActivity = monitor.startActivity("main");
+        Thread worker = new Thread(() -> {
+            monitor.startActivity("worker");
+            monitor.endActivity();
+        });
+        worker.start();
+        worker.join();
+        monitor.rollCycle();
+
+        assertTrue(monitor.getActivityStatistics().containsKey("worker"));
+        assertFalse(monitor.getActivityStatistics().containsKey("main"));
+
+        mainActivity.close();
+        monitor.rollCycle();
+        assertEquals(1, monitor.getActivityStatistics().get("main").getCount());
+    }
+
+    @Test
+    public void testUnbalancedEndIsIgnored() {
+        monitor.endActivity();
+        monitor.rollCycle();
+
+        assertTrue(monitor.getActivityStatistics().isEmpty());
+    }
+
+    @Test
+    public void testAllocationsAreAttributedToActivity() {
+        if (!ThreadAllocationCounter.isSupported()) {
+            return;
+        }
+        long[][] arrays = new long[16][];
+        try (Activity ignored = monitor.startActivity("allocating")) {
+            for (int i = 0; i < arrays.length; i++) {
+                arrays[i] = new long[1024];
+            }
+        }
+        monitor.rollCycle();
+
+        assertEquals(16, arrays.length);
+        assertTrue(monitor.getActivityStatistics().get("allocating").getMeanAllocatedBytes() >= 16 * 1024 * Long.BYTES);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsHttpServerTest {
+
+    @Test
+    public void testServesMetrics() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter("test_requests_total", "Requests");
+        counter.increment(5);
+
+        try (MetricsHttpServer server = new MetricsHttpServer(registry, "localhost", 0)) {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + MetricsHttpServer.PATH).openConnection();
+            try (InputStream in = connection.getInputStream()) {
+                String body = new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+                assertEquals(200, connection.getResponseCode());
+                assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+                assertEquals(registry.toPrometheusText(), body);
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsPost() throws Exception {
+        try (MetricsHttpServer server = new MetricsHttpServer(new MetricsRegistry(), "localhost", 0)) {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + MetricsHttpServer.PATH).openConnection();
+            connection.setRequestMethod("POST");
+            assertEquals(405, connection.getResponseCode());
+            connection.disconnect();
+        }
+    }
+}
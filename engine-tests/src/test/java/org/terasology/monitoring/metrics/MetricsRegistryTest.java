@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void testCounterAndGauge() {
+        Counter counter = registry.counter("test_events_total", "Events");
+        Gauge gauge = registry.gauge("test_size", "Size");
+        counter.increment();
+        counter.increment(2);
+        gauge.set(1.5);
+
+        assertEquals("# HELP test_events_total Events\n"
+                + "# TYPE test_events_total counter\n"
+                + "test_events_total 3\n"
+                + "# HELP test_size Size\n"
+                + "# TYPE test_size gauge\n"
+                + "test_size 1.5\n", registry.toPrometheusText());
+    }
+
+    @Test
+    public void testCollectorWithLabels() {
+        registry.register("test_seconds", null, MetricType.SUMMARY, samples -> {
+            samples.add(0.25, "activity", "a \"quoted\\\" name", "quantile", "0.5");
+            samples.addWithSuffix("_count", 4, "activity", "a");
+        });
+
+        assertEquals("# TYPE test_seconds summary\n"
+                + "test_seconds{activity=\"a \\\"quoted\\\\\\\" name\",quantile=\"0.5\"} 0.25\n"
+                + "test_seconds_count{activity=\"a\"} 4\n", registry.toPrometheusText());
+    }
+
+    @Test
+    public void testFailingCollectorIsLeftOut() {
+        registry.register("test_broken", "Broken", MetricType.GAUGE, samples -> {
+            samples.add(1);
+            throw new IllegalStateException("broken");
+        });
+        registry.gauge("test_working", "Working", () -> 2);
+
+        String text = registry.toPrometheusText();
+        assertFalse(text.contains("test_broken"));
+        assertTrue(text.contains("test_working 2\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateNameIsRejected() {
+        registry.counter("test_total", "Test");
+        registry.gauge("test_total", "Test");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNameIsRejected() {
+        registry.counter("test-total", "Test");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCounterCannotDecrease() {
+        registry.counter("test_total", "Test").increment(-1);
+    }
+
+    @Test
+    public void testSpecialValues() {
+        assertEquals("NaN", MetricSamples.formatValue(Double.NaN));
+        assertEquals("+Inf", MetricSamples.formatValue(Double.POSITIVE_INFINITY));
+        assertEquals("-Inf", MetricSamples.formatValue(Double.NEGATIVE_INFINITY));
+        assertEquals("12345678901", MetricSamples.formatValue(12345678901.0));
+    }
+
+    @Test
+    public void testWriteToFile() throws Exception {
+        registry.gauge("test_size", "Size", () -> 7);
+        Path file = tempFolder.getRoot().toPath().resolve("metrics.prom");
+
+        registry.writeTo(file);
+        registry.remove("test_size");
+        registry.gauge("test_size", "Size", () -> 8);
+        registry.writeTo(file);
+
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        assertTrue(text.contains("test_size 8\n"));
+        assertEquals(1, tempFolder.getRoot().list().length);
+    }
+}
@@ -142,6 +142,29 @@ public void reviveParticleTest() {
         }
     }
 
+    @Test
+    public void reviveParticlesTest() {
+        ParticlePool pool = new ParticlePool(8);
+        fillWithRandom(pool, 3);
+        pool.position[3 * 3] = 5.0f;
+
+        assertEquals(3, pool.reviveParticles(4));
+        assertEquals(7, pool.livingParticles());
+        assertEquals(1, pool.deadParticles());
+        for (int i = 3; i < 7; i++) {
+            assertEquals(1.0f, pool.energy[i], 0);
+            assertEquals(0.0f, pool.position[i * 3], 0);
+            assertEquals(1.0f, pool.scale[i * 3], 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reviveTooManyParticlesTest() {
+        ParticlePool pool = new ParticlePool(4);
+        pool.reviveParticles(3);
+        pool.reviveParticles(2);
+    }
+
     @Test
     public void moveDeceasedTest() {
         // initialize
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.particles.functions;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.particles.ParticleData;
+import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
+import org.terasology.particles.components.affectors.AccelerationAffectorComponent;
+import org.terasology.particles.components.affectors.VelocityAffectorComponent;
+import org.terasology.particles.components.generators.EnergyRangeGeneratorComponent;
+import org.terasology.particles.functions.affectors.AccelerationAffectorFunction;
+import org.terasology.particles.functions.affectors.AffectorFunction;
+import org.terasology.particles.functions.affectors.VelocityAffectorFunction;
+import org.terasology.particles.functions.generators.EnergyRangeGeneratorFunction;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.utilities.random.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the batch methods of particle functions.
+ */
+public class BatchFunctionTest {
+
+    private static final float DELTA = 0.5f;
+
+    @Test
+    public void testDefaultBatchOnlyCopiesMaskedFields() {
+        ParticlePool pool = new ParticlePool(4);
+        pool.reviveParticles(4);
+        AffectorFunction<VelocityAffectorComponent> energyDrain = new AffectorFunction<VelocityAffectorComponent>(
+                VelocityAffectorComponent.class, ParticleDataMask.ENERGY) {
+            @Override
+            public void update(VelocityAffectorComponent component, ParticleData particleData, Random random, float delta) {
+                particleData.energy -= delta;
+                particleData.position.set(100, 100, 100);
+            }
+        };
+
+        energyDrain.updateBatch(new VelocityAffectorComponent(), pool, 1, 3, new FastRandom(), DELTA);
+
+        assertEquals(1.0f, pool.energy[0], 0);
+        assertEquals(0.5f, pool.energy[1], 0);
+        assertEquals(0.5f, pool.energy[2], 0);
+        assertEquals(1.0f, pool.energy[3], 0);
+        for (float coordinate : pool.position) {
+            assertEquals(0.0f, coordinate, 0);
+        }
+    }
+
+    @Test
+    public void testVelocityBatchMatchesSingleUpdates() {
+        ParticlePool pool = createMovingParticles(16);
+        ParticlePool expected = createMovingParticles(16);
+        VelocityAffectorFunction function = new VelocityAffectorFunction();
+        VelocityAffectorComponent component = new VelocityAffectorComponent();
+
+        function.updateBatch(component, pool, 0, 16, new FastRandom(), DELTA);
+        for (int i = 0; i < 16; i++) {
+            expected.loadTemporaryDataFrom(i, ParticleDataMask.ALL.toInt());
+            function.update(component, expected.temporaryParticleData, new FastRandom(), DELTA);
+            expected.storeTemporaryDataAt(i, ParticleDataMask.ALL.toInt());
+        }
+
+        for (int i = 0; i < pool.position.length; i++) {
+            assertEquals(expected.position[i], pool.position[i], 1e-6f);
+        }
+    }
+
+    @Test
+    public void testAccelerationBatchOnlyUpdatesRange() {
+        ParticlePool pool = createMovingParticles(4);
+        AccelerationAffectorComponent component = new AccelerationAffectorComponent(new Vector3f(0, -10, 0));
+
+        new AccelerationAffectorFunction().updateBatch(component, pool, 0, 2, new FastRandom(), DELTA);
+
+        assertEquals(-5.0f, pool.velocity[1], 1e-6f);
+        assertEquals(1 - 5.0f, pool.velocity[4], 1e-6f);
+        assertEquals(2.0f, pool.velocity[7], 1e-6f);
+    }
+
+    @Test
+    public void testEnergyBatchStaysInRange() {
+        ParticlePool pool = new ParticlePool(64);
+        pool.reviveParticles(64);
+
+        new EnergyRangeGeneratorFunction().onEmissionBatch(new EnergyRangeGeneratorComponent(2, 3), pool, 0, 64, new FastRandom(5));
+
+        for (float energy : pool.energy) {
+            assertTrue(energy >= 2 && energy <= 3);
+        }
+    }
+
+    private static ParticlePool createMovingParticles(int count) {
+        ParticlePool pool = new ParticlePool(count);
+        pool.reviveParticles(count);
+        for (int i = 0; i < count * 3; i++) {
+            pool.position[i] = i;
+            pool.velocity[i] = i / 3;
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.particles.updating;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.particles.ParticlePool;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for {@link BlockGridCollision}.
+ */
+public class BlockGridCollisionTest {
+
+    private WorldProvider worldProvider;
+    private BlockGridCollision collision;
+
+    @Before
+    public void setUp() {
+        Block air = new Block();
+        air.setPenetrable(true);
+        Block stone = new Block();
+        stone.setPenetrable(false);
+
+        // A single stone block at (3, 0, 0) in an otherwise empty world
+        worldProvider = mock(WorldProvider.class);
+        when(worldProvider.getBlock(anyInt(), anyInt(), anyInt())).thenAnswer(invocation ->
+                invocation.getArgument(0).equals(3) && invocation.getArgument(1).equals(0)
+                        && invocation.getArgument(2).equals(0) ? stone : air);
+        when(worldProvider.isBlockRelevant(anyInt(), anyInt(), anyInt())).thenReturn(true);
+
+        collision = new BlockGridCollision(worldProvider);
+    }
+
+    @Test
+    public void testSegmentThroughBlock() {
+        assertTrue(collision.intersectsSolidBlock(0, 0, 0, 6, 0.2f, 0));
+        assertTrue(collision.intersectsSolidBlock(6, 0.2f, -0.3f, 0, 0, 0.3f));
+    }
+
+    @Test
+    public void testSegmentEndingInBlock() {
+        assertTrue(collision.intersectsSolidBlock(0, 0, 0, 2.6f, 0, 0));
+    }
+
+    @Test
+    public void testSegmentMissingBlock() {
+        assertFalse(collision.intersectsSolidBlock(0, 0, 0, 2.4f, 0, 0));
+        assertFalse(collision.intersectsSolidBlock(0, 0.6f, 0, 6, 0.6f, 0));
+        assertFalse(collision.intersectsSolidBlock(3, 2, 0, 3, 0.6f, 0));
+    }
+
+    @Test
+    public void testDiagonalSegmentPassingCorner() {
+        assertFalse(collision.intersectsSolidBlock(1.5f, 1.5f, 0, 4.4f, 4.4f, 0));
+        assertTrue(collision.intersectsSolidBlock(2.4f, 1.6f, 0, 3.6f, -0.4f, 0));
+    }
+
+    @Test
+    public void testUnloadedBlocksDoNotCollide() {
+        when(worldProvider.isBlockRelevant(anyInt(), anyInt(), anyInt())).thenReturn(false);
+
+        assertFalse(collision.intersectsSolidBlock(0, 0, 0, 6, 0, 0));
+    }
+
+    @Test
+    public void testCollidingParticlesLoseTheirEnergy() {
+        ParticlePool pool = new ParticlePool(2);
+        pool.reviveParticles(2);
+        // Moved from (2, 0, 0) into the stone block during the last second
+        pool.position[0] = 3;
+        pool.velocity[0] = 1;
+        pool.energy[0] = 1;
+        // Moved from (0, 2, 0) to (0, 3, 0), through air only
+        pool.position[4] = 3;
+        pool.velocity[4] = 1;
+        pool.energy[1] = 1;
+
+        collision.checkCollisions(pool, 1);
+
+        assertEquals(0, pool.energy[0], 0);
+        assertEquals(1, pool.energy[1], 0);
+    }
+}
@@ -21,6 +21,9 @@
 import org.junit.Test;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.particles.ParticleData;
+import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.ParticleEmitterComponent;
 import org.terasology.particles.components.affectors.VelocityAffectorComponent;
 import org.terasology.particles.components.generators.EnergyRangeGeneratorComponent;
@@ -30,12 +33,19 @@
 import org.terasology.particles.functions.generators.GeneratorFunction;
 import org.terasology.physics.Physics;
 import org.terasology.physics.engine.PhysicsEngine;
+import org.terasology.utilities.random.Random;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -112,4 +122,90 @@ public void testEmitterConfiguration() {
             }
         }
     }
+
+    @Test
+    public void testParallelUpdateAppliesAffectorsToAllEmitters() {
+        ParticleUpdater parallelUpdater = new ParticleUpdaterImpl(mock(PhysicsEngine.class), true);
+        List<ParticleEmitterComponent> emitters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ParticleEmitterComponent emitter = createMovingEmitter(1000, i);
+            emitters.add(emitter);
+            parallelUpdater.register(emitter.ownerEntity);
+        }
+
+        parallelUpdater.update(0.5f);
+
+        for (int i = 0; i < emitters.size(); i++) {
+            ParticlePool pool = emitters.get(i).particlePool;
+            assertEquals(1000, pool.livingParticles());
+            for (int p = 0; p < pool.livingParticles(); p++) {
+                assertEquals(i * 0.5f, pool.position[p * 3 + 1], 1e-6f);
+                assertEquals(0.5f, pool.energy[p], 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    public void testFunctionsThatAreNotThreadSafeKeepTheUpdateOnTheCallingThread() {
+        ThreadRecordingAffectorFunction affector = new ThreadRecordingAffectorFunction(false);
+        updateManyEmittersInParallel(affector);
+
+        assertEquals(1, affector.threads.size());
+        assertTrue(affector.threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testThreadSafeFunctionsAreUpdatedOnWorkers() {
+        ThreadRecordingAffectorFunction affector = new ThreadRecordingAffectorFunction(true);
+        updateManyEmittersInParallel(affector);
+
+        assertFalse(affector.threads.contains(Thread.currentThread()));
+    }
+
+    private void updateManyEmittersInParallel(AffectorFunction<VelocityAffectorComponent> affector) {
+        ParticleUpdater parallelUpdater = new ParticleUpdaterImpl(mock(PhysicsEngine.class), true);
+        for (int i = 0; i < 8; i++) {
+            ParticleEmitterComponent emitter = createMovingEmitter(1000, i);
+            emitter.affectorFunctionMap.put(new VelocityAffectorComponent(), affector);
+            parallelUpdater.register(emitter.ownerEntity);
+        }
+
+        parallelUpdater.update(0.5f);
+    }
+
+    private ParticleEmitterComponent createMovingEmitter(int particleCount, float speed) {
+        EntityRef emitterEntity = mock(EntityRef.class);
+        ParticleEmitterComponent emitter = new ParticleEmitterComponent();
+        emitter.ownerEntity = emitterEntity;
+        emitter.enabled = false;
+        emitter.particleCollision = false;
+        emitter.particlePool = new ParticlePool(particleCount);
+        emitter.particlePool.reviveParticles(particleCount);
+        for (int p = 0; p < particleCount; p++) {
+            emitter.particlePool.velocity[p * 3 + 1] = speed;
+        }
+        emitter.affectorFunctionMap.put(new VelocityAffectorComponent(), new VelocityAffectorFunction());
+        when(emitterEntity.getComponent(ParticleEmitterComponent.class)).thenReturn(emitter);
+        return emitter;
+    }
+
+    private static final class ThreadRecordingAffectorFunction extends AffectorFunction<VelocityAffectorComponent> {
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final boolean threadSafe;
+
+        ThreadRecordingAffectorFunction(boolean threadSafe) {
+            super(VelocityAffectorComponent.class, ParticleDataMask.POSITION);
+            this.threadSafe = threadSafe;
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+
+        @Override
+        public void update(VelocityAffectorComponent component, ParticleData particleData, Random random, float delta) {
+            threads.add(Thread.currentThread());
+        }
+    }
 }
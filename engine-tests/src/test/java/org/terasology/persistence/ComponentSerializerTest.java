@@ -28,21 +28,33 @@
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.entitySystem.stubs.GetterSetterComponent;
 import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.ListOfEnumsComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.math.Side;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.network.NetworkSystem;
 import org.terasology.persistence.serializers.ComponentSerializer;
+import org.terasology.persistence.typeHandling.PersistedData;
+import org.terasology.persistence.typeHandling.PersistedDataSerializer;
+import org.terasology.persistence.typeHandling.Serializer;
+import org.terasology.persistence.typeHandling.TypeHandler;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 import org.terasology.persistence.typeHandling.mathTypes.Quat4fTypeHandler;
 import org.terasology.persistence.typeHandling.mathTypes.Vector3fTypeHandler;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedDataSerializer;
 import org.terasology.protobuf.EntityData;
 import org.terasology.recording.RecordAndReplayCurrentStatus;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.util.Optional;
+
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
@@ -51,6 +63,8 @@
 public class ComponentSerializerTest {
     private static ModuleManager moduleManager;
     private ComponentSerializer componentSerializer;
+    private TypeHandlerLibrary serializationLibrary;
+    private ComponentLibrary componentLibrary;
     private Context context;
 
     @BeforeClass
@@ -66,7 +80,7 @@ public void setup() {
         CoreRegistry.setContext(context);
 
         Reflections reflections = new Reflections(getClass().getClassLoader());
-        TypeHandlerLibrary serializationLibrary = new TypeHandlerLibrary(reflections);
+        serializationLibrary = new TypeHandlerLibrary(reflections);
 
         serializationLibrary.addTypeHandler(Vector3f.class, new Vector3fTypeHandler());
         serializationLibrary.addTypeHandler(Quat4f.class, new Quat4fTypeHandler());
@@ -79,7 +93,8 @@ public void setup() {
         entityManager.getComponentLibrary().register(new SimpleUri("test", "gettersetter"), GetterSetterComponent.class);
         entityManager.getComponentLibrary().register(new SimpleUri("test", "string"), StringComponent.class);
         entityManager.getComponentLibrary().register(new SimpleUri("test", "integer"), IntegerComponent.class);
-        ComponentLibrary componentLibrary = entityManager.getComponentLibrary();
+        entityManager.getComponentLibrary().register(new SimpleUri("test", "listOfEnums"), ListOfEnumsComponent.class);
+        componentLibrary = entityManager.getComponentLibrary();
         componentSerializer = new ComponentSerializer(componentLibrary, serializationLibrary);
 
     }
@@ -146,4 +161,62 @@ public void testDeltaComponentTypeIdDeserializesWithoutValue() throws Exception
         componentSerializer.deserializeOnto(original, compData);
         assertEquals(null, original.value);
     }
+
+    @Test
+    public void testCompiledCodecMatchesTypeHandlerOutput() throws Exception {
+        GetterSetterComponent getterSetterComponent = new GetterSetterComponent();
+        getterSetterComponent.setValue(new Vector3f(1, 2, 3));
+        assertCodecMatchesTypeHandlers(getterSetterComponent);
+
+        ListOfEnumsComponent listOfEnumsComponent = new ListOfEnumsComponent();
+        listOfEnumsComponent.elements.add(Side.LEFT);
+        listOfEnumsComponent.elements.add(Side.TOP);
+        assertCodecMatchesTypeHandlers(listOfEnumsComponent);
+
+        assertCodecMatchesTypeHandlers(new StringComponent("Value"));
+    }
+
+    @Test
+    public void testCompiledCodecSkipsEmptyCollections() throws Exception {
+        EntityData.Component componentData = componentSerializer.serialize(new ListOfEnumsComponent());
+
+        assertEquals(0, componentData.getFieldCount());
+    }
+
+    @Test
+    public void testCompiledCodecUsesTypeHandlersAddedLater() throws Exception {
+        componentSerializer.serialize(new StringComponent("Value"));
+        serializationLibrary.addTypeHandler(String.class, new TypeHandler<String>() {
+            @Override
+            protected PersistedData serializeNonNull(String value, PersistedDataSerializer serializer) {
+                return serializer.serialize(value.toUpperCase());
+            }
+
+            @Override
+            public Optional<String> deserialize(PersistedData data) {
+                return Optional.ofNullable(data.getAsString());
+            }
+        });
+
+        EntityData.Component componentData = componentSerializer.serialize(new StringComponent("Value"));
+
+        assertEquals("VALUE", componentData.getField(0).getValue().getString(0));
+    }
+
+    private void assertCodecMatchesTypeHandlers(Component component) {
+        ComponentMetadata<?> metadata = componentLibrary.getMetadata(component.getClass());
+        Serializer serializer = serializationLibrary.getSerializerFor(metadata);
+        EntityData.Component componentData = componentSerializer.serialize(component);
+
+        int fieldIndex = 0;
+        for (ReplicatedFieldMetadata<?, ?> field : metadata.getFields()) {
+            PersistedData expected = serializer.serialize(field, component, new ProtobufPersistedDataSerializer());
+            if (!expected.isNull()) {
+                assertEquals(field.getName(), componentData.getField(fieldIndex).getName());
+                assertEquals(((ProtobufPersistedData) expected).getValue(), componentData.getField(fieldIndex).getValue());
+                fieldIndex++;
+            }
+        }
+        assertEquals(fieldIndex, componentData.getFieldCount());
+    }
 }
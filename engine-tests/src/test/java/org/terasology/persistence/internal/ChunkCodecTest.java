@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ChunkCodecTest {
+
+    private final EntityData.ChunkStore store = createChunkStore();
+
+    private static EntityData.ChunkStore createChunkStore() {
+        FastRandom random = new FastRandom(42);
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int y = 0; y < blocks.getSizeY() / 2; y++) {
+            for (int z = 0; z < blocks.getSizeZ(); z++) {
+                for (int x = 0; x < blocks.getSizeX(); x++) {
+                    blocks.set(x, y, z, 1 + random.nextInt(4));
+                }
+            }
+        }
+        return ChunkSerializer.encode(new Vector3i(1, -2, 3), blocks, new TeraArray[0]).build();
+    }
+
+    @Test
+    public void testGzipRoundTrip() throws IOException {
+        ChunkCodec codec = ChunkCodecs.GZIP;
+        assertEquals(store, codec.decompress(codec.compress(store)));
+    }
+
+    @Test
+    public void testFastDeflateRoundTrip() throws IOException {
+        ChunkCodec codec = ChunkCodecs.FAST_DEFLATE;
+        assertEquals(store, codec.decompress(codec.compress(store)));
+        // the pooled buffers must not leak data into the next chunk
+        EntityData.ChunkStore empty = EntityData.ChunkStore.newBuilder().setX(0).setY(0).setZ(0).build();
+        assertEquals(empty, codec.decompress(codec.compress(empty)));
+        assertEquals(store, codec.decompress(codec.compress(store)));
+    }
+
+    @Test
+    public void testDecompressToStream() throws IOException {
+        for (ChunkCodec codec : new ChunkCodec[]{ChunkCodecs.GZIP, ChunkCodecs.FAST_DEFLATE}) {
+            assertEquals(store, EntityData.ChunkStore.parseFrom(codec.decompressToStream(codec.compress(store))));
+        }
+    }
+
+    @Test
+    public void testGzipStaysCompatibleWithOldSaves() throws IOException {
+        byte[] compressed = ChunkCodecs.GZIP.compress(store);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(store, EntityData.ChunkStore.parseFrom(in));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFastDeflateRejectsTruncatedData() throws IOException {
+        byte[] compressed = ChunkCodecs.FAST_DEFLATE.compress(store);
+        ChunkCodecs.FAST_DEFLATE.decompress(Arrays.copyOf(compressed, compressed.length / 2));
+    }
+
+    @Test(expected = IOException.class)
+    public void testFastDeflateRejectsGzipData() throws IOException {
+        ChunkCodecs.FAST_DEFLATE.decompress(ChunkCodecs.GZIP.compress(store));
+    }
+
+    @Test
+    public void testLookupById() {
+        assertSame(ChunkCodecs.GZIP, ChunkCodecs.forId(null));
+        assertSame(ChunkCodecs.GZIP, ChunkCodecs.forId(ChunkCodecs.GZIP.getId()));
+        assertSame(ChunkCodecs.FAST_DEFLATE, ChunkCodecs.forId(ChunkCodecs.FAST_DEFLATE.getId()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLookupOfUnknownCodecFails() {
+        ChunkCodecs.forId("unknown");
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LazyChunkStoreTest {
+
+    @Test
+    public void testReadsPositionAndBlockData() throws IOException {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        blocks.set(0, 0, 0, 7);
+        blocks.set(5, 10, 15, 42);
+        EntityData.ChunkStore encoded = ChunkSerializer.encode(new Vector3i(-3, 1, 2), blocks, new TeraArray[0])
+                .setStore(EntityData.EntityStore.newBuilder().addComponentClass("engine:location"))
+                .build();
+
+        LazyChunkStore store = LazyChunkStore.read(CodedInputStream.newInstance(encoded.toByteArray()), null, null, null);
+
+        assertEquals(new Vector3i(-3, 1, 2), store.getChunkPosition());
+        TeraArray decoded = store.getBlockData();
+        assertEquals(7, decoded.get(0, 0, 0));
+        assertEquals(42, decoded.get(5, 10, 15));
+        assertEquals(0, decoded.get(1, 0, 0));
+    }
+
+    @Test(expected = InvalidProtocolBufferException.class)
+    public void testMissingBlockDataIsRejected() throws IOException {
+        EntityData.ChunkStore encoded = EntityData.ChunkStore.newBuilder().setX(0).setY(0).setZ(0).build();
+        LazyChunkStore.read(CodedInputStream.newInstance(encoded.toByteArray()), null, null, null);
+    }
+
+    @Test
+    public void testCorruptedBlockDataIsTreatedAsMissing() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.writeSInt32(EntityData.ChunkStore.X_FIELD_NUMBER, 0);
+        out.writeSInt32(EntityData.ChunkStore.Y_FIELD_NUMBER, 0);
+        out.writeSInt32(EntityData.ChunkStore.Z_FIELD_NUMBER, 0);
+        // a length delimited field that claims more bytes than follow
+        out.writeBytes(EntityData.ChunkStore.BLOCK_DATA_FIELD_NUMBER, ByteString.copyFrom(new byte[]{0x0A, 0x7F}));
+        out.flush();
+
+        LazyChunkStore store = LazyChunkStore.read(CodedInputStream.newInstance(bytes.toByteArray()), null, null, null);
+
+        assertNull(store.getBlockData());
+        assertNull(store.getChunk());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class MappedChunkZipTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadsStoredAndDeflatedEntries() throws IOException {
+        Path path = writeZip();
+
+        MappedChunkZip zip = MappedChunkZip.open(path);
+
+        assertArrayEquals(bytes("deflated chunk"), zip.read("deflated.chunk"));
+        assertArrayEquals(bytes("stored chunk"), zip.read("stored.chunk"));
+        assertNull(zip.read("missing.chunk"));
+        zip.close();
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public void testReadAfterCloseFails() throws IOException {
+        MappedChunkZip zip = MappedChunkZip.open(writeZip());
+        zip.close();
+
+        zip.read("deflated.chunk");
+    }
+
+    @Test
+    public void testClosedZipCanBeDeletedAndCloseTwice() throws IOException {
+        Path path = writeZip();
+        MappedChunkZip zip = MappedChunkZip.open(path);
+        zip.read("deflated.chunk");
+
+        zip.close();
+        zip.close();
+
+        Files.delete(path);
+    }
+
+    private Path writeZip() throws IOException {
+        Path path = tempFolder.newFile().toPath();
+        try (OutputStream out = Files.newOutputStream(path); ZipOutputStream zipOut = new ZipOutputStream(out)) {
+            zipOut.putNextEntry(new ZipEntry("deflated.chunk"));
+            zipOut.write(bytes("deflated chunk"));
+            zipOut.closeEntry();
+
+            byte[] stored = bytes("stored chunk");
+            ZipEntry storedEntry = new ZipEntry("stored.chunk");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            storedEntry.setCompressedSize(stored.length);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            storedEntry.setCrc(crc.getValue());
+            zipOut.putNextEntry(storedEntry);
+            zipOut.write(stored);
+            zipOut.closeEntry();
+        }
+        return path;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SavePipelineTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ThreadPoolExecutor executor = SavePipeline.createExecutor(2);
+
+    @After
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testChunksRoundTripThroughPipeline() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+        ChunkCodec codec = ChunkCodecs.FAST_DEFLATE;
+        try (SavePipeline pipeline = new SavePipeline(executor)) {
+            for (int i = 0; i < 32; i++) {
+                EntityData.ChunkStore store = chunkStore(i);
+                Path file = directory.resolve(i + ".chunk");
+                pipeline.submit(() -> {
+                    byte[] compressed = codec.compress(store);
+                    Files.write(file, compressed);
+                    pipeline.recordChunkWritten(compressed.length);
+                });
+            }
+            pipeline.awaitCompletion();
+
+            assertEquals(32, pipeline.getChunkCount());
+            long bytes = 0;
+            for (int i = 0; i < 32; i++) {
+                byte[] compressed = Files.readAllBytes(directory.resolve(i + ".chunk"));
+                assertEquals(chunkStore(i), codec.decompress(compressed));
+                bytes += compressed.length;
+            }
+            assertEquals(bytes, pipeline.getBytesWritten());
+        }
+        // the executor is shared between saves and must survive the pipeline
+        assertFalse(executor.isShutdown());
+    }
+
+    @Test
+    public void testFailedStageIsReportedAndRunningStagesFinish() throws InterruptedException {
+        CountDownLatch slowStageStarted = new CountDownLatch(1);
+        AtomicBoolean slowStageInterrupted = new AtomicBoolean();
+        AtomicInteger finishedStages = new AtomicInteger();
+        SavePipeline pipeline = new SavePipeline(executor);
+        pipeline.submit(() -> {
+            slowStageStarted.countDown();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                slowStageInterrupted.set(true);
+            }
+            finishedStages.incrementAndGet();
+        });
+        assertTrue(slowStageStarted.await(10, TimeUnit.SECONDS));
+        pipeline.submit(() -> {
+            throw new IOException("Disk full");
+        });
+
+        try {
+            pipeline.awaitCompletion();
+            fail("Expected the failure of the stage to be reported");
+        } catch (IOException e) {
+            assertEquals("Disk full", e.getMessage());
+        }
+        pipeline.close();
+
+        assertEquals(1, finishedStages.get());
+        assertFalse(slowStageInterrupted.get());
+    }
+
+    @Test
+    public void testStagesAreSkippedAfterClose() throws InterruptedException {
+        CountDownLatch blockerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runStages = new AtomicInteger();
+        ThreadPoolExecutor singleThreadExecutor = SavePipeline.createExecutor(1);
+        SavePipeline pipeline = new SavePipeline(singleThreadExecutor);
+        pipeline.submit(() -> {
+            blockerStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blockerStarted.await(10, TimeUnit.SECONDS));
+        pipeline.submit(runStages::incrementAndGet);
+
+        Thread closer = new Thread(pipeline::close);
+        closer.start();
+        // the pipeline is closed while the second stage is still queued
+        while (closer.getState() != Thread.State.WAITING && closer.isAlive()) {
+            Thread.yield();
+        }
+        release.countDown();
+        closer.join();
+        singleThreadExecutor.shutdown();
+
+        assertEquals(0, runStages.get());
+    }
+
+    private static EntityData.ChunkStore chunkStore(int index) {
+        return EntityData.ChunkStore.newBuilder().setX(index).setY(-index).setZ(index * 2).build();
+    }
+}
@@ -310,6 +310,60 @@ public void testChunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void testChunkSavedWithDefaultCodecIsReadableByReadOnlyStorage() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
+        chunk.setBlock(0, 0, 0, testBlock);
+        chunk.markReady();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Arrays.asList(chunk));
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        StorageManager readOnlySM = new ReadOnlyStorageManager(savePath, moduleEnvironment, entityManager, blockManager,
+                extraDataManager, false);
+        ChunkStore restored = readOnlySM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+    }
+
+    @Test
+    public void testManyChunksSurviveStorageSaveAndRestore() throws Exception {
+        List<Chunk> chunks = Lists.newArrayList();
+        for (int x = -24; x < 24; x += 3) {
+            for (int z = -24; z < 24; z += 8) {
+                Chunk chunk = new ChunkImpl(new Vector3i(x, 0, z), blockManager, extraDataManager);
+                chunk.setBlock(x & 15, 0, z & 15, testBlock);
+                chunk.markReady();
+                chunks.add(chunk);
+            }
+        }
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(chunks);
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        esm.setStoreChunksInZips(true);
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EntitySystemSetupUtil.addReflectionBasedLibraries(context);
+        EntitySystemSetupUtil.addEntityManagementRelatedClasses(context);
+        EngineEntityManager newEntityManager = context.get(EngineEntityManager.class);
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleEnvironment, newEntityManager, blockManager,
+                extraDataManager, true, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+        newSM.loadGlobalStore();
+
+        for (Chunk chunk : chunks) {
+            Vector3i pos = chunk.getPosition();
+            ChunkStore restored = newSM.loadChunkStore(pos);
+            assertNotNull(restored);
+            assertEquals(pos, restored.getChunkPosition());
+            assertEquals(testBlock, restored.getChunk().getBlock(pos.x & 15, 0, pos.z & 15));
+        }
+    }
+
     @Test
     public void testEntitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS, blockManager, extraDataManager);
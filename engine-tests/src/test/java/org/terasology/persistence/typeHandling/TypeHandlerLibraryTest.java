@@ -15,6 +15,7 @@
  */
 package org.terasology.persistence.typeHandling;
 
+import com.google.common.collect.Lists;
 import org.junit.Test;
 import org.reflections.Reflections;
 import org.terasology.persistence.typeHandling.coreTypes.CollectionTypeHandler;
@@ -30,8 +31,15 @@
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class TypeHandlerLibraryTest {
@@ -97,4 +105,59 @@ public void testGetBaseTypeHandler() {
 
         assertTrue(handler instanceof RuntimeDelegatingTypeHandler);
     }
+
+    @Test
+    public void testConcurrentLookupsResolveSameHandler() throws Exception {
+        List<TypeInfo<?>> types = Lists.newArrayList(
+                TypeInfo.of(Integer.class),
+                TypeInfo.of(String.class),
+                TypeInfo.of(AnEnum.class),
+                TypeInfo.of(AMappedContainer.class),
+                new TypeInfo<List<Integer>>() {},
+                new TypeInfo<Set<String>>() {},
+                new TypeInfo<Map<String, Integer>>() {});
+
+        int threadCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CyclicBarrier barrier = new CyclicBarrier(threadCount);
+        try {
+            List<Future<List<TypeHandler<?>>>> results = Lists.newArrayList();
+            for (int i = 0; i < threadCount; ++i) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    List<TypeHandler<?>> handlers = Lists.newArrayList();
+                    for (int repetition = 0; repetition < 1000; ++repetition) {
+                        for (TypeInfo<?> type : types) {
+                            TypeHandler<?> handler = typeHandlerLibrary.getTypeHandler(type).get();
+                            if (repetition == 0) {
+                                handlers.add(handler);
+                            }
+                        }
+                    }
+                    return handlers;
+                }));
+            }
+
+            List<TypeHandler<?>> expected = results.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<List<TypeHandler<?>>> result : results) {
+                List<TypeHandler<?>> handlers = result.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < types.size(); ++i) {
+                    assertSame(expected.get(i), handlers.get(i));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAddingFactoryOverridesCachedHandler() {
+        TypeHandler<AnEnum> original = typeHandlerLibrary.getTypeHandler(AnEnum.class).get();
+        TypeHandler<AnEnum> replacement = new EnumTypeHandler<>(AnEnum.class);
+
+        typeHandlerLibrary.addTypeHandler(AnEnum.class, replacement);
+
+        assertNotSame(original, typeHandlerLibrary.getTypeHandler(AnEnum.class).get());
+        assertSame(replacement, typeHandlerLibrary.getTypeHandler(AnEnum.class).get());
+    }
 }
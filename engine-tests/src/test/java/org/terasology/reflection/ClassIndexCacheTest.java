@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.reflection;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reflections.Reflections;
+import org.reflections.Store;
+import org.reflections.util.ConfigurationBuilder;
+import org.terasology.module.Module;
+import org.terasology.naming.Name;
+import org.terasology.naming.Version;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClassIndexCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+    private Path jar;
+    private ClassIndexCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        directory = temporaryFolder.newFolder().toPath();
+        jar = temporaryFolder.newFile("library.jar").toPath();
+        Files.write(jar, new byte[]{1, 2, 3});
+        cache = new ClassIndexCache(directory);
+    }
+
+    @Test
+    public void testSavedIndexIsLoaded() {
+        Store store = createStore();
+        store.getOrCreate("SubTypesScanner").put("java.lang.Object", "org.example.A");
+        store.getOrCreate("SubTypesScanner").put("java.lang.Object", "org.example.B");
+        store.getOrCreate("TypeAnnotationsScanner").put("org.example.Marker", "org.example.A");
+        cache.save("key", store);
+
+        Store loaded = createStore();
+
+        assertTrue(cache.load("key", loaded));
+        assertEquals(store.get("SubTypesScanner"), loaded.get("SubTypesScanner"));
+        assertEquals(store.get("TypeAnnotationsScanner"), loaded.get("TypeAnnotationsScanner"));
+    }
+
+    @Test
+    public void testMissingIndexIsNotLoaded() {
+        assertFalse(cache.load("missing", createStore()));
+    }
+
+    @Test
+    public void testKeyIsStableForUnchangedFiles() throws IOException {
+        Optional<String> key = cache.computeKey(Collections.singletonList(jar.toUri().toURL()), Collections.emptyList());
+
+        assertTrue(key.isPresent());
+        assertEquals(key, new ClassIndexCache(directory).computeKey(Collections.singletonList(jar.toUri().toURL()), Collections.emptyList()));
+    }
+
+    @Test
+    public void testKeyChangesWithJarContents() throws IOException {
+        Optional<String> key = cache.computeKey(Collections.singletonList(jar.toUri().toURL()), Collections.emptyList());
+        FileTime lastModified = Files.getLastModifiedTime(jar);
+        Files.write(jar, new byte[]{1, 2, 4});
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(lastModified.toMillis() + 1000));
+
+        assertNotEquals(key, new ClassIndexCache(directory).computeKey(Collections.singletonList(jar.toUri().toURL()), Collections.emptyList()));
+    }
+
+    @Test
+    public void testKeyChangesWithModuleVersion() throws IOException {
+        URL url = jar.toUri().toURL();
+        Optional<String> key = cache.computeKey(Collections.emptyList(), Lists.newArrayList(createModule("1.0.0", url)));
+
+        assertNotEquals(key, cache.computeKey(Collections.emptyList(), Lists.newArrayList(createModule("1.0.1", url))));
+    }
+
+    @Test
+    public void testKeyChangesWithClassDirectoryContents() throws IOException {
+        Path classes = temporaryFolder.newFolder("classes").toPath();
+        Files.write(classes.resolve("A.class"), new byte[]{1});
+        URL url = classes.toUri().toURL();
+        Optional<String> key = cache.computeKey(Collections.singletonList(url), Collections.emptyList());
+        Files.write(classes.resolve("B.class"), new byte[]{2});
+
+        assertNotEquals(key, cache.computeKey(Collections.singletonList(url), Collections.emptyList()));
+    }
+
+    private static Store createStore() {
+        return new Reflections(new ConfigurationBuilder().setScanners()).getStore();
+    }
+
+    private static Module createModule(String version, URL classpath) {
+        Module module = mock(Module.class);
+        when(module.getId()).thenReturn(new Name("test"));
+        when(module.getVersion()).thenReturn(new Version(version));
+        when(module.getClasspaths()).thenReturn(ImmutableList.of(classpath));
+        return module;
+    }
+}
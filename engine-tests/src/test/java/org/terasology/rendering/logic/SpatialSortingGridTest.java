@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.logic;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpatialSortingGridTest {
+
+    private static final Vector3f ORIGIN = new Vector3f(0, 0, 0);
+
+    private SpatialSortingGrid grid;
+    private EntityRef near;
+    private EntityRef middle;
+    private EntityRef far;
+
+    @Before
+    public void setup() {
+        grid = new SpatialSortingGrid();
+        near = createEntity(1);
+        middle = createEntity(2);
+        far = createEntity(3);
+    }
+
+    @Test
+    public void testIteratesFrontToBackAndBackToFront() {
+        grid.add(far, new Vector3f(100, 0, 0));
+        grid.add(near, new Vector3f(1, 2, 3));
+        grid.add(middle, new Vector3f(0, -40, 20));
+
+        assertEquals(Lists.newArrayList(near, middle, far), grid.getFrontToBack(ORIGIN));
+        assertEquals(Lists.newArrayList(far, middle, near), grid.getBackToFront(ORIGIN));
+        assertEquals(Lists.newArrayList(far, near), grid.getNearest(new Vector3f(100, 0, 0), 2));
+    }
+
+    @Test
+    public void testUpdateMovesEntities() {
+        grid.add(near, new Vector3f(1, 0, 0));
+        grid.add(far, new Vector3f(50, 0, 0));
+
+        assertTrue(grid.update(far, new Vector3f(-2, 0, 0)));
+        assertTrue(grid.update(near, new Vector3f(-80, 0, 0)));
+
+        assertEquals(Lists.newArrayList(far, near), grid.getFrontToBack(ORIGIN));
+        assertFalse(grid.update(middle, ORIGIN));
+        assertFalse(grid.contains(middle));
+    }
+
+    @Test
+    public void testRemove() {
+        grid.add(near, new Vector3f(1, 0, 0));
+        grid.add(far, new Vector3f(50, 0, 0));
+
+        assertTrue(grid.remove(near));
+        assertFalse(grid.remove(near));
+
+        assertEquals(1, grid.size());
+        assertEquals(Lists.newArrayList(far), grid.getFrontToBack(ORIGIN));
+    }
+
+    @Test
+    public void testAddingTwiceMovesTheEntity() {
+        grid.add(near, new Vector3f(1, 0, 0));
+        grid.add(near, new Vector3f(60, 0, 0));
+        grid.add(far, new Vector3f(30, 0, 0));
+
+        assertEquals(2, grid.size());
+        assertEquals(Lists.newArrayList(far, near), grid.getFrontToBack(ORIGIN));
+    }
+
+    private EntityRef createEntity(long id) {
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getId()).thenReturn(id);
+        when(entity.exists()).thenReturn(true);
+        return entity;
+    }
+}
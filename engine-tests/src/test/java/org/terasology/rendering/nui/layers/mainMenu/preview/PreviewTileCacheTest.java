@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.nui.layers.mainMenu.preview;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.terasology.entitySystem.Component;
+import org.terasology.math.geom.ImmutableVector2i;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PreviewTileCacheTest {
+
+    private static final int TILE_SIZE = 64;
+
+    private final Map<String, Component> configuration = ImmutableMap.of("terrain", new TestConfig());
+
+    @Test
+    public void testDropsLeastRecentlyUsedTiles() {
+        PreviewTileCache cache = new PreviewTileCache(3 * TILE_SIZE * TILE_SIZE);
+        PreviewTileCache.Key first = key(0, 0, 1);
+        PreviewTileCache.Key second = key(1, 0, 1);
+        PreviewTileCache.Key third = key(2, 0, 1);
+        cache.put(first, createTile(TILE_SIZE));
+        cache.put(second, createTile(TILE_SIZE));
+        cache.put(third, createTile(TILE_SIZE));
+
+        cache.get(first);
+        cache.put(key(3, 0, 1), createTile(TILE_SIZE));
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+        assertEquals(3, cache.size());
+        assertEquals(3 * TILE_SIZE * TILE_SIZE, cache.getPixelCount());
+    }
+
+    @Test
+    public void testZoomedOutTilesAreMadeFromFinerTiles() {
+        PreviewTileCache cache = new PreviewTileCache(Long.MAX_VALUE);
+        cache.put(key(0, 0, 2), createTile(TILE_SIZE / 2));
+
+        BufferedImage tile = cache.getFromFinerTile(key(0, 0, 8), TILE_SIZE);
+
+        assertEquals(TILE_SIZE / 8, tile.getWidth());
+        assertEquals(TILE_SIZE / 8, tile.getHeight());
+        assertSame(tile, cache.get(key(0, 0, 8)));
+        assertNull(cache.getFromFinerTile(key(1, 0, 8), TILE_SIZE));
+        assertNull(cache.getFromFinerTile(key(0, 0, 1), TILE_SIZE));
+    }
+
+    @Test
+    public void testKeysDifferByGenerationInput() {
+        PreviewTileCache.Key key = key(0, 0, 1);
+
+        assertEquals(key, key(0, 0, 1));
+        assertNotEquals(key, key(0, 0, 2));
+        assertNotEquals(key, new PreviewTileCache.Key("other", configuration, 0, new ImmutableVector2i(0, 0), 1));
+        assertNotEquals(key, new PreviewTileCache.Key("seed", configuration, 1, new ImmutableVector2i(0, 0), 1));
+        assertNotEquals(key, new PreviewTileCache.Key("seed", ImmutableMap.of("terrain", new TestConfig()), 0,
+                new ImmutableVector2i(0, 0), 1));
+    }
+
+    @Test
+    public void testTileResolution() {
+        assertEquals(64, PreviewTileCache.getTileResolution(TILE_SIZE, 1));
+        assertEquals(22, PreviewTileCache.getTileResolution(TILE_SIZE, 3));
+        assertEquals(1, PreviewTileCache.getTileResolution(TILE_SIZE, 128));
+    }
+
+    private PreviewTileCache.Key key(int x, int y, int scale) {
+        return new PreviewTileCache.Key("seed", configuration, 0, new ImmutableVector2i(x, y), scale);
+    }
+
+    private static BufferedImage createTile(int resolution) {
+        return new BufferedImage(resolution, resolution, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static class TestConfig implements Component {
+    }
+}
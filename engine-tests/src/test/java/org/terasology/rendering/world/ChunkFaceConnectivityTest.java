@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.junit.Test;
+import org.terasology.math.Side;
+import org.terasology.rendering.primitives.BlockMeshGenerator;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkFaceConnectivityTest {
+
+    private static final int VOLUME = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z;
+
+    @Test
+    public void testEmptyChunkConnectsAllFaces() {
+        assertEquals(ChunkFaceConnectivity.ALL_CONNECTED, ChunkFaceConnectivity.compute(new BitSet(VOLUME)));
+    }
+
+    @Test
+    public void testSolidChunkConnectsNoFaces() {
+        BitSet opaque = new BitSet(VOLUME);
+        opaque.set(0, VOLUME);
+
+        assertEquals(ChunkFaceConnectivity.NONE_CONNECTED, ChunkFaceConnectivity.compute(opaque));
+    }
+
+    @Test
+    public void testFloorSeparatesTopFromBottom() {
+        BitSet opaque = new BitSet(VOLUME);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                opaque.set(ChunkFaceConnectivity.index(x, 10, z));
+            }
+        }
+
+        long connectivity = ChunkFaceConnectivity.compute(opaque);
+
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.TOP, Side.BOTTOM));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.TOP, Side.LEFT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.BOTTOM, Side.FRONT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.RIGHT));
+    }
+
+    @Test
+    public void testTunnelConnectsOnlyItsEnds() {
+        BitSet opaque = new BitSet(VOLUME);
+        opaque.set(0, VOLUME);
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            opaque.clear(ChunkFaceConnectivity.index(x, 20, 5));
+        }
+
+        long connectivity = ChunkFaceConnectivity.compute(opaque);
+
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.RIGHT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.RIGHT, Side.LEFT));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.TOP));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.FRONT, Side.BACK));
+    }
+
+    @Test
+    public void testOnlyFullOpaqueBlocksBlockTheSight() {
+        Block stone = createBlock(false, true);
+        Block glass = createBlock(true, true);
+        Block slab = createBlock(false, false);
+        ChunkView view = mock(ChunkView.class);
+        when(view.getBlock(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int y = invocation.getArgument(1);
+            return y < 10 ? stone : (y < 20 ? glass : (y < 30 ? slab : stone));
+        });
+
+        long connectivity = ChunkFaceConnectivity.compute(view);
+
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.TOP, Side.LEFT));
+        assertFalse(ChunkFaceConnectivity.isConnected(connectivity, Side.BOTTOM, Side.LEFT));
+        assertTrue(ChunkFaceConnectivity.isConnected(connectivity, Side.LEFT, Side.BACK));
+    }
+
+    private Block createBlock(boolean translucent, boolean fullSides) {
+        Block block = mock(Block.class);
+        when(block.getMeshGenerator()).thenReturn(mock(BlockMeshGenerator.class));
+        when(block.isTranslucent()).thenReturn(translucent);
+        when(block.isFullSide(any(Side.class))).thenReturn(fullSides);
+        return block;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkOcclusionCullerTest {
+
+    private static final Region3i REGION = Region3i.createFromMinAndSize(new Vector3i(-2, -1, -2), new Vector3i(5, 3, 5));
+    private static final Vector3i CAMERA = new Vector3i(0, 0, 0);
+
+    private ChunkOcclusionCuller culler;
+    private Map<Vector3i, Long> connectivity;
+    private Predicate<Vector3i> inSight;
+    private ChunkOcclusionCuller.ChunkGraph graph;
+
+    @Before
+    public void setup() {
+        culler = new ChunkOcclusionCuller();
+        connectivity = Maps.newHashMap();
+        inSight = position -> true;
+        graph = new ChunkOcclusionCuller.ChunkGraph() {
+            @Override
+            public long getFaceConnectivity(Vector3i chunkPosition) {
+                return connectivity.getOrDefault(chunkPosition, ChunkFaceConnectivity.ALL_CONNECTED);
+            }
+
+            @Override
+            public boolean isInSight(Vector3i chunkPosition) {
+                return inSight.test(chunkPosition);
+            }
+        };
+    }
+
+    @Test
+    public void testReachesAllChunksThroughEmptyChunks() {
+        culler.update(REGION, CAMERA, graph);
+
+        assertEquals(5 * 3 * 5, culler.getReachedCount());
+        for (Vector3i position : REGION) {
+            assertTrue(culler.isVisible(position));
+        }
+    }
+
+    @Test
+    public void testWallHidesTheChunksBehindIt() {
+        for (int y = -1; y <= 1; y++) {
+            for (int z = -2; z <= 2; z++) {
+                connectivity.put(new Vector3i(1, y, z), ChunkFaceConnectivity.NONE_CONNECTED);
+            }
+        }
+
+        culler.update(REGION, CAMERA, graph);
+
+        assertTrue(culler.isVisible(new Vector3i(1, 0, 0)));
+        assertTrue(culler.isVisible(new Vector3i(1, 1, 2)));
+        assertFalse(culler.isVisible(new Vector3i(2, 0, 0)));
+        assertFalse(culler.isVisible(new Vector3i(2, -1, -2)));
+        assertTrue(culler.isVisible(new Vector3i(-2, 0, 0)));
+    }
+
+    @Test
+    public void testSightPassesThroughConnectedFaces() {
+        for (int y = -1; y <= 1; y++) {
+            for (int z = -2; z <= 2; z++) {
+                connectivity.put(new Vector3i(1, y, z), ChunkFaceConnectivity.NONE_CONNECTED);
+            }
+        }
+        connectivity.put(new Vector3i(1, 0, 0), ChunkFaceConnectivity.connect(ChunkFaceConnectivity.NONE_CONNECTED, Side.LEFT, Side.RIGHT));
+
+        culler.update(REGION, CAMERA, graph);
+
+        assertTrue(culler.isVisible(new Vector3i(2, 0, 0)));
+        assertTrue(culler.isVisible(new Vector3i(2, 1, 1)));
+        assertTrue(culler.isVisible(new Vector3i(2, -1, -2)));
+    }
+
+    @Test
+    public void testNeverWalksBackTowardsTheCamera() {
+        // A chunk that can only be left through the face it was entered by leads nowhere
+        connectivity.put(new Vector3i(1, 0, 0), ChunkFaceConnectivity.connect(ChunkFaceConnectivity.NONE_CONNECTED, Side.LEFT, Side.LEFT));
+        inSight = position -> position.y == 0 && position.z == 0;
+
+        culler.update(REGION, CAMERA, graph);
+
+        assertTrue(culler.isVisible(new Vector3i(1, 0, 0)));
+        assertFalse(culler.isVisible(new Vector3i(2, 0, 0)));
+        assertEquals(4, culler.getReachedCount());
+    }
+
+    @Test
+    public void testOnlyWalksChunksInSight() {
+        inSight = position -> position.x >= 0;
+
+        culler.update(REGION, CAMERA, graph);
+
+        assertTrue(culler.isVisible(new Vector3i(2, 1, -2)));
+        assertFalse(culler.isVisible(new Vector3i(-1, 0, 0)));
+    }
+
+    @Test
+    public void testEverythingIsVisibleIfTheCameraIsOutsideTheRegion() {
+        connectivity.put(new Vector3i(1, 0, 0), ChunkFaceConnectivity.NONE_CONNECTED);
+
+        culler.update(REGION, new Vector3i(10, 0, 0), graph);
+
+        assertTrue(culler.isVisible(new Vector3i(2, 0, 0)));
+        assertTrue(culler.isVisible(new Vector3i(-2, 0, 0)));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkProximityRingsTest {
+
+    private ChunkProximityRings rings;
+
+    @Before
+    public void setup() {
+        rings = new ChunkProximityRings();
+    }
+
+    @Test
+    public void testIteratesFrontToBack() {
+        RenderableChunk far = createChunk(5, 0, 0);
+        RenderableChunk near = createChunk(0, 0, 1);
+        RenderableChunk center = createChunk(0, 0, 0);
+        RenderableChunk middle = createChunk(-2, 0, 2);
+        RenderableChunk above = createChunk(0, 1, 0);
+        for (RenderableChunk chunk : new RenderableChunk[]{far, near, center, middle, above}) {
+            assertTrue(rings.add(chunk));
+        }
+
+        assertEquals(Lists.newArrayList(center, near, above, middle, far), Lists.newArrayList(rings));
+    }
+
+    @Test
+    public void testSetCenterReordersChunks() {
+        RenderableChunk first = createChunk(0, 0, 0);
+        RenderableChunk second = createChunk(4, 0, 0);
+        RenderableChunk third = createChunk(8, 0, 0);
+        rings.add(first);
+        rings.add(second);
+        rings.add(third);
+
+        rings.setCenter(new Vector3i(8, 0, 0));
+        assertEquals(Lists.newArrayList(third, second, first), Lists.newArrayList(rings));
+
+        RenderableChunk added = createChunk(7, 0, 0);
+        rings.add(added);
+        assertEquals(Lists.newArrayList(third, added, second, first), Lists.newArrayList(rings));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        RenderableChunk chunk = createChunk(1, 2, 3);
+        assertTrue(rings.add(chunk));
+        assertFalse(rings.add(createChunk(1, 2, 3)));
+        assertTrue(rings.contains(chunk));
+        assertEquals(1, rings.size());
+
+        assertSame(chunk, rings.remove(new Vector3i(1, 2, 3)));
+        assertNull(rings.remove(new Vector3i(1, 2, 3)));
+        assertFalse(rings.contains(chunk));
+        assertEquals(0, rings.size());
+        List<RenderableChunk> remaining = Lists.newArrayList(rings);
+        assertTrue(remaining.isEmpty());
+    }
+
+    private static RenderableChunk createChunk(int x, int y, int z) {
+        RenderableChunk chunk = mock(RenderableChunk.class);
+        when(chunk.getPosition()).thenReturn(new Vector3i(x, y, z));
+        return chunk;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.assets.management.AssetManager;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.BlockFamilyDefinition;
+import org.terasology.world.block.loader.BlockFamilyDefinitionData;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.tiles.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+import org.terasology.world.internal.WorldProviderCoreImpl;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WorldProviderCoreImplTest extends TerasologyTestingEnvironment {
+
+    private final Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+    private WorldProviderCoreImpl worldProvider;
+    private Block air;
+    private Block unloaded;
+    private Block solid;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), assetManager);
+        CoreRegistry.put(BlockManager.class, blockManager);
+
+        BlockFamilyDefinitionData solidData = new BlockFamilyDefinitionData();
+        solidData.getBaseSection().setDisplayName("Stone");
+        solidData.getBaseSection().setShape(assetManager.getAsset("engine:cube", BlockShape.class).get());
+        solidData.getBaseSection().setTranslucent(false);
+        solidData.setBlockFamily(SymmetricFamily.class);
+        assetManager.loadAsset(new ResourceUrn("engine:stone"), solidData, BlockFamilyDefinition.class);
+        solid = blockManager.getBlock(new BlockUri(new ResourceUrn("engine:stone")));
+        air = blockManager.getBlock(BlockManager.AIR_ID);
+        unloaded = blockManager.getBlock(BlockManager.UNLOADED_ID);
+
+        ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+        for (Vector3i pos : new Vector3i[]{new Vector3i(0, 0, 0), new Vector3i(1, 0, 0), new Vector3i(-1, 0, 0)}) {
+            ChunkImpl chunk = new ChunkImpl(pos, blockManager, extraDataManager);
+            chunk.markReady();
+            chunks.put(pos, chunk);
+        }
+
+        GeneratingChunkProvider chunkProvider = mock(GeneratingChunkProvider.class);
+        when(chunkProvider.getChunk(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            int x = invocation.getArgument(0);
+            int y = invocation.getArgument(1);
+            int z = invocation.getArgument(2);
+            return chunks.get(new Vector3i(x, y, z));
+        });
+        when(chunkProvider.getChunk(any(Vector3i.class))).thenAnswer(invocation -> chunks.get(invocation.<Vector3i>getArgument(0)));
+
+        ContextImpl context = new ContextImpl();
+        context.put(EntityManager.class, mock(EntityManager.class));
+        worldProvider = new WorldProviderCoreImpl("test", "test", "seed", 0, new SimpleUri("engine:test"), chunkProvider,
+                unloaded, context);
+    }
+
+    @Test
+    public void testGetBlockAcrossChunks() {
+        chunks.get(new Vector3i(0, 0, 0)).setBlock(ChunkConstants.SIZE_X - 1, 2, 3, solid);
+        chunks.get(new Vector3i(1, 0, 0)).setBlock(0, 2, 3, solid);
+
+        assertEquals(solid, worldProvider.getBlock(ChunkConstants.SIZE_X - 1, 2, 3));
+        assertEquals(solid, worldProvider.getBlock(ChunkConstants.SIZE_X, 2, 3));
+        assertEquals(air, worldProvider.getBlock(ChunkConstants.SIZE_X - 2, 2, 3));
+        assertEquals(unloaded, worldProvider.getBlock(0, ChunkConstants.SIZE_Y, 0));
+    }
+
+    @Test
+    public void testGetBlockAfterChunkUnloaded() {
+        chunks.get(new Vector3i(0, 0, 0)).setBlock(1, 1, 1, solid);
+        assertEquals(solid, worldProvider.getBlock(1, 1, 1));
+
+        chunks.remove(new Vector3i(0, 0, 0)).dispose();
+        assertEquals(unloaded, worldProvider.getBlock(1, 1, 1));
+    }
+
+    @Test
+    public void testGetBlocksLayout() {
+        Region3i region = Region3i.createFromMinMax(new Vector3i(-2, ChunkConstants.SIZE_Y - 2, 30),
+                new Vector3i(ChunkConstants.SIZE_X + 1, ChunkConstants.SIZE_Y + 1, 33));
+        for (Vector3i pos : region) {
+            if (worldProvider.getBlock(pos.x, pos.y, pos.z) != unloaded && (pos.x + pos.y + pos.z) % 3 == 0) {
+                chunks.get(new Vector3i(Math.floorDiv(pos.x, ChunkConstants.SIZE_X), 0, Math.floorDiv(pos.z, ChunkConstants.SIZE_Z)))
+                        .setBlock(Math.floorMod(pos.x, ChunkConstants.SIZE_X), pos.y, Math.floorMod(pos.z, ChunkConstants.SIZE_Z), solid);
+            }
+        }
+
+        short[] ids = new short[region.sizeX() * region.sizeY() * region.sizeZ()];
+        worldProvider.getBlocks(region, ids);
+
+        for (Vector3i pos : region) {
+            int index = (pos.x - region.minX()) + region.sizeX() * ((pos.z - region.minZ()) + region.sizeZ() * (pos.y - region.minY()));
+            assertEquals(pos.toString(), worldProvider.getBlock(pos.x, pos.y, pos.z).getId(), ids[index]);
+        }
+    }
+
+    @Test
+    public void testSetBlocks() {
+        Region3i region = Region3i.createFromMinMax(new Vector3i(ChunkConstants.SIZE_X - 2, 0, 0), new Vector3i(ChunkConstants.SIZE_X + 1, 1, 1));
+        Block[] blocks = new Block[region.sizeX() * region.sizeY() * region.sizeZ()];
+        blocks[0] = solid;
+        blocks[3] = solid;
+        blocks[blocks.length - 1] = solid;
+
+        assertEquals(3, worldProvider.setBlocks(region, blocks));
+        assertEquals(solid, worldProvider.getBlock(ChunkConstants.SIZE_X - 2, 0, 0));
+        assertEquals(solid, worldProvider.getBlock(ChunkConstants.SIZE_X + 1, 0, 0));
+        assertEquals(solid, worldProvider.getBlock(ChunkConstants.SIZE_X + 1, 1, 1));
+        assertEquals(air, worldProvider.getBlock(ChunkConstants.SIZE_X - 1, 0, 0));
+
+        assertEquals(0, worldProvider.setBlocks(region, blocks));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetBlocksArrayTooSmall() {
+        worldProvider.getBlocks(Region3i.createFromMinAndSize(new Vector3i(), new Vector3i(2, 2, 2)), new short[7]);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block.tiles;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AtlasCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+    private AtlasCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        directory = temporaryFolder.newFolder().toPath();
+        cache = new AtlasCache(directory);
+    }
+
+    @Test
+    public void testSavedAtlasesAreLoaded() {
+        ByteBuffer[][] atlases = {{createBuffer(16, 1), createBuffer(4, 2)}, {createBuffer(16, 3), createBuffer(4, 4)}};
+        cache.save("key", atlases);
+
+        Optional<ByteBuffer[][]> loaded = cache.load("key", 2, 2);
+
+        assertTrue(loaded.isPresent());
+        for (int atlas = 0; atlas < 2; atlas++) {
+            for (int level = 0; level < 2; level++) {
+                assertEquals(atlases[atlas][level], loaded.get()[atlas][level]);
+                assertTrue(loaded.get()[atlas][level].isDirect());
+            }
+        }
+    }
+
+    @Test
+    public void testSavingKeepsBufferPositions() {
+        ByteBuffer buffer = createBuffer(16, 1);
+        buffer.position(8);
+
+        cache.save("key", new ByteBuffer[][]{{buffer}});
+
+        assertEquals(8, buffer.position());
+    }
+
+    @Test
+    public void testUnknownKeyIsNotLoaded() {
+        cache.save("key", new ByteBuffer[][]{{createBuffer(4, 1)}});
+
+        assertFalse(cache.load("otherKey", 1, 1).isPresent());
+    }
+
+    @Test
+    public void testDifferentLayoutIsNotLoaded() {
+        cache.save("key", new ByteBuffer[][]{{createBuffer(4, 1)}});
+
+        assertFalse(cache.load("key", 1, 2).isPresent());
+    }
+
+    @Test
+    public void testOldAtlasesArePruned() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            cache.save("key" + i, new ByteBuffer[][]{{createBuffer(4, i)}});
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() < 10);
+        }
+        assertTrue(cache.load("key9", 1, 1).isPresent());
+    }
+
+    @Test
+    public void testKeyDependsOnAtlasLayout() {
+        String key = AtlasCache.computeKey(256, 16, Collections.singletonList(Collections.<BlockTile>singletonList(null)));
+
+        assertEquals(key, AtlasCache.computeKey(256, 16, Collections.singletonList(Collections.<BlockTile>singletonList(null))));
+        assertNotEquals(key, AtlasCache.computeKey(512, 16, Collections.singletonList(Collections.<BlockTile>singletonList(null))));
+        assertNotEquals(key, AtlasCache.computeKey(256, 32, Collections.singletonList(Collections.<BlockTile>singletonList(null))));
+    }
+
+    private static ByteBuffer createBuffer(int size, int seed) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        for (int i = 0; i < size; i++) {
+            buffer.put((byte) (seed * 31 + i));
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block.tiles;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AtlasMipmapBuilderTest {
+
+    private static final int CLEAR_COLOR = 0xFF8080FF;
+
+    @Test
+    public void testTilesArePlacedInAtlasOrder() {
+        BlockTile red = createTile(2, 0xFFFF0000);
+        BlockTile green = createTile(2, 0xFF00FF00);
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(4, 2);
+
+        ByteBuffer level0 = builder.build(0, Arrays.asList(red, null, green), CLEAR_COLOR, Collections.emptyList());
+
+        assertEquals(4 * 4 * 4, level0.remaining());
+        assertEquals(0xFF0000FF, getRgba(level0, 4, 0, 0));
+        assertEquals(0xFF0000FF, getRgba(level0, 4, 1, 1));
+        assertEquals(0x8080FFFF, getRgba(level0, 4, 2, 0));
+        assertEquals(0x00FF00FF, getRgba(level0, 4, 0, 2));
+        assertEquals(0x8080FFFF, getRgba(level0, 4, 3, 3));
+    }
+
+    @Test
+    public void testMipmapsAverageTiles() {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xFFFF0000);
+        image.setRGB(1, 0, 0xFFFF0000);
+        image.setRGB(0, 1, 0xFF0000FF);
+        image.setRGB(1, 1, 0xFF0000FF);
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(2, 2);
+
+        ByteBuffer level1 = builder.build(1, Collections.singletonList(createTile(image)), CLEAR_COLOR, Collections.emptyList());
+
+        assertEquals(4, level1.remaining());
+        assertEquals(0x800080FF, getRgba(level1, 1, 0, 0));
+    }
+
+    @Test
+    public void testInvisiblePixelsDoNotAffectMipmaps() {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xFFFFFFFF);
+        image.setRGB(1, 0, 0x00000000);
+        image.setRGB(0, 1, 0x00000000);
+        image.setRGB(1, 1, 0x00000000);
+
+        int[] scaled = AtlasMipmapBuilder.scale(image, 1);
+
+        assertEquals(0x40FFFFFF, scaled[0]);
+    }
+
+    @Test
+    public void testLargeOpaqueTileKeepsItsColorDownToOnePixel() {
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(256, 256);
+
+        // 256 * 256 pixels of a blue of 192 at full alpha overflow an int sum
+        ByteBuffer level8 = builder.build(8, Collections.singletonList(createTile(256, 0xFF2040C0)), CLEAR_COLOR,
+                Collections.emptyList());
+
+        assertEquals(4, level8.remaining());
+        assertEquals(0x2040C0FF, getRgba(level8, 1, 0, 0));
+    }
+
+    @Test
+    public void testSmallTilesAreEnlarged() {
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(4, 4);
+
+        ByteBuffer level0 = builder.build(0, Collections.singletonList(createTile(1, 0xFF123456)), CLEAR_COLOR, Collections.emptyList());
+
+        for (int y = 0; y < 4; y++) {
+            for (int x = 0; x < 4; x++) {
+                assertEquals(0x123456FF, getRgba(level0, 4, x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testTranslucentTilesAreDrawnOverClearColor() {
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(1, 1);
+
+        ByteBuffer level0 = builder.build(0, Collections.singletonList(createTile(1, 0x80FFFFFF)), 0xFF000000, Collections.emptyList());
+
+        assertEquals(0x808080FF, getRgba(level0, 1, 0, 0));
+    }
+
+    @Test
+    public void testAlphaMaskUsesBlueChannel() {
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(2, 1);
+
+        ByteBuffer level0 = builder.build(0, Arrays.asList(createTile(1, 0xFF102030), createTile(1, 0xFF405060)), CLEAR_COLOR,
+                Arrays.asList(createTile(1, 0xFF000077), null));
+
+        assertEquals(0x10203077, getRgba(level0, 2, 0, 0));
+        assertEquals(0x40506000, getRgba(level0, 2, 1, 0));
+    }
+
+    private static int getRgba(ByteBuffer buffer, int size, int x, int y) {
+        return buffer.getInt(4 * (y * size + x));
+    }
+
+    private static BlockTile createTile(int size, int argb) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                image.setRGB(x, y, argb);
+            }
+        }
+        return createTile(image);
+    }
+
+    private static BlockTile createTile(BufferedImage image) {
+        BlockTile tile = mock(BlockTile.class);
+        when(tile.getLength()).thenReturn(1);
+        when(tile.getImage(0)).thenReturn(image);
+        return tile;
+    }
+}
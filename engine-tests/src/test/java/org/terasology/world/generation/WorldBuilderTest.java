@@ -23,6 +23,11 @@
 import org.terasology.world.generation.facets.base.BaseFacet3D;
 import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
 
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -122,6 +127,78 @@ public void testUpdating() {
         assertTrue(regionData.getFacet(Facet4.class).updated);
     }
 
+    @Test
+    public void testParallelUpdating() {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.setParallelEvaluation(true);
+        worldBuilder.addProvider(new Facet1Provider());
+        worldBuilder.addProvider(new Facet2Provider());
+        worldBuilder.addProvider(new Facet3Provider());
+        worldBuilder.addProvider(new Facet4Provider());
+        worldBuilder.addProvider(new FacetUpdater());
+
+        Region3i regionToGenerate = Region3i.createFromCenterExtents(new Vector3i(), 1);
+
+        World world;
+        Region regionData;
+
+        world = worldBuilder.build();
+        regionData = world.getWorldData(regionToGenerate);
+        assertTrue(regionData.getFacet(Facet1.class).updated);
+        assertTrue(regionData.getFacet(Facet4.class).updated);
+
+        world = worldBuilder.build();
+        regionData = world.getWorldData(regionToGenerate);
+        assertNotNull(regionData.getFacet(Facet3.class));
+        assertTrue(regionData.getFacet(Facet4.class).updated);
+    }
+
+    @Test
+    public void testParallelBorderCalculation() {
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.setParallelEvaluation(true);
+        worldBuilder.addProvider(new Facet1Provider());
+        worldBuilder.addProvider(new Facet2Provider());
+        worldBuilder.addProvider(new Facet3Provider());
+
+        World world = worldBuilder.build();
+        Region3i regionToGenerate = Region3i.createFromCenterExtents(new Vector3i(), 1);
+        Region regionData = world.getWorldData(regionToGenerate);
+
+        Facet3 facet3 = regionData.getFacet(Facet3.class);
+        assertEquals(regionToGenerate, facet3.getWorldRegion());
+
+        Facet2 facet2 = regionData.getFacet(Facet2.class);
+        assertEquals(Region3i.createFromMinAndSize(new Vector3i(-4, -1, -4), new Vector3i(9, 3, 9)), facet2.getWorldRegion());
+    }
+
+    @Test
+    public void testIndependentProvidersRunConcurrently() {
+        // both providers wait for each other, so generating Facet1 only finishes if they run at the same time
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        WorldBuilder worldBuilder = new WorldBuilder(context.get(WorldGeneratorPluginLibrary.class));
+        worldBuilder.setSeed(12);
+        worldBuilder.setParallelEvaluation(true);
+        worldBuilder.addProvider(new JoiningFacet1Provider());
+        worldBuilder.addProvider(new WaitingFacet2Provider(barrier));
+        worldBuilder.addProvider(new WaitingFacet3Provider(barrier));
+
+        World world = worldBuilder.build();
+        Region regionData = world.getWorldData(Region3i.createFromCenterExtents(new Vector3i(), 1));
+
+        assertNotNull(regionData.getFacet(Facet1.class));
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+            throw new IllegalStateException("Providers did not run concurrently", e);
+        }
+    }
+
     public static class Facet1 extends BaseFacet3D {
         public boolean updated;
 
@@ -209,4 +286,46 @@ public void process(GeneratingRegion region) {
             region.setRegionFacet(Facet3.class, facet);
         }
     }
+
+    @Produces(Facet1.class)
+    @Requires({@Facet(Facet2.class), @Facet(Facet3.class)})
+    public static class JoiningFacet1Provider implements FacetProvider {
+
+        @Override
+        public void process(GeneratingRegion region) {
+            assertNotNull(region.getRegionFacet(Facet2.class));
+            assertNotNull(region.getRegionFacet(Facet3.class));
+            region.setRegionFacet(Facet1.class, new Facet1(region.getRegion(), region.getBorderForFacet(Facet1.class)));
+        }
+    }
+
+    @Produces(Facet2.class)
+    public static class WaitingFacet2Provider implements FacetProvider {
+        private final CyclicBarrier barrier;
+
+        public WaitingFacet2Provider(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            await(barrier);
+            region.setRegionFacet(Facet2.class, new Facet2(region.getRegion(), region.getBorderForFacet(Facet2.class)));
+        }
+    }
+
+    @Produces(Facet3.class)
+    public static class WaitingFacet3Provider implements FacetProvider {
+        private final CyclicBarrier barrier;
+
+        public WaitingFacet3Provider(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            await(barrier);
+            region.setRegionFacet(Facet3.class, new Facet3(region.getRegion(), region.getBorderForFacet(Facet3.class)));
+        }
+    }
 }
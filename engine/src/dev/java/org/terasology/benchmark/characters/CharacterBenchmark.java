@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.characters;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.benchmark.physics.TerrainChunkProvider;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.physics.bullet.BulletPhysics;
+import org.terasology.physics.engine.PhysicsEngineManager;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.internal.WorldProviderCoreImpl;
+import org.terasology.world.internal.WorldProviderWrapper;
+
+import java.util.List;
+
+/**
+ * Compares stepping the characters of simulated clients one after the other with stepping them in a batch, as
+ * the authority does for the inputs it receives. Runs without a game: the characters stand in for entities and
+ * walk on generated terrain.
+ */
+public final class CharacterBenchmark {
+
+    private CharacterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Block air = createBlock(0, false);
+        Block unloaded = createBlock(1, true);
+        Block dirt = createBlock(2, true);
+        Block grass = createBlock(3, true);
+        TerrainChunkProvider chunkProvider = new TerrainChunkProvider(new Block[]{air, unloaded, dirt, grass}, dirt, grass);
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-32, -32, -32), new Vector3i(192, 128, 192));
+        for (Vector3i chunkPos : ChunkMath.calcChunkPos(region)) {
+            chunkProvider.getChunk(chunkPos);
+        }
+
+        Context context = new ContextImpl();
+        context.put(ChunkProvider.class, chunkProvider);
+        CoreRegistry.setContext(context);
+        WorldProvider worldProvider = new WorldProviderWrapper(new WorldProviderCoreImpl("benchmark", "benchmark",
+                "benchmark", 0, new SimpleUri("engine:benchmark"), chunkProvider, unloaded, context),
+                new ExtraBlockDataManager());
+        BulletPhysics physics = new BulletPhysics(worldProvider);
+
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int clientCount : new int[]{50, 200, 500}) {
+            benchmarks.add(new CharacterStepBenchmark(worldProvider, physics, clientCount, false));
+            benchmarks.add(new CharacterStepBenchmark(worldProvider, physics, clientCount, true));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+        physics.dispose();
+    }
+
+    private static Block createBlock(int id, boolean solid) {
+        Block block = new Block();
+        block.setId((short) id);
+        block.setPenetrable(!solid);
+        block.setTargetable(solid);
+        if (solid) {
+            block.setCollision(new Vector3f(), PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube());
+        }
+        return block;
+    }
+}
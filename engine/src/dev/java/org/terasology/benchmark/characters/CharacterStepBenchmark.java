@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.characters;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.benchmark.physics.TerrainChunkProvider;
+import org.terasology.logic.characters.CharacterMoveInputEvent;
+import org.terasology.logic.characters.CharacterMovementComponent;
+import org.terasology.logic.characters.CharacterMovementSystemUtility;
+import org.terasology.logic.characters.CharacterStateEvent;
+import org.terasology.logic.characters.KinematicCharacterMover;
+import org.terasology.logic.characters.MovementMode;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.engine.PhysicsEngine;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.WorldProvider;
+
+import java.util.List;
+
+/**
+ * Steps the characters of a number of simulated clients, the way the authority does for the input it receives.
+ * <br><br>
+ * Each repetition is one tick of 1/60 second in which every client sends one input: the clients walk across the
+ * terrain, change their direction now and then and jump every few seconds. The characters are either stepped one
+ * after the other or in a batch, with all steps begun, swept and finished in turn as the authority does. Both modes
+ * end the tick with a physics update, which the characters need to find the terrain around their new positions.
+ */
+public class CharacterStepBenchmark extends AbstractBenchmark {
+
+    private static final int TICK_MS = 16;
+    private static final int AREA_SIZE = 128;
+    private static final int BORDER = 8;
+    private static final int TICKS_BETWEEN_JUMPS = 150;
+
+    private final WorldProvider worldProvider;
+    private final PhysicsEngine physics;
+    private final int clientCount;
+    private final boolean batched;
+
+    private KinematicCharacterMover mover;
+    private CharacterMovementSystemUtility movementSystemUtility;
+    private final List<SimulatedClient> clients = Lists.newArrayList();
+    private final List<KinematicCharacterMover.PendingStep> steps = Lists.newArrayList();
+    private int tick;
+
+    public CharacterStepBenchmark(WorldProvider worldProvider, PhysicsEngine physics, int clientCount, boolean batched) {
+        super("Step " + clientCount + " characters, " + (batched ? "in a batch" : "one after the other"), 60,
+                new int[]{300, 600});
+        this.worldProvider = worldProvider;
+        this.physics = physics;
+        this.clientCount = clientCount;
+        this.batched = batched;
+    }
+
+    @Override
+    public void setup() {
+        mover = new KinematicCharacterMover(worldProvider, physics);
+        movementSystemUtility = new CharacterMovementSystemUtility(physics);
+
+        FastRandom random = new FastRandom(clientCount);
+        for (int i = 0; i < clientCount; i++) {
+            float x = BORDER + random.nextFloat() * (AREA_SIZE - 2 * BORDER);
+            float z = BORDER + random.nextFloat() * (AREA_SIZE - 2 * BORDER);
+            Vector3f position = new Vector3f(x, TerrainChunkProvider.getHeight((int) x, (int) z) + 2, z);
+            clients.add(new SimulatedClient(i + 1, position, random.nextFloat() * 360f));
+        }
+        // Lets the colliders of the characters find the terrain around them
+        physics.update(TICK_MS / 1000f);
+    }
+
+    @Override
+    public void run() {
+        tick++;
+        if (batched) {
+            for (SimulatedClient client : clients) {
+                steps.add(mover.beginStep(client.state, client.nextInput(tick), client.character));
+            }
+            for (KinematicCharacterMover.PendingStep step : steps) {
+                mover.sweep(step);
+            }
+            for (KinematicCharacterMover.PendingStep step : steps) {
+                SimulatedClient client = clients.get((int) step.getEntity().getId() - 1);
+                client.apply(mover.finishStep(step));
+            }
+            steps.clear();
+        } else {
+            for (SimulatedClient client : clients) {
+                client.apply(mover.step(client.state, client.nextInput(tick), client.character));
+            }
+        }
+        physics.update(TICK_MS / 1000f);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        for (SimulatedClient client : clients) {
+            physics.removeCharacterCollider(client.character);
+        }
+        clients.clear();
+    }
+
+    private final class SimulatedClient {
+        private final SimulatedCharacter character;
+        private CharacterStateEvent state;
+        private float yaw;
+        private int sequenceNumber;
+
+        private SimulatedClient(long id, Vector3f position, float yaw) {
+            this.yaw = yaw;
+            character = new SimulatedCharacter(id);
+            LocationComponent location = new LocationComponent();
+            location.setWorldPosition(position);
+            character.addComponent(location);
+            character.addComponent(new CharacterMovementComponent());
+            physics.getCharacterCollider(character);
+            state = new CharacterStateEvent(0, 0, position, new Quat4f(0, 0, 0, 1), new Vector3f(), 0, 0,
+                    MovementMode.WALKING, false);
+        }
+
+        private CharacterMoveInputEvent nextInput(int currentTick) {
+            Vector3f position = state.getPosition();
+            if (position.x < BORDER || position.x > AREA_SIZE - BORDER || position.z < BORDER || position.z > AREA_SIZE - BORDER) {
+                // Turn back towards the middle of the area
+                yaw = (float) Math.toDegrees(Math.atan2(AREA_SIZE / 2 - position.x, AREA_SIZE / 2 - position.z));
+            } else if ((currentTick + character.getId()) % 60 == 0) {
+                yaw += 45f;
+            }
+            float yawRad = (float) Math.toRadians(yaw);
+            Vector3f direction = new Vector3f((float) Math.sin(yawRad), 0, (float) Math.cos(yawRad));
+            boolean jump = (currentTick + character.getId()) % TICKS_BETWEEN_JUMPS == 0;
+            return new CharacterMoveInputEvent(++sequenceNumber, 0, yaw, direction, character.getId() % 2 == 0, jump, TICK_MS);
+        }
+
+        private void apply(CharacterStateEvent newState) {
+            state = newState;
+            movementSystemUtility.setToState(character, newState);
+        }
+    }
+}
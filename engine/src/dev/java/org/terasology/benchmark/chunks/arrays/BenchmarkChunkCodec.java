@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import com.google.common.base.Preconditions;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.IOException;
+
+/**
+ * Measures how fast a {@link ChunkCodec} compresses or decompresses the encoded form of a chunk, as done when saving
+ * and loading chunks.
+ */
+public class BenchmarkChunkCodec implements Benchmark {
+
+    protected final ChunkCodec codec;
+    protected final boolean decompress;
+    protected final EntityData.ChunkStore store;
+    protected final byte[] compressed;
+
+    public BenchmarkChunkCodec(ChunkCodec codec, TeraArray blockData, boolean decompress) {
+        this.codec = Preconditions.checkNotNull(codec);
+        this.decompress = decompress;
+        this.store = ChunkSerializer.encode(new Vector3i(), blockData, new TeraArray[0]).build();
+        this.compressed = codec.compress(store);
+    }
+
+    @Override
+    public String getTitle() {
+        return (decompress ? "Decompression" : "Compression") + " of a chunk with the " + codec.getId() + " codec ("
+                + store.getSerializedSize() + " bytes encoded, " + compressed.length + " bytes compressed)";
+    }
+
+    @Override
+    public int getWarmupRepetitions() {
+        return 1000;
+    }
+
+    @Override
+    public int[] getRepetitions() {
+        return new int[]{1000, 5000, 10000};
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void prerun() {
+    }
+
+    @Override
+    public void run() {
+        if (decompress) {
+            try {
+                codec.decompress(compressed);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            codec.compress(store);
+        }
+    }
+
+    @Override
+    public void postrun() {
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+    }
+}
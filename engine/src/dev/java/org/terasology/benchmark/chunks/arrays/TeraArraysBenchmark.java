@@ -18,6 +18,12 @@
 import org.terasology.benchmark.Benchmarks;
 import org.terasology.benchmark.Benchmark;
 import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.persistence.internal.ChunkCodecs;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
 
 import java.util.LinkedList;
@@ -58,6 +64,12 @@ public static void main(String[] args) {
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaByteArray(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaChannel(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 
+        TeraArray terrain = createTerrainChunk();
+        for (ChunkCodec codec : new ChunkCodec[]{ChunkCodecs.GZIP, ChunkCodecs.FAST_DEFLATE}) {
+            benchmarks.add(new BenchmarkChunkCodec(codec, terrain, false));
+            benchmarks.add(new BenchmarkChunkCodec(codec, terrain, true));
+        }
+
 //        benchmarks.add(new BenchmarkTeraArrayDeserializeFromBuffer(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 //
 //
@@ -75,4 +87,25 @@ public static void main(String[] args) {
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
 
     }
+
+    /**
+     * @return Block data resembling a chunk at the surface: a few kinds of blocks in the lower half, air above
+     */
+    private static TeraArray createTerrainChunk() {
+        FastRandom random = new FastRandom(0xC0DEC);
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int z = 0; z < blocks.getSizeZ(); z++) {
+            for (int x = 0; x < blocks.getSizeX(); x++) {
+                int height = blocks.getSizeY() / 2 + random.nextInt(-4, 4);
+                for (int y = 0; y < height; y++) {
+                    int block = y < height - 4 ? 1 : 2;
+                    if (random.nextInt(20) == 0) {
+                        block = 3 + random.nextInt(8);
+                    }
+                    blocks.set(x, y, z, block);
+                }
+            }
+        }
+        return blocks;
+    }
 }
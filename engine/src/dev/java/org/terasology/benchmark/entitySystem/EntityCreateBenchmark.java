@@ -32,7 +32,11 @@ public class EntityCreateBenchmark extends AbstractBenchmark {
     private List<List<Component>> rawEntityData;
 
     public EntityCreateBenchmark() {
-        super("Create Entities", 10000, new int[]{10000});
+        this("Create Entities", 10000, new int[]{10000});
+    }
+
+    protected EntityCreateBenchmark(String title, int warmupRepetitions, int[] repetitions) {
+        super(title, warmupRepetitions, repetitions);
     }
 
     @Override
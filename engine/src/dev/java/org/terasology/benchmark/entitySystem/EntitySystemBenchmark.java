@@ -38,6 +38,9 @@ public static void main(String[] args) {
         final List<Benchmark> benchmarks = Lists.newArrayList();
 
         benchmarks.add(new EntityCreateBenchmark());
+        for (PrefabSpawnBenchmark.Mode mode : PrefabSpawnBenchmark.Mode.values()) {
+            benchmarks.add(new PrefabSpawnBenchmark(mode, 1000));
+        }
         benchmarks.add(new IterateSingleComponentBenchmark());
         benchmarks.add(new IterateMultipleComponentBenchmark());
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.assets.AssetType;
+import org.terasology.assets.ResourceUrn;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityBuilder;
+import org.terasology.entitySystem.entity.internal.EntityInfoComponent;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.internal.PojoPrefab;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ByteCodeReflectFactory;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.world.block.BlockComponent;
+
+/**
+ * Spawns a number of entities from a prefab, like a wave of mobs or the drops of a destroyed structure.
+ * <br><br>
+ * Compares copying the prefab's components through the component library (as entity builders did before they used
+ * instantiation plans), creating the entities one by one, and creating them as a batch.
+ */
+public class PrefabSpawnBenchmark extends EntityCreateBenchmark {
+
+    public enum Mode {
+        LIBRARY_COPY("copying through the component library"),
+        ONE_BY_ONE("one by one"),
+        BATCH("as a batch");
+
+        private final String description;
+
+        Mode(String description) {
+            this.description = description;
+        }
+    }
+
+    private final Mode mode;
+    private final int count;
+
+    private ComponentLibrary componentLibrary;
+    private Prefab prefab;
+
+    public PrefabSpawnBenchmark(Mode mode, int count) {
+        super("Spawn " + count + " entities from a prefab, " + mode.description, 20, new int[]{50, 100});
+        this.mode = mode;
+        this.count = count;
+    }
+
+    @Override
+    public void setup() {
+        Context context = new ContextImpl();
+        ReflectFactory reflectFactory = new ByteCodeReflectFactory();
+        context.put(ReflectFactory.class, reflectFactory);
+        context.put(CopyStrategyLibrary.class, new CopyStrategyLibrary(reflectFactory));
+        componentLibrary = new ComponentLibrary(context);
+        componentLibrary.register(new SimpleUri("engine:location"), LocationComponent.class);
+        componentLibrary.register(new SimpleUri("engine:mesh"), MeshComponent.class);
+        componentLibrary.register(new SimpleUri("engine:block"), BlockComponent.class);
+        componentLibrary.register(new SimpleUri("engine:entityInfo"), EntityInfoComponent.class);
+
+        PrefabData data = new PrefabData();
+        data.addComponent(new LocationComponent());
+        data.addComponent(new MeshComponent());
+        data.addComponent(new BlockComponent());
+        prefab = new PojoPrefab(new ResourceUrn("benchmark:spawn"), new AssetType<>(Prefab.class, PojoPrefab::new), data);
+    }
+
+    @Override
+    public void run() {
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entityManager.setComponentLibrary(componentLibrary);
+        switch (mode) {
+            case LIBRARY_COPY:
+                for (int i = 0; i < count; i++) {
+                    EntityBuilder builder = entityManager.newBuilder();
+                    for (Component component : prefab.iterateComponents()) {
+                        builder.addComponent(componentLibrary.copy(component));
+                    }
+                    builder.addComponent(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
+                    builder.getComponent(LocationComponent.class).setWorldPosition(new Vector3f(i, 0, 0));
+                    builder.build();
+                }
+                break;
+            case ONE_BY_ONE:
+                for (int i = 0; i < count; i++) {
+                    entityManager.create(prefab, new Vector3f(i, 0, 0));
+                }
+                break;
+            case BATCH:
+                entityManager.createBatch(prefab, count,
+                        (builder, index) -> builder.getComponent(LocationComponent.class).setWorldPosition(new Vector3f(index, 0, 0)));
+                break;
+            default:
+                throw new IllegalStateException("Unknown mode " + mode);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.generation;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.generation.World;
+import org.terasology.world.generation.WorldBuilder;
+import org.terasology.world.generation.facets.SurfaceDepthFacet;
+
+/**
+ * Generates a facet that depends on three independent providers, one region at a time, which is how the regions
+ * around the spawn point are generated.
+ */
+public class FacetProviderBenchmark extends AbstractBenchmark {
+
+    private static final int REGION_SIZE = 128;
+
+    private final boolean parallel;
+
+    private World world;
+    private int generatedRegions;
+    private long generationNanos;
+
+    public FacetProviderBenchmark(boolean parallel) {
+        super("Generate a facet of a " + REGION_SIZE + "x" + REGION_SIZE + " region, "
+                + (parallel ? "parallel" : "sequential") + " providers", 5, new int[]{50, 100});
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void setup() {
+        WorldBuilder worldBuilder = new WorldBuilder(null)
+                .addProvider(new NoiseSurfaceProvider())
+                .addProvider(new NoiseHumidityProvider())
+                .addProvider(new NoiseTemperatureProvider())
+                .addProvider(new SurfaceDepthProvider())
+                .setParallelEvaluation(parallel);
+        worldBuilder.setSeed(42);
+        world = worldBuilder.build();
+        world.initialize();
+        generatedRegions = 0;
+        generationNanos = 0;
+    }
+
+    @Override
+    public void run() {
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(generatedRegions * REGION_SIZE, 0, 0),
+                new Vector3i(REGION_SIZE, 1, REGION_SIZE));
+        long start = System.nanoTime();
+        world.getWorldData(region).getFacet(SurfaceDepthFacet.class);
+        generationNanos += System.nanoTime() - start;
+        generatedRegions++;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (generatedRegions > 0) {
+            System.out.println(String.format("Generated a region in %.2f ms on average (%d regions)",
+                    generationNanos / 1e6 / generatedRegions, generatedRegions));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.generation;
+
+import org.terasology.math.geom.Rect2i;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.world.generation.FacetProvider;
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.facets.base.BaseFieldFacet2D;
+
+/**
+ * Fills a 2D field facet with a few octaves of simplex noise, which is about as expensive as the terrain providers
+ * of the actual world generators.
+ */
+public abstract class NoiseFieldProvider<T extends BaseFieldFacet2D> implements FacetProvider {
+
+    private static final int OCTAVES = 6;
+
+    private final Class<T> facetType;
+    private final float baseScale;
+    private final float baseAmplitude;
+    private final float offset;
+
+    private SimplexNoise noise;
+
+    protected NoiseFieldProvider(Class<T> facetType, float baseScale, float baseAmplitude, float offset) {
+        this.facetType = facetType;
+        this.baseScale = baseScale;
+        this.baseAmplitude = baseAmplitude;
+        this.offset = offset;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        noise = new SimplexNoise(seed + facetType.getName().hashCode());
+    }
+
+    @Override
+    public void process(GeneratingRegion region) {
+        T facet = createFacet(region);
+        Rect2i area = facet.getWorldRegion();
+        for (int y = area.minY(); y < area.minY() + area.sizeY(); y++) {
+            for (int x = area.minX(); x < area.minX() + area.sizeX(); x++) {
+                float value = 0;
+                float scale = baseScale;
+                float amplitude = baseAmplitude;
+                for (int i = 0; i < OCTAVES; i++) {
+                    value += noise.noise(x * scale, y * scale) * amplitude;
+                    scale *= 2;
+                    amplitude /= 2;
+                }
+                facet.setWorld(x, y, offset + value);
+            }
+        }
+        region.setRegionFacet(facetType, facet);
+    }
+
+    protected abstract T createFacet(GeneratingRegion region);
+}
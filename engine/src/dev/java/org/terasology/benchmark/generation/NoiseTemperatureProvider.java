@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.generation;
+
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.Produces;
+import org.terasology.world.generation.facets.SurfaceTemperatureFacet;
+
+@Produces(SurfaceTemperatureFacet.class)
+public class NoiseTemperatureProvider extends NoiseFieldProvider<SurfaceTemperatureFacet> {
+
+    public NoiseTemperatureProvider() {
+        super(SurfaceTemperatureFacet.class, 0.001f, 0.5f, 0.5f);
+    }
+
+    @Override
+    protected SurfaceTemperatureFacet createFacet(GeneratingRegion region) {
+        return new SurfaceTemperatureFacet(region.getRegion(), region.getBorderForFacet(SurfaceTemperatureFacet.class));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.generation;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.SimpleUri;
+import org.terasology.rendering.assets.texture.Texture;
+import org.terasology.rendering.assets.texture.TextureData;
+import org.terasology.rendering.nui.layers.mainMenu.preview.FacetLayerPreview;
+import org.terasology.world.generation.BaseFacetedWorldGenerator;
+import org.terasology.world.generation.WorldBuilder;
+import org.terasology.world.generator.WorldGenerator;
+import org.terasology.world.viewer.layers.engine.SurfaceHeightFacetLayer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Renders world previews of the size shown by the preview screens, without a display.
+ * <br><br>
+ * In the cold mode the tile cache is cleared before each preview, so every tile is generated. In the warm mode the
+ * same preview is rendered again and all tiles come from the cache. The zoom out mode renders the preview at
+ * increasing scales, as when moving the zoom slider, starting from an empty cache each time.
+ * <br><br>
+ * At its end the benchmark prints how many tiles were generated per second.
+ */
+public class PreviewTileBenchmark extends AbstractBenchmark {
+
+    /**
+     * How the previews are rendered.
+     */
+    public enum Mode {
+        COLD,
+        WARM,
+        ZOOM_OUT
+    }
+
+    private static final int PREVIEW_SIZE = 384;
+    private static final int[] ZOOM_SCALES = {1, 2, 4, 8};
+
+    private final Mode mode;
+    private final int scale;
+
+    private FacetLayerPreview preview;
+    private TextureData textureData;
+    private long renderNanos;
+
+    public PreviewTileBenchmark(Mode mode, int scale) {
+        super("Render a " + PREVIEW_SIZE + "px world preview, " + mode.toString().toLowerCase().replace('_', ' ')
+                + (mode == Mode.ZOOM_OUT ? "" : ", scale " + scale), 2, new int[]{10, 20});
+        this.mode = mode;
+        this.scale = scale;
+    }
+
+    @Override
+    public void setup() {
+        WorldGenerator worldGenerator = new BaseFacetedWorldGenerator(new SimpleUri("benchmark:preview")) {
+            @Override
+            protected WorldBuilder createWorld() {
+                return new WorldBuilder(null).addProvider(new NoiseSurfaceProvider());
+            }
+        };
+        worldGenerator.setWorldSeed("benchmark");
+        preview = new FacetLayerPreview(worldGenerator, Lists.newArrayList(new SurfaceHeightFacetLayer()));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(PREVIEW_SIZE * PREVIEW_SIZE * Integer.BYTES);
+        textureData = new TextureData(PREVIEW_SIZE, PREVIEW_SIZE, new ByteBuffer[]{buffer},
+                Texture.WrapMode.CLAMP, Texture.FilterMode.LINEAR);
+        renderNanos = 0;
+    }
+
+    @Override
+    public void prerun() {
+        if (mode != Mode.WARM) {
+            preview.clearCache();
+        }
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            if (mode == Mode.ZOOM_OUT) {
+                for (int zoomScale : ZOOM_SCALES) {
+                    preview.render(textureData, zoomScale, null);
+                }
+            } else {
+                preview.render(textureData, scale, null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderNanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (renderNanos > 0) {
+            System.out.println(String.format("Generated %.1f tiles per second (%d tiles)",
+                    preview.getGeneratedTileCount() * 1e9 / renderNanos, preview.getGeneratedTileCount()));
+        }
+        preview.close();
+    }
+}
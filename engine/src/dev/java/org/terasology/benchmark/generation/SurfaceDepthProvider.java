@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.generation;
+
+import org.terasology.world.generation.Facet;
+import org.terasology.world.generation.FacetProvider;
+import org.terasology.world.generation.GeneratingRegion;
+import org.terasology.world.generation.Produces;
+import org.terasology.world.generation.Requires;
+import org.terasology.world.generation.facets.SurfaceDepthFacet;
+import org.terasology.world.generation.facets.SurfaceHeightFacet;
+import org.terasology.world.generation.facets.SurfaceHumidityFacet;
+import org.terasology.world.generation.facets.SurfaceTemperatureFacet;
+
+/**
+ * Combines the independent noise fields, like a biome provider would.
+ */
+@Produces(SurfaceDepthFacet.class)
+@Requires({@Facet(SurfaceHeightFacet.class), @Facet(SurfaceHumidityFacet.class), @Facet(SurfaceTemperatureFacet.class)})
+public class SurfaceDepthProvider implements FacetProvider {
+
+    @Override
+    public void process(GeneratingRegion region) {
+        SurfaceHeightFacet height = region.getRegionFacet(SurfaceHeightFacet.class);
+        SurfaceHumidityFacet humidity = region.getRegionFacet(SurfaceHumidityFacet.class);
+        SurfaceTemperatureFacet temperature = region.getRegionFacet(SurfaceTemperatureFacet.class);
+        SurfaceDepthFacet facet = new SurfaceDepthFacet(region.getRegion(), region.getBorderForFacet(SurfaceDepthFacet.class));
+        float[] heights = height.getInternal();
+        float[] humidities = humidity.getInternal();
+        float[] temperatures = temperature.getInternal();
+        float[] depths = facet.getInternal();
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = heights[i] - 16 * humidities[i] * temperatures[i];
+        }
+        region.setRegionFacet(SurfaceDepthFacet.class, facet);
+    }
+}
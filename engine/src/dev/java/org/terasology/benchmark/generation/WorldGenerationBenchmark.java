@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.generation;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.List;
+
+/**
+ * Runs the world generation benchmarks.
+ */
+public final class WorldGenerationBenchmark {
+
+    private WorldGenerationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int scale : new int[]{1, 4}) {
+            benchmarks.add(new PreviewTileBenchmark(PreviewTileBenchmark.Mode.COLD, scale));
+            benchmarks.add(new PreviewTileBenchmark(PreviewTileBenchmark.Mode.WARM, scale));
+        }
+        benchmarks.add(new PreviewTileBenchmark(PreviewTileBenchmark.Mode.ZOOM_OUT, 1));
+        benchmarks.add(new FacetProviderBenchmark(false));
+        benchmarks.add(new FacetProviderBenchmark(true));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.particles;
+
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.Event;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.particles.components.ParticleEmitterComponent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An emitter entity standing in for an entity of the entity manager. It only holds its emitter component.
+ */
+class EmitterEntity extends EntityRef {
+
+    private final long id;
+    private final ParticleEmitterComponent emitter;
+
+    EmitterEntity(long id, ParticleEmitterComponent emitter) {
+        this.id = id;
+        this.emitter = emitter;
+        emitter.ownerEntity = this;
+    }
+
+    @Override
+    public EntityRef copy() {
+        return this;
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public boolean isActive() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    @Override
+    public <T extends Event> T send(T event) {
+        return event;
+    }
+
+    @Override
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isPersistent() {
+        return false;
+    }
+
+    @Override
+    public boolean isAlwaysRelevant() {
+        return false;
+    }
+
+    @Override
+    public void setAlwaysRelevant(boolean alwaysRelevant) {
+    }
+
+    @Override
+    public EntityRef getOwner() {
+        return EntityRef.NULL;
+    }
+
+    @Override
+    public void setOwner(EntityRef owner) {
+    }
+
+    @Override
+    public Prefab getParentPrefab() {
+        return null;
+    }
+
+    @Override
+    public String toFullDescription() {
+        return toString();
+    }
+
+    @Override
+    public boolean hasComponent(Class<? extends Component> component) {
+        return component == ParticleEmitterComponent.class;
+    }
+
+    @Override
+    public boolean hasAnyComponents(List<Class<? extends Component>> filterComponents) {
+        return filterComponents.contains(ParticleEmitterComponent.class);
+    }
+
+    @Override
+    public boolean hasAllComponents(List<Class<? extends Component>> filterComponents) {
+        return filterComponents.stream().allMatch(ParticleEmitterComponent.class::equals);
+    }
+
+    @Override
+    public <T extends Component> T getComponent(Class<T> componentClass) {
+        return componentClass == ParticleEmitterComponent.class ? componentClass.cast(emitter) : null;
+    }
+
+    @Override
+    public <T extends Component> T addComponent(T component) {
+        return component;
+    }
+
+    @Override
+    public void removeComponent(Class<? extends Component> componentClass) {
+    }
+
+    @Override
+    public void saveComponent(Component component) {
+    }
+
+    @Override
+    public Iterable<Component> iterateComponents() {
+        return Collections.singletonList(emitter);
+    }
+
+    @Override
+    public String toString() {
+        return "EmitterEntity{id=" + id + '}';
+    }
+}
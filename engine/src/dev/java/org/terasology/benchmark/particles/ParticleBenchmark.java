@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.particles;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+
+import java.util.List;
+
+/**
+ * Compares updating the emitters of 100k particles on the calling thread and on worker threads.
+ */
+public final class ParticleBenchmark {
+
+    private static final int PARTICLE_COUNT = 100_000;
+
+    private ParticleBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int emitterCount : new int[]{1, 16, 400}) {
+            benchmarks.add(new ParticleUpdateBenchmark(PARTICLE_COUNT, emitterCount, false));
+            benchmarks.add(new ParticleUpdateBenchmark(PARTICLE_COUNT, emitterCount, true));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
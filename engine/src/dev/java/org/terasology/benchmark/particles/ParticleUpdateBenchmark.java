@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.particles;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.particles.ParticlePool;
+import org.terasology.particles.components.ParticleEmitterComponent;
+import org.terasology.particles.components.affectors.AccelerationAffectorComponent;
+import org.terasology.particles.components.affectors.VelocityAffectorComponent;
+import org.terasology.particles.components.generators.ColorRangeGeneratorComponent;
+import org.terasology.particles.components.generators.EnergyRangeGeneratorComponent;
+import org.terasology.particles.components.generators.VelocityRangeGeneratorComponent;
+import org.terasology.particles.functions.affectors.AccelerationAffectorFunction;
+import org.terasology.particles.functions.affectors.VelocityAffectorFunction;
+import org.terasology.particles.functions.generators.ColorRangeGeneratorFunction;
+import org.terasology.particles.functions.generators.EnergyRangeGeneratorFunction;
+import org.terasology.particles.functions.generators.VelocityRangeGeneratorFunction;
+import org.terasology.particles.updating.ParticleUpdater;
+
+/**
+ * Updates emitters holding a given number of particles in total, one frame of 1/60 second per repetition.
+ * <br><br>
+ * Every emitter spawns as many particles per second as its pool holds and the particles live for about a second, so
+ * after the warmup the pools stay nearly full while particles keep dying and being emitted.
+ */
+public class ParticleUpdateBenchmark extends AbstractBenchmark {
+
+    private static final float FRAME_TIME = 1.0f / 60.0f;
+
+    private final int particleCount;
+    private final int emitterCount;
+    private final boolean parallel;
+
+    private ParticleUpdater updater;
+    private ParticleEmitterComponent[] emitters;
+    private long updatedParticles;
+    private long updateNanos;
+
+    public ParticleUpdateBenchmark(int particleCount, int emitterCount, boolean parallel) {
+        super(String.format("%s particle update (%d particles, %d emitters)", parallel ? "Parallel" : "Sequential",
+                particleCount, emitterCount), 120, new int[]{300, 600});
+        this.particleCount = particleCount;
+        this.emitterCount = emitterCount;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void setup() {
+        updater = ParticleUpdater.create(null, parallel);
+        emitters = new ParticleEmitterComponent[emitterCount];
+        int poolSize = particleCount / emitterCount;
+        for (int i = 0; i < emitterCount; i++) {
+            ParticleEmitterComponent emitter = new ParticleEmitterComponent();
+            emitter.maxParticles = poolSize;
+            emitter.particlePool = new ParticlePool(poolSize);
+            emitter.particleCollision = false;
+            emitter.spawnRateMin = poolSize;
+            emitter.spawnRateMax = poolSize;
+
+            emitter.generatorFunctionMap.put(new EnergyRangeGeneratorComponent(0.75f, 1.0f), new EnergyRangeGeneratorFunction());
+            emitter.generatorFunctionMap.put(new VelocityRangeGeneratorComponent(new Vector3f(-1, 2, -1), new Vector3f(1, 4, 1)),
+                    new VelocityRangeGeneratorFunction());
+            emitter.generatorFunctionMap.put(new ColorRangeGeneratorComponent(new Vector4f(0.5f, 0.5f, 0.5f, 1), new Vector4f(1, 1, 1, 1)),
+                    new ColorRangeGeneratorFunction());
+            emitter.affectorFunctionMap.put(new VelocityAffectorComponent(), new VelocityAffectorFunction());
+            emitter.affectorFunctionMap.put(new AccelerationAffectorComponent(new Vector3f(0, -9.81f, 0)),
+                    new AccelerationAffectorFunction());
+
+            emitters[i] = emitter;
+            updater.register(new EmitterEntity(i, emitter));
+        }
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        updater.update(FRAME_TIME);
+        updateNanos += System.nanoTime() - start;
+        for (ParticleEmitterComponent emitter : emitters) {
+            updatedParticles += emitter.particlePool.livingParticles();
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (updateNanos > 0) {
+            System.out.println(String.format("Updated %.1f million particles per second (%d particles per frame on average)",
+                    updatedParticles / (updateNanos / 1e9) / 1e6, updatedParticles / Math.max(1, frameCount())));
+        }
+    }
+
+    private long frameCount() {
+        long frames = getWarmupRepetitions();
+        for (int reps : getRepetitions()) {
+            frames += reps;
+        }
+        return frames;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.reflections.Reflections;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.persistence.internal.ChunkCodecs;
+import org.terasology.persistence.internal.ReadOnlyStorageManager;
+import org.terasology.persistence.internal.StoragePathProvider;
+import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
+import org.terasology.protobuf.EntityData;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ByteCodeReflectFactory;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a 64x64 chunk area of a generated save game, as needed for a map preview of it.
+ * <br><br>
+ * Compares the previous way of loading chunks (a zip file system per chunk and a full parse of the chunk, entities
+ * included) against the mapped chunk zips and lazily decoded chunks of the {@link ReadOnlyStorageManager}.
+ */
+public final class ChunkPreviewBenchmark {
+
+    private static final int AREA_SIZE = 64;
+    private static final int ENTITIES_PER_CHUNK = 20;
+
+    private ChunkPreviewBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Context context = new ContextImpl();
+        ReflectFactory reflectFactory = new ByteCodeReflectFactory();
+        context.put(ReflectFactory.class, reflectFactory);
+        context.put(CopyStrategyLibrary.class, new CopyStrategyLibrary(reflectFactory));
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entityManager.setComponentLibrary(new ComponentLibrary(context));
+        entityManager.setTypeSerializerLibrary(TypeHandlerLibrary.withReflections(new Reflections(ChunkPreviewBenchmark.class.getClassLoader())));
+        ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+
+        List<Vector3i> positions = Lists.newArrayList();
+        for (int z = 0; z < AREA_SIZE; z++) {
+            for (int x = 0; x < AREA_SIZE; x++) {
+                positions.add(new Vector3i(x - AREA_SIZE / 2, 0, z - AREA_SIZE / 2));
+            }
+        }
+
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (ChunkCodec codec : new ChunkCodec[]{ChunkCodecs.GZIP, ChunkCodecs.FAST_DEFLATE}) {
+            Path savePath = Files.createTempDirectory("chunkPreviewBenchmark");
+            StoragePathProvider storagePathProvider = new StoragePathProvider(savePath);
+            writeSave(storagePathProvider, positions, codec);
+
+            benchmarks.add(new LoadChunkAreaBenchmark("Zip file system per chunk, full parse, " + codec.getId(), positions,
+                    pos -> ChunkSerializer.decode(loadChunkViaZipFileSystem(storagePathProvider, pos, codec), null, extraDataManager)));
+
+            ReadOnlyStorageManager storageManager = new ReadOnlyStorageManager(savePath, null, entityManager, null,
+                    extraDataManager, codec);
+            benchmarks.add(new LoadChunkAreaBenchmark("Mapped chunk zips, lazy chunk, " + codec.getId(), positions,
+                    pos -> storageManager.loadChunkStore(pos).getChunk()));
+            benchmarks.add(new LoadChunkAreaBenchmark("Mapped chunk zips, block data only, " + codec.getId(), positions,
+                    storageManager::loadBlockData));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    /**
+     * Writes the chunks into chunk zips the way {@link org.terasology.persistence.internal.SaveTransaction} does.
+     */
+    private static void writeSave(StoragePathProvider storagePathProvider, List<Vector3i> positions, ChunkCodec codec)
+            throws IOException {
+        Files.createDirectories(storagePathProvider.getWorldPath());
+        Map<Vector3i, List<Vector3i>> chunksByZip = Maps.newHashMap();
+        for (Vector3i pos : positions) {
+            chunksByZip.computeIfAbsent(storagePathProvider.getChunkZipPosition(pos), zipPos -> Lists.newArrayList()).add(pos);
+        }
+
+        FastRandom random = new FastRandom(0L);
+        Map<String, String> createOptions = ImmutableMap.of("create", "true", "encoding", "UTF-8");
+        for (Map.Entry<Vector3i, List<Vector3i>> chunkZip : chunksByZip.entrySet()) {
+            Path zipPath = storagePathProvider.getChunkZipPath(chunkZip.getKey());
+            try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + zipPath.toUri()), createOptions)) {
+                for (Vector3i pos : chunkZip.getValue()) {
+                    EntityData.ChunkStore store = ChunkSerializer.encode(pos, createTerrain(random), new TeraArray[0])
+                            .setStore(createEntityStore(random))
+                            .build();
+                    Files.write(zip.getPath(storagePathProvider.getChunkFilename(pos)), codec.compress(store));
+                }
+            }
+        }
+    }
+
+    private static TeraArray createTerrain(FastRandom random) {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int z = 0; z < blocks.getSizeZ(); z++) {
+            for (int x = 0; x < blocks.getSizeX(); x++) {
+                int height = blocks.getSizeY() / 2 + random.nextInt(-4, 4);
+                for (int y = 0; y < height; y++) {
+                    blocks.set(x, y, z, y < height - 4 ? 1 : 2);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * @return Entities resembling those stored with a chunk, such as block entities and dropped items
+     */
+    private static EntityData.EntityStore createEntityStore(FastRandom random) {
+        EntityData.EntityStore.Builder store = EntityData.EntityStore.newBuilder();
+        store.addComponentClass("engine:location");
+        for (int i = 0; i < ENTITIES_PER_CHUNK; i++) {
+            EntityData.Component.Builder location = EntityData.Component.newBuilder().setTypeIndex(0);
+            location.addField(EntityData.NameValue.newBuilder().setName("position").setValue(EntityData.Value.newBuilder()
+                    .addFloat(random.nextFloat()).addFloat(random.nextFloat()).addFloat(random.nextFloat())));
+            store.addEntity(EntityData.Entity.newBuilder().setId(random.nextLong()).addComponent(location));
+        }
+        return store.build();
+    }
+
+    private static EntityData.ChunkStore loadChunkViaZipFileSystem(StoragePathProvider storagePathProvider, Vector3i pos,
+                                                                   ChunkCodec codec) {
+        Path zipPath = storagePathProvider.getChunkZipPath(storagePathProvider.getChunkZipPosition(pos));
+        try (FileSystem zip = FileSystems.newFileSystem(zipPath, null)) {
+            return codec.decompress(Files.readAllBytes(zip.getPath(storagePathProvider.getChunkFilename(pos))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
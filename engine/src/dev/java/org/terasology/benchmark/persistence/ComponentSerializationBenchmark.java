@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.Lists;
+import org.reflections.Reflections;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.context.Context;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
+import org.terasology.persistence.typeHandling.extensionTypes.EntityRefTypeHandler;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ByteCodeReflectFactory;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.rendering.logic.MeshComponent;
+import org.terasology.rendering.nui.Color;
+import org.terasology.utilities.random.FastRandom;
+
+import java.util.List;
+
+/**
+ * Compares the component serialization throughput of the compiled component codecs against the type handler based path,
+ * and measures how serialization scales across threads sharing a type handler library.
+ */
+public final class ComponentSerializationBenchmark {
+
+    private static final int COMPONENT_COUNT = 1000;
+    private static final int INVENTORY_SLOTS = 30;
+
+    private ComponentSerializationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Context context = new ContextImpl();
+        ReflectFactory reflectFactory = new ByteCodeReflectFactory();
+        context.put(ReflectFactory.class, reflectFactory);
+        context.put(CopyStrategyLibrary.class, new CopyStrategyLibrary(reflectFactory));
+
+        ComponentLibrary componentLibrary = new ComponentLibrary(context);
+        componentLibrary.register(new SimpleUri("engine:location"), LocationComponent.class);
+        componentLibrary.register(new SimpleUri("engine:mesh"), MeshComponent.class);
+        componentLibrary.register(new SimpleUri("benchmark:inventoryLike"), InventoryLikeComponent.class);
+
+        PojoEntityManager entityManager = new PojoEntityManager();
+        TypeHandlerLibrary typeHandlerLibrary = TypeHandlerLibrary.withReflections(new Reflections(ComponentSerializationBenchmark.class.getClassLoader()));
+        typeHandlerLibrary.addTypeHandler(EntityRef.class, new EntityRefTypeHandler(entityManager));
+
+        FastRandom rand = new FastRandom(0L);
+        List<Component> locations = Lists.newArrayList();
+        List<Component> meshes = Lists.newArrayList();
+        List<Component> inventories = Lists.newArrayList();
+        for (int i = 0; i < COMPONENT_COUNT; ++i) {
+            LocationComponent location = new LocationComponent(rand.nextVector3f(100.0f));
+            location.setLocalRotation(new Quat4f(rand.nextFloat(), rand.nextFloat(), rand.nextFloat()));
+            locations.add(location);
+
+            MeshComponent mesh = new MeshComponent();
+            mesh.color = new Color(rand.nextInt());
+            mesh.selfLuminance = rand.nextFloat();
+            meshes.add(mesh);
+
+            InventoryLikeComponent inventory = new InventoryLikeComponent();
+            for (int slot = 0; slot < INVENTORY_SLOTS; ++slot) {
+                inventory.itemSlots.add(rand.nextFloat() < 0.5f ? entityManager.create() : EntityRef.NULL);
+                inventory.stackCounts.add(rand.nextInt(99));
+            }
+            inventory.tags.add("container");
+            inventories.add(inventory);
+        }
+
+        final List<Benchmark> benchmarks = Lists.newArrayList();
+        for (boolean compiled : new boolean[]{false, true}) {
+            benchmarks.add(new SerializeComponentsBenchmark("LocationComponent", locations, componentLibrary, typeHandlerLibrary, compiled));
+            benchmarks.add(new SerializeComponentsBenchmark("MeshComponent", meshes, componentLibrary, typeHandlerLibrary, compiled));
+            benchmarks.add(new SerializeComponentsBenchmark("InventoryLikeComponent", inventories, componentLibrary, typeHandlerLibrary, compiled));
+        }
+        List<Component> mixed = Lists.newArrayList();
+        mixed.addAll(locations);
+        mixed.addAll(meshes);
+        mixed.addAll(inventories);
+        for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+            benchmarks.add(new ParallelSerializeComponentsBenchmark(mixed, componentLibrary, typeHandlerLibrary, threads));
+        }
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
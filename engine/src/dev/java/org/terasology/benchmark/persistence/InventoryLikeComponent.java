@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.List;
+
+/**
+ * Mimics the shape of the inventory component of the inventory module: a list of slots plus a few flags.
+ */
+public class InventoryLikeComponent implements Component {
+
+    public boolean privateToOwner = true;
+
+    public List<EntityRef> itemSlots = Lists.newArrayList();
+
+    public List<String> tags = Lists.newArrayList();
+
+    public List<Integer> stackCounts = Lists.newArrayList();
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Loads every chunk of an area of a save game, the way a map preview would.
+ */
+public class LoadChunkAreaBenchmark extends AbstractBenchmark {
+
+    private final List<Vector3i> positions;
+    private final Function<Vector3i, Object> loader;
+
+    public LoadChunkAreaBenchmark(String title, List<Vector3i> positions, Function<Vector3i, Object> loader) {
+        super(title + " (" + positions.size() + " chunks)", 2, new int[]{5, 10});
+        this.positions = positions;
+        this.loader = loader;
+    }
+
+    @Override
+    public void run() {
+        for (Vector3i position : positions) {
+            if (loader.apply(position) == null) {
+                throw new IllegalStateException("Chunk " + position + " is missing from the save");
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.persistence.serializers.ComponentSerializer;
+import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serializes the same list of components from several threads at once through a shared {@link ComponentSerializer} and
+ * {@link TypeHandlerLibrary}, as the save, network and chunk generation threads do.
+ */
+public class ParallelSerializeComponentsBenchmark extends AbstractBenchmark {
+
+    private final List<Component> components;
+    private final ComponentLibrary componentLibrary;
+    private final TypeHandlerLibrary typeHandlerLibrary;
+    private final int threadCount;
+
+    private ExecutorService executor;
+    private ComponentSerializer componentSerializer;
+    private final AtomicLong serializedCount = new AtomicLong();
+    private long startTime;
+
+    public ParallelSerializeComponentsBenchmark(List<Component> components, ComponentLibrary componentLibrary,
+                                                TypeHandlerLibrary typeHandlerLibrary, int threadCount) {
+        super("Serialize components on " + threadCount + " threads", 10, new int[]{100, 100, 100});
+        this.components = components;
+        this.componentLibrary = componentLibrary;
+        this.typeHandlerLibrary = typeHandlerLibrary;
+        this.threadCount = threadCount;
+    }
+
+    @Override
+    public void setup() {
+        executor = Executors.newFixedThreadPool(threadCount);
+        // A fresh library per benchmark, so that the threads race on resolving the handlers in the warmup
+        componentSerializer = new ComponentSerializer(componentLibrary, new TypeHandlerLibrary(typeHandlerLibrary));
+    }
+
+    @Override
+    public void prerun() {
+        serializedCount.set(0);
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        List<Future<?>> tasks = Lists.newArrayListWithCapacity(threadCount);
+        for (int i = 0; i < threadCount; ++i) {
+            tasks.add(executor.submit(() -> {
+                for (Component component : components) {
+                    if (componentSerializer.serialize(component) != null) {
+                        serializedCount.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while serializing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Serialization failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void postrun() {
+        long elapsedTime = System.nanoTime() - startTime;
+        System.out.println(String.format(Locale.ENGLISH, "%s: %.0f components/sec", getTitle(), serializedCount.get() / (elapsedTime / 1e9)));
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
+import org.terasology.persistence.serializers.ComponentSerializer;
+import org.terasology.persistence.typeHandling.PersistedData;
+import org.terasology.persistence.typeHandling.Serializer;
+import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedDataSerializer;
+import org.terasology.protobuf.EntityData;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Serializes a list of components, either through the compiled component codecs of the {@link ComponentSerializer} or
+ * through the type handlers and the intermediate {@link PersistedData} tree, and reports the components per second.
+ */
+public class SerializeComponentsBenchmark extends AbstractBenchmark {
+
+    private final List<Component> components;
+    private final ComponentLibrary componentLibrary;
+    private final TypeHandlerLibrary typeHandlerLibrary;
+    private final boolean compiled;
+
+    private ComponentSerializer componentSerializer;
+    private ProtobufPersistedDataSerializer persistedDataSerializer;
+    private long serializedCount;
+    private long startTime;
+
+    public SerializeComponentsBenchmark(String name, List<Component> components, ComponentLibrary componentLibrary,
+                                        TypeHandlerLibrary typeHandlerLibrary, boolean compiled) {
+        super(name + (compiled ? " via compiled codecs" : " via type handlers"), 100, new int[]{1000, 1000, 1000});
+        this.components = components;
+        this.componentLibrary = componentLibrary;
+        this.typeHandlerLibrary = typeHandlerLibrary;
+        this.compiled = compiled;
+    }
+
+    @Override
+    public void setup() {
+        componentSerializer = new ComponentSerializer(componentLibrary, typeHandlerLibrary);
+        persistedDataSerializer = new ProtobufPersistedDataSerializer();
+    }
+
+    @Override
+    public void prerun() {
+        serializedCount = 0;
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        for (Component component : components) {
+            EntityData.Component data = compiled ? componentSerializer.serialize(component) : serializeViaTypeHandlers(component);
+            if (data != null) {
+                serializedCount++;
+            }
+        }
+    }
+
+    @Override
+    public void postrun() {
+        long elapsedTime = System.nanoTime() - startTime;
+        System.out.println(String.format(Locale.ENGLISH, "%s: %.0f components/sec", getTitle(), serializedCount / (elapsedTime / 1e9)));
+    }
+
+    /**
+     * The serialization path used before component codecs were introduced.
+     */
+    private EntityData.Component serializeViaTypeHandlers(Component component) {
+        ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(component.getClass());
+        EntityData.Component.Builder componentMessage = EntityData.Component.newBuilder();
+        componentMessage.setType(componentMetadata.getUri().toString());
+
+        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
+        for (ReplicatedFieldMetadata<?, ?> field : componentMetadata.getFields()) {
+            PersistedData result = serializer.serialize(field, component, persistedDataSerializer);
+            if (!result.isNull()) {
+                EntityData.Value itemValue = ((ProtobufPersistedData) result).getValue();
+                componentMessage.addField(EntityData.NameValue.newBuilder().setName(field.getName()).setValue(itemValue));
+            }
+        }
+        return componentMessage.build();
+    }
+}
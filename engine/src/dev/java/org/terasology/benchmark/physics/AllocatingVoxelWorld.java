@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.VecMath;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.physics.bullet.shapes.BulletCollisionShape;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+
+/**
+ * Answers Bullet's voxel queries the way {@link org.terasology.physics.bullet.PhysicsWorldWrapper} used to: a chunk
+ * lookup by a newly allocated position and a new voxel info per query. Serves as the baseline of the benchmark.
+ */
+class AllocatingVoxelWorld implements VoxelPhysicsWorld {
+
+    private final ChunkProvider chunkProvider;
+
+    AllocatingVoxelWorld(ChunkProvider chunkProvider) {
+        this.chunkProvider = chunkProvider;
+    }
+
+    @Override
+    public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
+        Chunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPos(x, y, z));
+        Block block = chunk.getBlock(ChunkMath.calcBlockPos(x, y, z));
+        return new AllocatedVoxelInfo(block, new Vector3i(x, y, z));
+    }
+
+    private static class AllocatedVoxelInfo implements VoxelInfo {
+        private final Block block;
+        private final Vector3i position;
+
+        AllocatedVoxelInfo(Block block, Vector3i position) {
+            this.block = block;
+            this.position = position;
+        }
+
+        @Override
+        public boolean isColliding() {
+            return block.getCollisionShape() != null && block.isTargetable();
+        }
+
+        @Override
+        public Object getUserData() {
+            return position;
+        }
+
+        @Override
+        public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
+            return ((BulletCollisionShape) block.getCollisionShape()).underlyingShape;
+        }
+
+        @Override
+        public javax.vecmath.Vector3f getCollisionOffset() {
+            return VecMath.to(block.getCollisionOffset());
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return block.getCollisionShape() != null && !block.isPenetrable();
+        }
+
+        @Override
+        public float getFriction() {
+            return block.getFriction();
+        }
+
+        @Override
+        public float getRestitution() {
+            return block.getRestitution();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.bulletphysics.collision.broadphase.DbvtBroadphase;
+import com.bulletphysics.collision.dispatch.CollisionDispatcher;
+import com.bulletphysics.collision.dispatch.CollisionFlags;
+import com.bulletphysics.collision.dispatch.DefaultCollisionConfiguration;
+import com.bulletphysics.collision.shapes.BoxShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
+import com.bulletphysics.collision.shapes.voxel.VoxelWorldShape;
+import com.bulletphysics.dynamics.DiscreteDynamicsWorld;
+import com.bulletphysics.dynamics.RigidBody;
+import com.bulletphysics.dynamics.RigidBodyConstructionInfo;
+import com.bulletphysics.dynamics.constraintsolver.SequentialImpulseConstraintSolver;
+import com.bulletphysics.linearmath.DefaultMotionState;
+import com.bulletphysics.linearmath.Transform;
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.random.FastRandom;
+
+import javax.vecmath.Matrix3f;
+import javax.vecmath.Matrix4f;
+import javax.vecmath.Vector3f;
+import java.util.List;
+
+/**
+ * Drops a number of small boxes, like dropped items, onto voxel terrain and steps the simulation.
+ * <br><br>
+ * Each repetition is one step of 1/60 second. Before each round of repetitions the boxes are put back into the air,
+ * so every round covers the fall, the impacts and the boxes coming to rest.
+ */
+public class FallingBodiesBenchmark extends AbstractBenchmark {
+
+    private static final float TIME_STEP = 1.0f / 60.0f;
+    private static final int AREA_SIZE = 64;
+    private static final float DROP_HEIGHT = 20.0f;
+
+    private final VoxelPhysicsWorld voxelWorld;
+    private final int bodyCount;
+
+    private DiscreteDynamicsWorld dynamicsWorld;
+    private final List<RigidBody> bodies = Lists.newArrayList();
+
+    public FallingBodiesBenchmark(String title, VoxelPhysicsWorld voxelWorld, int bodyCount) {
+        super(title + " (" + bodyCount + " bodies)", 60, new int[]{120, 240});
+        this.voxelWorld = voxelWorld;
+        this.bodyCount = bodyCount;
+    }
+
+    @Override
+    public void setup() {
+        DefaultCollisionConfiguration collisionConfiguration = new DefaultCollisionConfiguration();
+        dynamicsWorld = new DiscreteDynamicsWorld(new CollisionDispatcher(collisionConfiguration), new DbvtBroadphase(),
+                new SequentialImpulseConstraintSolver(), collisionConfiguration);
+        dynamicsWorld.setGravity(new Vector3f(0f, -15f, 0f));
+
+        Matrix3f rot = new Matrix3f();
+        rot.setIdentity();
+        DefaultMotionState terrainMotionState = new DefaultMotionState(new Transform(new Matrix4f(rot, new Vector3f(), 1.0f)));
+        RigidBody terrain = new RigidBody(new RigidBodyConstructionInfo(0, terrainMotionState,
+                new VoxelWorldShape(voxelWorld), new Vector3f()));
+        terrain.setCollisionFlags(CollisionFlags.STATIC_OBJECT | terrain.getCollisionFlags());
+        dynamicsWorld.addRigidBody(terrain);
+
+        BoxShape shape = new BoxShape(new Vector3f(0.25f, 0.25f, 0.25f));
+        Vector3f inertia = new Vector3f();
+        shape.calculateLocalInertia(1.0f, inertia);
+        for (int i = 0; i < bodyCount; i++) {
+            RigidBody body = new RigidBody(new RigidBodyConstructionInfo(1.0f, new DefaultMotionState(), shape, inertia));
+            bodies.add(body);
+            dynamicsWorld.addRigidBody(body);
+        }
+        dropBodies();
+    }
+
+    @Override
+    public void prerun() {
+        dropBodies();
+    }
+
+    private void dropBodies() {
+        FastRandom random = new FastRandom(bodyCount);
+        Transform transform = new Transform();
+        transform.setIdentity();
+        Vector3f zero = new Vector3f();
+        for (RigidBody body : bodies) {
+            transform.origin.set(random.nextFloat() * AREA_SIZE, DROP_HEIGHT + random.nextFloat() * 5.0f,
+                    random.nextFloat() * AREA_SIZE);
+            body.setWorldTransform(transform);
+            body.getMotionState().setWorldTransform(transform);
+            body.setLinearVelocity(zero);
+            body.setAngularVelocity(zero);
+            body.activate(true);
+        }
+    }
+
+    @Override
+    public void run() {
+        dynamicsWorld.stepSimulation(TIME_STEP, 1, TIME_STEP);
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        dynamicsWorld.destroy();
+    }
+}
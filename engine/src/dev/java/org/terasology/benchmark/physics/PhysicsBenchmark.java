@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.bullet.ChunkCachedBlockAccessor;
+import org.terasology.physics.bullet.PhysicsWorldWrapper;
+import org.terasology.physics.engine.PhysicsEngineManager;
+import org.terasology.world.block.Block;
+
+import java.util.List;
+
+/**
+ * Compares the terrain collision of falling bodies between the allocating voxel lookup and the shared voxel infos
+ * with the chunk cached block lookup of {@link PhysicsWorldWrapper}.
+ */
+public final class PhysicsBenchmark {
+
+    private PhysicsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Block air = createBlock(0, false);
+        Block dirt = createBlock(1, true);
+        Block grass = createBlock(2, true);
+        TerrainChunkProvider chunkProvider = new TerrainChunkProvider(new Block[]{air, dirt, grass}, dirt, grass);
+
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (int bodyCount : new int[]{100, 500, 1000}) {
+            benchmarks.add(new FallingBodiesBenchmark("Allocating voxel lookup",
+                    new AllocatingVoxelWorld(chunkProvider), bodyCount));
+            benchmarks.add(new FallingBodiesBenchmark("Shared voxel infos, chunk cached lookup",
+                    new PhysicsWorldWrapper(new ChunkCachedBlockAccessor(null, chunkProvider)), bodyCount));
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    private static Block createBlock(int id, boolean solid) {
+        Block block = new Block();
+        block.setId((short) id);
+        block.setPenetrable(!solid);
+        block.setTargetable(solid);
+        if (solid) {
+            block.setCollision(new Vector3f(), PhysicsEngineManager.COLLISION_SHAPE_FACTORY.getNewUnitCube());
+        }
+        return block;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkRegionListener;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.chunks.internal.GeneratingChunkProvider;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provides chunks of rolling hills, generated on first access, without the rest of the engine.
+ * <br><br>
+ * Chunk lookups by position allocate their key, as those of the local chunk provider do.
+ */
+public class TerrainChunkProvider implements GeneratingChunkProvider {
+
+    private final ConcurrentMap<Vector3i, Chunk> chunks = new ConcurrentHashMap<>();
+    private final BlockManager blockManager;
+    private final Block ground;
+    private final Block surface;
+    private final ExtraBlockDataManager extraDataManager = new ExtraBlockDataManager();
+
+    /**
+     * @param blocks the blocks by id; the air block, the ground block and the surface block have to be among them
+     */
+    public TerrainChunkProvider(Block[] blocks, Block ground, Block surface) {
+        this.blockManager = new FixedBlockManager(blocks);
+        this.ground = ground;
+        this.surface = surface;
+    }
+
+    /**
+     * @return The height of the terrain, in blocks
+     */
+    public static int getHeight(int x, int z) {
+        return (int) (8 + 4 * Math.sin(x * 0.15) + 3 * Math.cos(z * 0.2));
+    }
+
+    @Override
+    public Chunk getChunk(int x, int y, int z) {
+        return getChunk(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public Chunk getChunk(Vector3i chunkPos) {
+        return chunks.computeIfAbsent(chunkPos, this::generate);
+    }
+
+    private Chunk generate(Vector3i chunkPos) {
+        ChunkImpl chunk = new ChunkImpl(chunkPos, blockManager, extraDataManager);
+        for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+            for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                int height = getHeight(chunkPos.x * ChunkConstants.SIZE_X + x, chunkPos.z * ChunkConstants.SIZE_Z + z);
+                for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                    int worldY = chunkPos.y * ChunkConstants.SIZE_Y + y;
+                    if (worldY < height) {
+                        chunk.setBlock(x, y, z, ground);
+                    } else if (worldY == height) {
+                        chunk.setBlock(x, y, z, surface);
+                    }
+                }
+            }
+        }
+        chunk.markReady();
+        return chunk;
+    }
+
+    @Override
+    public boolean isChunkReady(Vector3i pos) {
+        return true;
+    }
+
+    @Override
+    public void onChunkIsReady(Chunk chunk) {
+    }
+
+    @Override
+    public Chunk getChunkUnready(Vector3i pos) {
+        return getChunk(pos);
+    }
+
+    @Override
+    public Collection<Chunk> getAllChunks() {
+        return Collections.unmodifiableCollection(chunks.values());
+    }
+
+    @Override
+    public ChunkViewCore getLocalView(Vector3i centerChunkPos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChunkViewCore getSubviewAroundBlock(Vector3i blockPos, int extent) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setWorldEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void addRelevanceEntity(EntityRef entity, Vector3i distance) {
+    }
+
+    @Override
+    public void addRelevanceEntity(EntityRef entity, Vector3i distance, ChunkRegionListener listener) {
+    }
+
+    @Override
+    public void updateRelevanceEntity(EntityRef entity, Vector3i distance) {
+    }
+
+    @Override
+    public void removeRelevanceEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void completeUpdate() {
+    }
+
+    @Override
+    public void beginUpdate() {
+    }
+
+    @Override
+    public boolean reloadChunk(Vector3i pos) {
+        return false;
+    }
+
+    @Override
+    public void purgeWorld() {
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public void restart() {
+    }
+
+    /**
+     * A block manager that only knows the blocks it was created with, which is all a chunk needs.
+     */
+    private static final class FixedBlockManager extends BlockManager {
+        private final Block[] blocks;
+
+        FixedBlockManager(Block[] blocks) {
+            this.blocks = Arrays.copyOf(blocks, blocks.length);
+        }
+
+        @Override
+        public Block getBlock(short id) {
+            return blocks[id];
+        }
+
+        @Override
+        public Collection<Block> listRegisteredBlocks() {
+            return Arrays.asList(blocks);
+        }
+
+        @Override
+        public Map<String, Short> getBlockIdMap() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BlockFamily getBlockFamily(String uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BlockFamily getBlockFamily(BlockUri uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Block getBlock(String uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Block getBlock(BlockUri uri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Collection<BlockUri> listRegisteredBlockUris() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Collection<BlockFamily> listRegisteredBlockFamilies() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getBlockFamilyCount() {
+            return 0;
+        }
+    }
+}
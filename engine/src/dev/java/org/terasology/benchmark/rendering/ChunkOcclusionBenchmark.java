@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.world.ChunkFaceConnectivity;
+import org.terasology.rendering.world.ChunkOcclusionCuller;
+import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.BitSet;
+
+/**
+ * Culls the chunks hidden behind the terrain of a generated landscape, as the renderable world does every frame.
+ * <br><br>
+ * The landscape is made of a few kinds of chunks whose face connectivity is computed once: air above the ground, a
+ * hilly ground layer, and solid rock below it, with a tunnel running through some of the rock chunks. Each repetition
+ * is one frame: the camera turns a little, and the chunks in its view cone are walked by the culler.
+ * <br><br>
+ * At its end the benchmark prints the share of the chunks in sight that were culled.
+ */
+public class ChunkOcclusionBenchmark extends AbstractBenchmark {
+
+    /**
+     * Where the camera is.
+     */
+    public enum Scene {
+        /**
+         * Standing on the ground, looking over the hills
+         */
+        SURFACE,
+        /**
+         * Inside a tunnel through the rock
+         */
+        CAVE
+    }
+
+    private static final float DEGREES_PER_FRAME = 1.5f;
+    private static final float FIELD_OF_VIEW = 90f;
+    private static final int CAVE_FREQUENCY = 5;
+
+    private final ViewDistance viewDistance;
+    private final Scene scene;
+
+    private final ChunkOcclusionCuller culler = new ChunkOcclusionCuller();
+    private final Vector3f viewDirection = new Vector3f();
+    private Region3i region;
+    private Vector3i cameraChunk;
+    private float yaw;
+    private long ground;
+    private long tunnel;
+    private long chunksInSight;
+    private long chunksCulled;
+
+    private final ChunkOcclusionCuller.ChunkGraph landscape = new ChunkOcclusionCuller.ChunkGraph() {
+        @Override
+        public long getFaceConnectivity(Vector3i chunkPosition) {
+            if (chunkPosition.y > 0) {
+                return ChunkFaceConnectivity.ALL_CONNECTED;
+            } else if (chunkPosition.y == 0) {
+                return ground;
+            } else if (Math.floorMod(chunkPosition.x * 31 + chunkPosition.y * 7 + chunkPosition.z * 17, CAVE_FREQUENCY) == 0
+                    || chunkPosition.equals(cameraChunk)) {
+                return tunnel;
+            }
+            return ChunkFaceConnectivity.NONE_CONNECTED;
+        }
+
+        @Override
+        public boolean isInSight(Vector3i chunkPosition) {
+            return isInViewCone(chunkPosition);
+        }
+    };
+
+    public ChunkOcclusionBenchmark(ViewDistance viewDistance, Scene scene) {
+        super("Cull " + viewDistance + " chunks hidden by the terrain, camera " + scene.toString().toLowerCase(),
+                60, new int[]{500, 1000});
+        this.viewDistance = viewDistance;
+        this.scene = scene;
+    }
+
+    @Override
+    public void setup() {
+        ground = ChunkFaceConnectivity.compute(createGround());
+        tunnel = ChunkFaceConnectivity.compute(createTunnel());
+        cameraChunk = scene == Scene.SURFACE ? new Vector3i(0, 1, 0) : new Vector3i(0, -2, 0);
+        Vector3i distance = viewDistance.getChunkDistance();
+        region = Region3i.createFromCenterExtents(cameraChunk, new Vector3i(distance.x / 2, distance.y / 2, distance.z / 2));
+        yaw = 0;
+        chunksInSight = 0;
+        chunksCulled = 0;
+    }
+
+    @Override
+    public void run() {
+        yaw += DEGREES_PER_FRAME;
+        double radians = Math.toRadians(yaw);
+        viewDirection.set((float) Math.cos(radians), -0.2f, (float) Math.sin(radians));
+        viewDirection.normalize();
+
+        culler.update(region, cameraChunk, landscape);
+        for (Vector3i position : region) {
+            if (isInViewCone(position)) {
+                chunksInSight++;
+                if (!culler.isVisible(position)) {
+                    chunksCulled++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (chunksInSight > 0) {
+            System.out.println(String.format("Culled %.1f%% of the chunks in sight", 100.0 * chunksCulled / chunksInSight));
+        }
+    }
+
+    /**
+     * Stands in for the view frustum: the chunks whose center is in a cone around the view direction, and the chunks
+     * next to the camera.
+     */
+    private boolean isInViewCone(Vector3i chunkPosition) {
+        float x = (float) (chunkPosition.x - cameraChunk.x) * ChunkConstants.SIZE_X;
+        float y = (float) (chunkPosition.y - cameraChunk.y) * ChunkConstants.SIZE_Y;
+        float z = (float) (chunkPosition.z - cameraChunk.z) * ChunkConstants.SIZE_Z;
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        if (length <= ChunkConstants.SIZE_Y) {
+            return true;
+        }
+        float cosine = (x * viewDirection.x + y * viewDirection.y + z * viewDirection.z) / length;
+        return cosine >= Math.cos(Math.toRadians(FIELD_OF_VIEW / 2 + 15));
+    }
+
+    /**
+     * @return Rolling hills, between a quarter and three quarters of the chunk high
+     */
+    private static BitSet createGround() {
+        BitSet opaque = new BitSet();
+        for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                double hills = Math.sin(x * 2 * Math.PI / ChunkConstants.SIZE_X) * Math.cos(z * 2 * Math.PI / ChunkConstants.SIZE_Z);
+                int height = (int) (ChunkConstants.SIZE_Y * (0.5 + 0.25 * hills));
+                for (int y = 0; y < height; y++) {
+                    opaque.set(ChunkFaceConnectivity.index(x, y, z));
+                }
+            }
+        }
+        return opaque;
+    }
+
+    /**
+     * @return Solid rock with two crossing tunnels, open to the four horizontal faces
+     */
+    private static BitSet createTunnel() {
+        BitSet opaque = new BitSet();
+        opaque.set(0, ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z);
+        int middleY = ChunkConstants.SIZE_Y / 2;
+        for (int i = 0; i < ChunkConstants.SIZE_X; i++) {
+            for (int y = middleY - 2; y <= middleY + 2; y++) {
+                for (int offset = -2; offset <= 2; offset++) {
+                    opaque.clear(ChunkFaceConnectivity.index(i, y, ChunkConstants.SIZE_Z / 2 + offset));
+                    opaque.clear(ChunkFaceConnectivity.index(ChunkConstants.SIZE_X / 2 + offset, y, i));
+                }
+            }
+        }
+        return opaque;
+    }
+}
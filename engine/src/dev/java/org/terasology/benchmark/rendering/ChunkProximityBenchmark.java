@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.rendering.world.ChunkProximityRings;
+import org.terasology.rendering.world.viewDistance.ViewDistance;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Flies the camera over the world and keeps the chunks around it in render order, as the renderable world does.
+ * <br><br>
+ * Each repetition is one frame. The camera moves a few blocks, the chunks that left the view are removed, and a
+ * limited number of the chunks that came into view arrive, as if they had just been generated. Then the chunks are
+ * queued for the five render phases and the queues are drained again.
+ * <br><br>
+ * The sorted list mode does what the renderable world used to do: sort the whole list for every arriving chunk, and
+ * order the render queues through priority queues. The rings mode uses {@link ChunkProximityRings} and plain queues.
+ */
+public class ChunkProximityBenchmark extends AbstractBenchmark {
+
+    private static final int ARRIVALS_PER_FRAME = 16;
+    private static final int RENDER_PHASES = 5;
+
+    private final ViewDistance viewDistance;
+    private final float blocksPerFrame;
+    private final boolean rings;
+
+    private final Vector3f cameraPosition = new Vector3f();
+    private Region3i region;
+    private final Deque<Vector3i> pendingArrivals = new ArrayDeque<>();
+
+    private List<RenderableChunk> sortedList;
+    private final List<Queue<RenderableChunk>> priorityQueues = Lists.newArrayList();
+    private ChunkProximityRings chunkRings;
+    private final List<Deque<RenderableChunk>> queues = Lists.newArrayList();
+
+    public ChunkProximityBenchmark(ViewDistance viewDistance, float blocksPerFrame, boolean rings) {
+        super("Keep " + viewDistance + " chunks in render order at " + blocksPerFrame + " blocks per frame, "
+                + (rings ? "distance rings" : "sorted list"), 60, new int[]{300, 600});
+        this.viewDistance = viewDistance;
+        this.blocksPerFrame = blocksPerFrame;
+        this.rings = rings;
+    }
+
+    @Override
+    public void setup() {
+        cameraPosition.set(0.5f, 40.5f, 0.5f);
+        region = Region3i.empty();
+        pendingArrivals.clear();
+        if (rings) {
+            chunkRings = new ChunkProximityRings();
+            for (int i = 0; i < RENDER_PHASES; i++) {
+                queues.add(new ArrayDeque<>());
+            }
+        } else {
+            sortedList = Lists.newArrayList();
+            Comparator<RenderableChunk> frontToBack = Comparator.comparingDouble(this::squaredDistanceToCamera);
+            for (int i = 0; i < RENDER_PHASES - 1; i++) {
+                priorityQueues.add(new PriorityQueue<>(frontToBack));
+            }
+            priorityQueues.add(new PriorityQueue<>(frontToBack.reversed()));
+        }
+        // Start with a fully loaded view
+        moveCamera();
+        while (!pendingArrivals.isEmpty()) {
+            arrive(pendingArrivals.poll());
+        }
+    }
+
+    @Override
+    public void run() {
+        cameraPosition.x += blocksPerFrame;
+        cameraPosition.z += blocksPerFrame * 0.5f;
+        moveCamera();
+        for (int i = 0; i < ARRIVALS_PER_FRAME && !pendingArrivals.isEmpty(); i++) {
+            arrive(pendingArrivals.poll());
+        }
+        queueAndDrain();
+    }
+
+    private void moveCamera() {
+        Vector3i cameraChunk = new Vector3i((int) (cameraPosition.x / ChunkConstants.SIZE_X),
+                (int) (cameraPosition.y / ChunkConstants.SIZE_Y), (int) (cameraPosition.z / ChunkConstants.SIZE_Z));
+        Vector3i distance = viewDistance.getChunkDistance();
+        Region3i newRegion = Region3i.createFromCenterExtents(cameraChunk,
+                new Vector3i(distance.x / 2, distance.y / 2, distance.z / 2));
+        if (newRegion.equals(region)) {
+            return;
+        }
+        Iterator<Vector3i> departed = region.subtract(newRegion);
+        while (departed.hasNext()) {
+            Vector3i position = departed.next();
+            if (rings) {
+                chunkRings.remove(position);
+            } else {
+                Iterator<RenderableChunk> iterator = sortedList.iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().getPosition().equals(position)) {
+                        iterator.remove();
+                        break;
+                    }
+                }
+            }
+        }
+        pendingArrivals.removeIf(position -> !newRegion.encompasses(position));
+        if (rings) {
+            chunkRings.setCenter(cameraChunk);
+        }
+        Iterator<Vector3i> entered = newRegion.subtract(region);
+        while (entered.hasNext()) {
+            pendingArrivals.add(entered.next());
+        }
+        region = newRegion;
+    }
+
+    private void arrive(Vector3i position) {
+        RenderableChunk chunk = createChunk(position);
+        if (rings) {
+            chunkRings.add(chunk);
+        } else {
+            sortedList.add(chunk);
+            Collections.sort(sortedList, Comparator.comparingDouble(this::squaredDistanceToCamera));
+        }
+    }
+
+    private void queueAndDrain() {
+        if (rings) {
+            for (RenderableChunk chunk : chunkRings) {
+                for (int i = 0; i < RENDER_PHASES - 1; i++) {
+                    queues.get(i).add(chunk);
+                }
+                queues.get(RENDER_PHASES - 1).addFirst(chunk);
+            }
+            for (Queue<RenderableChunk> queue : queues) {
+                while (queue.size() > 0) {
+                    queue.poll();
+                }
+            }
+        } else {
+            for (RenderableChunk chunk : sortedList) {
+                for (Queue<RenderableChunk> queue : priorityQueues) {
+                    queue.add(chunk);
+                }
+            }
+            for (Queue<RenderableChunk> queue : priorityQueues) {
+                while (queue.size() > 0) {
+                    queue.poll();
+                }
+            }
+        }
+    }
+
+    private double squaredDistanceToCamera(RenderableChunk chunk) {
+        Vector3i position = chunk.getPosition();
+        float x = (position.x + 0.5f) * ChunkConstants.SIZE_X - cameraPosition.x;
+        float y = (position.y + 0.5f) * ChunkConstants.SIZE_Y - cameraPosition.y;
+        float z = (position.z + 0.5f) * ChunkConstants.SIZE_Z - cameraPosition.z;
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * @return A chunk that only knows its position
+     */
+    private static RenderableChunk createChunk(Vector3i position) {
+        Vector3i chunkPosition = new Vector3i(position);
+        return (RenderableChunk) Proxy.newProxyInstance(RenderableChunk.class.getClassLoader(),
+                new Class<?>[]{RenderableChunk.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getPosition":
+                            return chunkPosition;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Chunk" + chunkPosition;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        queues.clear();
+        priorityQueues.clear();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.rendering.world.viewDistance.ViewDistance;
+
+import java.util.List;
+
+/**
+ * Runs the rendering benchmarks that do not need a display.
+ */
+public final class RenderingBenchmark {
+
+    private RenderingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (ViewDistance viewDistance : new ViewDistance[]{ViewDistance.FAR, ViewDistance.ULTRA}) {
+            for (float blocksPerFrame : new float[]{0.5f, 4f}) {
+                benchmarks.add(new ChunkProximityBenchmark(viewDistance, blocksPerFrame, false));
+                benchmarks.add(new ChunkProximityBenchmark(viewDistance, blocksPerFrame, true));
+            }
+            for (ChunkOcclusionBenchmark.Scene scene : ChunkOcclusionBenchmark.Scene.values()) {
+                benchmarks.add(new ChunkOcclusionBenchmark(viewDistance, scene));
+            }
+        }
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.utilities.random.FastRandom;
+
+/**
+ * Reads every block of a region once per run, either in the order of the block data (x, then z, then y) or in a
+ * random order.
+ */
+public class BlockReadBenchmark extends AbstractBenchmark {
+
+    /**
+     * Reads the id of a single block at a world position.
+     */
+    @FunctionalInterface
+    public interface BlockReader {
+        short getBlockId(int x, int y, int z);
+    }
+
+    private final Region3i region;
+    private final BlockReader reader;
+    private final boolean random;
+
+    private int[] positions;
+    private long checksum;
+
+    public BlockReadBenchmark(String title, Region3i region, BlockReader reader, boolean random) {
+        super(title + ", " + (random ? "random" : "sequential") + " (" + volume(region) + " blocks per run)",
+                5, new int[]{10, 20});
+        this.region = region;
+        this.reader = reader;
+        this.random = random;
+    }
+
+    static int volume(Region3i region) {
+        return region.sizeX() * region.sizeY() * region.sizeZ();
+    }
+
+    @Override
+    public void setup() {
+        if (random) {
+            FastRandom rand = new FastRandom(1);
+            positions = new int[volume(region) * 3];
+            for (int i = 0; i < positions.length; i += 3) {
+                positions[i] = region.minX() + rand.nextInt(region.sizeX());
+                positions[i + 1] = region.minY() + rand.nextInt(region.sizeY());
+                positions[i + 2] = region.minZ() + rand.nextInt(region.sizeZ());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        long sum = 0;
+        if (random) {
+            for (int i = 0; i < positions.length; i += 3) {
+                sum += reader.getBlockId(positions[i], positions[i + 1], positions[i + 2]);
+            }
+        } else {
+            for (int y = region.minY(); y <= region.maxY(); y++) {
+                for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                    for (int x = region.minX(); x <= region.maxX(); x++) {
+                        sum += reader.getBlockId(x, y, z);
+                    }
+                }
+            }
+        }
+        checksum += sum;
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        positions = null;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.world.internal.WorldProviderCore;
+
+/**
+ * Reads all blocks of a region at once with {@link WorldProviderCore#getBlocks(Region3i, short[])}.
+ */
+public class BulkBlockReadBenchmark extends AbstractBenchmark {
+
+    private final Region3i region;
+    private final WorldProviderCore world;
+
+    private short[] blockIds;
+    private long checksum;
+
+    public BulkBlockReadBenchmark(String title, Region3i region, WorldProviderCore world) {
+        super(title + ", bulk (" + BlockReadBenchmark.volume(region) + " blocks per run)", 5, new int[]{10, 20});
+        this.region = region;
+        this.world = world;
+    }
+
+    @Override
+    public void setup() {
+        blockIds = new short[BlockReadBenchmark.volume(region)];
+    }
+
+    @Override
+    public void run() {
+        world.getBlocks(region, blockIds);
+        checksum += blockIds[blockIds.length / 2];
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        blockIds = null;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.world;
+
+import com.google.common.collect.Lists;
+import org.terasology.benchmark.Benchmark;
+import org.terasology.benchmark.Benchmarks;
+import org.terasology.benchmark.PrintToConsoleCallback;
+import org.terasology.benchmark.physics.TerrainChunkProvider;
+import org.terasology.context.internal.ContextImpl;
+import org.terasology.engine.SimpleUri;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.internal.WorldProviderCoreImpl;
+
+import java.util.List;
+
+/**
+ * Compares reading blocks through the world provider with looking up the chunk of every block in the chunk provider,
+ * which is what the world provider did before it cached the last chunk of each thread.
+ */
+public final class WorldAccessBenchmark {
+
+    private WorldAccessBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        Block air = createBlock(0);
+        Block unloaded = createBlock(1);
+        Block dirt = createBlock(2);
+        Block grass = createBlock(3);
+        TerrainChunkProvider chunkProvider = new TerrainChunkProvider(new Block[]{air, unloaded, dirt, grass}, dirt, grass);
+        WorldProviderCoreImpl world = new WorldProviderCoreImpl("benchmark", "benchmark", "benchmark", 0,
+                new SimpleUri("engine:benchmark"), chunkProvider, unloaded, new ContextImpl());
+
+        Region3i region = Region3i.createFromMinAndSize(new Vector3i(-64, -32, -64), new Vector3i(128, 64, 128));
+        for (Vector3i chunkPos : ChunkMath.calcChunkPos(region)) {
+            chunkProvider.getChunk(chunkPos);
+        }
+
+        BlockReadBenchmark.BlockReader chunkMapLookup = (x, y, z) -> {
+            CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPos(x, y, z));
+            return chunk.getBlock(ChunkMath.calcBlockPos(x, y, z)).getId();
+        };
+        BlockReadBenchmark.BlockReader worldLookup = (x, y, z) -> world.getBlock(x, y, z).getId();
+
+        List<Benchmark> benchmarks = Lists.newArrayList();
+        for (boolean random : new boolean[]{false, true}) {
+            benchmarks.add(new BlockReadBenchmark("Chunk lookup per block", region, chunkMapLookup, random));
+            benchmarks.add(new BlockReadBenchmark("World provider", region, worldLookup, random));
+        }
+        benchmarks.add(new BulkBlockReadBenchmark("World provider", region, world));
+
+        Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
+    }
+
+    private static Block createBlock(int id) {
+        Block block = new Block();
+        block.setId((short) id);
+        return block;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.audio.formats;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps released direct buffers to hand them out again, as allocating direct memory is slow and only freed when the
+ * garbage collector gets around to it.
+ * <br><br>
+ * Buffers are pooled by their exact capacity, which suits the fixed size chunks sound streams are decoded in. At most
+ * a given number of buffers is kept per capacity, any further released buffers are left to the garbage collector.
+ * The pool is thread safe.
+ */
+public class DirectBufferPool {
+
+    private final int maxBuffersPerCapacity;
+    private final ConcurrentMap<Integer, Queue<ByteBuffer>> freeBuffers = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxBuffersPerCapacity The most released buffers kept of each capacity.
+     */
+    public DirectBufferPool(int maxBuffersPerCapacity) {
+        this.maxBuffersPerCapacity = maxBuffersPerCapacity;
+    }
+
+    /**
+     * @param capacity The capacity of the buffer, in bytes.
+     * @return A cleared direct buffer in native byte order, either released before or newly allocated.
+     */
+    public ByteBuffer acquire(int capacity) {
+        Queue<ByteBuffer> buffers = freeBuffers.get(capacity);
+        ByteBuffer buffer = buffers != null ? buffers.poll() : null;
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. It must not be used by the caller afterwards.
+     *
+     * @param buffer A buffer acquired from this pool; heap buffers are ignored.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        freeBuffers.computeIfAbsent(buffer.capacity(), capacity -> new ArrayBlockingQueue<>(maxBuffersPerCapacity))
+                .offer(buffer);
+    }
+
+    /**
+     * @return The number of buffers waiting to be acquired again.
+     */
+    public int getPooledBufferCount() {
+        return freeBuffers.values().stream().mapToInt(Queue::size).sum();
+    }
+}
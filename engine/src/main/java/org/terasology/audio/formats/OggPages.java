@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.audio.formats;
+
+/**
+ * Reads the page headers of an Ogg file without decoding it.
+ */
+final class OggPages {
+
+    private static final int HEADER_SIZE = 27;
+    private static final int GRANULE_POSITION_OFFSET = 6;
+    private static final int SEGMENT_COUNT_OFFSET = 26;
+
+    private OggPages() {
+    }
+
+    /**
+     * Finds the granule position of the last page of an Ogg file. For a Vorbis stream this is the number of samples
+     * per channel of the whole file, so the size of the decoded sound is known before decoding it.
+     *
+     * @param data The content of an Ogg file.
+     * @return The last granule position in the file, or -1 if there is none.
+     */
+    static long lastGranulePosition(byte[] data) {
+        long granulePosition = -1;
+        int pos = 0;
+        while (pos + HEADER_SIZE <= data.length) {
+            if (data[pos] != 'O' || data[pos + 1] != 'g' || data[pos + 2] != 'g' || data[pos + 3] != 'S') {
+                // Not at a page boundary, resynchronize like a decoder would
+                pos++;
+                continue;
+            }
+            int segmentCount = data[pos + SEGMENT_COUNT_OFFSET] & 0xff;
+            int bodyStart = pos + HEADER_SIZE + segmentCount;
+            if (bodyStart > data.length) {
+                break;
+            }
+            int bodySize = 0;
+            for (int i = pos + HEADER_SIZE; i < bodyStart; i++) {
+                bodySize += data[i] & 0xff;
+            }
+
+            long pageGranulePosition = readLongLittleEndian(data, pos + GRANULE_POSITION_OFFSET);
+            // Pages on which no packet ends have a granule position of -1
+            if (pageGranulePosition != -1) {
+                granulePosition = pageGranulePosition;
+            }
+            pos = bodyStart + bodySize;
+        }
+        return granulePosition;
+    }
+
+    private static long readLongLittleEndian(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xff);
+        }
+        return value;
+    }
+}
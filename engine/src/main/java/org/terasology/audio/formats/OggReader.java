@@ -58,10 +58,13 @@ public class OggReader extends FilterInputStream {
     private static final int FORMAT_STEREO16 = 2;
 
     /// Conversion buffer size
-    private static int convsize = 4096 * 2;
+    private static final int CONVBUFFER_SIZE = 4096 * 2;
 
-    // Conversion buffer
-    private static byte[] convbuffer = new byte[convsize];
+    // Samples per channel converted at once
+    private int convsize = CONVBUFFER_SIZE;
+
+    // Conversion buffer, one per reader so that several sounds can be decoded at the same time
+    private final byte[] convbuffer = new byte[CONVBUFFER_SIZE];
 
     // temp vars
     private float[][][] pcm = new float[1][][];
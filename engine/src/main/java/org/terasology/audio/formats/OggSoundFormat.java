@@ -16,20 +16,17 @@
 
 package org.terasology.audio.formats;
 
-import com.google.common.io.ByteStreams;
-import org.lwjgl.BufferUtils;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.format.AbstractAssetFileFormat;
 import org.terasology.assets.format.AssetDataFile;
 import org.terasology.assets.module.annotations.RegisterAssetFileFormat;
 import org.terasology.audio.StaticSoundData;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
+ * Decodes Ogg sounds through the {@link SoundLoadingService} of the current context.
  */
 @RegisterAssetFileFormat
 public class OggSoundFormat extends AbstractAssetFileFormat<StaticSoundData> {
@@ -40,14 +37,8 @@ public OggSoundFormat() {
 
     @Override
     public StaticSoundData load(ResourceUrn urn, List<AssetDataFile> inputs) throws IOException {
-        try (OggReader reader = new OggReader(inputs.get(0).openStream())) {
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            ByteStreams.copy(reader, bos);
-
-            ByteBuffer data = BufferUtils.createByteBuffer(bos.size()).put(bos.toByteArray());
-            data.flip();
-
-            return new StaticSoundData(data, reader.getChannels(), reader.getRate(), 16);
+        try {
+            return SoundLoadingService.current().decode(inputs.get(0));
         } catch (IOException e) {
             throw new IOException("Failed to load sound: " + e.getMessage(), e);
         }
@@ -13,7 +13,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.terasology.audio.formats;
 
 import org.slf4j.Logger;
@@ -26,36 +25,90 @@
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- *
+ * Streams an Ogg file, decoding a few chunks ahead of playback on the decoder threads of a
+ * {@link SoundLoadingService}. If playback catches up with the decoder, the next chunk is decoded on the calling
+ * thread instead.
+ * <br><br>
+ * The reader is only used while holding the reader lock, so the chunks are decoded in order, whichever thread
+ * decodes them. Chunks are consumed by a single thread, the one playing the sound.
  */
 public class OggStreamingSoundData implements StreamingSoundData {
 
     private static Logger logger = LoggerFactory.getLogger(OggStreamingSoundData.class);
 
+    /**
+     * The size of the decoded chunks, the same as the buffers of the OpenAL streaming sounds.
+     */
+    private static final int CHUNK_SIZE = 4096 * 8;
+
+    /**
+     * The number of chunks decoded ahead of playback, about three quarters of a second of stereo sound at 44.1 kHz.
+     */
+    private static final int PREFETCHED_CHUNKS = 4;
+
     private final AssetDataFile stream;
+    private final SoundLoadingService loadingService;
+
+    private final Object readerLock = new Object();
+    private final Queue<ByteBuffer> prefetchedChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+
+    // Guarded by readerLock
     private OggReader reader;
+    private int generation;
+    private boolean endOfStream;
+
+    // Only used by the playing thread
+    private ByteBuffer currentChunk;
+
+    private volatile int channels;
+    private volatile int samplingRate;
 
     public OggStreamingSoundData(AssetDataFile stream) {
+        this(stream, SoundLoadingService.current());
+    }
+
+    public OggStreamingSoundData(AssetDataFile stream, SoundLoadingService loadingService) {
         this.stream = stream;
+        this.loadingService = loadingService;
         reset();
     }
 
     @Override
     public ByteBuffer readNextInto(ByteBuffer dataBuffer) {
-        try {
-            reader.read(dataBuffer, 0, dataBuffer.capacity());
-            dataBuffer.flip();
-            return dataBuffer;
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading from sound stream", e);
+        dataBuffer.clear();
+        while (dataBuffer.hasRemaining()) {
+            if (currentChunk == null || !currentChunk.hasRemaining()) {
+                loadingService.getBufferPool().release(currentChunk);
+                currentChunk = nextChunk();
+                if (currentChunk == null) {
+                    break;
+                }
+            }
+            if (currentChunk.remaining() <= dataBuffer.remaining()) {
+                dataBuffer.put(currentChunk);
+            } else {
+                ByteBuffer part = currentChunk.duplicate();
+                part.limit(part.position() + dataBuffer.remaining());
+                dataBuffer.put(part);
+                currentChunk.position(part.position());
+            }
         }
+        dataBuffer.flip();
+
+        startPrefetching();
+        return dataBuffer;
     }
 
     @Override
     public int getChannels() {
-        return reader.getChannels();
+        return channels;
     }
 
     @Override
@@ -65,30 +118,125 @@ public int getBufferBits() {
 
     @Override
     public int getSamplingRate() {
-        return reader.getRate();
+        return samplingRate;
     }
 
     @Override
     public void reset() {
-        if (reader != null) {
-            dispose();
-        }
-        try {
-           reader = AccessController.doPrivileged((PrivilegedExceptionAction<OggReader>) () -> new OggReader(stream.openStream()));
-        } catch (PrivilegedActionException e) {
-            throw new RuntimeException("Failed to reset ogg stream", e);
+        synchronized (readerLock) {
+            if (reader != null) {
+                dispose();
+            }
+            try {
+                reader = AccessController.doPrivileged((PrivilegedExceptionAction<OggReader>) () -> new OggReader(stream.openStream()));
+            } catch (PrivilegedActionException e) {
+                throw new RuntimeException("Failed to reset ogg stream", e);
+            }
+            channels = reader.getChannels();
+            samplingRate = reader.getRate();
+            endOfStream = false;
         }
     }
 
     @Override
     public void dispose() {
-        if (reader != null) {
+        synchronized (readerLock) {
+            // Makes prefetches that are already scheduled stop
+            generation++;
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    logger.error("Failed to close ogg streaming", e);
+                }
+                reader = null;
+            }
+            DirectBufferPool bufferPool = loadingService.getBufferPool();
+            ByteBuffer chunk;
+            while ((chunk = prefetchedChunks.poll()) != null) {
+                bufferPool.release(chunk);
+            }
+            bufferPool.release(currentChunk);
+            currentChunk = null;
+        }
+    }
+
+    /**
+     * @return The next decoded chunk, or null at the end of the stream.
+     */
+    private ByteBuffer nextChunk() {
+        ByteBuffer chunk = prefetchedChunks.poll();
+        if (chunk != null) {
+            return chunk;
+        }
+        synchronized (readerLock) {
+            // A prefetch may have finished the chunk while this thread waited for the lock
+            chunk = prefetchedChunks.poll();
+            return chunk != null ? chunk : decodeChunk();
+        }
+    }
+
+    private void startPrefetching() {
+        if (prefetchedChunks.size() < PREFETCHED_CHUNKS && prefetching.compareAndSet(false, true)) {
+            int prefetchGeneration;
+            synchronized (readerLock) {
+                prefetchGeneration = generation;
+            }
             try {
-                reader.close();
-            } catch (IOException e) {
-                logger.error("Failed to close ogg streaming", e);
+                loadingService.getExecutor().execute(() -> prefetch(prefetchGeneration));
+            } catch (RejectedExecutionException e) {
+                // The service was shut down, so chunks are only decoded when they are needed
+                prefetching.set(false);
+            }
+        }
+    }
+
+    private void prefetch(int prefetchGeneration) {
+        try {
+            while (prefetchedChunks.size() < PREFETCHED_CHUNKS) {
+                synchronized (readerLock) {
+                    if (prefetchGeneration != generation) {
+                        return;
+                    }
+                    ByteBuffer chunk = decodeChunk();
+                    if (chunk == null) {
+                        return;
+                    }
+                    prefetchedChunks.add(chunk);
+                }
             }
-            reader = null;
+        } catch (RuntimeException e) {
+            logger.error("Failed to prefetch ogg stream", e);
+        } finally {
+            prefetching.set(false);
+        }
+    }
+
+    /**
+     * Must be called while holding the reader lock.
+     *
+     * @return The next chunk read from the stream, or null at the end of the stream.
+     */
+    private ByteBuffer decodeChunk() {
+        if (reader == null || endOfStream) {
+            return null;
+        }
+        DirectBufferPool bufferPool = loadingService.getBufferPool();
+        ByteBuffer chunk = bufferPool.acquire(CHUNK_SIZE);
+        try {
+            while (chunk.hasRemaining() && reader.read(chunk, chunk.position(), chunk.remaining()) > 0) {
+                // keep decoding until the chunk is full or the stream ends
+            }
+        } catch (IOException e) {
+            bufferPool.release(chunk);
+            throw new RuntimeException("Error reading from sound stream", e);
+        }
+        chunk.flip();
+        if (!chunk.hasRemaining()) {
+            endOfStream = true;
+            bufferPool.release(chunk);
+            return null;
         }
+        return chunk;
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.audio.formats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.audio.StaticSoundData;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Stores decoded sounds on disk, so that they are not decoded again the next time the game starts.
+ * <br><br>
+ * Every sound is stored in its own file, named after a hash of the encoded sound. A file consists of a small header
+ * with the format of the sound followed by the raw PCM data, which is read straight into a direct buffer.
+ */
+class PcmCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PcmCache.class);
+
+    private static final int MAGIC = 0x50434d31; // "PCM1"
+    private static final int HEADER_SIZE = 5 * Integer.BYTES;
+    private static final String EXTENSION = ".pcm";
+
+    private final Path directory;
+
+    PcmCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param key The hash of the encoded sound.
+     * @return The decoded sound, or null if it is not cached.
+     */
+    StaticSoundData read(String key) throws IOException {
+        Path file = directory.resolve(key + EXTENSION);
+        StaticSoundData data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = readSound(channel);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (data == null) {
+            logger.warn("Discarding damaged cached sound {}", file);
+            Files.deleteIfExists(file);
+        }
+        return data;
+    }
+
+    private static StaticSoundData readSound(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            return null;
+        }
+        int channels = header.getInt();
+        int sampleRate = header.getInt();
+        int bufferBits = header.getInt();
+        int size = header.getInt();
+        if (size < 0 || size != channel.size() - HEADER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer pcm = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        readFully(channel, pcm);
+        pcm.flip();
+        return new StaticSoundData(pcm, channels, sampleRate, bufferBits);
+    }
+
+    /**
+     * Stores a decoded sound. The file is replaced at once, so concurrent readers never see a partially written one.
+     *
+     * @param key  The hash of the encoded sound.
+     * @param data The decoded sound; its buffer is not modified.
+     */
+    void write(String key, StaticSoundData data) throws IOException {
+        Files.createDirectories(directory);
+        ByteBuffer pcm = data.getData().duplicate();
+        pcm.rewind();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(data.getChannels()).putInt(data.getSampleRate()).putInt(data.getBufferBits())
+                .putInt(pcm.remaining());
+        header.flip();
+
+        Path tempFile = Files.createTempFile(directory, key, ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                while (pcm.hasRemaining()) {
+                    channel.write(pcm);
+                }
+            }
+            Files.move(tempFile, directory.resolve(key + EXTENSION), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // keep reading until the buffer is full or the file ends
+        }
+    }
+}
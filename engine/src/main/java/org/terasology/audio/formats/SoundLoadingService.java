@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.audio.formats;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.lwjgl.BufferUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.assets.format.AssetDataFile;
+import org.terasology.audio.StaticSoundData;
+import org.terasology.registry.CoreRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes Ogg sounds, either on the calling thread or on a pool of decoder threads.
+ * <br><br>
+ * A static sound is decoded straight into a direct buffer of its final size, which is taken from the last page of
+ * the Ogg file. Streaming sounds decode a few chunks ahead of playback on the decoder threads, into buffers from a
+ * shared {@link DirectBufferPool}.
+ * <br><br>
+ * Optionally, decoded static sounds are cached on disk and read from there instead of being decoded again.
+ * <br><br>
+ * The audio subsystems register a service in the root context. The sound formats fall back to a shared service
+ * without a cache if there is none, for example in tests.
+ */
+public class SoundLoadingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoundLoadingService.class);
+
+    /**
+     * Decoded PCM data is usually about ten times as large as the Ogg file. Only used if the file has no length.
+     */
+    private static final int ESTIMATED_COMPRESSION_RATIO = 10;
+
+    /**
+     * The largest Vorbis block. Room for one more block is left, in case the decoder does not trim the last one.
+     */
+    private static final int MAX_BLOCK_SAMPLES = 8192;
+
+    private static final int POOLED_BUFFERS_PER_CAPACITY = 64;
+
+    private final ThreadPoolExecutor executor;
+    private final DirectBufferPool bufferPool = new DirectBufferPool(POOLED_BUFFERS_PER_CAPACITY);
+    private final PcmCache pcmCache;
+
+    /**
+     * @param threadCount       The number of decoder threads.
+     * @param pcmCacheDirectory The directory to cache decoded sounds in, or null to not cache them.
+     */
+    public SoundLoadingService(int threadCount, Path pcmCacheDirectory) {
+        executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("Sound-Decoder-%d").setDaemon(true).build());
+        // Starts the threads right away, so they are created by the engine rather than by whichever code loads a sound
+        executor.prestartAllCoreThreads();
+        pcmCache = pcmCacheDirectory != null ? new PcmCache(pcmCacheDirectory) : null;
+    }
+
+    /**
+     * @return A thread count that leaves most cores to the game itself
+     */
+    public static int getDefaultThreadCount() {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * @return The service of the current context, or a shared one without a cache if the context has none
+     */
+    public static SoundLoadingService current() {
+        SoundLoadingService service = CoreRegistry.get(SoundLoadingService.class);
+        return service != null ? service : FallbackService.INSTANCE;
+    }
+
+    /**
+     * Decodes a sound on a decoder thread.
+     *
+     * @param file An Ogg file.
+     * @return The decoded sound, or the IOException that prevented decoding it wrapped in an UncheckedIOException
+     */
+    public CompletableFuture<StaticSoundData> decodeAsync(AssetDataFile file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return decode(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Decodes a sound on the calling thread.
+     *
+     * @param file An Ogg file.
+     * @return The decoded sound, with the data between position 0 and the limit of its buffer.
+     */
+    public StaticSoundData decode(AssetDataFile file) throws IOException {
+        byte[] encoded;
+        try (InputStream stream = file.openStream()) {
+            encoded = ByteStreams.toByteArray(stream);
+        }
+        return decodeOgg(encoded);
+    }
+
+    StaticSoundData decodeOgg(byte[] encoded) throws IOException {
+        String cacheKey = null;
+        if (pcmCache != null) {
+            cacheKey = Hashing.sha256().hashBytes(encoded).toString();
+            StaticSoundData cached = readCached(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        StaticSoundData data;
+        try (OggReader reader = new OggReader(new ByteArrayInputStream(encoded))) {
+            long samples = OggPages.lastGranulePosition(encoded);
+            long size = samples > 0 ? (samples + MAX_BLOCK_SAMPLES) * reader.getChannels() * 2
+                    : (long) encoded.length * ESTIMATED_COMPRESSION_RATIO;
+            ByteBuffer pcm = BufferUtils.createByteBuffer((int) Math.min(Integer.MAX_VALUE - 8, Math.max(size, 1)));
+            while (true) {
+                if (!pcm.hasRemaining()) {
+                    pcm = grow(pcm);
+                }
+                if (reader.read(pcm, pcm.position(), pcm.remaining()) <= 0) {
+                    break;
+                }
+            }
+            pcm.flip();
+            data = new StaticSoundData(pcm, reader.getChannels(), reader.getRate(), 16);
+        }
+
+        if (cacheKey != null) {
+            writeCached(cacheKey, data);
+        }
+        return data;
+    }
+
+    /**
+     * @return The pool of the buffers streaming sounds decode into
+     */
+    public DirectBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Stops the decoder threads. Sounds can still be decoded on the calling thread afterwards.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private StaticSoundData readCached(String key) {
+        try {
+            return pcmCache.read(key);
+        } catch (IOException e) {
+            logger.warn("Failed to read cached sound {}", key, e);
+            return null;
+        }
+    }
+
+    private void writeCached(String key, StaticSoundData data) {
+        try {
+            pcmCache.write(key, data);
+        } catch (IOException e) {
+            logger.warn("Failed to cache sound {}", key, e);
+        }
+    }
+
+    /**
+     * Only needed if the length in the file was wrong, so growing generously keeps the copies rare.
+     */
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        ByteBuffer grown = BufferUtils.createByteBuffer(capacity + Math.max(capacity / 2, 4096));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    private static final class FallbackService {
+        private static final SoundLoadingService INSTANCE = new SoundLoadingService(getDefaultThreadCount(), null);
+
+        private FallbackService() {
+        }
+    }
+}
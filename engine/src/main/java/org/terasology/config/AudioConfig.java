@@ -25,6 +25,7 @@ public class AudioConfig {
     private float soundVolume;
     private float musicVolume;
     private boolean disableSound;
+    private boolean cacheDecodedSounds;
 
     private transient PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
 
@@ -74,6 +75,20 @@ public void setDisableSound(boolean disableSound) {
         this.disableSound = disableSound;
     }
 
+    /**
+     * @return whether decoded sounds are stored on disk, so they do not need to be decoded again
+     */
+    public boolean isCacheDecodedSounds() {
+        return cacheDecodedSounds;
+    }
+
+    /**
+     * @param cacheDecodedSounds whether decoded sounds are stored on disk
+     */
+    public void setCacheDecodedSounds(boolean cacheDecodedSounds) {
+        this.cacheDecodedSounds = cacheDecodedSounds;
+    }
+
     /**
      * @param changeListener The PropertyChangeListener to subscribe to
      */
@@ -22,6 +22,9 @@
 public class SystemConfig {
     public static final String SAVED_GAMES_ENABLED_PROPERTY = "org.terasology.savedGamesEnabled";
     public static final String PERMISSIVE_SECURITY_ENABLED_PROPERTY = "org.terasology.permissiveSecurityEnabled";
+    public static final String METRICS_PORT_PROPERTY = "org.terasology.metricsPort";
+    public static final String CLASS_INDEX_CACHE_DISABLED_PROPERTY = "org.terasology.classIndexCacheDisabled";
+    public static final String CHUNK_MONITOR_DISABLED_PROPERTY = "org.terasology.chunkMonitorDisabled";
 
     private long dayNightLengthInMs;
     private int maxThreads;
@@ -32,6 +35,9 @@ public class SystemConfig {
     private boolean writeSaveGamesEnabled;
     private long chunkGenerationFailTimeoutInMs;
     private String locale;
+    private int metricsPort;
+    private String metricsHost;
+    private int metricsDumpIntervalInSeconds;
 
     public long getDayNightLengthInMs() {
         return dayNightLengthInMs;
@@ -101,6 +107,43 @@ public void setChunkGenerationFailTimeoutInMs(long chunkGenerationFailTimeoutInM
         this.chunkGenerationFailTimeoutInMs = chunkGenerationFailTimeoutInMs;
     }
 
+    /**
+     * @return The port of the HTTP endpoint serving the metrics of a server, or 0 if it is disabled
+     */
+    public int getMetricsPort() {
+        String property = System.getProperty(METRICS_PORT_PROPERTY);
+        if (property != null) {
+            return Integer.parseInt(property);
+        }
+        return metricsPort;
+    }
+
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    /**
+     * @return The address the metrics endpoint binds to
+     */
+    public String getMetricsHost() {
+        return metricsHost;
+    }
+
+    public void setMetricsHost(String metricsHost) {
+        this.metricsHost = metricsHost;
+    }
+
+    /**
+     * @return How often the metrics of a server are written to a file, or 0 if they are not written
+     */
+    public int getMetricsDumpIntervalInSeconds() {
+        return metricsDumpIntervalInSeconds;
+    }
+
+    public void setMetricsDumpIntervalInSeconds(int metricsDumpIntervalInSeconds) {
+        this.metricsDumpIntervalInSeconds = metricsDumpIntervalInSeconds;
+    }
+
     public Locale getLocale() {
         if (locale == null) {
             setLocale(Locale.getDefault(Category.DISPLAY));
@@ -16,6 +16,8 @@
 
 package org.terasology.engine.modes;
 
+import java.util.Set;
+
 /**
  */
 public interface LoadProcess {
@@ -46,4 +48,24 @@ public interface LoadProcess {
      * @return A relative cost for this process. A small process would have a cost of 1, a large process a bigger cost.
      */
     int getExpectedCost();
+
+    /**
+     * Processes that do not require the main thread run on a worker thread, all their steps at once, while later
+     * processes already run on the main thread. They may not use OpenGL or change the entity system.
+     *
+     * @return Whether the process has to run on the main thread
+     */
+    default boolean requiresMainThread() {
+        return true;
+    }
+
+    /**
+     * Dependencies on processes that are not part of the loading sequence are ignored.
+     *
+     * @return The types of the processes that have to finish before this one begins, or null to wait for all
+     * processes added before this one, including those running in the background
+     */
+    default Set<Class<? extends LoadProcess>> getDependencies() {
+        return null;
+    }
 }
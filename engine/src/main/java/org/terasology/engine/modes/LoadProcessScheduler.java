@@ -0,0 +1,311 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.modes;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the load processes of a game, taking their dependencies into account.
+ * <br><br>
+ * Processes that require the main thread run there one step at a time, in the order they were added. The other
+ * processes run on worker threads as soon as the processes they depend on have finished, alongside the main thread
+ * processes added after them that do not depend on them. By default, a process depends on all processes added before
+ * it, whether they run on the main thread or not, so without declared dependencies the processes run one after
+ * another in the order they were added.
+ * <br><br>
+ * The scheduler also measures how long every process and the whole loading took.
+ */
+class LoadProcessScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadProcessScheduler.class);
+
+    private final List<LoadProcess> processes = Lists.newArrayList();
+    private final Map<LoadProcess, Set<LoadProcess>> dependencies = Maps.newHashMap();
+    private final Map<LoadProcess, Long> durations = Maps.newConcurrentMap();
+    private final Set<LoadProcess> finished = Sets.newConcurrentHashSet();
+    private final AtomicReference<Throwable> backgroundFailure = new AtomicReference<>();
+    private final AtomicBoolean timesLogged = new AtomicBoolean();
+
+    private final List<LoadProcess> pendingMainThreadProcesses = Lists.newLinkedList();
+    private final List<LoadProcess> pendingBackgroundProcesses = Lists.newLinkedList();
+    private final List<LoadProcess> runningBackgroundProcesses = Lists.newArrayList();
+
+    private ExecutorService executor;
+    private LoadProcess current;
+    private long currentStartTime;
+    private volatile long startTime;
+    private int finishedCost;
+    private int totalCost;
+
+    /**
+     * Adds a process. Its declared dependencies must have been added before it.
+     */
+    void add(LoadProcess process) {
+        Set<LoadProcess> processDependencies = Sets.newHashSet();
+        Set<Class<? extends LoadProcess>> declared = process.getDependencies();
+        for (LoadProcess earlier : processes) {
+            if (declared == null || declared.stream().anyMatch(type -> type.isInstance(earlier))) {
+                processDependencies.add(earlier);
+            }
+        }
+        dependencies.put(process, processDependencies);
+        processes.add(process);
+        if (process.requiresMainThread()) {
+            pendingMainThreadProcesses.add(process);
+        } else {
+            pendingBackgroundProcesses.add(process);
+        }
+        totalCost += process.getExpectedCost();
+    }
+
+    /**
+     * Starts the background processes that may begin and runs a single step of the current main thread process.
+     *
+     * @return Whether there was anything to run on the main thread. If not, the main thread waits for background
+     * processes to finish.
+     * @throws RuntimeException If a background process failed
+     */
+    boolean step() {
+        if (startTime == 0) {
+            startTime = System.nanoTime();
+        }
+        rethrowBackgroundFailure();
+        collectFinishedBackgroundProcesses();
+        startBackgroundProcesses();
+
+        if (current == null) {
+            if (pendingMainThreadProcesses.isEmpty() || !isReady(pendingMainThreadProcesses.get(0))) {
+                return false;
+            }
+            current = pendingMainThreadProcesses.remove(0);
+            currentStartTime = System.nanoTime();
+            logger.debug(current.getMessage());
+            current.begin();
+        }
+        if (current.step()) {
+            markFinished(current, System.nanoTime() - currentStartTime);
+            finishedCost += current.getExpectedCost();
+            current = null;
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether all processes have finished
+     */
+    boolean isFinished() {
+        rethrowBackgroundFailure();
+        return finished.size() == processes.size();
+    }
+
+    /**
+     * @return The process currently running on the main thread, else one running in the background, or null
+     */
+    LoadProcess getCurrentProcess() {
+        if (current != null) {
+            return current;
+        }
+        synchronized (runningBackgroundProcesses) {
+            return runningBackgroundProcesses.isEmpty() ? null : runningBackgroundProcesses.get(0);
+        }
+    }
+
+    /**
+     * @return The overall progress of loading, between 0 and 1, weighted by the expected costs of the processes
+     */
+    float getProgress() {
+        float progress = finishedCost;
+        if (current != null) {
+            progress += current.getExpectedCost() * current.getProgress();
+        }
+        synchronized (runningBackgroundProcesses) {
+            for (LoadProcess process : runningBackgroundProcesses) {
+                progress += process.getExpectedCost() * process.getProgress();
+            }
+        }
+        return totalCost == 0 ? 1 : Math.min(1, progress / totalCost);
+    }
+
+    /**
+     * @return The time each finished process took, in the order they were added
+     */
+    Map<LoadProcess, Long> getDurationsInMs() {
+        Map<LoadProcess, Long> result = Maps.newLinkedHashMap();
+        for (LoadProcess process : processes) {
+            Long duration = durations.get(process);
+            if (duration != null) {
+                result.put(process, TimeUnit.NANOSECONDS.toMillis(duration));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Stops the worker threads. Background processes that are still running are interrupted.
+     */
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return Whether the two processes may run at the same time: at least one of them runs in the background, and
+     * neither has to wait for the other, directly or through other processes
+     */
+    boolean mayRunConcurrently(LoadProcess first, LoadProcess second) {
+        if (first.requiresMainThread() && second.requiresMainThread()) {
+            return false;
+        }
+        return !waitsFor(first, second) && !waitsFor(second, first);
+    }
+
+    private boolean waitsFor(LoadProcess process, LoadProcess other) {
+        Set<LoadProcess> visited = Sets.newHashSet();
+        Deque<LoadProcess> open = new ArrayDeque<>();
+        open.add(process);
+        while (!open.isEmpty()) {
+            LoadProcess current = open.poll();
+            for (LoadProcess predecessor : getPredecessors(current)) {
+                if (predecessor == other) {
+                    return true;
+                }
+                if (visited.add(predecessor)) {
+                    open.add(predecessor);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The dependencies of the process and, as main thread processes run in order, the main thread process
+     * added before it
+     */
+    private Set<LoadProcess> getPredecessors(LoadProcess process) {
+        Set<LoadProcess> predecessors = Sets.newHashSet(dependencies.get(process));
+        if (process.requiresMainThread()) {
+            for (int i = processes.indexOf(process) - 1; i >= 0; i--) {
+                if (processes.get(i).requiresMainThread()) {
+                    predecessors.add(processes.get(i));
+                    break;
+                }
+            }
+        }
+        return predecessors;
+    }
+
+    private boolean isReady(LoadProcess process) {
+        return finished.containsAll(dependencies.get(process));
+    }
+
+    private void startBackgroundProcesses() {
+        Iterator<LoadProcess> iterator = pendingBackgroundProcesses.iterator();
+        while (iterator.hasNext()) {
+            LoadProcess process = iterator.next();
+            if (isReady(process)) {
+                iterator.remove();
+                synchronized (runningBackgroundProcesses) {
+                    runningBackgroundProcesses.add(process);
+                }
+                getExecutor().execute(() -> runInBackground(process));
+            }
+        }
+    }
+
+    private void runInBackground(LoadProcess process) {
+        long processStartTime = System.nanoTime();
+        try {
+            logger.debug(process.getMessage());
+            process.begin();
+            while (!process.step()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException(process.getMessage() + " was interrupted");
+                }
+            }
+            markFinished(process, System.nanoTime() - processStartTime);
+        } catch (Throwable e) {
+            backgroundFailure.compareAndSet(null, e);
+        }
+    }
+
+    private void collectFinishedBackgroundProcesses() {
+        synchronized (runningBackgroundProcesses) {
+            Iterator<LoadProcess> iterator = runningBackgroundProcesses.iterator();
+            while (iterator.hasNext()) {
+                LoadProcess process = iterator.next();
+                if (finished.contains(process)) {
+                    iterator.remove();
+                    finishedCost += process.getExpectedCost();
+                }
+            }
+        }
+    }
+
+    private void markFinished(LoadProcess process, long durationNanos) {
+        durations.put(process, durationNanos);
+        finished.add(process);
+        if (finished.size() == processes.size() && timesLogged.compareAndSet(false, true)) {
+            logTimes();
+        }
+    }
+
+    private void rethrowBackgroundFailure() {
+        Throwable failure = backgroundFailure.get();
+        if (failure != null) {
+            shutdown();
+            Throwables.throwIfUnchecked(failure);
+            throw new RuntimeException("Load process failed", failure);
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                    new ThreadFactoryBuilder().setNameFormat("Loading-%d").setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    private void logTimes() {
+        logger.info("Loading took {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        if (logger.isDebugEnabled()) {
+            getDurationsInMs().forEach((process, duration) ->
+                    logger.debug("{} took {} ms{}", process.getClass().getSimpleName(), duration,
+                            process.requiresMainThread() ? "" : " in the background"));
+        }
+    }
+}
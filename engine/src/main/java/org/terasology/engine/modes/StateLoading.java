@@ -17,9 +17,6 @@
 package org.terasology.engine.modes;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Queues;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.context.Context;
 import org.terasology.engine.EngineTime;
@@ -70,17 +67,12 @@
 import org.terasology.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 import org.terasology.world.chunks.event.OnChunkLoaded;
 
-import java.util.Queue;
-
 public class StateLoading implements GameState {
 
-    private static final Logger logger = LoggerFactory.getLogger(StateLoading.class);
-
     private Context context;
     private GameManifest gameManifest;
     private NetworkMode netMode;
-    private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
-    private LoadProcess current;
+    private final LoadProcessScheduler loadProcesses = new LoadProcessScheduler();
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
@@ -89,9 +81,6 @@ public class StateLoading implements GameState {
 
     private Config config;
 
-    private int progress;
-    private int maxProgress;
-
     private boolean chunkGenerationStarted;
     private long timeLastChunkGenerated;
 
@@ -138,15 +127,7 @@ public void init(GameEngine engine) {
                 break;
         }
 
-        progress = 0;
-        maxProgress = 0;
-        for (LoadProcess process : loadProcesses) {
-            maxProgress += process.getExpectedCost();
-        }
-
-        popStep();
         loadingScreen = nuiManager.pushScreen("engine:loadingScreen", LoadingScreen.class);
-        loadingScreen.updateStatus(current.getMessage(), current.getProgress());
 
         chunkGenerationStarted = false;
     }
@@ -178,6 +159,14 @@ private void initClient() {
     }
 
     private void initHost() {
+        addHostProcesses(loadProcesses, context, gameManifest, netMode);
+    }
+
+    /**
+     * Adds the load processes of a server or single player game, in the order they are begun.
+     */
+    static void addHostProcesses(LoadProcessScheduler loadProcesses, Context context, GameManifest gameManifest,
+                                 NetworkMode netMode) {
         loadProcesses.add(new RegisterMods(context, gameManifest));
         loadProcesses.add(new CacheTextures());
         loadProcesses.add(new InitialiseEntitySystem(context));
@@ -221,20 +210,16 @@ private void initHost() {
         loadProcesses.add(new PrepareWorld(context));
     }
 
-    private void popStep() {
+    private void updateStatus() {
+        LoadProcess current = loadProcesses.getCurrentProcess();
         if (current != null) {
-            progress += current.getExpectedCost();
-        }
-        current = null;
-        if (!loadProcesses.isEmpty()) {
-            current = loadProcesses.remove();
-            logger.debug(current.getMessage());
-            current.begin();
+            loadingScreen.updateStatus(current.getMessage(), loadProcesses.getProgress());
         }
     }
 
     @Override
     public void dispose(boolean shuttingDown) {
+        loadProcesses.shutdown();
         EngineTime time = (EngineTime) context.get(Time.class);
         time.setPaused(false);
     }
@@ -248,22 +233,22 @@ public void update(float delta) {
         GameEngine gameEngine = context.get(GameEngine.class);
         EngineTime time = (EngineTime) context.get(Time.class);
         long startTime = time.getRealTimeInMs();
-        while (current != null && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
-            if (current.step()) {
-                popStep();
+        while (!loadProcesses.isFinished() && time.getRealTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
+            if (!loadProcesses.step()) {
+                // Waiting for processes running in the background
+                break;
             }
         }
-        if (current == null) {
+        if (loadProcesses.isFinished()) {
             nuiManager.closeScreen(loadingScreen);
             nuiManager.setHUDVisible(true);
             context.get(GameEngine.class).changeState(new StateIngame(gameManifest, context));
         } else {
-            float progressValue = (progress + current.getExpectedCost() * current.getProgress()) / maxProgress;
-            loadingScreen.updateStatus(current.getMessage(), progressValue);
+            updateStatus();
             nuiManager.update(delta);
 
             // chunk generation begins at the AwaitCharacterSpawn step
-            if (current instanceof AwaitCharacterSpawn && !chunkGenerationStarted) {
+            if (loadProcesses.getCurrentProcess() instanceof AwaitCharacterSpawn && !chunkGenerationStarted) {
                 chunkGenerationStarted = true;
                 // in case no chunks generate, this should be set for a basis
                 timeLastChunkGenerated = time.getRealTimeInMs();
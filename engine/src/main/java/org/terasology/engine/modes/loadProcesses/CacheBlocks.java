@@ -16,11 +16,14 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.context.Context;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.family.BlockFamily;
 
 import java.util.Iterator;
+import java.util.Set;
 
 public class CacheBlocks extends StepBasedLoadProcess {
 
@@ -57,4 +60,12 @@ public void begin() {
     public int getExpectedCost() {
         return 1;
     }
+
+    /**
+     * Only generates the meshes of the registered blocks.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(RegisterBlocks.class);
+    }
 }
@@ -16,6 +16,8 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.utilities.Assets;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.rendering.assets.texture.Texture;
@@ -23,6 +25,9 @@
 import java.util.Iterator;
 import java.util.Set;
 
+/**
+ * Loads all textures ahead of time. Runs in the background, as the textures are uploaded on the display thread anyway.
+ */
 public class CacheTextures extends StepBasedLoadProcess {
     private Iterator<ResourceUrn> urns;
 
@@ -40,9 +45,11 @@ public void begin() {
 
     @Override
     public boolean step() {
-        ResourceUrn textureUrn = urns.next();
-        Assets.get(textureUrn, Texture.class);
-        stepDone();
+        if (urns.hasNext()) {
+            ResourceUrn textureUrn = urns.next();
+            Assets.get(textureUrn, Texture.class);
+            stepDone();
+        }
         return !urns.hasNext();
     }
 
@@ -50,4 +57,17 @@ public boolean step() {
     public int getExpectedCost() {
         return 1;
     }
+
+    @Override
+    public boolean requiresMainThread() {
+        return false;
+    }
+
+    /**
+     * Only needs the modules of the game to be loaded.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(RegisterMods.class, JoinServer.class);
+    }
 }
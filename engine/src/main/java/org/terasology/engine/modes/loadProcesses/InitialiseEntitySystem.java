@@ -16,8 +16,12 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.context.Context;
 import org.terasology.engine.bootstrap.EntitySystemSetupUtil;
+import org.terasology.engine.modes.LoadProcess;
+
+import java.util.Set;
 
 /**
  */
@@ -45,4 +49,11 @@ public int getExpectedCost() {
         return 1;
     }
 
+    /**
+     * Only needs the modules of the game to be loaded, not the textures.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(RegisterMods.class, JoinServer.class);
+    }
 }
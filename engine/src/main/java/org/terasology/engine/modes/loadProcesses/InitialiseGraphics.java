@@ -16,9 +16,11 @@
 package org.terasology.engine.modes.loadProcesses;
 
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.context.Context;
 import org.terasology.engine.TerasologyConstants;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.math.geom.Vector4f;
 import org.terasology.naming.Name;
 import org.terasology.rendering.nui.NUIManager;
@@ -26,6 +28,8 @@
 import org.terasology.rendering.primitives.Tessellator;
 import org.terasology.rendering.primitives.TessellatorHelper;
 
+import java.util.Set;
+
 /**
  */
 public class InitialiseGraphics extends SingleStepLoadProcess {
@@ -60,4 +64,12 @@ public boolean step() {
     public int getExpectedCost() {
         return 1;
     }
+
+    /**
+     * Only refreshes the widgets of the loaded modules and creates a mesh, so neither textures nor prefabs are needed.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(RegisterMods.class, JoinServer.class);
+    }
 }
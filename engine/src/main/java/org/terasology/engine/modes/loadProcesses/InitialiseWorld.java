@@ -33,6 +33,8 @@
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ChunkCodec;
+import org.terasology.persistence.internal.ChunkCodecs;
 import org.terasology.persistence.internal.ReadOnlyStorageManager;
 import org.terasology.persistence.internal.ReadWriteStorageManager;
 import org.terasology.recording.DirectionAndOriginPosRecorderList;
@@ -67,6 +69,7 @@
 import org.terasology.world.sun.DefaultCelestialSystem;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 public class InitialiseWorld extends SingleStepLoadProcess {
@@ -126,10 +129,18 @@ public boolean step() {
         RecordAndReplaySerializer recordAndReplaySerializer = context.get(RecordAndReplaySerializer.class);
         RecordAndReplayUtils recordAndReplayUtils = context.get(RecordAndReplayUtils.class);
         RecordAndReplayCurrentStatus recordAndReplayCurrentStatus = context.get(RecordAndReplayCurrentStatus.class);
+        ChunkCodec chunkCodec;
+        try {
+            chunkCodec = getChunkCodec(saveOrRecordingPath);
+        } catch (IllegalArgumentException e) {
+            logger.error("Unable to load chunk codec {}.", gameManifest.getChunkCodec());
+            context.get(GameEngine.class).changeState(new StateMainMenu("Failed to resolve chunk codec."));
+            return true; // We need to return true, otherwise the loading state will just call us again immediately
+        }
         try {
             storageManager = writeSaveGamesEnabled
-                    ? new ReadWriteStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus)
-                    : new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager);
+                    ? new ReadWriteStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus, chunkCodec)
+                    : new ReadOnlyStorageManager(saveOrRecordingPath, environment, entityManager, blockManager, extraDataManager, chunkCodec);
         } catch (IOException e) {
             logger.error("Unable to create storage manager!", e);
             context.get(GameEngine.class).changeState(new StateMainMenu("Unable to create storage manager!"));
@@ -181,6 +192,16 @@ private Path getSaveOrRecordingPath() {
         return saveOrRecordingPath;
     }
 
+    /**
+     * New games get the default codec, existing saves keep the codec they were written with.
+     */
+    private ChunkCodec getChunkCodec(Path saveOrRecordingPath) {
+        if (gameManifest.getChunkCodec() == null && !Files.isRegularFile(saveOrRecordingPath.resolve(GameManifest.DEFAULT_FILE_NAME))) {
+            gameManifest.setChunkCodec(ChunkCodecs.DEFAULT.getId());
+        }
+        return ChunkCodecs.forId(gameManifest.getChunkCodec());
+    }
+
     @Override
     public int getExpectedCost() {
         return 5;
@@ -16,12 +16,15 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.assets.ResourceUrn;
 import org.terasology.assets.management.AssetManager;
 import org.terasology.context.Context;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.entitySystem.prefab.Prefab;
 
 import java.util.Iterator;
+import java.util.Set;
 
 public class LoadPrefabs extends StepBasedLoadProcess {
     private final AssetManager assetManager;
@@ -55,4 +58,17 @@ public void begin() {
     public int getExpectedCost() {
         return 1;
     }
+
+    @Override
+    public boolean requiresMainThread() {
+        return false;
+    }
+
+    /**
+     * Prefabs are parsed with the components of the entity system and the type handlers of blocks.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(InitialiseEntitySystem.class, RegisterBlocks.class);
+    }
 }
@@ -15,12 +15,16 @@
  */
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.context.Context;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.internal.BlockManagerImpl;
 import org.terasology.world.block.internal.BlockPrefabManager;
 
+import java.util.Set;
+
 /**
  */
 public class ProcessBlockPrefabs extends SingleStepLoadProcess {
@@ -47,4 +51,12 @@ public boolean step() {
     public int getExpectedCost() {
         return 1;
     }
+
+    /**
+     * Only needs the prefabs to be loaded, which in turn needs the entity system and the blocks.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(LoadPrefabs.class);
+    }
 }
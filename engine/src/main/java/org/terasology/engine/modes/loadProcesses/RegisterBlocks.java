@@ -16,9 +16,11 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import com.google.common.collect.ImmutableSet;
 import org.terasology.assets.management.AssetManager;
 import org.terasology.config.Config;
 import org.terasology.context.Context;
+import org.terasology.engine.modes.LoadProcess;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.game.GameManifest;
 import org.terasology.module.ModuleEnvironment;
@@ -34,6 +36,8 @@
 import org.terasology.world.block.tiles.WorldAtlas;
 import org.terasology.world.block.tiles.WorldAtlasImpl;
 
+import java.util.Set;
+
 /**
  */
 public class RegisterBlocks extends SingleStepLoadProcess {
@@ -81,4 +85,11 @@ public int getExpectedCost() {
         return 1;
     }
 
+    /**
+     * Blocks are registered with the modules and type handler library of the game, but do not need textures or prefabs.
+     */
+    @Override
+    public Set<Class<? extends LoadProcess>> getDependencies() {
+        return ImmutableSet.of(RegisterMods.class, JoinServer.class, InitialiseEntitySystem.class);
+    }
 }
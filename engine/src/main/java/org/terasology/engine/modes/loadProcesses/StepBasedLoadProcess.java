@@ -21,7 +21,8 @@
  */
 public abstract class StepBasedLoadProcess implements LoadProcess {
 
-    private int stepsComplete;
+    // Written by the thread running the process, read by the main thread to show the progress
+    private volatile int stepsComplete;
     private int totalSteps = 1;
 
     protected void stepDone() {
@@ -49,6 +49,7 @@ public final class PathManager {
     private static final String NATIVES_DIR = "natives";
     private static final String CONFIGS_DIR = "configs";
     private static final String SANDBOX_DIR = "sandbox";
+    private static final String CACHE_DIR = "cache";
     private static final String REGEX = "[^A-Za-z0-9-_ ]";
 
     private static PathManager instance;
@@ -60,6 +61,7 @@ public final class PathManager {
     private Path shaderLogPath;
     private Path currentWorldPath;
     private Path sandboxPath;
+    private Path cachePath;
 
     private ImmutableList<Path> modPaths = ImmutableList.of();
     private Path screenshotPath;
@@ -276,6 +278,14 @@ public Path getSandboxPath() {
         return sandboxPath;
     }
 
+    /**
+     *
+     * @return Path in which data derived from the modules is cached between executions.
+     */
+    public Path getCachePath() {
+        return cachePath;
+    }
+
     /**
      * Updates all of the path manager's file/directory references to match the path settings. Creates directories if they don't already exist.
      * @throws IOException Thrown when required directories cannot be accessed.
@@ -308,6 +318,8 @@ private void updateDirs() throws IOException {
         }
         sandboxPath = homePath.resolve(SANDBOX_DIR);
         Files.createDirectories(sandboxPath);
+        cachePath = homePath.resolve(CACHE_DIR);
+        Files.createDirectories(cachePath);
     }
 
     public Path getHomeModPath() {
@@ -19,6 +19,7 @@
 import org.terasology.audio.AudioManager;
 import org.terasology.audio.StaticSound;
 import org.terasology.audio.StreamingSound;
+import org.terasology.audio.formats.SoundLoadingService;
 import org.terasology.audio.nullAudio.NullAudioManager;
 import org.terasology.context.Context;
 import org.terasology.engine.GameEngine;
@@ -28,6 +29,7 @@
 public class HeadlessAudio implements EngineSubsystem {
 
     private AudioManager audioManager;
+    private SoundLoadingService soundLoadingService;
 
     @Override
     public String getName() {
@@ -53,11 +55,16 @@ public void postUpdate(GameState currentState, float delta) {
     @Override
     public void shutdown() {
         audioManager.dispose();
+        soundLoadingService.shutdown();
     }
 
     private void initNoSound(Context context) {
         audioManager = new NullAudioManager();
         context.put(AudioManager.class, audioManager);
+
+        // Sounds are still decoded without audio output, so their length is known, but never cached on disk
+        soundLoadingService = new SoundLoadingService(1, null);
+        context.put(SoundLoadingService.class, soundLoadingService);
     }
 
 }
@@ -23,18 +23,21 @@
 import org.terasology.audio.AudioManager;
 import org.terasology.audio.StaticSound;
 import org.terasology.audio.StreamingSound;
+import org.terasology.audio.formats.SoundLoadingService;
 import org.terasology.audio.nullAudio.NullAudioManager;
 import org.terasology.audio.openAL.OpenALManager;
 import org.terasology.config.Config;
 import org.terasology.context.Context;
 import org.terasology.engine.GameEngine;
 import org.terasology.engine.modes.GameState;
+import org.terasology.engine.paths.PathManager;
 
 public class LwjglAudio extends BaseLwjglSubsystem {
 
     private static final Logger logger = LoggerFactory.getLogger(LwjglAudio.class);
 
     private AudioManager audioManager;
+    private SoundLoadingService soundLoadingService;
 
     @Override
     public String getName() {
@@ -51,6 +54,10 @@ public void initialise(GameEngine engine, Context rootContext) {
             audioManager = new NullAudioManager();
         }
         rootContext.put(AudioManager.class, audioManager);
+
+        soundLoadingService = new SoundLoadingService(SoundLoadingService.getDefaultThreadCount(),
+                config.getAudio().isCacheDecodedSounds() ? PathManager.getInstance().getCachePath().resolve("sounds") : null);
+        rootContext.put(SoundLoadingService.class, soundLoadingService);
     }
 
     @Override
@@ -69,5 +76,8 @@ public void shutdown() {
         if (audioManager != null) {
             audioManager.dispose();
         }
+        if (soundLoadingService != null) {
+            soundLoadingService.shutdown();
+        }
     }
 }
@@ -15,6 +15,7 @@
  */
 package org.terasology.entitySystem.entity;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,10 +89,7 @@ public boolean addPrefab(String prefabName) {
      */
     public void addPrefab(Prefab prefab) {
         if (prefab != null) {
-            for (Component component : prefab.iterateComponents()) {
-                addComponent(entityManager.getComponentLibrary().copy(component));
-            }
-            addComponent(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
+            entityManager.getInstantiationPlan(prefab).instantiate(this);
         } else {
             addComponent(new EntityInfoComponent());
         }
@@ -103,6 +101,65 @@ public void addPrefab(Prefab prefab) {
      * @return The built entity.
      */
     public EntityRef build() {
+        EntityRef entity = store();
+        if (entity == EntityRef.NULL) {
+            return entity;
+        }
+
+        if (shouldSendLifecycleEvents()) {
+            //TODO: don't send OnAddedComponent when the entity is being re-loaded from storage
+            entity.send(OnAddedComponent.newInstance());
+            entity.send(OnActivatedComponent.newInstance());
+        }
+
+        complete(entity);
+        return entity;
+    }
+
+    /**
+     * Produces the entities of several builders at once.
+     * <br><br>
+     * All entities are stored before any lifecycle event is sent. Then each entity receives its
+     * {@link OnAddedComponent}, and after that each entity receives its {@link OnActivatedComponent}.
+     *
+     * @param builders The builders to produce entities from
+     * @return The built entities, in the order of the builders. {@link EntityRef#NULL} for builders whose id was
+     * already in use.
+     */
+    public static List<EntityRef> buildAll(List<EntityBuilder> builders) {
+        List<EntityRef> entities = Lists.newArrayListWithCapacity(builders.size());
+        for (EntityBuilder builder : builders) {
+            entities.add(builder.store());
+        }
+
+        for (int i = 0; i < builders.size(); i++) {
+            EntityRef entity = entities.get(i);
+            if (entity != EntityRef.NULL && builders.get(i).shouldSendLifecycleEvents()) {
+                entity.send(OnAddedComponent.newInstance());
+            }
+        }
+        for (int i = 0; i < builders.size(); i++) {
+            EntityRef entity = entities.get(i);
+            if (entity != EntityRef.NULL && builders.get(i).shouldSendLifecycleEvents()) {
+                entity.send(OnActivatedComponent.newInstance());
+            }
+        }
+
+        for (int i = 0; i < builders.size(); i++) {
+            EntityRef entity = entities.get(i);
+            if (entity != EntityRef.NULL) {
+                builders.get(i).complete(entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Registers the entity and stores its components, without sending any events.
+     *
+     * @return The stored entity, or {@link EntityRef#NULL} if the requested id is already in use
+     */
+    private EntityRef store() {
         if (id.isPresent() && !entityManager.registerId(id.get())) {
             return EntityRef.NULL;
         }
@@ -112,22 +169,23 @@ public EntityRef build() {
 
         entityManager.assignToPool(finalId, pool);
 
-        EntityRef entity = entityManager.getEntity(finalId);
+        return entityManager.getEntity(finalId);
+    }
 
-        if (sendLifecycleEvents && entityManager.getEventSystem() != null) {
-            //TODO: don't send OnAddedComponent when the entity is being re-loaded from storage
-            entity.send(OnAddedComponent.newInstance());
-            entity.send(OnActivatedComponent.newInstance());
-        }
+    private boolean shouldSendLifecycleEvents() {
+        return sendLifecycleEvents && entityManager.getEventSystem() != null;
+    }
 
-        //Retrieve the components again in case they were modified by the previous events
+    /**
+     * Informs the change subscribers of the components of a stored entity and applies its scope.
+     */
+    private void complete(EntityRef entity) {
+        //Retrieve the components again in case they were modified by the lifecycle events
         for (Component component : entityManager.iterateComponents(entity.getId())) {
             entityManager.notifyComponentAdded(entity, component.getClass());
         }
 
         entity.setScope(scope.orElse(getEntityInfo().scope));
-
-        return entity;
     }
 
     public EntityRef buildWithoutLifecycleEvents() {
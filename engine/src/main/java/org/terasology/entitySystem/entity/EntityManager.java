@@ -19,6 +19,7 @@
 import org.terasology.entitySystem.entity.internal.EngineEntityPool;
 import org.terasology.entitySystem.event.internal.EventSystem;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.entitySystem.sectors.SectorSimulationComponent;
 import org.terasology.game.GameManifest;
@@ -26,6 +27,7 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.ObjIntConsumer;
 
 public interface EntityManager extends EntityPool {
 
@@ -66,6 +68,20 @@ public interface EntityManager extends EntityPool {
      */
     EntityRef createSectorEntity(long unloadedMaxDelta, long loadedMaxDelta);
 
+    /**
+     * Creates several entities from the same prefab in one pass.
+     * <br><br>
+     * All entities are set up before any of them is activated: the initializer is called for every entity first,
+     * then {@link org.terasology.entitySystem.entity.lifecycleEvents.OnAddedComponent} is sent to all of them,
+     * followed by {@link org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent}.
+     *
+     * @param prefab      The prefab to instantiate
+     * @param count       The number of entities to create
+     * @param initializer Called with the builder and the index of each entity before it is created, may be null
+     * @return The created entities, in the order of their index
+     */
+    List<EntityRef> createBatch(Prefab prefab, int count, ObjIntConsumer<EntityBuilder> initializer);
+
     /**
      * @return A new entity with a copy of each of the other entity's components
      * @deprecated Use EntityRef.copy() instead.
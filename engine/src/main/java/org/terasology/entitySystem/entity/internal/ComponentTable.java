@@ -52,6 +52,19 @@ public Component put(long entityId, Component component) {
         return entityMap.put(entityId, component);
     }
 
+    /**
+     * Makes room for a number of additional components of the given type, so that adding them in bulk does not
+     * grow the storage repeatedly.
+     */
+    public void reserve(Class<? extends Component> componentClass, int additionalCount) {
+        TLongObjectMap<Component> entityMap = store.get(componentClass);
+        if (entityMap == null) {
+            store.put(componentClass, new TLongObjectHashMap<>(additionalCount));
+        } else if (entityMap instanceof TLongObjectHashMap) {
+            ((TLongObjectHashMap<Component>) entityMap).ensureCapacity(entityMap.size() + additionalCount);
+        }
+    }
+
     /**
      *
      * @return removes the component with the specified class from the entity and returns it.
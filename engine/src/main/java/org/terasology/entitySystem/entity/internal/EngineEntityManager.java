@@ -19,6 +19,7 @@
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.LowLevelEntityManager;
 import org.terasology.entitySystem.event.internal.EventSystem;
+import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 
 import java.util.Optional;
@@ -167,4 +168,14 @@ public interface EngineEntityManager extends LowLevelEntityManager, EngineEntity
      */
     void assignToPool(long entityId, EngineEntityPool pool);
 
+    /**
+     * Gets the compiled plan for instantiating the given prefab, compiling it if there is no current one.
+     *
+     * This method is designed for internal use by the EntityBuilder.
+     *
+     * @param prefab the prefab to instantiate
+     * @return the instantiation plan of the prefab
+     */
+    PrefabInstantiationPlan getInstantiationPlan(Prefab prefab);
+
 }
@@ -54,6 +54,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 import static org.terasology.entitySystem.entity.internal.EntityScope.SECTOR;
 
@@ -83,6 +84,8 @@ public class PojoEntityManager implements EngineEntityManager {
 
     private TypeHandlerLibrary typeSerializerLibrary;
 
+    private Map<Prefab, PrefabInstantiationPlan> instantiationPlans = Maps.newConcurrentMap();
+
     @Override
     public RefStrategy getEntityRefStrategy() {
         return refStrategy;
@@ -231,6 +234,40 @@ public EntityRef create(Prefab prefab) {
         return getCurrentWorldPool().create(prefab);
     }
 
+    @Override
+    public List<EntityRef> createBatch(Prefab prefab, int count, ObjIntConsumer<EntityBuilder> initializer) {
+        Preconditions.checkNotNull(prefab, "The prefab to instantiate must not be null");
+        Preconditions.checkArgument(count >= 0, "Cannot create a negative number of entities: %s", count);
+        PrefabInstantiationPlan plan = getInstantiationPlan(prefab);
+
+        ComponentTable componentStore = getComponentStore();
+        for (Class<? extends Component> componentType : plan.getComponentTypes()) {
+            componentStore.reserve(componentType, count);
+        }
+
+        EngineEntityPool pool = getCurrentWorldPool();
+        List<EntityBuilder> builders = Lists.newArrayListWithCapacity(count);
+        for (int i = 0; i < count; i++) {
+            EntityBuilder builder = new EntityBuilder(this, pool);
+            plan.instantiate(builder);
+            if (initializer != null) {
+                initializer.accept(builder, i);
+            }
+            builders.add(builder);
+        }
+        return EntityBuilder.buildAll(builders);
+    }
+
+    @Override
+    public PrefabInstantiationPlan getInstantiationPlan(Prefab prefab) {
+        PrefabInstantiationPlan plan = instantiationPlans.get(prefab);
+        if (plan == null || !plan.isCurrent()) {
+            plan = PrefabInstantiationPlan.compile(prefab, componentLibrary);
+            instantiationPlans.put(prefab, plan);
+        }
+        return plan;
+    }
+
     @Override
     //Todo: Depreciated, maybe remove? Not many uses
     public EntityRef copy(EntityRef other) {
@@ -289,6 +326,7 @@ public ComponentLibrary getComponentLibrary() {
 
     public void setComponentLibrary(ComponentLibrary componentLibrary) {
         this.componentLibrary = componentLibrary;
+        instantiationPlans.clear();
     }
 
     @Override
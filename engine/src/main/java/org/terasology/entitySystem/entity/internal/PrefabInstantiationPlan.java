@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.entitySystem.entity.internal;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.MutableComponentContainer;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.reflection.metadata.FieldMetadata;
+
+import java.util.List;
+
+/**
+ * The precompiled steps to instantiate the components of a prefab.
+ * <br><br>
+ * Copying a component through the {@link ComponentLibrary} looks up the metadata of its class and iterates over the
+ * field map of the metadata on every copy. A plan resolves both once per prefab, so instantiating a prefab only runs
+ * the constructors and field accessors the reflect factory generated for each component.
+ * <br><br>
+ * A plan holds on to the component instances of the prefab it was compiled from. Once the prefab is reloaded, its
+ * components no longer match these, or it has gained or lost components, and {@link #isCurrent()} returns false.
+ */
+public final class PrefabInstantiationPlan {
+
+    private final Prefab prefab;
+    private final Component[] templates;
+    private final ComponentCopier[] copiers;
+    private final List<Class<? extends Component>> componentTypes;
+
+    private PrefabInstantiationPlan(Prefab prefab, Component[] templates, ComponentCopier[] copiers) {
+        this.prefab = prefab;
+        this.templates = templates;
+        this.copiers = copiers;
+        List<Class<? extends Component>> types = Lists.newArrayListWithCapacity(templates.length + 1);
+        for (Component template : templates) {
+            types.add(template.getClass());
+        }
+        types.add(EntityInfoComponent.class);
+        this.componentTypes = ImmutableList.copyOf(types);
+    }
+
+    /**
+     * Compiles the instantiation plan of a prefab.
+     *
+     * @param prefab           The prefab to instantiate
+     * @param componentLibrary The library providing the metadata of the prefab's components
+     * @return The compiled plan
+     */
+    public static PrefabInstantiationPlan compile(Prefab prefab, ComponentLibrary componentLibrary) {
+        List<Component> components = Lists.newArrayList(prefab.iterateComponents());
+        Component[] templates = components.toArray(new Component[components.size()]);
+        ComponentCopier[] copiers = new ComponentCopier[templates.length];
+        for (int i = 0; i < templates.length; i++) {
+            ComponentMetadata<? extends Component> metadata = componentLibrary.getMetadata(templates[i].getClass());
+            if (metadata != null && metadata.isConstructable()) {
+                copiers[i] = new FieldCopier(metadata);
+            } else {
+                copiers[i] = componentLibrary::copy;
+            }
+        }
+        return new PrefabInstantiationPlan(prefab, templates, copiers);
+    }
+
+    public Prefab getPrefab() {
+        return prefab;
+    }
+
+    /**
+     * @return The types of the components an instance of the prefab starts out with, including the entity info
+     */
+    public List<Class<? extends Component>> getComponentTypes() {
+        return componentTypes;
+    }
+
+    /**
+     * @return Whether the prefab still has exactly the components this plan was compiled from
+     */
+    public boolean isCurrent() {
+        int index = 0;
+        for (Component component : prefab.iterateComponents()) {
+            if (index == templates.length || templates[index] != component) {
+                return false;
+            }
+            index++;
+        }
+        return index == templates.length;
+    }
+
+    /**
+     * Adds copies of all components of the prefab, and the entity info linking to the prefab, to a container.
+     *
+     * @param target The container to add the components to, usually an entity builder
+     */
+    public void instantiate(MutableComponentContainer target) {
+        for (int i = 0; i < templates.length; i++) {
+            target.addComponent(copiers[i].copy(templates[i]));
+        }
+        target.addComponent(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
+    }
+
+    @FunctionalInterface
+    private interface ComponentCopier {
+        Component copy(Component component);
+    }
+
+    /**
+     * Copies a component field by field, with the field accessors and copy strategies of its metadata.
+     */
+    private static final class FieldCopier implements ComponentCopier {
+        private final ComponentMetadata<? extends Component> metadata;
+        private final FieldMetadata<?, ?>[] fields;
+
+        FieldCopier(ComponentMetadata<? extends Component> metadata) {
+            this.metadata = metadata;
+            this.fields = metadata.getFields().toArray(new FieldMetadata<?, ?>[metadata.getFieldCount()]);
+        }
+
+        @Override
+        public Component copy(Component component) {
+            Component result = metadata.newInstance();
+            for (FieldMetadata<?, ?> field : fields) {
+                field.setValue(result, field.getCopyOfValue(component));
+            }
+            return result;
+        }
+    }
+}
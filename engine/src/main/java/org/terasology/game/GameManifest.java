@@ -50,6 +50,7 @@ public class GameManifest {
     private Map<String, Short> blockIdMap = Maps.newHashMap();
     private Map<String, WorldInfo> worlds = Maps.newHashMap();
     private List<NameVersion> modules = Lists.newArrayList();
+    private String chunkCodec;
 
     public GameManifest() {
     }
@@ -104,6 +105,18 @@ public void setBlockIdMap(Map<String, Short> blockIdMap) {
         this.blockIdMap = blockIdMap;
     }
 
+    /**
+     * @return The id of the codec the chunks of this game are compressed with. Null for games saved before the codec
+     * was recorded, which all use gzip.
+     */
+    public String getChunkCodec() {
+        return chunkCodec;
+    }
+
+    public void setChunkCodec(String chunkCodec) {
+        this.chunkCodec = chunkCodec;
+    }
+
     public WorldInfo getWorldInfo(String name) {
         return worlds.get(name);
     }
@@ -82,10 +82,6 @@ public class KinematicCharacterMover implements CharacterMover {
     private static final float CHECK_FORWARD_DIST = 0.05f;
 
     private static final Logger logger = LoggerFactory.getLogger(KinematicCharacterMover.class);
-    private boolean stepped;
-
-    // Processing state variables
-    private float steppedUpDist;
     private WorldProvider worldProvider;
     private PhysicsEngine physics;
 
@@ -96,11 +92,73 @@ public KinematicCharacterMover(WorldProvider wp, PhysicsEngine physicsEngine) {
 
     @Override
     public CharacterStateEvent step(CharacterStateEvent initial, CharacterMoveInputEvent input, EntityRef entity) {
+        PendingStep step = beginStep(initial, input, entity);
+        sweep(step);
+        return finishStep(step);
+    }
+
+    /**
+     * Starts a step, doing everything that has to happen before the collision sweep: reading the character's
+     * components and sending the events whose results affect the movement (such as {@link GetMaxSpeedEvent}).
+     * <br><br>
+     * Must be called on the main thread. {@link #sweep(PendingStep)} and {@link #finishStep(PendingStep)} complete
+     * the step; together the three do exactly what {@link #step(CharacterStateEvent, CharacterMoveInputEvent, EntityRef)}
+     * does.
+     *
+     * @param initial The initial state to start from
+     * @param input   The input driving the movement change
+     * @param entity  The character
+     * @return The step, to be swept and finished
+     */
+    public PendingStep beginStep(CharacterStateEvent initial, CharacterMoveInputEvent input, EntityRef entity) {
         CharacterMovementComponent characterMovementComponent = entity.getComponent(CharacterMovementComponent.class);
         CharacterStateEvent result = new CharacterStateEvent(initial);
         result.setSequenceNumber(input.getSequenceNumber());
-        if (worldProvider.isBlockRelevant(initial.getPosition())) {
-            updatePosition(characterMovementComponent, result, input, entity);
+        PendingStep step = new PendingStep(initial, result, input, entity, characterMovementComponent,
+                worldProvider.isBlockRelevant(initial.getPosition()));
+        if (step.relevant) {
+            if (result.getMode() == MovementMode.NONE) {
+                followToParent(result, entity);
+            } else {
+                prepareWalk(step);
+            }
+        }
+        return step;
+    }
+
+    /**
+     * Sweeps the character's collider along the movement of the step.
+     * <br><br>
+     * This only reads the collision world and the step itself, so it sends no events and may run for the steps of
+     * many characters before any of them is finished.
+     *
+     * @param step A step started by {@link #beginStep(CharacterStateEvent, CharacterMoveInputEvent, EntityRef)}
+     */
+    public void sweep(PendingStep step) {
+        if (step.moveDelta != null && step.moveResult == null) {
+            step.moveResult = move(step.result.getPosition(), step.moveDelta, step.stepHeight, step.slopeFactor,
+                    step.collider, new SweepState());
+        }
+    }
+
+    /**
+     * Completes a step: applies the sweep to the character state and sends the events produced by the movement.
+     * Must be called on the main thread, in the order the steps of a character were begun.
+     *
+     * @param step A step started by {@link #beginStep(CharacterStateEvent, CharacterMoveInputEvent, EntityRef)}
+     * @return The new state of the character
+     */
+    public CharacterStateEvent finishStep(PendingStep step) {
+        CharacterStateEvent initial = step.initial;
+        CharacterStateEvent result = step.result;
+        CharacterMoveInputEvent input = step.input;
+        EntityRef entity = step.entity;
+        CharacterMovementComponent characterMovementComponent = step.movementComp;
+        if (step.relevant) {
+            if (step.moveDelta != null) {
+                sweep(step);
+                finishWalk(step);
+            }
 
             if (input.isFirstRun()) {
                 checkBlockEntry(entity,
@@ -292,17 +350,18 @@ private boolean isClimbingAllowed(boolean swimming, boolean diving) {
      * @param callback
      * @param slopeFactor
      * @param stepHeight
+     * @param sweepState
      * @return
      */
     private boolean checkStep(CharacterCollider collider, Vector3f position, Vector3f direction, SweepCallback callback,
-                              float slopeFactor, float stepHeight) {
-        if (!stepped) {
-            stepped = true;
+                              float slopeFactor, float stepHeight, SweepState sweepState) {
+        if (!sweepState.stepped) {
+            sweepState.stepped = true;
 
             boolean moveUpStep = callback.checkForStep(direction, stepHeight, slopeFactor, CHECK_FORWARD_DIST);
 
             if (moveUpStep) {
-                steppedUpDist = moveUp(stepHeight, collider, position);
+                sweepState.steppedUpDist = moveUp(stepHeight, collider, position);
                 return true;
             }
         }
@@ -340,9 +399,7 @@ private void followToParent(final CharacterStateEvent state, EntityRef entity) {
     }
 
     private MoveResult move(final Vector3f startPosition, final Vector3f moveDelta, final float stepHeight,
-                            final float slopeFactor, final CharacterCollider collider) {
-        steppedUpDist = 0;
-        stepped = false;
+                            final float slopeFactor, final CharacterCollider collider, final SweepState sweepState) {
         Vector3f position = new Vector3f(startPosition);
         boolean hitTop = false;
         boolean hitBottom = false;
@@ -352,10 +409,11 @@ private MoveResult move(final Vector3f startPosition, final Vector3f moveDelta,
         if (moveDelta.y > 0) {
             hitTop = moveDelta.y - moveUp(moveDelta.y, collider, position) > physics.getEpsilon();
         }
-        hitSide = moveHorizontal(new Vector3f(moveDelta.x, 0, moveDelta.z), collider, position, slopeFactor, stepHeight);
-        if (moveDelta.y < 0 || steppedUpDist > 0) {
+        hitSide = moveHorizontal(new Vector3f(moveDelta.x, 0, moveDelta.z), collider, position, slopeFactor, stepHeight,
+                sweepState);
+        if (moveDelta.y < 0 || sweepState.steppedUpDist > 0) {
             float dist = (moveDelta.y < 0) ? moveDelta.y : 0;
-            dist -= steppedUpDist;
+            dist -= sweepState.steppedUpDist;
             hitBottom = moveDown(dist, slopeFactor, collider, position);
         }
         if (!hitBottom && stepHeight > 0) {
@@ -443,7 +501,7 @@ private boolean moveDown(float dist, float slopeFactor, CharacterCollider collid
     }
 
     private boolean moveHorizontal(Vector3f horizMove, CharacterCollider collider, Vector3f position, float slopeFactor,
-                                   float stepHeight) {
+                                   float stepHeight, SweepState sweepState) {
         float remainingFraction = 1.0f;
         float dist = horizMove.length();
         if (dist < physics.getEpsilon()) {
@@ -488,7 +546,7 @@ private boolean moveHorizontal(Vector3f horizMove, CharacterCollider collider, V
                 // We step up if we're hitting a big slope, or if we're grazing
                 // the ground, otherwise we move up a shallow slope.
                 if (slope < slopeFactor || 1 - slope < physics.getEpsilon()) {
-                    boolean stepping = checkStep(collider, position, newDir, callback, slopeFactor, stepHeight);
+                    boolean stepping = checkStep(collider, position, newDir, callback, slopeFactor, stepHeight, sweepState);
                     if (!stepping) {
                         horizontalHit = true;
                         Vector3f newHorizDir = new Vector3f(newDir.x, 0, newDir.z);
@@ -550,18 +608,6 @@ private float moveUp(float riseAmount, CharacterCollider collider, Vector3f posi
         return riseAmount;
     }
 
-    private void updatePosition(final CharacterMovementComponent movementComp, final CharacterStateEvent state,
-                                CharacterMoveInputEvent input, EntityRef entity) {
-        switch (state.getMode()) {
-            case NONE:
-                followToParent(state, entity);
-                break;
-            default:
-                walk(movementComp, state, input, entity);
-                break;
-        }
-    }
-
     @SuppressWarnings(value = "SuspiciousNameCombination")
     private void updateRotation(CharacterMovementComponent movementComp, CharacterStateEvent result,
                                 CharacterMoveInputEvent input) {
@@ -573,8 +619,11 @@ private void updateRotation(CharacterMovementComponent movementComp, CharacterSt
         }
     }
 
-    private void walk(final CharacterMovementComponent movementComp, final CharacterStateEvent state,
-                      CharacterMoveInputEvent input, EntityRef entity) {
+    private void prepareWalk(PendingStep step) {
+        final CharacterMovementComponent movementComp = step.movementComp;
+        final CharacterStateEvent state = step.result;
+        CharacterMoveInputEvent input = step.input;
+        EntityRef entity = step.entity;
         Vector3f desiredVelocity = new Vector3f(input.getMovementDirection());
 
         float lengthSquared = desiredVelocity.lengthSquared();
@@ -628,10 +677,21 @@ private void walk(final CharacterMovementComponent movementComp, final Character
         }
         Vector3f moveDelta = new Vector3f(endVelocity);
         moveDelta.scale(input.getDelta());
-        CharacterCollider collider = movementComp.mode.useCollision ? physics.getCharacterCollider(entity) : null;
-        MoveResult moveResult = move(state.getPosition(), moveDelta,
-                (state.getMode() != MovementMode.CLIMBING && state.isGrounded() && movementComp.mode.canBeGrounded) ? movementComp.stepHeight : 0,
-                movementComp.slopeFactor, collider);
+        step.endVelocity = endVelocity;
+        step.moveDelta = moveDelta;
+        step.stepHeight = (state.getMode() != MovementMode.CLIMBING && state.isGrounded() && movementComp.mode.canBeGrounded) ? movementComp.stepHeight : 0;
+        step.slopeFactor = movementComp.slopeFactor;
+        step.collider = movementComp.mode.useCollision ? physics.getCharacterCollider(entity) : null;
+    }
+
+    private void finishWalk(PendingStep step) {
+        final CharacterMovementComponent movementComp = step.movementComp;
+        final CharacterStateEvent state = step.result;
+        CharacterMoveInputEvent input = step.input;
+        EntityRef entity = step.entity;
+        Vector3f endVelocity = step.endVelocity;
+        Vector3f moveDelta = step.moveDelta;
+        MoveResult moveResult = step.moveResult;
         Vector3f distanceMoved = new Vector3f(moveResult.getFinalPosition());
         distanceMoved.sub(state.getPosition());
         state.getPosition().set(moveResult.getFinalPosition());
@@ -811,6 +871,57 @@ private void climb(final CharacterStateEvent state, CharacterMoveInputEvent inpu
         }
     }
 
+    /**
+     * A character movement step that has been begun but not finished yet, see
+     * {@link #beginStep(CharacterStateEvent, CharacterMoveInputEvent, EntityRef)}.
+     */
+    public static final class PendingStep {
+        private final CharacterStateEvent initial;
+        private final CharacterStateEvent result;
+        private final CharacterMoveInputEvent input;
+        private final EntityRef entity;
+        private final CharacterMovementComponent movementComp;
+        private final boolean relevant;
+
+        // Only set if the character walks during this step
+        private Vector3f endVelocity;
+        private Vector3f moveDelta;
+        private float stepHeight;
+        private float slopeFactor;
+        private CharacterCollider collider;
+        private MoveResult moveResult;
+
+        private PendingStep(CharacterStateEvent initial, CharacterStateEvent result, CharacterMoveInputEvent input,
+                            EntityRef entity, CharacterMovementComponent movementComp, boolean relevant) {
+            this.initial = initial;
+            this.result = result;
+            this.input = input;
+            this.entity = entity;
+            this.movementComp = movementComp;
+            this.relevant = relevant;
+        }
+
+        public EntityRef getEntity() {
+            return entity;
+        }
+
+        public CharacterStateEvent getInitialState() {
+            return initial;
+        }
+
+        public CharacterMoveInputEvent getInput() {
+            return input;
+        }
+    }
+
+    /**
+     * Processing state of a single sweep, kept out of the mover so that sweeps do not share any state.
+     */
+    private static final class SweepState {
+        private boolean stepped;
+        private float steppedUpDist;
+    }
+
     /**
      * Holds the result of movement.
      */
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.characters;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.HitResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers where the characters were over the last moments, so hits can be checked against the characters as a
+ * client saw them when it acted, without moving the characters back in time.
+ * <br><br>
+ * The history is a ring of snapshots. Each character gets a slot, and a snapshot stores the positions and bounds of
+ * all slots in flat arrays, so queries run over plain floats instead of entities and components. Queries between two
+ * snapshots interpolate the positions.
+ * <br><br>
+ * The bounds of a character are an axis-aligned box around its position, as wide as the character's radius and as
+ * high as its height.
+ * <br><br>
+ * Not thread-safe: recording and queries are meant to happen on the main thread.
+ */
+public final class LagCompensationHistory {
+
+    private final Snapshot[] snapshots;
+    private int newest = -1;
+    private int size;
+
+    private final Map<EntityRef, Integer> slots = Maps.newHashMap();
+    private final TIntList freeSlots = new TIntArrayList();
+    private int slotCount;
+
+    /**
+     * @param capacity The number of snapshots to keep
+     */
+    public LagCompensationHistory(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity must be positive, but is %s", capacity);
+        snapshots = new Snapshot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            snapshots[i] = new Snapshot();
+        }
+    }
+
+    /**
+     * Starts a new snapshot, replacing the oldest one once the history is full. The characters are then added to it
+     * through {@link #record(EntityRef, Vector3f, float, float)}.
+     *
+     * @param timeMs The game time of the snapshot; must not be before the time of the previous snapshot
+     */
+    public void startSnapshot(long timeMs) {
+        Preconditions.checkArgument(size == 0 || timeMs >= snapshots[newest].time,
+                "Snapshot at %s is older than the previous snapshot", timeMs);
+        newest = (newest + 1) % snapshots.length;
+        size = Math.min(size + 1, snapshots.length);
+        snapshots[newest].reset(timeMs, slotCount);
+    }
+
+    /**
+     * Adds a character to the current snapshot.
+     *
+     * @param character The character
+     * @param position  The position of the character's center
+     * @param radius    The radius of the character
+     * @param height    The height of the character
+     */
+    public void record(EntityRef character, Vector3f position, float radius, float height) {
+        Preconditions.checkState(size > 0, "No snapshot started");
+        Integer slot = slots.get(character);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.removeAt(freeSlots.size() - 1);
+            slots.put(character, slot);
+        }
+        snapshots[newest].set(slot, character, position, radius, height * 0.5f);
+    }
+
+    /**
+     * Stops tracking a character. Snapshots already taken still contain it.
+     */
+    public void forget(EntityRef character) {
+        Integer slot = slots.remove(character);
+        if (slot != null) {
+            freeSlots.add(slot);
+        }
+    }
+
+    /**
+     * @return The time of the oldest snapshot, or -1 if there is none
+     */
+    public long getOldestTime() {
+        return (size == 0) ? -1 : snapshots[oldestIndex()].time;
+    }
+
+    /**
+     * @return The time of the newest snapshot, or -1 if there is none
+     */
+    public long getNewestTime() {
+        return (size == 0) ? -1 : snapshots[newest].time;
+    }
+
+    /**
+     * Finds the closest character a ray hit at a past time. Times outside of the history are clamped to it.
+     *
+     * @param timeMs      The game time to check at
+     * @param origin      The origin of the ray
+     * @param direction   The direction of the ray, need not be normalized
+     * @param maxDistance The length of the ray
+     * @param ignore      A character that cannot be hit, usually the one casting the ray
+     * @return The hit, or a result without a hit if no character was hit
+     */
+    public HitResult rayTrace(long timeMs, Vector3f origin, Vector3f direction, float maxDistance, EntityRef ignore) {
+        float length = direction.length();
+        if (size == 0 || length == 0) {
+            return new HitResult();
+        }
+        float dirX = direction.x / length;
+        float dirY = direction.y / length;
+        float dirZ = direction.z / length;
+
+        Interpolation interpolation = interpolate(timeMs);
+        float[] bounds = new float[6];
+        EntityRef closest = null;
+        float closestDistance = maxDistance;
+        int closestAxis = 0;
+        for (int slot = 0; slot < interpolation.slotCount(); slot++) {
+            EntityRef character = interpolation.getBounds(slot, bounds);
+            if (character == null || character.equals(ignore)) {
+                continue;
+            }
+            float[] hit = intersectRay(bounds, origin, dirX, dirY, dirZ, closestDistance);
+            if (hit != null) {
+                closest = character;
+                closestDistance = hit[0];
+                closestAxis = (int) hit[1];
+            }
+        }
+        if (closest == null) {
+            return new HitResult();
+        }
+        Vector3f hitPoint = new Vector3f(origin.x + dirX * closestDistance, origin.y + dirY * closestDistance,
+                origin.z + dirZ * closestDistance);
+        Vector3f hitNormal;
+        switch (closestAxis) {
+            case 0:
+                hitNormal = new Vector3f(-Math.signum(dirX), 0, 0);
+                break;
+            case 1:
+                hitNormal = new Vector3f(0, -Math.signum(dirY), 0);
+                break;
+            default:
+                hitNormal = new Vector3f(0, 0, -Math.signum(dirZ));
+                break;
+        }
+        return new HitResult(closest, hitPoint, hitNormal);
+    }
+
+    /**
+     * Finds the characters whose bounds overlapped a sphere at a past time. Times outside of the history are clamped
+     * to it.
+     *
+     * @param timeMs The game time to check at
+     * @param center The center of the sphere
+     * @param radius The radius of the sphere
+     * @param ignore A character to leave out, usually the one asking
+     * @return The characters in the area
+     */
+    public List<EntityRef> getCharactersInArea(long timeMs, Vector3f center, float radius, EntityRef ignore) {
+        List<EntityRef> result = Lists.newArrayList();
+        if (size == 0) {
+            return result;
+        }
+        Interpolation interpolation = interpolate(timeMs);
+        float[] bounds = new float[6];
+        float radiusSquared = radius * radius;
+        for (int slot = 0; slot < interpolation.slotCount(); slot++) {
+            EntityRef character = interpolation.getBounds(slot, bounds);
+            if (character == null || character.equals(ignore)) {
+                continue;
+            }
+            float dx = Math.max(0, Math.max(bounds[0] - center.x, center.x - bounds[3]));
+            float dy = Math.max(0, Math.max(bounds[1] - center.y, center.y - bounds[4]));
+            float dz = Math.max(0, Math.max(bounds[2] - center.z, center.z - bounds[5]));
+            if (dx * dx + dy * dy + dz * dz <= radiusSquared) {
+                result.add(character);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Slab test of a ray against a box.
+     *
+     * @return The distance along the ray and the axis of the face hit, or null if the box is not hit within maxDistance
+     */
+    private static float[] intersectRay(float[] bounds, Vector3f origin, float dirX, float dirY, float dirZ, float maxDistance) {
+        float near = 0;
+        float far = maxDistance;
+        int axis = 0;
+        float[] start = {origin.x, origin.y, origin.z};
+        float[] dir = {dirX, dirY, dirZ};
+        for (int i = 0; i < 3; i++) {
+            if (dir[i] == 0) {
+                if (start[i] < bounds[i] || start[i] > bounds[i + 3]) {
+                    return null;
+                }
+                continue;
+            }
+            float t1 = (bounds[i] - start[i]) / dir[i];
+            float t2 = (bounds[i + 3] - start[i]) / dir[i];
+            float entry = Math.min(t1, t2);
+            float exit = Math.max(t1, t2);
+            if (entry > near) {
+                near = entry;
+                axis = i;
+            }
+            far = Math.min(far, exit);
+            if (near > far) {
+                return null;
+            }
+        }
+        return new float[]{near, axis};
+    }
+
+    private int oldestIndex() {
+        return (newest - size + 1 + snapshots.length) % snapshots.length;
+    }
+
+    /**
+     * Finds the snapshots around the given time.
+     */
+    private Interpolation interpolate(long timeMs) {
+        Snapshot later = snapshots[newest];
+        if (timeMs >= later.time) {
+            return new Interpolation(later, later, 0);
+        }
+        for (int i = 1; i < size; i++) {
+            Snapshot earlier = snapshots[(newest - i + snapshots.length) % snapshots.length];
+            if (earlier.time <= timeMs) {
+                float t = (later.time == earlier.time) ? 0 : (float) (timeMs - earlier.time) / (later.time - earlier.time);
+                return new Interpolation(earlier, later, t);
+            }
+            later = earlier;
+        }
+        return new Interpolation(later, later, 0);
+    }
+
+    /**
+     * The characters of one point in time, stored as one array per property with an entry per slot.
+     */
+    private static final class Snapshot {
+        private long time;
+        private int slotCount;
+        private EntityRef[] characters = new EntityRef[0];
+        private float[] x = new float[0];
+        private float[] y = new float[0];
+        private float[] z = new float[0];
+        private float[] halfWidth = new float[0];
+        private float[] halfHeight = new float[0];
+
+        private void reset(long newTime, int minSlotCount) {
+            time = newTime;
+            slotCount = 0;
+            Arrays.fill(characters, null);
+            ensureCapacity(minSlotCount);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (characters.length < capacity) {
+                int newCapacity = Math.max(capacity, characters.length * 2);
+                characters = Arrays.copyOf(characters, newCapacity);
+                x = Arrays.copyOf(x, newCapacity);
+                y = Arrays.copyOf(y, newCapacity);
+                z = Arrays.copyOf(z, newCapacity);
+                halfWidth = Arrays.copyOf(halfWidth, newCapacity);
+                halfHeight = Arrays.copyOf(halfHeight, newCapacity);
+            }
+        }
+
+        private void set(int slot, EntityRef character, Vector3f position, float width, float height) {
+            ensureCapacity(slot + 1);
+            slotCount = Math.max(slotCount, slot + 1);
+            characters[slot] = character;
+            x[slot] = position.x;
+            y[slot] = position.y;
+            z[slot] = position.z;
+            halfWidth[slot] = width;
+            halfHeight[slot] = height;
+        }
+
+        private EntityRef get(int slot) {
+            return (slot < slotCount) ? characters[slot] : null;
+        }
+    }
+
+    /**
+     * The characters at a time between two snapshots.
+     */
+    private static final class Interpolation {
+        private final Snapshot earlier;
+        private final Snapshot later;
+        private final float t;
+
+        private Interpolation(Snapshot earlier, Snapshot later, float t) {
+            this.earlier = earlier;
+            this.later = later;
+            this.t = t;
+        }
+
+        private int slotCount() {
+            return Math.max(earlier.slotCount, later.slotCount);
+        }
+
+        /**
+         * Writes the bounds of a slot as min x, y, z and max x, y, z.
+         *
+         * @return The character in the slot, or null if the slot was empty
+         */
+        private EntityRef getBounds(int slot, float[] bounds) {
+            EntityRef fromEarlier = earlier.get(slot);
+            EntityRef fromLater = later.get(slot);
+            Snapshot from;
+            Snapshot to;
+            float amount;
+            if (fromEarlier != null && fromEarlier.equals(fromLater)) {
+                from = earlier;
+                to = later;
+                amount = t;
+            } else if (fromEarlier != null) {
+                from = earlier;
+                to = earlier;
+                amount = 0;
+            } else if (fromLater != null) {
+                from = later;
+                to = later;
+                amount = 0;
+            } else {
+                return null;
+            }
+            float centerX = from.x[slot] + (to.x[slot] - from.x[slot]) * amount;
+            float centerY = from.y[slot] + (to.y[slot] - from.y[slot]) * amount;
+            float centerZ = from.z[slot] + (to.z[slot] - from.z[slot]) * amount;
+            float width = to.halfWidth[slot];
+            float height = to.halfHeight[slot];
+            bounds[0] = centerX - width;
+            bounds[1] = centerY - height;
+            bounds[2] = centerZ - width;
+            bounds[3] = centerX + width;
+            bounds[4] = centerY + height;
+            bounds[5] = centerZ + width;
+            return (from == earlier) ? fromEarlier : fromLater;
+        }
+    }
+}
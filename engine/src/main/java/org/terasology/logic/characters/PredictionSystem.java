@@ -17,6 +17,11 @@
 package org.terasology.logic.characters;
 
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.HitResult;
+
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Interface for the system that provides the ability to compensate for lag, by rewinding and replaying state
@@ -32,4 +37,33 @@ public interface PredictionSystem {
     void lagCompensate(EntityRef client, long timeMs);
 
     void restoreToPresent();
+
+    /**
+     * Finds the character a ray hits, with the characters where the specified client saw them at the given time.
+     * Unlike {@link #lagCompensate(EntityRef, long)}, this does not move any character.
+     *
+     * @param client      The client entity to check for; its own character cannot be hit
+     * @param timeMs      The time the client acted at
+     * @param origin      The origin of the ray
+     * @param direction   The direction of the ray
+     * @param maxDistance The length of the ray
+     * @return The hit, or a result without a hit if no character was hit. By default, never hits anything.
+     */
+    default HitResult rayTraceCharacters(EntityRef client, long timeMs, Vector3f origin, Vector3f direction, float maxDistance) {
+        return new HitResult();
+    }
+
+    /**
+     * Finds the characters in a sphere, with the characters where the specified client saw them at the given time.
+     * Unlike {@link #lagCompensate(EntityRef, long)}, this does not move any character.
+     *
+     * @param client The client entity to check for; its own character is left out
+     * @param timeMs The time the client acted at
+     * @param center The center of the sphere
+     * @param radius The radius of the sphere
+     * @return The characters in the sphere. By default, none.
+     */
+    default List<EntityRef> getCharactersInArea(EntityRef client, long timeMs, Vector3f center, float radius) {
+        return Collections.emptyList();
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.terasology.logic.characters;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,8 +32,11 @@
 import org.terasology.logic.characters.events.SetMovementModeEvent;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.logic.players.LocalPlayer;
+import org.terasology.math.geom.BaseVector3f;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.network.ClientComponent;
 import org.terasology.network.NetworkSystem;
+import org.terasology.physics.HitResult;
 import org.terasology.physics.engine.CharacterCollider;
 import org.terasology.physics.engine.PhysicsEngine;
 import org.terasology.recording.CharacterStateEventPositionMap;
@@ -43,8 +47,25 @@
 import org.terasology.utilities.collection.CircularBuffer;
 import org.terasology.world.WorldProvider;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Steps the characters on the authority, based on the input the clients send.
+ * <br><br>
+ * Inputs are not stepped as they arrive, but queued and stepped together during {@link #update(float)}. Each round
+ * takes the next queued input of every character: all the steps are begun, then their collision sweeps run, and then
+ * the results are applied and the movement events sent. As no event is sent while the sweeps run, they all see the
+ * same world.
+ * <br><br>
+ * The local player's character, on a listen server, is still stepped as soon as its input arrives.
+ * <br><br>
+ * The positions the characters are shown at are also recorded in a {@link LagCompensationHistory}, which answers the
+ * lag compensated hit queries of {@link PredictionSystem} without rewinding the characters.
+ */
 @RegisterSystem(RegisterMode.AUTHORITY)
 @Share(PredictionSystem.class)
 public class ServerCharacterPredictionSystem extends BaseComponentSystem implements UpdateSubscriberSystem, PredictionSystem {
@@ -57,6 +78,8 @@ public class ServerCharacterPredictionSystem extends BaseComponentSystem impleme
 
     private static final int BUFFER_SIZE = 128;
     private static final int TIME_BETWEEN_STATE_REPLICATE = 50;
+    private static final int TIME_BETWEEN_HISTORY_SNAPSHOTS = 20;
+    private static final int HISTORY_LENGTH = 1000;
 
     @In
     private Time time;
@@ -79,10 +102,14 @@ public class ServerCharacterPredictionSystem extends BaseComponentSystem impleme
     @In
     private RecordAndReplayCurrentStatus recordAndReplayCurrentStatus;
 
-    private CharacterMover characterMover;
+    private KinematicCharacterMover characterMover;
     private Map<EntityRef, CircularBuffer<CharacterStateEvent>> characterStates = Maps.newHashMap();
     private Map<EntityRef, CharacterMoveInputEvent> lastInputEvent = Maps.newHashMap();
+    private Map<EntityRef, QueuedInputs> queuedInputs = Maps.newLinkedHashMap();
+    private boolean steppingQueuedInputs;
     private long nextSendState;
+    private LagCompensationHistory history = new LagCompensationHistory(HISTORY_LENGTH / TIME_BETWEEN_HISTORY_SNAPSHOTS);
+    private long nextHistorySnapshot;
     private CharacterMovementSystemUtility characterMovementSystemUtility;
 
     @Override
@@ -105,10 +132,13 @@ public void onDestroy(final BeforeDeactivateComponent event, final EntityRef ent
         physics.removeCharacterCollider(entity);
         characterStates.remove(entity);
         lastInputEvent.remove(entity);
+        queuedInputs.remove(entity);
+        history.forget(entity);
     }
 
     @ReceiveEvent(components = {AliveCharacterComponent.class})
     public void onSetMovementModeEvent(SetMovementModeEvent event, EntityRef character, CharacterMovementComponent movementComponent) {
+        stepQueuedInputs(character);
         CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(character);
         CharacterStateEvent lastState = stateBuffer.getLast();
         CharacterStateEvent newState = new CharacterStateEvent(lastState);
@@ -129,24 +159,24 @@ public void onPlayerInput(CharacterMoveInputEvent input, EntityRef entity) {
             logger.debug("Skipping input, collision not yet established");
             return;
         }
-        CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(entity);
-        CharacterStateEvent lastState = stateBuffer.getLast();
-        float delta = input.getDeltaMs() + lastState.getTime() - (time.getGameTimeInMs() + MAX_INPUT_OVERFLOW );
+        QueuedInputs queue = queuedInputs.get(entity);
+        long lastStateTime = (queue != null) ? queue.endTime : characterStates.get(entity).getLast().getTime();
+        float delta = input.getDeltaMs() + lastStateTime - (time.getGameTimeInMs() + MAX_INPUT_OVERFLOW );
         if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.REPLAYING) {
             delta -= MAX_INPUT_OVERFLOW_REPLAY_INCREASE;
         }
         if (delta < 0) {
-            CharacterStateEvent newState = stepState(input, lastState, entity);
-            stateBuffer.add(newState);
-
-            if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.REPLAYING)  {
-                characterStateEventPositionMap.updateCharacterStateEvent(newState);
-            } else if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.RECORDING) {
-                characterStateEventPositionMap.add(newState.getSequenceNumber(), newState.getPosition(), newState.getVelocity());
+            if (entity.equals(localPlayer.getCharacterEntity())) {
+                stepQueuedInputs(entity);
+                applyState(entity, input, stepState(input, characterStates.get(entity).getLast(), entity));
+                return;
             }
-
-            characterMovementSystemUtility.setToState(entity, newState);
-            lastInputEvent.put(entity, input);
+            if (queue == null) {
+                queue = new QueuedInputs(lastStateTime);
+                queuedInputs.put(entity, queue);
+            }
+            queue.inputs.add(input);
+            queue.endTime += input.getDeltaMs();
         } else {
             logger.warn("Received too much input from {}, dropping input. Delta difference: {}", entity, delta);
         }
@@ -154,6 +184,7 @@ public void onPlayerInput(CharacterMoveInputEvent input, EntityRef entity) {
 
     @ReceiveEvent(components = {CharacterMovementComponent.class, LocationComponent.class, AliveCharacterComponent.class})
     public void onTeleport(CharacterTeleportEvent event, EntityRef entity) {
+        stepQueuedInputs(entity);
         CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(entity);
         CharacterStateEvent lastState = stateBuffer.getLast();
         CharacterStateEvent newState = new CharacterStateEvent(lastState);
@@ -168,6 +199,7 @@ public void onTeleport(CharacterTeleportEvent event, EntityRef entity) {
     public void onImpulse(CharacterImpulseEvent event, EntityRef entity) {
         Vector3f impulse = event.getDirection();
 
+        stepQueuedInputs(entity);
         CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(entity);
         CharacterStateEvent lastState = stateBuffer.getLast();
         CharacterStateEvent newState = new CharacterStateEvent(lastState);
@@ -187,8 +219,87 @@ private CharacterStateEvent stepState(CharacterMoveInputEvent input, CharacterSt
         return characterMover.step(lastState, input, entity);
     }
 
+    private void applyState(EntityRef entity, CharacterMoveInputEvent input, CharacterStateEvent newState) {
+        characterStates.get(entity).add(newState);
+
+        if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.REPLAYING)  {
+            characterStateEventPositionMap.updateCharacterStateEvent(newState);
+        } else if (recordAndReplayCurrentStatus.getStatus() == RecordAndReplayStatus.RECORDING) {
+            characterStateEventPositionMap.add(newState.getSequenceNumber(), newState.getPosition(), newState.getVelocity());
+        }
+
+        characterMovementSystemUtility.setToState(entity, newState);
+        lastInputEvent.put(entity, input);
+    }
+
+    /**
+     * Steps all queued inputs, one round of sweeps per input of the character with the longest queue.
+     */
+    private void stepQueuedInputs() {
+        steppingQueuedInputs = true;
+        try {
+            List<KinematicCharacterMover.PendingStep> steps = Lists.newArrayListWithCapacity(queuedInputs.size());
+            while (!queuedInputs.isEmpty()) {
+                Iterator<Map.Entry<EntityRef, QueuedInputs>> iterator = queuedInputs.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<EntityRef, QueuedInputs> entry = iterator.next();
+                    CharacterMoveInputEvent input = entry.getValue().inputs.poll();
+                    if (entry.getValue().inputs.isEmpty()) {
+                        iterator.remove();
+                    }
+                    EntityRef entity = entry.getKey();
+                    steps.add(characterMover.beginStep(characterStates.get(entity).getLast(), input, entity));
+                }
+
+                for (KinematicCharacterMover.PendingStep step : steps) {
+                    characterMover.sweep(step);
+                }
+
+                for (KinematicCharacterMover.PendingStep step : steps) {
+                    EntityRef entity = step.getEntity();
+                    CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(entity);
+                    if (stateBuffer == null) {
+                        // Destroyed by an event of an earlier step, so its sweep is thrown away
+                        continue;
+                    }
+                    CharacterStateEvent newState;
+                    if (stateBuffer.getLast() == step.getInitialState()) {
+                        newState = characterMover.finishStep(step);
+                    } else {
+                        // An event of an earlier step changed this character (e.g. teleported it). The sweep started
+                        // from the old state, so it is thrown away without sending its events and the step is redone.
+                        newState = stepState(step.getInput(), stateBuffer.getLast(), entity);
+                    }
+                    if (characterStates.containsKey(entity)) {
+                        applyState(entity, step.getInput(), newState);
+                    }
+                }
+                steps.clear();
+            }
+        } finally {
+            steppingQueuedInputs = false;
+        }
+    }
+
+    /**
+     * Steps the queued inputs of a single character, so that a change to its state is applied after the input
+     * received before it.
+     */
+    private void stepQueuedInputs(EntityRef entity) {
+        if (steppingQueuedInputs) {
+            return;
+        }
+        QueuedInputs queue = queuedInputs.remove(entity);
+        if (queue != null) {
+            for (CharacterMoveInputEvent input : queue.inputs) {
+                applyState(entity, input, stepState(input, characterStates.get(entity).getLast(), entity));
+            }
+        }
+    }
+
     @Override
     public void update(float delta) {
+        stepQueuedInputs();
         if (nextSendState < time.getGameTimeInMs()) {
             long lastSendTime = nextSendState - TIME_BETWEEN_STATE_REPLICATE;
             for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
@@ -208,6 +319,8 @@ public void update(float delta) {
                 }
             }
             nextSendState += TIME_BETWEEN_STATE_REPLICATE;
+            // Step the repeated inputs
+            stepQueuedInputs();
         }
         long renderTime = time.getGameTimeInMs() - RENDER_DELAY;
         for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
@@ -217,6 +330,51 @@ public void update(float delta) {
 
             setToTime(renderTime, entry.getKey(), entry.getValue());
         }
+        if (renderTime >= nextHistorySnapshot) {
+            recordHistory(renderTime);
+            nextHistorySnapshot = renderTime + TIME_BETWEEN_HISTORY_SNAPSHOTS;
+        }
+    }
+
+    /**
+     * Records where every character is shown at the given time, interpolated like {@link #setToTime} does.
+     */
+    private void recordHistory(long renderTime) {
+        history.startSnapshot(renderTime);
+        Vector3f position = new Vector3f();
+        for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
+            CharacterMovementComponent movementComponent = entry.getKey().getComponent(CharacterMovementComponent.class);
+            if (movementComponent != null && getPositionAtTime(renderTime, entry.getValue(), position)) {
+                history.record(entry.getKey(), position, movementComponent.radius, movementComponent.height);
+            }
+        }
+    }
+
+    private boolean getPositionAtTime(long renderTime, CircularBuffer<CharacterStateEvent> buffer, Vector3f position) {
+        CharacterStateEvent previous = null;
+        CharacterStateEvent next = null;
+        for (CharacterStateEvent state : buffer) {
+            if (state.getTime() <= renderTime) {
+                previous = state;
+            } else {
+                next = state;
+                break;
+            }
+        }
+        if (previous == null) {
+            return false;
+        }
+        if (next != null) {
+            float t = (float) (renderTime - previous.getTime()) / (next.getTime() - previous.getTime());
+            position.set(BaseVector3f.lerp(previous.getPosition(), next.getPosition(), t));
+        } else {
+            // Matches CharacterMovementSystemUtility.setToExtrapolateState
+            float t = (renderTime - previous.getTime()) * 0.0001f;
+            position.set(previous.getVelocity());
+            position.scale(t);
+            position.add(previous.getPosition());
+        }
+        return true;
     }
 
     private void setToTime(long renderTime, EntityRef entity, CircularBuffer<CharacterStateEvent> buffer) {
@@ -257,4 +415,34 @@ public void restoreToPresent() {
             setToTime(renderTime, entry.getKey(), entry.getValue());
         }
     }
+
+    @Override
+    public HitResult rayTraceCharacters(EntityRef client, long timeMs, Vector3f origin, Vector3f direction, float maxDistance) {
+        return history.rayTrace(timeMs - RENDER_DELAY, origin, direction, maxDistance, getCharacter(client));
+    }
+
+    @Override
+    public List<EntityRef> getCharactersInArea(EntityRef client, long timeMs, Vector3f center, float radius) {
+        return history.getCharactersInArea(timeMs - RENDER_DELAY, center, radius, getCharacter(client));
+    }
+
+    private static EntityRef getCharacter(EntityRef client) {
+        ClientComponent clientComponent = client.getComponent(ClientComponent.class);
+        return (clientComponent != null) ? clientComponent.character : EntityRef.NULL;
+    }
+
+    /**
+     * The inputs of a character waiting to be stepped.
+     */
+    private static final class QueuedInputs {
+        private final Deque<CharacterMoveInputEvent> inputs = new ArrayDeque<>();
+        /**
+         * The time of the state the character will be in once the queued inputs are stepped.
+         */
+        private long endTime;
+
+        private QueuedInputs(long startTime) {
+            this.endTime = startTime;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.console.commands;
+
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.permission.PermissionManager;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+
+/**
+ * Shows the latencies of the chunk pipeline of this game instance, as recorded by the {@link ChunkLifecycleTracer}.
+ */
+@RegisterSystem
+public class ChunkPipelineCommands extends BaseComponentSystem {
+
+    @Command(shortDescription = "Shows how long chunks wait for and spend in each stage of the chunk pipeline",
+            requiredPermission = PermissionManager.DEBUG_PERMISSION)
+    public String chunkPipelineStats() {
+        if (!ChunkMonitor.isEnabled()) {
+            return "The chunk monitor is disabled, no chunk pipeline statistics are recorded";
+        }
+        return ChunkLifecycleTracer.getStatistics().format()
+                + ChunkLifecycleTracer.getPendingCount() + " chunks in the pipeline";
+    }
+
+    @Command(shortDescription = "Clears the recorded chunk pipeline statistics",
+            requiredPermission = PermissionManager.DEBUG_PERMISSION)
+    public String resetChunkPipelineStats() {
+        ChunkLifecycleTracer.reset();
+        return "Chunk pipeline statistics cleared";
+    }
+}
@@ -19,6 +19,7 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.engine.GameEngine;
+import org.terasology.engine.paths.PathManager;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -32,6 +33,7 @@
 import org.terasology.logic.permission.PermissionManager;
 import org.terasology.logic.players.PlayerUtil;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.ClientInfoComponent;
@@ -41,6 +43,11 @@
 import org.terasology.registry.In;
 import org.terasology.world.chunks.ChunkProvider;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * Commands to administer a remote server
  *
@@ -205,4 +212,18 @@ public String reloadChunk(@CommandParam("x") int x, @CommandParam("y") int y, @C
     public void purgeWorld() {
         chunkProvider.purgeWorld();
     }
+
+    @Command(shortDescription = "Writes the performance monitor statistics of the server to a text file",
+            helpText = "Writes the run count, mean and percentile times and allocations of every monitored activity, on all threads,"
+                    + " into a file named \"performanceDump.txt\". Enables the performance monitor first if it isn't running.",
+            runOnServer = true)
+    public String dumpPerformance() throws IOException {
+        if (!PerformanceMonitor.isEnabled()) {
+            PerformanceMonitor.setEnabled(true);
+            return "Performance monitor enabled, run the command again to dump the statistics collected until then";
+        }
+        Path file = PathManager.getInstance().getHomePath().resolve("performanceDump.txt");
+        Files.write(file, PerformanceMonitor.getStatisticsReport().getBytes(StandardCharsets.UTF_8));
+        return "Statistics of " + PerformanceMonitor.getActivityStatistics().size() + " activities written to " + file;
+    }
 }
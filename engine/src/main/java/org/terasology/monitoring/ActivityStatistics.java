@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring;
+
+/**
+ * The distribution of the execution times and allocations of a monitored activity, across all threads that ran it.
+ * <br><br>
+ * Times are own times: while a nested activity runs, the time passing is not assigned to the outer activity.
+ * The same holds for allocated memory.
+ */
+public final class ActivityStatistics {
+    private final String name;
+    private final long count;
+    private final double meanNanos;
+    private final long medianNanos;
+    private final long percentile95Nanos;
+    private final long percentile99Nanos;
+    private final long maxNanos;
+    private final double meanAllocatedBytes;
+
+    public ActivityStatistics(String name, long count, double meanNanos, long medianNanos, long percentile95Nanos,
+                              long percentile99Nanos, long maxNanos, double meanAllocatedBytes) {
+        this.name = name;
+        this.count = count;
+        this.meanNanos = meanNanos;
+        this.medianNanos = medianNanos;
+        this.percentile95Nanos = percentile95Nanos;
+        this.percentile99Nanos = percentile99Nanos;
+        this.maxNanos = maxNanos;
+        this.meanAllocatedBytes = meanAllocatedBytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return How often the activity ran
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public long getMedianNanos() {
+        return medianNanos;
+    }
+
+    public long getPercentile95Nanos() {
+        return percentile95Nanos;
+    }
+
+    public long getPercentile99Nanos() {
+        return percentile99Nanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * @return The bytes allocated by a run of the activity, on average
+     */
+    public double getMeanAllocatedBytes() {
+        return meanAllocatedBytes;
+    }
+
+    /**
+     * @return The time spent in the activity over all of its runs
+     */
+    public double getTotalNanos() {
+        return meanNanos * count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d runs, mean %.3f ms, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms, max %.3f ms, %.0f bytes/run",
+                name, count, meanNanos / 1e6, medianNanos / 1e6, percentile95Nanos / 1e6, percentile99Nanos / 1e6, maxNanos / 1e6,
+                meanAllocatedBytes);
+    }
+}
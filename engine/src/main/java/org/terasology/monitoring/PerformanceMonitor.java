@@ -20,6 +20,9 @@
 import org.terasology.monitoring.impl.PerformanceMonitorImpl;
 import org.terasology.monitoring.impl.PerformanceMonitorInternal;
 
+import java.util.Comparator;
+import java.util.Map;
+
 /**
  * Maintains a running average of execution times and memory allocated by different activities.
  * Activities call to denote when they start and stop.
@@ -27,11 +30,11 @@
  * Activities may be nested, and while a nested activity is running the collection of data from outer activities
  * is paused: time passing and allocated memory are not assigned to them.
  * <br><br>
- * Performance monitor is intended only for use by the main thread of Terasology, and does not handle
- * activities being started and ended on other threads at this time.
+ * Activities can be started and ended on any thread, each thread keeping its own nesting. The data of all threads
+ * is aggregated once per cycle, by the main thread.
  */
 public final class PerformanceMonitor {
-    private static PerformanceMonitorInternal instance;
+    private static volatile PerformanceMonitorInternal instance;
 
     static {
         instance = new NullPerformanceMonitor();
@@ -140,6 +143,47 @@ public static TObjectDoubleMap<String> getAllocationMean() {
         return instance.getAllocationMean();
     }
 
+    /**
+     * Returns a mapping from the name of an activity to the distribution of its execution times and allocations,
+     * since the Performance Monitoring system was enabled.
+     * <br><br>
+     * Unlike the running means, these cover every single run of an activity, so they show how long an activity
+     * running on a background thread takes, not just how much time it takes per cycle.
+     *
+     * @return a mapping from activity name to the statistics of the activity.
+     */
+    public static Map<String, ActivityStatistics> getActivityStatistics() {
+        return instance.getActivityStatistics();
+    }
+
+    /**
+     * Formats the statistics of all activities as a plain text table, longest total time first. Suited for logs
+     * and dumps from a headless server.
+     *
+     * @return the table, with a header line
+     */
+    public static String getStatisticsReport() {
+        StringBuilder report = new StringBuilder(String.format("%-60s %10s %10s %10s %10s %10s %10s %12s%n",
+                "Activity", "Runs", "Total ms", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Bytes/run"));
+        getActivityStatistics().values().stream()
+                .sorted(Comparator.comparingDouble(ActivityStatistics::getTotalNanos).reversed())
+                .forEach(statistics -> report.append(String.format("%-60s %10d %10.1f %10.3f %10.3f %10.3f %10.3f %12.0f%n",
+                        statistics.getName(), statistics.getCount(), statistics.getTotalNanos() / 1e6,
+                        statistics.getMeanNanos() / 1e6, statistics.getMedianNanos() / 1e6,
+                        statistics.getPercentile95Nanos() / 1e6, statistics.getPercentile99Nanos() / 1e6,
+                        statistics.getMeanAllocatedBytes())));
+        return report.toString();
+    }
+
+    /**
+     * Returns whether the Performance Monitoring system is collecting data.
+     *
+     * @return True if the Performance Monitoring system is ON.
+     */
+    public static boolean isEnabled() {
+        return instance instanceof PerformanceMonitorImpl;
+    }
+
     /**
      * Enables or disables the Performance Monitoring system.
      * <br><br>
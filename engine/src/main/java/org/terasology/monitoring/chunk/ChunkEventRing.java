@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import com.google.common.base.Preconditions;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded queue of chunk monitor events, written by the thread that owns it and read by a single other thread at a
+ * time, without locks.
+ * <br><br>
+ * When the ring is full, new events are rejected instead of blocking the writing thread.
+ */
+final class ChunkEventRing {
+
+    private final AtomicReferenceArray<ChunkMonitorEvent> events;
+    private final int mask;
+    // the sequence number of the next event to read, only advanced by the reader
+    private final AtomicLong head = new AtomicLong();
+    // the sequence number of the next event to write, only advanced by the owner
+    private final AtomicLong tail = new AtomicLong();
+    private final WeakReference<Thread> owner;
+
+    /**
+     * @param capacity the maximum number of pending events, a power of two
+     */
+    ChunkEventRing(int capacity, Thread owner) {
+        Preconditions.checkArgument(capacity > 0 && Integer.bitCount(capacity) == 1, "Capacity must be a power of two: %s", capacity);
+        this.events = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.owner = new WeakReference<>(owner);
+    }
+
+    /**
+     * Must only be called by the owning thread.
+     *
+     * @return Whether the event was added, false if the ring is full
+     */
+    boolean offer(ChunkMonitorEvent event) {
+        long currentTail = tail.get();
+        if (currentTail - head.get() >= events.length()) {
+            return false;
+        }
+        events.lazySet((int) currentTail & mask, event);
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Passes the pending events to the consumer, oldest first. Must not be called by several threads at once.
+     *
+     * @return The number of events passed to the consumer
+     */
+    int drainTo(Consumer<? super ChunkMonitorEvent> consumer) {
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        for (long sequence = currentHead; sequence < currentTail; sequence++) {
+            int index = (int) sequence & mask;
+            consumer.accept(events.get(index));
+            events.lazySet(index, null);
+            head.lazySet(sequence + 1);
+        }
+        return (int) (currentTail - currentHead);
+    }
+
+    boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * @return Whether the owning thread has terminated and all its events have been read
+     */
+    boolean isAbandoned() {
+        Thread thread = owner.get();
+        return (thread == null || !thread.isAlive()) && isEmpty();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.impl.ActivityHistogram;
+
+import java.util.Map;
+
+/**
+ * Follows chunks through the stages of the chunk pipeline and records how long each stage waited and ran.
+ * <br><br>
+ * The pipeline reports when a chunk is queued for a stage with {@link #enqueued(Vector3i, ChunkStage)}, and brackets
+ * the work of the stage with {@link #started(Vector3i, ChunkStage)} and {@link #finished(ChunkStage, long)}. Only the
+ * time a chunk was queued is remembered per chunk, and at most {@value #MAX_PENDING_CHUNKS} chunks per stage are
+ * followed at once, so chunks that never leave a stage cannot grow the tracer without bound. The times are recorded
+ * in per-thread histograms, so the calls never wait for each other.
+ * <br><br>
+ * Like the {@link ChunkMonitor}, the tracer only records while the monitor is enabled.
+ */
+public final class ChunkLifecycleTracer {
+
+    static final int MAX_PENDING_CHUNKS = 65536;
+
+    private static final int STAGE_COUNT = ChunkStage.values().length;
+    private static final int TOTAL_TIMES = 2 * STAGE_COUNT;
+
+    private static final Map<Vector3i, Long> REQUEST_TIMES = Maps.newConcurrentMap();
+    private static final Map<ChunkStage, Map<Vector3i, Long>> ENQUEUE_TIMES = Maps.newEnumMap(ChunkStage.class);
+    private static final PerThreadHistograms TIMES = new PerThreadHistograms(TOTAL_TIMES + 1);
+
+    static {
+        for (ChunkStage stage : ChunkStage.values()) {
+            ENQUEUE_TIMES.put(stage, Maps.newConcurrentMap());
+        }
+    }
+
+    private ChunkLifecycleTracer() {
+    }
+
+    private static int queueTimes(ChunkStage stage) {
+        return 2 * stage.ordinal();
+    }
+
+    private static int runTimes(ChunkStage stage) {
+        return 2 * stage.ordinal() + 1;
+    }
+
+    private static void remember(Map<Vector3i, Long> times, Vector3i chunkPos, long time) {
+        if (times.size() < MAX_PENDING_CHUNKS) {
+            times.put(new Vector3i(chunkPos), time);
+        }
+    }
+
+    /**
+     * Starts the clock for the total time until the chunk is {@link #ready(Vector3i) ready}.
+     */
+    public static void requested(Vector3i chunkPos) {
+        if (ChunkMonitor.isEnabled()) {
+            remember(REQUEST_TIMES, chunkPos, System.nanoTime());
+        }
+    }
+
+    public static void enqueued(Vector3i chunkPos, ChunkStage stage) {
+        if (ChunkMonitor.isEnabled()) {
+            remember(ENQUEUE_TIMES.get(stage), chunkPos, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records the time the chunk waited for the stage, if it was enqueued for it.
+     *
+     * @return The start time to pass to {@link #finished(ChunkStage, long)}
+     */
+    public static long started(Vector3i chunkPos, ChunkStage stage) {
+        if (!ChunkMonitor.isEnabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        Long enqueueTime = ENQUEUE_TIMES.get(stage).remove(chunkPos);
+        if (enqueueTime != null) {
+            TIMES.record(queueTimes(stage), now - enqueueTime);
+        }
+        return now;
+    }
+
+    /**
+     * Records the time the stage ran. Does nothing if the stage was started while the monitor was disabled.
+     */
+    public static void finished(ChunkStage stage, long startTime) {
+        if (startTime != 0 && ChunkMonitor.isEnabled()) {
+            TIMES.record(runTimes(stage), System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Records the total time since the chunk was requested, if it was.
+     */
+    public static void ready(Vector3i chunkPos) {
+        if (ChunkMonitor.isEnabled()) {
+            Long requestTime = REQUEST_TIMES.remove(chunkPos);
+            if (requestTime != null) {
+                TIMES.record(TOTAL_TIMES, System.nanoTime() - requestTime);
+            }
+        }
+    }
+
+    /**
+     * Forgets a chunk that left the pipeline before becoming ready, for example because it was unloaded.
+     */
+    public static void discarded(Vector3i chunkPos) {
+        REQUEST_TIMES.remove(chunkPos);
+        for (Map<Vector3i, Long> times : ENQUEUE_TIMES.values()) {
+            times.remove(chunkPos);
+        }
+    }
+
+    /**
+     * Forgets all chunks in the pipeline, keeping the recorded times.
+     */
+    public static void clearPending() {
+        REQUEST_TIMES.clear();
+        for (Map<Vector3i, Long> times : ENQUEUE_TIMES.values()) {
+            times.clear();
+        }
+    }
+
+    /**
+     * Forgets all chunks in the pipeline and all recorded times.
+     */
+    public static void reset() {
+        clearPending();
+        TIMES.clear();
+    }
+
+    /**
+     * @return The number of chunks currently followed through the pipeline
+     */
+    public static int getPendingCount() {
+        return REQUEST_TIMES.size();
+    }
+
+    public static ChunkPipelineStatistics getStatistics() {
+        ActivityHistogram[] times = TIMES.merge();
+        ActivityHistogram[] queueTimes = new ActivityHistogram[STAGE_COUNT];
+        ActivityHistogram[] runTimes = new ActivityHistogram[STAGE_COUNT];
+        for (ChunkStage stage : ChunkStage.values()) {
+            queueTimes[stage.ordinal()] = times[queueTimes(stage)];
+            runTimes[stage.ordinal()] = times[runTimes(stage)];
+        }
+        return new ChunkPipelineStatistics(queueTimes, runTimes, times[TOTAL_TIMES]);
+    }
+}
@@ -18,82 +18,237 @@
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import com.google.common.eventbus.EventBus;
+import org.terasology.config.SystemConfig;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.impl.ActivityHistogram;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkProvider;
 
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the chunks of the current chunk provider and collects statistics about their lifecycle.
+ * <br><br>
+ * The fire methods are called by the chunk generation and mesh threads and never block: the statistics are kept in
+ * lock-free counters and per-thread histograms, and events are only recorded while someone is registered for them.
+ * Each thread records its events in its own bounded ring buffer, which is emptied by {@link #drainEvents()}. Events
+ * that do not fit into the buffer are dropped and counted. Events of different threads may be delivered out of order.
+ * <br><br>
+ * Chunks are forgotten once they are disposed, so the monitor holds no more entries than there are loaded chunks.
+ * The whole monitor can be switched off with {@link #setEnabled(boolean)}, or by starting with the system property
+ * {@value SystemConfig#CHUNK_MONITOR_DISABLED_PROPERTY} set to true.
+ */
 public final class ChunkMonitor {
 
+    private static final int EVENTS_PER_THREAD = 1024;
+
     private static final EventBus EVENT_BUS = new EventBus("ChunkMonitor");
     private static final Map<Vector3i, ChunkMonitorEntry> CHUNKS = Maps.newConcurrentMap();
+    private static final AtomicInteger SUBSCRIBER_COUNT = new AtomicInteger();
+    private static final Object DRAIN_LOCK = new Object();
+
+    private static final List<ChunkEventRing> EVENT_RINGS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<ChunkEventRing> THREAD_EVENT_RING = ThreadLocal.withInitial(() -> {
+        ChunkEventRing ring = new ChunkEventRing(EVENTS_PER_THREAD, Thread.currentThread());
+        EVENT_RINGS.add(ring);
+        return ring;
+    });
+
+    private static final int VERTEX_TIMES = 0;
+    private static final int BUFFER_TIMES = 1;
+    private static final PerThreadHistograms TESSELLATION_TIMES = new PerThreadHistograms(2);
+
+    private static final LongAdder CREATED = new LongAdder();
+    private static final LongAdder DISPOSED = new LongAdder();
+    private static final LongAdder REVIVED = new LongAdder();
+    private static final LongAdder DEFLATED = new LongAdder();
+    private static final LongAdder BYTES_BEFORE_DEFLATION = new LongAdder();
+    private static final LongAdder BYTES_AFTER_DEFLATION = new LongAdder();
+    private static final LongAdder DROPPED_EVENTS = new LongAdder();
+
+    private static volatile boolean enabled = !Boolean.getBoolean(SystemConfig.CHUNK_MONITOR_DISABLED_PROPERTY);
 
     private ChunkMonitor() {
     }
 
-    private static void post(Object event) {
-        EVENT_BUS.post(event);
+    public static boolean isEnabled() {
+        return enabled;
     }
 
-    private static synchronized ChunkMonitorEntry registerChunk(Chunk chunk) {
-        Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
-        final Vector3i pos = chunk.getPosition();
-        ChunkMonitorEntry entry = CHUNKS.get(pos);
-        if (entry == null) {
-            entry = new ChunkMonitorEntry(pos);
-            CHUNKS.put(pos, entry);
+    /**
+     * While disabled, the fire methods return immediately without recording anything.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+        if (!value) {
+            CHUNKS.clear();
+            ChunkLifecycleTracer.clearPending();
+        }
+    }
+
+    private static boolean hasSubscribers() {
+        return SUBSCRIBER_COUNT.get() > 0;
+    }
+
+    private static void record(ChunkMonitorEvent event) {
+        if (!THREAD_EVENT_RING.get().offer(event)) {
+            DROPPED_EVENTS.increment();
         }
+    }
+
+    private static ChunkMonitorEntry registerChunk(Chunk chunk) {
+        Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
+        final ChunkMonitorEntry entry = CHUNKS.computeIfAbsent(chunk.getPosition(), ChunkMonitorEntry::new);
         entry.addChunk(chunk);
         return entry;
     }
 
+    /**
+     * Registers an object for the events of the monitor. The events are delivered by {@link #drainEvents()}.
+     */
     public static void registerForEvents(Object object) {
         Preconditions.checkNotNull(object, "The parameter 'object' must not be null");
         EVENT_BUS.register(object);
+        SUBSCRIBER_COUNT.incrementAndGet();
+    }
+
+    public static void unregisterForEvents(Object object) {
+        Preconditions.checkNotNull(object, "The parameter 'object' must not be null");
+        EVENT_BUS.unregister(object);
+        if (SUBSCRIBER_COUNT.decrementAndGet() == 0) {
+            // nobody is left to read the pending events
+            drain(event -> { });
+        }
+    }
+
+    /**
+     * Delivers the events recorded since the last call to the registered objects, on the calling thread.
+     *
+     * @return The number of delivered events
+     */
+    public static int drainEvents() {
+        return drain(EVENT_BUS::post);
+    }
+
+    private static int drain(Consumer<ChunkMonitorEvent> consumer) {
+        synchronized (DRAIN_LOCK) {
+            int count = 0;
+            for (ChunkEventRing ring : EVENT_RINGS) {
+                count += ring.drainTo(consumer);
+                if (ring.isAbandoned()) {
+                    EVENT_RINGS.remove(ring);
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Delivers the pending events before the event of the provider, so that no event of its chunks follows it.
+     */
+    private static void postProviderEvent(ChunkMonitorEvent event) {
+        synchronized (DRAIN_LOCK) {
+            drainEvents();
+            EVENT_BUS.post(event);
+        }
     }
 
     public static void fireChunkProviderInitialized(ChunkProvider provider) {
-        post(new ChunkMonitorEvent.ChunkProviderInitialized(provider));
+        if (enabled) {
+            postProviderEvent(new ChunkMonitorEvent.ChunkProviderInitialized(provider));
+        }
     }
 
     public static void fireChunkProviderDisposed(ChunkProvider provider) {
         CHUNKS.clear();
-        post(new ChunkMonitorEvent.ChunkProviderDisposed(provider));
+        ChunkLifecycleTracer.clearPending();
+        if (enabled) {
+            postProviderEvent(new ChunkMonitorEvent.ChunkProviderDisposed(provider));
+        }
     }
 
     public static void fireChunkCreated(Chunk chunk) {
-        Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
+        if (!enabled) {
+            return;
+        }
         final ChunkMonitorEntry entry = registerChunk(chunk);
-        if (entry != null) {
-            post(new ChunkMonitorEvent.Created(entry));
+        CREATED.increment();
+        if (hasSubscribers()) {
+            record(new ChunkMonitorEvent.Created(entry));
         }
     }
 
     public static void fireChunkDisposed(Chunk chunk) {
+        if (!enabled) {
+            return;
+        }
         Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
-        post(new ChunkMonitorEvent.Disposed(chunk.getPosition()));
+        // keep the entry if a newer chunk has been created at the position in the meantime
+        CHUNKS.computeIfPresent(chunk.getPosition(), (pos, entry) -> {
+            Chunk latest = entry.getLatestChunk();
+            return latest == null || latest == chunk ? null : entry;
+        });
+        DISPOSED.increment();
+        if (hasSubscribers()) {
+            record(new ChunkMonitorEvent.Disposed(chunk.getPosition()));
+        }
     }
 
     public static void fireChunkRevived(Chunk chunk) {
-        Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
-        post(new ChunkMonitorEvent.Revived(chunk.getPosition()));
+        if (!enabled) {
+            return;
+        }
+        registerChunk(chunk);
+        REVIVED.increment();
+        if (hasSubscribers()) {
+            record(new ChunkMonitorEvent.Revived(chunk.getPosition()));
+        }
     }
 
     public static void fireChunkDeflated(Chunk chunk, int oldSize, int newSize) {
+        if (!enabled) {
+            return;
+        }
         Preconditions.checkNotNull(chunk, "The parameter 'chunk' must not be null");
-        post(new ChunkMonitorEvent.Deflated(chunk.getPosition(), oldSize, newSize));
+        DEFLATED.increment();
+        BYTES_BEFORE_DEFLATION.add(oldSize);
+        BYTES_AFTER_DEFLATION.add(newSize);
+        if (hasSubscribers()) {
+            record(new ChunkMonitorEvent.Deflated(chunk.getPosition(), oldSize, newSize));
+        }
     }
 
     public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh mesh) {
+        if (!enabled) {
+            return;
+        }
         Preconditions.checkNotNull(chunkPos, "The parameter 'chunkPos' must not be null");
-        post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
+        Preconditions.checkNotNull(mesh, "The parameter 'mesh' must not be null");
+        TESSELLATION_TIMES.record(VERTEX_TIMES, mesh.getTimeToGenerateBlockVertices());
+        TESSELLATION_TIMES.record(BUFFER_TIMES, mesh.getTimeToGenerateOptimizedBuffers());
+        if (hasSubscribers()) {
+            record(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
+        }
     }
 
-    public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
+    public static void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
     }
+
+    /**
+     * @return The statistics collected while the monitor was enabled
+     */
+    public static ChunkMonitorStatistics getStatistics() {
+        ActivityHistogram[] tessellationTimes = TESSELLATION_TIMES.merge();
+        return new ChunkMonitorStatistics(CREATED.sum(), DISPOSED.sum(), REVIVED.sum(), DEFLATED.sum(),
+                BYTES_BEFORE_DEFLATION.sum(), BYTES_AFTER_DEFLATION.sum(), DROPPED_EVENTS.sum(),
+                tessellationTimes[VERTEX_TIMES], tessellationTimes[BUFFER_TIMES]);
+    }
 }
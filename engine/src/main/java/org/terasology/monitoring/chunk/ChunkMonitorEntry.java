@@ -20,38 +20,26 @@
 import org.terasology.world.chunks.Chunk;
 
 import java.lang.ref.WeakReference;
-import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
 
+/**
+ * The chunk most recently created at a position. The chunk is only weakly referenced, so the entry does not keep
+ * disposed chunks alive.
+ */
 public class ChunkMonitorEntry {
 
     private final Vector3i pos;
-    private Deque<WeakReference<Chunk>> chunks = new LinkedList<>();
+    private volatile WeakReference<Chunk> latestChunk;
 
     public ChunkMonitorEntry(Vector3i pos) {
         this.pos = Preconditions.checkNotNull(pos, "The parameter 'pos' must not be null");
     }
 
-    private void purge() {
-        if (chunks.size() == 0) {
-            return;
-        }
-        final Iterator<WeakReference<Chunk>> it = chunks.iterator();
-        while (it.hasNext()) {
-            final WeakReference<Chunk> w = it.next();
-            if (w.get() == null) {
-                it.remove();
-            }
-        }
-    }
-
     public Vector3i getPosition() {
         return new Vector3i(pos);
     }
 
     public Chunk getLatestChunk() {
-        final WeakReference<Chunk> chunk = chunks.peekLast();
+        final WeakReference<Chunk> chunk = latestChunk;
         if (chunk != null) {
             return chunk.get();
         }
@@ -61,7 +49,6 @@ public Chunk getLatestChunk() {
     public void addChunk(Chunk value) {
         Preconditions.checkNotNull(value, "The parameter 'value' must not be null");
         Preconditions.checkArgument(pos.equals(value.getPosition()), "Expected chunk for position {} but got position {} instead", pos, value.getPosition());
-        purge();
-        chunks.add(new WeakReference<>(value));
+        latestChunk = new WeakReference<>(value);
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import org.terasology.monitoring.impl.ActivityHistogram;
+
+/**
+ * A snapshot of the aggregate statistics collected by the {@link ChunkMonitor} since the game started.
+ */
+public final class ChunkMonitorStatistics {
+
+    private final long createdCount;
+    private final long disposedCount;
+    private final long revivedCount;
+    private final long deflatedCount;
+    private final long bytesBeforeDeflation;
+    private final long bytesAfterDeflation;
+    private final long droppedEventCount;
+    private final ActivityHistogram vertexGenerationTimes;
+    private final ActivityHistogram bufferGenerationTimes;
+
+    ChunkMonitorStatistics(long createdCount, long disposedCount, long revivedCount, long deflatedCount,
+                           long bytesBeforeDeflation, long bytesAfterDeflation, long droppedEventCount,
+                           ActivityHistogram vertexGenerationTimes, ActivityHistogram bufferGenerationTimes) {
+        this.createdCount = createdCount;
+        this.disposedCount = disposedCount;
+        this.revivedCount = revivedCount;
+        this.deflatedCount = deflatedCount;
+        this.bytesBeforeDeflation = bytesBeforeDeflation;
+        this.bytesAfterDeflation = bytesAfterDeflation;
+        this.droppedEventCount = droppedEventCount;
+        this.vertexGenerationTimes = vertexGenerationTimes;
+        this.bufferGenerationTimes = bufferGenerationTimes;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDisposedCount() {
+        return disposedCount;
+    }
+
+    public long getRevivedCount() {
+        return revivedCount;
+    }
+
+    public long getDeflatedCount() {
+        return deflatedCount;
+    }
+
+    public long getBytesBeforeDeflation() {
+        return bytesBeforeDeflation;
+    }
+
+    public long getBytesAfterDeflation() {
+        return bytesAfterDeflation;
+    }
+
+    /**
+     * @return The size of deflated chunks relative to their size before deflation, 1 if no chunk was deflated
+     */
+    public double getDeflateRatio() {
+        return bytesBeforeDeflation > 0 ? (double) bytesAfterDeflation / bytesBeforeDeflation : 1;
+    }
+
+    /**
+     * @return The number of events that were not delivered to subscribers because they could not keep up
+     */
+    public long getDroppedEventCount() {
+        return droppedEventCount;
+    }
+
+    public long getTessellatedCount() {
+        return vertexGenerationTimes.getCount();
+    }
+
+    /**
+     * @return The distribution of the time taken to generate the block vertices of a chunk mesh, in milliseconds
+     */
+    public ActivityHistogram getVertexGenerationTimes() {
+        return vertexGenerationTimes;
+    }
+
+    /**
+     * @return The distribution of the time taken to generate the optimized buffers of a chunk mesh, in milliseconds
+     */
+    public ActivityHistogram getBufferGenerationTimes() {
+        return bufferGenerationTimes;
+    }
+}
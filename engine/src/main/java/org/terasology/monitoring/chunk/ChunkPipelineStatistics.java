@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import org.terasology.monitoring.impl.ActivityHistogram;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the chunk pipeline latencies recorded by the {@link ChunkLifecycleTracer}. All times are in
+ * nanoseconds.
+ */
+public final class ChunkPipelineStatistics {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ActivityHistogram[] queueTimes;
+    private final ActivityHistogram[] runTimes;
+    private final ActivityHistogram totalTimes;
+
+    ChunkPipelineStatistics(ActivityHistogram[] queueTimes, ActivityHistogram[] runTimes, ActivityHistogram totalTimes) {
+        this.queueTimes = queueTimes;
+        this.runTimes = runTimes;
+        this.totalTimes = totalTimes;
+    }
+
+    /**
+     * @return The times chunks waited before the stage started
+     */
+    public ActivityHistogram getQueueTimes(ChunkStage stage) {
+        return queueTimes[stage.ordinal()];
+    }
+
+    /**
+     * @return The times the stage took to run
+     */
+    public ActivityHistogram getRunTimes(ChunkStage stage) {
+        return runTimes[stage.ordinal()];
+    }
+
+    /**
+     * @return The times between a chunk being requested and being added to the world
+     */
+    public ActivityHistogram getTotalTimes() {
+        return totalTimes;
+    }
+
+    /**
+     * @return A table of the count and the 50th, 95th and 99th percentile of the queue and run time of every stage,
+     * in milliseconds
+     */
+    public String format() {
+        StringBuilder output = new StringBuilder();
+        output.append(String.format(Locale.ROOT, "%-18s %8s | %26s | %26s%n", "Stage", "Count",
+                "Queue p50/p95/p99 ms", "Run p50/p95/p99 ms"));
+        for (ChunkStage stage : ChunkStage.values()) {
+            output.append(String.format(Locale.ROOT, "%-18s %8d | %s | %s%n", stage.getDisplayName(),
+                    getRunTimes(stage).getCount(), formatPercentiles(getQueueTimes(stage)),
+                    formatPercentiles(getRunTimes(stage))));
+        }
+        output.append(String.format(Locale.ROOT, "%-18s %8d | %s%n", "Requested to ready", totalTimes.getCount(),
+                formatPercentiles(totalTimes)));
+        return output.toString();
+    }
+
+    private static String formatPercentiles(ActivityHistogram histogram) {
+        return String.format(Locale.ROOT, "%8.2f %8.2f %8.2f", histogram.getPercentile(50) / NANOS_PER_MILLI,
+                histogram.getPercentile(95) / NANOS_PER_MILLI, histogram.getPercentile(99) / NANOS_PER_MILLI);
+    }
+}
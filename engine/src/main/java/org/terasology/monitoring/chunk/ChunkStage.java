@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+/**
+ * The stages a chunk passes through between being requested and being rendered, in pipeline order.
+ * <br><br>
+ * Every stage is entered through a queue, so its latency is split into the time spent waiting and the time spent
+ * running. Chunks loaded from the store skip {@link #GENERATE}, and chunks received from a server skip {@link #LOAD}
+ * and {@link #GENERATE}.
+ */
+public enum ChunkStage {
+    /**
+     * Reading the chunk from the store, on a chunk generation thread.
+     */
+    LOAD("Load"),
+    /**
+     * Running the world generator for a chunk that was not stored.
+     */
+    GENERATE("Generate"),
+    INTERNAL_LIGHTING("Internal lighting"),
+    DEFLATE("Deflate"),
+    /**
+     * Waiting on the main thread for all neighbours to be loaded, then handing the chunk to the light merger.
+     */
+    MAKE_AVAILABLE("Make available"),
+    /**
+     * Merging the light of the chunk with its neighbours, on the light merging thread.
+     */
+    LIGHT_MERGE("Light merge"),
+    /**
+     * Adding the chunk to the world on the main thread, which finalizes one chunk per frame.
+     */
+    FINALIZE("Finalize"),
+    /**
+     * Tessellating the chunk on a chunk updater thread.
+     */
+    MESH("Mesh"),
+    /**
+     * Uploading the tessellated mesh to the graphics card on the main thread.
+     */
+    MESH_UPLOAD("Mesh upload");
+
+    private final String displayName;
+
+    ChunkStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
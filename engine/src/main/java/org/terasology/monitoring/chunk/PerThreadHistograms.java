@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.chunk;
+
+import org.terasology.monitoring.impl.ActivityHistogram;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A fixed number of histograms that many threads can record into without waiting for each other.
+ * <br><br>
+ * Every thread records into its own copy of the histograms, whose lock is only ever contended by readers. Reading
+ * merges the copies of all threads. The copies of terminated threads are folded into a single one when read.
+ */
+final class PerThreadHistograms {
+
+    private final int histogramCount;
+    private final List<ThreadHistograms> threadHistograms = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadHistograms> currentThreadHistograms;
+    // the values recorded by threads that have terminated
+    private final ThreadHistograms retiredHistograms;
+
+    PerThreadHistograms(int histogramCount) {
+        this.histogramCount = histogramCount;
+        this.retiredHistograms = new ThreadHistograms(null, histogramCount);
+        this.currentThreadHistograms = ThreadLocal.withInitial(() -> {
+            ThreadHistograms histograms = new ThreadHistograms(Thread.currentThread(), histogramCount);
+            threadHistograms.add(histograms);
+            return histograms;
+        });
+    }
+
+    void record(int index, long value) {
+        currentThreadHistograms.get().record(index, value);
+    }
+
+    /**
+     * @return The values recorded by all threads, one histogram per index
+     */
+    ActivityHistogram[] merge() {
+        ActivityHistogram[] result = new ActivityHistogram[histogramCount];
+        for (int i = 0; i < histogramCount; i++) {
+            result[i] = new ActivityHistogram();
+        }
+        synchronized (retiredHistograms) {
+            for (ThreadHistograms histograms : threadHistograms) {
+                if (histograms.isAbandoned()) {
+                    threadHistograms.remove(histograms);
+                    histograms.addTo(retiredHistograms);
+                } else {
+                    histograms.addTo(result);
+                }
+            }
+            retiredHistograms.addTo(result);
+        }
+        return result;
+    }
+
+    void clear() {
+        synchronized (retiredHistograms) {
+            for (ThreadHistograms histograms : threadHistograms) {
+                histograms.clear();
+            }
+            retiredHistograms.clear();
+        }
+    }
+
+    private static final class ThreadHistograms {
+        private final WeakReference<Thread> owner;
+        private final ActivityHistogram[] histograms;
+
+        ThreadHistograms(Thread owner, int histogramCount) {
+            this.owner = new WeakReference<>(owner);
+            this.histograms = new ActivityHistogram[histogramCount];
+        }
+
+        synchronized void record(int index, long value) {
+            // most threads only record into a few of the histograms
+            if (histograms[index] == null) {
+                histograms[index] = new ActivityHistogram();
+            }
+            histograms[index].record(value);
+        }
+
+        synchronized void addTo(ActivityHistogram[] output) {
+            for (int i = 0; i < histograms.length; i++) {
+                if (histograms[i] != null) {
+                    output[i].add(histograms[i]);
+                }
+            }
+        }
+
+        synchronized void addTo(ThreadHistograms other) {
+            for (int i = 0; i < histograms.length; i++) {
+                if (histograms[i] != null) {
+                    synchronized (other) {
+                        if (other.histograms[i] == null) {
+                            other.histograms[i] = new ActivityHistogram();
+                        }
+                        other.histograms[i].add(histograms[i]);
+                    }
+                }
+            }
+        }
+
+        synchronized void clear() {
+            for (ActivityHistogram histogram : histograms) {
+                if (histogram != null) {
+                    histogram.clear();
+                }
+            }
+        }
+
+        boolean isAbandoned() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+    }
+}
@@ -709,6 +709,8 @@ public void run() {
             try {
                 while (!stopThread) {
 
+                    // the monitor delivers the recorded chunk events to receiveChunkEvent on this thread
+                    ChunkMonitor.drainEvents();
                     final long slept = poll(requests);
                     boolean needsRendering = false;
                     boolean fastResume = false;
@@ -744,6 +746,7 @@ public void run() {
                 logger.error("Error executing chunk monitor update", e);
             }
 
+            ChunkMonitor.unregisterForEvents(ChunkMonitorDisplay.this);
             executor.shutdownNow();
         }
     }
@@ -19,6 +19,7 @@
 import gnu.trove.map.TObjectDoubleMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.monitoring.ActivityStatistics;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
@@ -71,6 +72,8 @@ private static class HeaderPanel extends JPanel {
         private final JLabel lName = new JLabel("Title");
         private final JLabel lMean = new JLabel("Running Means");
         private final JLabel lSpike = new JLabel("Decaying Spikes");
+        private final JLabel lPercentile = new JLabel("95th Percentile");
+        private final JLabel lAllocation = new JLabel("Allocated per Run");
 
         HeaderPanel() {
             setLayout(new FlowLayout(FlowLayout.LEFT, 4, 2));
@@ -78,6 +81,8 @@ private static class HeaderPanel extends JPanel {
             add(lName);
             add(lMean);
             add(lSpike);
+            add(lPercentile);
+            add(lAllocation);
         }
 
         public void setNameSize(Dimension d) {
@@ -92,6 +97,8 @@ private static class Entry implements Comparable<Entry> {
         public boolean active;
         public double mean;
         public double spike;
+        public double percentile95;
+        public double allocation;
 
         Entry(String name) {
             this.name = (name == null) ? "" : name;
@@ -144,6 +151,8 @@ private static class MyRenderer extends JPanel {
             private final JLabel lName = new JLabel();
             private final JLabel lMean = new JLabel();
             private final JLabel lSpike = new JLabel();
+            private final JLabel lPercentile = new JLabel();
+            private final JLabel lAllocation = new JLabel();
 
             private Dimension dName = new Dimension(0, 0);
 
@@ -161,9 +170,19 @@ private static class MyRenderer extends JPanel {
                 lSpike.setForeground(Color.GRAY);
                 lSpike.setPreferredSize(header.lSpike.getPreferredSize());
 
+                lPercentile.setHorizontalAlignment(SwingConstants.RIGHT);
+                lPercentile.setForeground(Color.GRAY);
+                lPercentile.setPreferredSize(header.lPercentile.getPreferredSize());
+
+                lAllocation.setHorizontalAlignment(SwingConstants.RIGHT);
+                lAllocation.setForeground(Color.GRAY);
+                lAllocation.setPreferredSize(header.lAllocation.getPreferredSize());
+
                 add(lName);
                 add(lMean);
                 add(lSpike);
+                add(lPercentile);
+                add(lAllocation);
             }
 
             public void setEntry(Entry entry) {
@@ -180,10 +199,14 @@ public void setEntry(Entry entry) {
 
                     lMean.setText("  " + format.format(entry.mean) + " ms");
                     lSpike.setText("  " + format.format(entry.spike) + " ms");
+                    lPercentile.setText("  " + format.format(entry.percentile95) + " ms");
+                    lAllocation.setText("  " + format.format(entry.allocation / 1024) + " KB");
                 } else {
                     lName.setText("");
                     lMean.setText("");
                     lSpike.setText("");
+                    lPercentile.setText("");
+                    lAllocation.setText("");
                 }
             }
         }
@@ -202,7 +225,8 @@ private PerformanceListModel() {
                     while (!stopThread) {
                         Thread.sleep(1000);
                         try (ThreadActivity ignored = ThreadMonitor.startThreadActivity("Poll")) {
-                            updateEntries(PerformanceMonitor.getRunningMean(), PerformanceMonitor.getDecayingSpikes());
+                            updateEntries(PerformanceMonitor.getRunningMean(), PerformanceMonitor.getDecayingSpikes(),
+                                    PerformanceMonitor.getActivityStatistics());
                         }
                     }
                 } catch (Exception e) {
@@ -224,7 +248,8 @@ private void invokeContentsChanged(final int a, final int b) {
             SwingUtilities.invokeLater(() -> fireContentsChanged(source, a, b));
         }
 
-        private void updateEntries(TObjectDoubleMap<String> means, TObjectDoubleMap<String> spikes) {
+        private void updateEntries(TObjectDoubleMap<String> means, TObjectDoubleMap<String> spikes,
+                                   Map<String, ActivityStatistics> statistics) {
             if (means != null) {
                 for (final Entry entry : list) {
                     entry.active = false;
@@ -248,6 +273,13 @@ private void updateEntries(TObjectDoubleMap<String> means, TObjectDoubleMap<Stri
                     }
                     return true;
                 });
+                for (ActivityStatistics activity : statistics.values()) {
+                    Entry entry = map.get(activity.getName());
+                    if (entry != null) {
+                        entry.percentile95 = activity.getPercentile95Nanos() / 1e6;
+                        entry.allocation = activity.getMeanAllocatedBytes();
+                    }
+                }
 
                 Collections.sort(list);
                 invokeContentsChanged(0, list.size() - 1);
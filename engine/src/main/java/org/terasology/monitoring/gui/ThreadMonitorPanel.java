@@ -21,6 +21,7 @@
 import org.terasology.monitoring.ThreadActivity;
 import org.terasology.monitoring.ThreadMonitor;
 import org.terasology.monitoring.impl.SingleThreadMonitor;
+import org.terasology.monitoring.impl.ThreadAllocationCounter;
 import org.terasology.monitoring.impl.ThreadMonitorEvent;
 
 import javax.swing.JPanel;
@@ -103,6 +104,7 @@ private static class MyRenderer extends JPanel {
             private final JLabel lName = new JLabel();
             private final JLabel lId = new JLabel();
             private final JLabel lCounters = new JLabel();
+            private final JLabel lAllocated = new JLabel();
             private final JLabel lActive = new JLabel();
             private final JPanel pError = new JPanel();
             private final JLabel lErrorSpacer = new JLabel();
@@ -124,12 +126,14 @@ private static class MyRenderer extends JPanel {
                 lId.setHorizontalAlignment(SwingConstants.RIGHT);
                 lName.setForeground(Color.BLUE);
                 lCounters.setForeground(Color.GRAY);
+                lAllocated.setForeground(Color.GRAY);
 
                 pList.setLayout(new FlowLayout(FlowLayout.LEFT, 4, 2));
                 pList.setBackground(BACKGROUND);
                 pList.add(lId);
                 pList.add(lName);
                 pList.add(lCounters);
+                pList.add(lAllocated);
 
                 pError.setVisible(false);
                 pError.setLayout(new FlowLayout(FlowLayout.LEFT, 4, 2));
@@ -162,6 +166,11 @@ public void setMonitor(SingleThreadMonitor monitor) {
                     lId.setPreferredSize(dId);
 
                     lCounters.setText(monitor.getLastTask());
+                    if (ThreadAllocationCounter.isSupported() && monitor.isAlive()) {
+                        lAllocated.setText(String.format("%.1f MB allocated", ThreadAllocationCounter.getAllocatedBytes(monitor.getThreadId()) / 1048576.0));
+                    } else {
+                        lAllocated.setText("");
+                    }
 
                     if (monitor.isAlive()) {
                         if (monitor.isActive()) {
@@ -185,6 +194,7 @@ public void setMonitor(SingleThreadMonitor monitor) {
                 } else {
                     lName.setText("");
                     lId.setText("");
+                    lAllocated.setText("");
                     lActive.setText("");
                 }
             }
@@ -18,6 +18,10 @@
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityStatistics;
+
+import java.util.Collections;
+import java.util.Map;
 
 /**
  */
@@ -53,4 +57,9 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return metrics;
     }
 
+    @Override
+    public Map<String, ActivityStatistics> getActivityStatistics() {
+        return Collections.emptyMap();
+    }
+
 }
@@ -15,49 +15,53 @@
  */
 package org.terasology.monitoring.impl;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Maps;
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.TObjectLongMap;
 import gnu.trove.map.hash.TObjectDoubleHashMap;
 import gnu.trove.map.hash.TObjectLongHashMap;
 import gnu.trove.procedure.TObjectDoubleProcedure;
 import gnu.trove.procedure.TObjectLongProcedure;
-import org.terasology.engine.EngineTime;
-import org.terasology.engine.Time;
 import org.terasology.monitoring.Activity;
-import org.terasology.registry.CoreRegistry;
+import org.terasology.monitoring.ActivityStatistics;
 
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Active implementation of Performance Monitor
+ * <br><br>
+ * Every thread keeps its own stack of running activities, so starting and ending activities needs no locking.
+ * Times are measured with {@link System#nanoTime()} and allocations with {@link ThreadAllocationCounter}. Completed
+ * activities are queued, and the main thread aggregates them into the running means, spikes and per activity
+ * histograms once per cycle.
  */
-// TODO: Check to ensure activities are being started and stopped correctly
 // TODO: Remove activities with 0 time
 public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private static final int RETAINED_CYCLES = 60;
     private static final double DECAY_RATE = 0.98;
-    private static final Activity OFF_THREAD_ACTIVITY = new NullActivity();
-    // NullActivity instances are used by the NullPerformanceMonitor and for processes NOT running
-    // on the main thread. Not strictly necessary (these processes are ignored by the PerformanceMonitor
-    // anyway) an instance of this class offers a slight performance improvement over standard Activity
-    // implementations as it doesn't call the PerformanceMonitor.endActivity() method.
+    private static final double NANOS_PER_MS = 1_000_000.0;
 
     private final Activity activityInstance = new ActivityInstance();
 
-    private final Deque<ActivityInfo> activityStack;
+    private final ThreadLocal<ActivityStack> activityStacks = ThreadLocal.withInitial(ActivityStack::new);
+    private final Queue<CompletedActivity> completedActivities = new ConcurrentLinkedQueue<>();
 
     private final List<TObjectLongMap<String>> executionData;
     private final List<TObjectLongMap<String>> allocationData;
 
-    private TObjectLongMap<String> currentExecutionData;
-    private TObjectLongMap<String> currentAllocationData;
     private final TObjectLongMap<String> runningExecutionTotals;
     private final TObjectLongMap<String> runningAllocationTotals;
     private final TObjectDoubleMap<String> spikeData;
 
+    private final Map<String, ActivityHistogram> executionHistograms;
+    private final TObjectLongMap<String> allocationTotals;
+
     private final TObjectDoubleProcedure<String> decayLargestExecutionTime;
     private final TObjectLongProcedure<String> updateExecutionTimeTotalAndSpikeData;
     private final TObjectLongProcedure<String> updateAllocatedMemoryTotal;
@@ -67,18 +71,14 @@ public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private final SetterOfActivityToRunningMeanMapEntry setExecutionTimeRunningMean;
     private final SetterOfActivityToRunningMeanMapEntry setAllocatedMemoryRunningMean;
 
-    private final Thread mainThread;
-    private final EngineTime timer;
-
     public PerformanceMonitorImpl() {
-        activityStack  = Queues.newArrayDeque();
         executionData  = Lists.newLinkedList();
         allocationData = Lists.newLinkedList();
-        currentExecutionData = new TObjectLongHashMap<>();
-        currentAllocationData = new TObjectLongHashMap<>();
         runningExecutionTotals = new TObjectLongHashMap<>();
         runningAllocationTotals = new TObjectLongHashMap<>();
         spikeData = new TObjectDoubleHashMap<>();
+        executionHistograms = Maps.newHashMap();
+        allocationTotals = new TObjectLongHashMap<>();
 
         decayLargestExecutionTime  = new DecayerOfActivityLargestExecutionTime();
         updateExecutionTimeTotalAndSpikeData = new UpdaterOfActivityExecutionTimeTotalAndSpikeData();
@@ -88,13 +88,20 @@ public PerformanceMonitorImpl() {
 
         setExecutionTimeRunningMean = new SetterOfActivityToRunningMeanMapEntry();
         setAllocatedMemoryRunningMean = new SetterOfActivityToRunningMeanMapEntry();
-
-        timer = (EngineTime) CoreRegistry.get(Time.class);
-        mainThread = Thread.currentThread();
     }
 
     @Override
-    public void rollCycle() {
+    public synchronized void rollCycle() {
+        TObjectLongMap<String> currentExecutionData = new TObjectLongHashMap<>();
+        TObjectLongMap<String> currentAllocationData = new TObjectLongHashMap<>();
+        CompletedActivity activity;
+        while ((activity = completedActivities.poll()) != null) {
+            currentExecutionData.adjustOrPutValue(activity.name, activity.ownTime, activity.ownTime);
+            currentAllocationData.adjustOrPutValue(activity.name, activity.ownAllocation, activity.ownAllocation);
+            executionHistograms.computeIfAbsent(activity.name, name -> new ActivityHistogram()).record(activity.ownTime);
+            allocationTotals.adjustOrPutValue(activity.name, activity.ownAllocation, activity.ownAllocation);
+        }
+
         executionData.add(currentExecutionData);
         allocationData.add(currentAllocationData);
 
@@ -111,57 +118,30 @@ public void rollCycle() {
             allocationData.get(0).forEachEntry(removeExpiredAllocatedMemoryValueFromTotal);
             allocationData.remove(0);
         }
-
-        currentExecutionData = new TObjectLongHashMap<>();
-        currentAllocationData = new TObjectLongHashMap<>();
     }
 
     @Override
     public Activity startActivity(String activityName) {
-        if (Thread.currentThread() != mainThread) {
-            return OFF_THREAD_ACTIVITY;
-        }
-
-        ActivityInfo newActivity = new ActivityInfo(activityName).initialize();
-
-        if (!activityStack.isEmpty()) {
-            ActivityInfo currentActivity = activityStack.peek();
-            currentActivity.ownTime += newActivity.startTime - ((currentActivity.resumeTime > 0) ? currentActivity.resumeTime : currentActivity.startTime);
-            currentActivity.ownMem += (currentActivity.startMem - newActivity.startMem > 0) ? currentActivity.startMem - newActivity.startMem : 0;
-        }
-
-        activityStack.push(newActivity);
+        activityStacks.get().push(activityName);
         return activityInstance;
     }
 
     @Override
     public void endActivity() {
-        if (Thread.currentThread() != mainThread || activityStack.isEmpty()) {
-            return;
-        }
-
-        ActivityInfo oldActivity = activityStack.pop();
-
-        long endTime = timer.getRealTimeInMs();
-        long totalTime = (oldActivity.resumeTime > 0) ? oldActivity.ownTime + endTime - oldActivity.resumeTime : endTime - oldActivity.startTime;
-        currentExecutionData.adjustOrPutValue(oldActivity.name, totalTime, totalTime);
-        
-        long endMem = Runtime.getRuntime().freeMemory();
-        long totalMem = (oldActivity.startMem - endMem > 0) ? oldActivity.startMem - endMem + oldActivity.ownMem : oldActivity.ownMem;
-        currentAllocationData.adjustOrPutValue(oldActivity.name, totalMem, totalMem);
-
-        if (!activityStack.isEmpty()) {
-            ActivityInfo currentActivity = activityStack.peek();
-            currentActivity.resumeTime = endTime;
-            currentActivity.startMem = endMem;
+        ActivityStack stack = activityStacks.get();
+        CompletedActivity activity = stack.pop();
+        if (activity != null) {
+            completedActivities.add(activity);
+            // restart the measurement of the outer activity, so it isn't charged for the bookkeeping above
+            stack.resume();
         }
     }
 
     @Override
-    public TObjectDoubleMap<String> getRunningMean() {
+    public synchronized TObjectDoubleMap<String> getRunningMean() {
         TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
         setExecutionTimeRunningMean.setActivityToMeanMap(activityToMeanMap);
-        setExecutionTimeRunningMean.setFactor(1.0 / executionData.size());
+        setExecutionTimeRunningMean.setFactor(1.0 / (executionData.size() * NANOS_PER_MS));
 
         runningExecutionTotals.forEachEntry(setExecutionTimeRunningMean);
 
@@ -169,12 +149,12 @@ public TObjectDoubleMap<String> getRunningMean() {
     }
 
     @Override
-    public TObjectDoubleMap<String> getDecayingSpikes() {
-        return spikeData;
+    public synchronized TObjectDoubleMap<String> getDecayingSpikes() {
+        return new TObjectDoubleHashMap<>(spikeData);
     }
 
     @Override
-    public TObjectDoubleMap<String> getAllocationMean() {
+    public synchronized TObjectDoubleMap<String> getAllocationMean() {
         TObjectDoubleMap<String> activityToMeanMap = new TObjectDoubleHashMap<>();
         setAllocatedMemoryRunningMean.setActivityToMeanMap(activityToMeanMap);
         setAllocatedMemoryRunningMean.setFactor(1.0 / allocationData.size());
@@ -184,22 +164,89 @@ public TObjectDoubleMap<String> getAllocationMean() {
         return activityToMeanMap;
     }
 
-    private class ActivityInfo {
-        public String name;
-        public long startTime;
-        public long resumeTime;
-        public long ownTime;
-        public long startMem;
-        public long ownMem;
+    @Override
+    public synchronized Map<String, ActivityStatistics> getActivityStatistics() {
+        ImmutableMap.Builder<String, ActivityStatistics> result = ImmutableMap.builder();
+        for (Map.Entry<String, ActivityHistogram> entry : executionHistograms.entrySet()) {
+            ActivityHistogram histogram = entry.getValue();
+            result.put(entry.getKey(), new ActivityStatistics(entry.getKey(), histogram.getCount(), histogram.getMean(),
+                    histogram.getPercentile(50), histogram.getPercentile(95), histogram.getPercentile(99), histogram.getMax(),
+                    (double) allocationTotals.get(entry.getKey()) / histogram.getCount()));
+        }
+        return result.build();
+    }
 
-         ActivityInfo(String activityName) {
-            this.name = activityName;
+    private static final class CompletedActivity {
+        private final String name;
+        private final long ownTime;
+        private final long ownAllocation;
+
+        CompletedActivity(String name, long ownTime, long ownAllocation) {
+            this.name = name;
+            this.ownTime = ownTime;
+            this.ownAllocation = ownAllocation;
         }
+    }
 
-        public ActivityInfo initialize() {
-            this.startTime = timer.getRealTimeInMs();
-            this.startMem = Runtime.getRuntime().freeMemory();
-            return this;
+    /**
+     * The running activities of a single thread. Only ever accessed by that thread.
+     */
+    private static final class ActivityStack {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private String[] names = new String[INITIAL_CAPACITY];
+        private long[] resumeTimes = new long[INITIAL_CAPACITY];
+        private long[] ownTimes = new long[INITIAL_CAPACITY];
+        private long[] resumeAllocations = new long[INITIAL_CAPACITY];
+        private long[] ownAllocations = new long[INITIAL_CAPACITY];
+        private int depth;
+
+        void push(String name) {
+            long time = System.nanoTime();
+            long allocation = ThreadAllocationCounter.getCurrentThreadAllocatedBytes();
+            if (depth > 0) {
+                pause(depth - 1, time, allocation);
+            }
+            if (depth == names.length) {
+                int capacity = 2 * depth;
+                names = Arrays.copyOf(names, capacity);
+                resumeTimes = Arrays.copyOf(resumeTimes, capacity);
+                ownTimes = Arrays.copyOf(ownTimes, capacity);
+                resumeAllocations = Arrays.copyOf(resumeAllocations, capacity);
+                ownAllocations = Arrays.copyOf(ownAllocations, capacity);
+            }
+            names[depth] = name;
+            ownTimes[depth] = 0;
+            ownAllocations[depth] = 0;
+            depth++;
+            // read last, so the bookkeeping above is not charged to the new activity
+            resumeAllocations[depth - 1] = ThreadAllocationCounter.getCurrentThreadAllocatedBytes();
+            resumeTimes[depth - 1] = System.nanoTime();
+        }
+
+        CompletedActivity pop() {
+            if (depth == 0) {
+                return null;
+            }
+            long time = System.nanoTime();
+            long allocation = ThreadAllocationCounter.getCurrentThreadAllocatedBytes();
+            depth--;
+            pause(depth, time, allocation);
+            String name = names[depth];
+            names[depth] = null;
+            return new CompletedActivity(name, ownTimes[depth], ownAllocations[depth]);
+        }
+
+        void resume() {
+            if (depth > 0) {
+                resumeAllocations[depth - 1] = ThreadAllocationCounter.getCurrentThreadAllocatedBytes();
+                resumeTimes[depth - 1] = System.nanoTime();
+            }
+        }
+
+        private void pause(int index, long time, long allocation) {
+            ownTimes[index] += time - resumeTimes[index];
+            ownAllocations[index] += Math.max(0, allocation - resumeAllocations[index]);
         }
     }
 
@@ -226,8 +273,8 @@ private class UpdaterOfActivityExecutionTimeTotalAndSpikeData implements TObject
         public boolean execute(String activityName, long latestExecutionTime) {
             runningExecutionTotals.adjustOrPutValue(activityName, latestExecutionTime, latestExecutionTime);
             latestSpike = spikeData.get(activityName);
-            if (latestExecutionTime > latestSpike) {
-                spikeData.put(activityName, latestExecutionTime);
+            if (latestExecutionTime / NANOS_PER_MS > latestSpike) {
+                spikeData.put(activityName, latestExecutionTime / NANOS_PER_MS);
             }
             return true;
         }
@@ -17,6 +17,9 @@
 
 import gnu.trove.map.TObjectDoubleMap;
 import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.ActivityStatistics;
+
+import java.util.Map;
 
 /**
  * Base interface for performance monitor implementations.
@@ -34,4 +37,6 @@ public interface PerformanceMonitorInternal {
     TObjectDoubleMap<String> getDecayingSpikes();
 
     TObjectDoubleMap<String> getAllocationMean();
+
+    Map<String, ActivityStatistics> getActivityStatistics();
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the number of bytes allocated by a thread from the JVM's thread MX bean.
+ * <br><br>
+ * Unlike differences of {@link Runtime#freeMemory()} these counts are per thread and not affected by garbage
+ * collection. On JVMs without support for allocation counting all counts are 0.
+ */
+public final class ThreadAllocationCounter {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadAllocationCounter.class);
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN;
+    private static final MethodHandle CURRENT_THREAD_ALLOCATED_BYTES;
+
+    static {
+        com.sun.management.ThreadMXBean bean = null;
+        MethodHandle currentThreadAllocatedBytes = null;
+        try {
+            java.lang.management.ThreadMXBean platformBean = ManagementFactory.getThreadMXBean();
+            if (platformBean instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) platformBean).isThreadAllocatedMemorySupported()) {
+                bean = (com.sun.management.ThreadMXBean) platformBean;
+                bean.setThreadAllocatedMemoryEnabled(true);
+                // newer JVMs read the current thread's counter without looking the thread up by id
+                try {
+                    currentThreadAllocatedBytes = MethodHandles.publicLookup()
+                            .findVirtual(com.sun.management.ThreadMXBean.class, "getCurrentThreadAllocatedBytes", MethodType.methodType(long.class))
+                            .bindTo(bean);
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    currentThreadAllocatedBytes = null;
+                }
+            }
+        } catch (RuntimeException | LinkageError e) {
+            logger.warn("Thread allocation counting is not available", e);
+            bean = null;
+        }
+        THREAD_BEAN = bean;
+        CURRENT_THREAD_ALLOCATED_BYTES = currentThreadAllocatedBytes;
+    }
+
+    private ThreadAllocationCounter() {
+    }
+
+    public static boolean isSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * @return The bytes allocated by the current thread since it was started
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        if (CURRENT_THREAD_ALLOCATED_BYTES != null) {
+            try {
+                return (long) CURRENT_THREAD_ALLOCATED_BYTES.invokeExact();
+            } catch (Throwable e) {
+                return 0;
+            }
+        }
+        return getAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return The bytes allocated by the given thread since it was started, or 0 if it is not alive
+     */
+    public static long getAllocatedBytes(long threadId) {
+        if (THREAD_BEAN == null) {
+            return 0;
+        }
+        return Math.max(0, THREAD_BEAN.getThreadAllocatedBytes(threadId));
+    }
+}
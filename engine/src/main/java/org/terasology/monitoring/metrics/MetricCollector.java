@@ -0,0 +1,28 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+/**
+ * Produces the samples of a metric when it is exported. Used for metrics with labels, or whose samples are only known
+ * at export time.
+ * <br><br>
+ * Collectors are called from the exporting thread, so they must only read thread-safe state.
+ */
+@FunctionalInterface
+public interface MetricCollector {
+
+    void collect(MetricSamples samples);
+}
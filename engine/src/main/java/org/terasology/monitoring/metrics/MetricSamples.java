@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Receives the samples of a metric and writes them in the Prometheus text format.
+ */
+public final class MetricSamples {
+
+    private final StringBuilder output;
+    private final String metricName;
+
+    MetricSamples(StringBuilder output, String metricName) {
+        this.output = output;
+        this.metricName = metricName;
+    }
+
+    /**
+     * Adds a sample named like the metric.
+     *
+     * @param value The value of the sample
+     * @param labels Alternating label names and values
+     */
+    public void add(double value, String... labels) {
+        addWithSuffix("", value, labels);
+    }
+
+    /**
+     * Adds a sample whose name is the name of the metric followed by a suffix, e.g. "_sum" or "_count" for summaries.
+     *
+     * @param suffix Appended to the name of the metric
+     * @param value The value of the sample
+     * @param labels Alternating label names and values
+     */
+    public void addWithSuffix(String suffix, double value, String... labels) {
+        Preconditions.checkArgument(labels.length % 2 == 0, "Labels must be given as name and value pairs");
+        output.append(metricName).append(suffix);
+        if (labels.length > 0) {
+            output.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    output.append(',');
+                }
+                output.append(labels[i]).append("=\"");
+                appendEscaped(labels[i + 1]);
+                output.append('"');
+            }
+            output.append('}');
+        }
+        output.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private void appendEscaped(String labelValue) {
+        for (int i = 0; i < labelValue.length(); i++) {
+            char c = labelValue.charAt(i);
+            switch (c) {
+                case '\\':
+                    output.append("\\\\");
+                    break;
+                case '"':
+                    output.append("\\\"");
+                    break;
+                case '\n':
+                    output.append("\\n");
+                    break;
+                default:
+                    output.append(c);
+            }
+        }
+    }
+
+    static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+/**
+ * The kinds of metrics understood by Prometheus.
+ */
+public enum MetricType {
+    /**
+     * A value that only ever increases, like the number of bytes sent
+     */
+    COUNTER("counter"),
+    /**
+     * A value that can go up and down, like the number of loaded chunks
+     */
+    GAUGE("gauge"),
+    /**
+     * Quantiles of a distribution, together with its sum and count
+     */
+    SUMMARY("summary");
+
+    private final String exportName;
+
+    MetricType(String exportName) {
+        this.exportName = exportName;
+    }
+
+    public String getExportName() {
+        return exportName;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * A thread-safe collection of named metrics that can be exported in the Prometheus text format.
+ * <br><br>
+ * Metrics can be registered and exported from any thread. The export lists the metrics sorted by name.
+ */
+public class MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Registers a new counter.
+     *
+     * @throws IllegalArgumentException if the name is invalid or already taken
+     */
+    public Counter counter(String name, String help) {
+        Counter counter = new Counter();
+        register(name, help, MetricType.COUNTER, samples -> samples.add(counter.get()));
+        return counter;
+    }
+
+    /**
+     * Registers a counter whose value is read at export time, for sources that count on their own. The supplier must
+     * be thread-safe.
+     *
+     * @throws IllegalArgumentException if the name is invalid or already taken
+     */
+    public void counter(String name, String help, LongSupplier value) {
+        register(name, help, MetricType.COUNTER, samples -> samples.add(value.getAsLong()));
+    }
+
+    /**
+     * Registers a new gauge, whose value is set by the caller.
+     *
+     * @throws IllegalArgumentException if the name is invalid or already taken
+     */
+    public Gauge gauge(String name, String help) {
+        Gauge gauge = new Gauge();
+        register(name, help, MetricType.GAUGE, samples -> samples.add(gauge.get()));
+        return gauge;
+    }
+
+    /**
+     * Registers a gauge whose value is read at export time. The supplier must be thread-safe.
+     *
+     * @throws IllegalArgumentException if the name is invalid or already taken
+     */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        register(name, help, MetricType.GAUGE, samples -> samples.add(value.getAsDouble()));
+    }
+
+    /**
+     * Registers a metric whose samples are produced by a collector at export time.
+     *
+     * @throws IllegalArgumentException if the name is invalid or already taken
+     */
+    public void register(String name, String help, MetricType type, MetricCollector collector) {
+        Preconditions.checkArgument(NAME_PATTERN.matcher(name).matches(), "Invalid metric name: %s", name);
+        Preconditions.checkNotNull(type);
+        Preconditions.checkNotNull(collector);
+        if (metrics.putIfAbsent(name, new Metric(help, type, collector)) != null) {
+            throw new IllegalArgumentException("Metric already registered: " + name);
+        }
+    }
+
+    public void remove(String name) {
+        metrics.remove(name);
+    }
+
+    public boolean contains(String name) {
+        return metrics.containsKey(name);
+    }
+
+    /**
+     * Collects all metrics. A metric whose collector fails is left out, so one broken source does not hide the others.
+     *
+     * @return The metrics in the Prometheus text exposition format
+     */
+    public String toPrometheusText() {
+        StringBuilder output = new StringBuilder();
+        StringBuilder metricOutput = new StringBuilder();
+        for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+            String name = entry.getKey();
+            Metric metric = entry.getValue();
+            metricOutput.setLength(0);
+            if (metric.help != null && !metric.help.isEmpty()) {
+                metricOutput.append("# HELP ").append(name).append(' ');
+                metricOutput.append(metric.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            }
+            metricOutput.append("# TYPE ").append(name).append(' ').append(metric.type.getExportName()).append('\n');
+            try {
+                metric.collector.collect(new MetricSamples(metricOutput, name));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to collect metric {}", name, e);
+                continue;
+            }
+            output.append(metricOutput);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes all metrics to a file. The file is replaced at once, so readers never see a partially written export.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tempFile, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Metric {
+        private final String help;
+        private final MetricType type;
+        private final MetricCollector collector;
+
+        Metric(String help, MetricType type, MetricCollector collector) {
+            this.help = help;
+            this.type = type;
+            this.collector = collector;
+        }
+    }
+}
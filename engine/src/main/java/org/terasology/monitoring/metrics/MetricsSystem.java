@@ -0,0 +1,291 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.monitoring.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
+import org.terasology.config.SystemConfig;
+import org.terasology.engine.paths.PathManager;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.monitoring.ActivityStatistics;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.monitoring.chunk.ChunkPipelineStatistics;
+import org.terasology.monitoring.chunk.ChunkStage;
+import org.terasology.monitoring.impl.ActivityHistogram;
+import org.terasology.network.NetMetricSource;
+import org.terasology.network.NetworkSystem;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.localChunkProvider.LocalChunkProvider;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the metrics of a running server and exports them, so a fleet of headless servers can be watched with
+ * Prometheus.
+ * <br><br>
+ * The metrics are served over HTTP if {@link SystemConfig#getMetricsPort()} is set, and written to
+ * {@value #DUMP_FILE_NAME} in the home directory every {@link SystemConfig#getMetricsDumpIntervalInSeconds()} seconds
+ * if that is set. Other systems can add their own metrics to the {@link #getRegistry() registry}.
+ * <br><br>
+ * State of the game thread, like entity counts and chunk queues, is sampled once per second by this system, so the
+ * exporters never touch it.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(MetricsSystem.class)
+public class MetricsSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    public static final String DUMP_FILE_NAME = "metrics.prom";
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsSystem.class);
+    private static final long SAMPLE_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double MILLIS_PER_SECOND = 1e3;
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    @In
+    private Config config;
+
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private NetworkSystem networkSystem;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final ActivityHistogram tickHistogram = new ActivityHistogram();
+
+    private Counter ticks;
+    private Gauge activeEntities;
+    private Gauge loadedChunks;
+    private Gauge preparingChunks;
+    private Gauge generationQueueSize;
+    private Gauge readyChunks;
+    private Gauge unloadQueueSize;
+
+    private long lastTickTime;
+    private long nextSampleTime;
+
+    private MetricsHttpServer httpServer;
+    private ScheduledExecutorService dumpExecutor;
+
+    @Override
+    public void initialise() {
+        registerMetrics();
+
+        SystemConfig systemConfig = config.getSystem();
+        if (systemConfig.getMetricsPort() > 0) {
+            String host = systemConfig.getMetricsHost() != null ? systemConfig.getMetricsHost() : "localhost";
+            try {
+                httpServer = new MetricsHttpServer(registry, host, systemConfig.getMetricsPort());
+                logger.info("Serving metrics on http://{}:{}{}", host, httpServer.getPort(), MetricsHttpServer.PATH);
+            } catch (IOException e) {
+                logger.error("Failed to start the metrics endpoint on {}:{}", host, systemConfig.getMetricsPort(), e);
+            }
+        }
+        if (systemConfig.getMetricsDumpIntervalInSeconds() > 0) {
+            Path dumpFile = PathManager.getInstance().getHomePath().resolve(DUMP_FILE_NAME);
+            dumpExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("Metrics-Dump-%d").setDaemon(true).build());
+            int interval = systemConfig.getMetricsDumpIntervalInSeconds();
+            dumpExecutor.scheduleWithFixedDelay(() -> dump(dumpFile), interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private void registerMetrics() {
+        ticks = registry.counter("terasology_ticks_total", "Number of game ticks");
+        registry.register("terasology_tick_seconds", "Time between the starts of two game ticks",
+                MetricType.SUMMARY, this::collectTickTimes);
+
+        registry.register("terasology_activity_seconds", "Time spent in performance monitor activities, "
+                + "excluding nested activities. Only collected while the performance monitor is enabled",
+                MetricType.SUMMARY, MetricsSystem::collectActivityTimes);
+        registry.register("terasology_activity_allocated_bytes_total", "Memory allocated by performance monitor activities",
+                MetricType.COUNTER, MetricsSystem::collectActivityAllocations);
+
+        NetMetricSource traffic = networkSystem.getTrafficMetrics();
+        registry.counter("terasology_network_received_messages_total", "Network messages received",
+                traffic::getReceivedMessagesTotal);
+        registry.counter("terasology_network_received_bytes_total", "Network bytes received",
+                traffic::getReceivedBytesTotal);
+        registry.counter("terasology_network_sent_messages_total", "Network messages sent",
+                traffic::getSentMessagesTotal);
+        registry.counter("terasology_network_sent_bytes_total", "Network bytes sent",
+                traffic::getSentBytesTotal);
+
+        registry.counter("terasology_chunks_created_total", "Chunks created by loading or generation",
+                () -> ChunkMonitor.getStatistics().getCreatedCount());
+        registry.counter("terasology_chunks_disposed_total", "Chunks disposed after being unloaded",
+                () -> ChunkMonitor.getStatistics().getDisposedCount());
+        registry.gauge("terasology_chunk_deflate_ratio", "Size of deflated chunks relative to their size before deflation",
+                () -> ChunkMonitor.getStatistics().getDeflateRatio());
+        registry.register("terasology_chunk_tessellation_seconds", "Time spent generating the vertices of chunk meshes",
+                MetricType.SUMMARY, MetricsSystem::collectTessellationTimes);
+        registry.register("terasology_chunk_stage_seconds", "Time chunks spent waiting for and running each pipeline stage",
+                MetricType.SUMMARY, MetricsSystem::collectChunkStageTimes);
+        registry.register("terasology_chunk_ready_seconds", "Time between a chunk being requested and added to the world",
+                MetricType.SUMMARY, MetricsSystem::collectChunkReadyTimes);
+        loadedChunks = registry.gauge("terasology_chunks_loaded", "Chunks currently loaded");
+        preparingChunks = registry.gauge("terasology_chunks_preparing", "Chunks being loaded or generated");
+        generationQueueSize = registry.gauge("terasology_chunk_generation_queue_size", "Chunk tasks waiting for a generator thread");
+        readyChunks = registry.gauge("terasology_chunks_ready", "Ready chunks waiting to be added to the world");
+        unloadQueueSize = registry.gauge("terasology_chunk_unload_queue_size", "Chunks waiting to be unloaded");
+
+        activeEntities = registry.gauge("terasology_entities_active", "Active entities");
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        registry.gauge("terasology_jvm_heap_used_bytes", "Used heap memory", () -> memory.getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * @return The registry of the exported metrics, to which other systems can add their own
+     */
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void update(float delta) {
+        long time = System.nanoTime();
+        if (lastTickTime != 0) {
+            synchronized (tickHistogram) {
+                tickHistogram.record(time - lastTickTime);
+            }
+        }
+        lastTickTime = time;
+        ticks.increment();
+
+        if (time - nextSampleTime >= 0) {
+            nextSampleTime = time + SAMPLE_PERIOD_NANOS;
+            sampleGameState();
+        }
+    }
+
+    private void sampleGameState() {
+        activeEntities.set(entityManager.getActiveEntityCount());
+        loadedChunks.set(chunkProvider.getAllChunks().size());
+        if (chunkProvider instanceof LocalChunkProvider) {
+            LocalChunkProvider localChunkProvider = (LocalChunkProvider) chunkProvider;
+            preparingChunks.set(localChunkProvider.getPreparingChunkCount());
+            generationQueueSize.set(localChunkProvider.getGenerationQueueSize());
+            readyChunks.set(localChunkProvider.getReadyChunkCount());
+            unloadQueueSize.set(localChunkProvider.getUnloadQueueSize());
+        }
+    }
+
+    private void collectTickTimes(MetricSamples samples) {
+        synchronized (tickHistogram) {
+            for (double quantile : QUANTILES) {
+                samples.add(tickHistogram.getPercentile(quantile * 100) / NANOS_PER_SECOND, "quantile", Double.toString(quantile));
+            }
+            samples.addWithSuffix("_sum", tickHistogram.getTotal() / NANOS_PER_SECOND);
+            samples.addWithSuffix("_count", tickHistogram.getCount());
+        }
+    }
+
+    private static void collectActivityTimes(MetricSamples samples) {
+        for (ActivityStatistics statistics : PerformanceMonitor.getActivityStatistics().values()) {
+            String name = statistics.getName();
+            samples.add(statistics.getMedianNanos() / NANOS_PER_SECOND, "activity", name, "quantile", "0.5");
+            samples.add(statistics.getPercentile95Nanos() / NANOS_PER_SECOND, "activity", name, "quantile", "0.95");
+            samples.add(statistics.getPercentile99Nanos() / NANOS_PER_SECOND, "activity", name, "quantile", "0.99");
+            samples.addWithSuffix("_sum", statistics.getTotalNanos() / NANOS_PER_SECOND, "activity", name);
+            samples.addWithSuffix("_count", statistics.getCount(), "activity", name);
+        }
+    }
+
+    private static void collectTessellationTimes(MetricSamples samples) {
+        ActivityHistogram times = ChunkMonitor.getStatistics().getVertexGenerationTimes();
+        for (double quantile : QUANTILES) {
+            samples.add(times.getPercentile(quantile * 100) / MILLIS_PER_SECOND, "quantile", Double.toString(quantile));
+        }
+        samples.addWithSuffix("_sum", times.getTotal() / MILLIS_PER_SECOND);
+        samples.addWithSuffix("_count", times.getCount());
+    }
+
+    private static void collectChunkStageTimes(MetricSamples samples) {
+        ChunkPipelineStatistics statistics = ChunkLifecycleTracer.getStatistics();
+        for (ChunkStage stage : ChunkStage.values()) {
+            String stageName = stage.name().toLowerCase(Locale.ROOT);
+            collectStageTimes(samples, statistics.getQueueTimes(stage), stageName, "queue");
+            collectStageTimes(samples, statistics.getRunTimes(stage), stageName, "run");
+        }
+    }
+
+    private static void collectStageTimes(MetricSamples samples, ActivityHistogram times, String stage, String phase) {
+        for (double quantile : QUANTILES) {
+            samples.add(times.getPercentile(quantile * 100) / NANOS_PER_SECOND,
+                    "stage", stage, "phase", phase, "quantile", Double.toString(quantile));
+        }
+        samples.addWithSuffix("_sum", times.getTotal() / NANOS_PER_SECOND, "stage", stage, "phase", phase);
+        samples.addWithSuffix("_count", times.getCount(), "stage", stage, "phase", phase);
+    }
+
+    private static void collectChunkReadyTimes(MetricSamples samples) {
+        ActivityHistogram times = ChunkLifecycleTracer.getStatistics().getTotalTimes();
+        for (double quantile : QUANTILES) {
+            samples.add(times.getPercentile(quantile * 100) / NANOS_PER_SECOND, "quantile", Double.toString(quantile));
+        }
+        samples.addWithSuffix("_sum", times.getTotal() / NANOS_PER_SECOND);
+        samples.addWithSuffix("_count", times.getCount());
+    }
+
+    private static void collectActivityAllocations(MetricSamples samples) {
+        for (ActivityStatistics statistics : PerformanceMonitor.getActivityStatistics().values()) {
+            samples.add(Math.round(statistics.getMeanAllocatedBytes() * statistics.getCount()), "activity", statistics.getName());
+        }
+    }
+
+    private void dump(Path dumpFile) {
+        try {
+            registry.writeTo(dumpFile);
+        } catch (IOException e) {
+            logger.warn("Failed to write metrics to {}", dumpFile, e);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (httpServer != null) {
+            httpServer.close();
+            httpServer = null;
+        }
+        if (dumpExecutor != null) {
+            dumpExecutor.shutdownNow();
+            dumpExecutor = null;
+            dump(PathManager.getInstance().getHomePath().resolve(DUMP_FILE_NAME));
+        }
+    }
+}
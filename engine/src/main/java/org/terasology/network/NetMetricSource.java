@@ -42,4 +42,33 @@ public interface NetMetricSource {
      * @return The amount of bytes sent since last time this method was called
      */
     int getSentBytesSinceLastCall();
+
+    /**
+     * @return The amount of messages received since the source was created. Not affected by the other methods. 0 if
+     * the source does not keep totals.
+     */
+    default long getReceivedMessagesTotal() {
+        return 0;
+    }
+
+    /**
+     * @return The amount of bytes of data received since the source was created, or 0 if it does not keep totals
+     */
+    default long getReceivedBytesTotal() {
+        return 0;
+    }
+
+    /**
+     * @return The amount of messages sent since the source was created, or 0 if it does not keep totals
+     */
+    default long getSentMessagesTotal() {
+        return 0;
+    }
+
+    /**
+     * @return The amount of bytes sent since the source was created, or 0 if it does not keep totals
+     */
+    default long getSentBytesTotal() {
+        return 0;
+    }
 }
@@ -65,6 +65,34 @@ public interface NetworkSystem extends BlockRegistrationListener {
 
     int getOutgoingBytesDelta();
 
+    /**
+     * @return The traffic of all connections made by this network system, including ones that are already closed. By
+     * default, a source without any traffic.
+     */
+    default NetMetricSource getTrafficMetrics() {
+        return new NetMetricSource() {
+            @Override
+            public int getReceivedMessagesSinceLastCall() {
+                return 0;
+            }
+
+            @Override
+            public int getReceivedBytesSinceLastCall() {
+                return 0;
+            }
+
+            @Override
+            public int getSentMessagesSinceLastCall() {
+                return 0;
+            }
+
+            @Override
+            public int getSentBytesSinceLastCall() {
+                return 0;
+            }
+        };
+    }
+
     void forceDisconnect(Client client);
 
     void setContext(Context context);
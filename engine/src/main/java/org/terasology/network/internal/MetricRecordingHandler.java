@@ -22,54 +22,87 @@
 import org.jboss.netty.channel.SimpleChannelHandler;
 import org.terasology.network.NetMetricSource;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
 /**
  * A generic Netty handler for recording metrics on sent and received bytes and messages.
+ * <br><br>
+ * The traffic is additionally added to an optional aggregate counter, which sums up the traffic of many connections.
  *
  */
 public class MetricRecordingHandler extends SimpleChannelHandler implements NetMetricSource {
 
     public static final String NAME = "metrics";
 
-    private AtomicInteger receivedMessages = new AtomicInteger();
-    private AtomicInteger receivedBytes = new AtomicInteger();
-    private AtomicInteger sentMessages = new AtomicInteger();
-    private AtomicInteger sentBytes = new AtomicInteger();
+    private final NetMetricCounter counter = new NetMetricCounter();
+    private final NetMetricCounter aggregate;
+
+    public MetricRecordingHandler() {
+        this(null);
+    }
+
+    /**
+     * @param aggregate A counter that receives the traffic of this connection as well, or null
+     */
+    public MetricRecordingHandler(NetMetricCounter aggregate) {
+        this.aggregate = aggregate;
+    }
 
     @Override
     public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
         ChannelBuffer buf = (ChannelBuffer) e.getMessage();
-        receivedMessages.incrementAndGet();
-        receivedBytes.addAndGet(buf.readableBytes());
+        counter.recordReceived(buf.readableBytes());
+        if (aggregate != null) {
+            aggregate.recordReceived(buf.readableBytes());
+        }
         ctx.sendUpstream(e);
     }
 
     @Override
     public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
         ChannelBuffer buf = (ChannelBuffer) e.getMessage();
-        sentMessages.incrementAndGet();
-        sentBytes.addAndGet(buf.readableBytes());
+        counter.recordSent(buf.readableBytes());
+        if (aggregate != null) {
+            aggregate.recordSent(buf.readableBytes());
+        }
         ctx.sendDownstream(e);
     }
 
     @Override
     public int getReceivedMessagesSinceLastCall() {
-        return receivedMessages.getAndSet(0);
+        return counter.getReceivedMessagesSinceLastCall();
     }
 
     @Override
     public int getReceivedBytesSinceLastCall() {
-        return receivedBytes.getAndSet(0);
+        return counter.getReceivedBytesSinceLastCall();
     }
 
     @Override
     public int getSentMessagesSinceLastCall() {
-        return sentMessages.getAndSet(0);
+        return counter.getSentMessagesSinceLastCall();
     }
 
     @Override
     public int getSentBytesSinceLastCall() {
-        return sentBytes.getAndSet(0);
+        return counter.getSentBytesSinceLastCall();
+    }
+
+    @Override
+    public long getReceivedMessagesTotal() {
+        return counter.getReceivedMessagesTotal();
+    }
+
+    @Override
+    public long getReceivedBytesTotal() {
+        return counter.getReceivedBytesTotal();
+    }
+
+    @Override
+    public long getSentMessagesTotal() {
+        return counter.getSentMessagesTotal();
+    }
+
+    @Override
+    public long getSentBytesTotal() {
+        return counter.getSentBytesTotal();
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.terasology.network.NetMetricSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counter of sent and received messages and bytes.
+ * <br><br>
+ * Keeps both the amounts since the last call, for the in-game network statistics, and running totals that any number
+ * of readers can sample without affecting each other.
+ */
+public class NetMetricCounter implements NetMetricSource {
+
+    private final AtomicInteger receivedMessages = new AtomicInteger();
+    private final AtomicInteger receivedBytes = new AtomicInteger();
+    private final AtomicInteger sentMessages = new AtomicInteger();
+    private final AtomicInteger sentBytes = new AtomicInteger();
+
+    private final AtomicLong receivedMessagesTotal = new AtomicLong();
+    private final AtomicLong receivedBytesTotal = new AtomicLong();
+    private final AtomicLong sentMessagesTotal = new AtomicLong();
+    private final AtomicLong sentBytesTotal = new AtomicLong();
+
+    public void recordReceived(int bytes) {
+        receivedMessages.incrementAndGet();
+        receivedBytes.addAndGet(bytes);
+        receivedMessagesTotal.incrementAndGet();
+        receivedBytesTotal.addAndGet(bytes);
+    }
+
+    public void recordSent(int bytes) {
+        sentMessages.incrementAndGet();
+        sentBytes.addAndGet(bytes);
+        sentMessagesTotal.incrementAndGet();
+        sentBytesTotal.addAndGet(bytes);
+    }
+
+    @Override
+    public int getReceivedMessagesSinceLastCall() {
+        return receivedMessages.getAndSet(0);
+    }
+
+    @Override
+    public int getReceivedBytesSinceLastCall() {
+        return receivedBytes.getAndSet(0);
+    }
+
+    @Override
+    public int getSentMessagesSinceLastCall() {
+        return sentMessages.getAndSet(0);
+    }
+
+    @Override
+    public int getSentBytesSinceLastCall() {
+        return sentBytes.getAndSet(0);
+    }
+
+    @Override
+    public long getReceivedMessagesTotal() {
+        return receivedMessagesTotal.get();
+    }
+
+    @Override
+    public long getReceivedBytesTotal() {
+        return receivedBytesTotal.get();
+    }
+
+    @Override
+    public long getSentMessagesTotal() {
+        return sentMessagesTotal.get();
+    }
+
+    @Override
+    public long getSentBytesTotal() {
+        return sentBytesTotal.get();
+    }
+}
@@ -148,6 +148,8 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
     private StorageManager storageManager;
 
+    private final NetMetricCounter trafficMetrics = new NetMetricCounter();
+
     // Client only
     private ServerImpl server;
 
@@ -721,6 +723,11 @@ public int getOutgoingBytesDelta() {
         }
     }
 
+    @Override
+    public NetMetricCounter getTrafficMetrics() {
+        return trafficMetrics;
+    }
+
     long getEntityId(int netId) {
         return netIdToEntityId.get(netId);
     }
@@ -50,7 +50,7 @@ public TerasologyClientPipelineFactory(NetworkSystemImpl networkSystem) {
     public ChannelPipeline getPipeline() throws Exception {
         JoinStatusImpl joinStatus = new JoinStatusImpl();
         ChannelPipeline p = pipeline();
-        p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler());
+        p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler(networkSystem.getTrafficMetrics()));
 
         p.addLast("lengthFrameDecoder", new LengthFieldBasedFrameDecoder(8388608, 0, 3, 0, 3));
         p.addLast("inflateDecoder", new ZlibDecoder());
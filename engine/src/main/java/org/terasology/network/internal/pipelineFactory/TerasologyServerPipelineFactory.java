@@ -48,7 +48,7 @@ public TerasologyServerPipelineFactory(NetworkSystemImpl networkSystem) {
     @Override
     public ChannelPipeline getPipeline() throws Exception {
         ChannelPipeline p = pipeline();
-        p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler());
+        p.addLast(MetricRecordingHandler.NAME, new MetricRecordingHandler(networkSystem.getTrafficMetrics()));
 
         p.addLast("frameDecoder", new ProtobufVarint32FrameDecoder());
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
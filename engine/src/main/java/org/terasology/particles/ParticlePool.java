@@ -97,18 +97,43 @@ public int deadParticles() {
     }
 
     public int reviveParticle() {
-        resetParticleData(firstDeadParticleIndex);
-        firstDeadParticleIndex++;
+        return reviveParticles(1);
+    }
+
+    /**
+     * Revives several dead particles at once, so they can be initialized as one batch.
+     *
+     * @param count The number of particles to revive, at most {@link #deadParticles()}
+     * @return The index of the first revived particle. The others follow it directly.
+     */
+    public int reviveParticles(final int count) {
+        Preconditions.checkArgument(count >= 0 && count <= deadParticles(),
+                "Can not revive %s particles, only %s are dead", count, deadParticles());
+
+        final int firstRevived = firstDeadParticleIndex;
+        for (int i = firstRevived; i < firstRevived + count; i++) {
+            resetParticleData(i);
+        }
+        firstDeadParticleIndex += count;
 
-        return firstDeadParticleIndex - 1;
+        return firstRevived;
     }
 
     public void moveDeceasedParticle(final int index) {
         firstDeadParticleIndex--;
         // First dead particle now points to the last living particle and there is a dead particle in the living pool.
         // Moving the last living particle to the location of the deceased particle fixes both issues.
-        loadTemporaryDataFrom(firstDeadParticleIndex, ParticleDataMask.toInt(ParticleDataMask.ALL));
-        storeTemporaryDataAt(index, ParticleDataMask.toInt(ParticleDataMask.ALL));
+        copyParticle(firstDeadParticleIndex, index);
+    }
+
+    private void copyParticle(final int from, final int to) {
+        energy[to] = energy[from];
+        System.arraycopy(textureOffset, from * 2, textureOffset, to * 2, 2);
+        System.arraycopy(position, from * 3, position, to * 3, 3);
+        System.arraycopy(previousPosition, from * 3, previousPosition, to * 3, 3);
+        System.arraycopy(velocity, from * 3, velocity, to * 3, 3);
+        System.arraycopy(scale, from * 3, scale, to * 3, 3);
+        System.arraycopy(color, from * 4, color, to * 4, 4);
     }
 
     //== moving particle data ===========================
@@ -48,6 +48,7 @@
 import org.terasology.physics.Physics;
 import org.terasology.registry.In;
 import org.terasology.registry.Share;
+import org.terasology.world.WorldProvider;
 
 import java.util.stream.Stream;
 
@@ -64,6 +65,9 @@ public class ParticleSystemManagerImpl extends BaseComponentSystem implements Up
     @In
     private Physics physics;
 
+    @In
+    private WorldProvider worldProvider;
+
     private ParticleUpdater particleUpdater;
 
     private BiMap<Class<Component>, GeneratorFunction> registeredGeneratorFunctions = HashBiMap.create();
@@ -93,7 +97,7 @@ public void onEmitterDeactivated(BeforeDeactivateComponent event, EntityRef enti
 
 
     public void initialise() {
-        particleUpdater = ParticleUpdater.create(physics);
+        particleUpdater = ParticleUpdater.create(physics, worldProvider);
 
         registerGeneratorFunction(new EnergyRangeGeneratorFunction());
         registerGeneratorFunction(new VelocityRangeGeneratorFunction());
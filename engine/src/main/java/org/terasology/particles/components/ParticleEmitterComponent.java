@@ -42,6 +42,22 @@ public class ParticleEmitterComponent implements Component {
     public static final int INFINITE_PARTICLE_SPAWNS = -1;
     public static final int INDEFINITE_EMITTER_LIFETIME = -1;
 
+    /**
+     * How particles are tested for collisions with blocks.
+     */
+    public enum CollisionMode {
+        /**
+         * Walks the block grid along the path of every particle, each update. Treats all solid blocks as full cubes.
+         */
+        BLOCK_GRID,
+
+        /**
+         * Ray traces some of the particles against the physics world each update. Respects the collision shapes of
+         * the blocks, but is much more expensive.
+         */
+        PHYSICS
+    }
+
     /**
      * The amount of particles in this system's pool. Emitters under this system will share the particles.
      */
@@ -52,6 +68,11 @@ public class ParticleEmitterComponent implements Component {
      */
     public boolean particleCollision = true;
 
+    /**
+     * How this system's particles are tested for collisions, if they collide with blocks.
+     */
+    public CollisionMode collisionMode = CollisionMode.BLOCK_GRID;
+
     /**
      * The maximum spawn rate of this emitter in particles / second
      */
@@ -51,4 +51,15 @@ public final Class<T> getComponentClass() {
     public final int getDataMask() {
         return rawDataMask;
     }
+
+    /**
+     * One function instance serves all emitters. Only when every function of all emitters reports itself thread safe
+     * are several emitters updated on different threads at the same time.
+     *
+     * @return Whether this function may be called for different emitters concurrently. False by default, override it
+     * only if the function keeps no state in its own fields.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.affectors.AccelerationAffectorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -28,6 +29,11 @@ public AccelerationAffectorFunction() {
         super(AccelerationAffectorComponent.class, ParticleDataMask.VELOCITY);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void update(final AccelerationAffectorComponent component,
                        final ParticleData particleData,
@@ -40,4 +46,23 @@ public void update(final AccelerationAffectorComponent component,
                 component.acceleration.z() * delta
         );
     }
+
+    @Override
+    public void updateBatch(final AccelerationAffectorComponent component,
+                            final ParticlePool pool,
+                            final int start,
+                            final int end,
+                            final Random random,
+                            final float delta
+    ) {
+        final float[] velocity = pool.velocity;
+        final float dx = component.acceleration.x() * delta;
+        final float dy = component.acceleration.y() * delta;
+        final float dz = component.acceleration.z() * delta;
+        for (int i3 = start * 3; i3 < end * 3; i3 += 3) {
+            velocity[i3] += dx;
+            velocity[i3 + 1] += dy;
+            velocity[i3 + 2] += dz;
+        }
+    }
 }
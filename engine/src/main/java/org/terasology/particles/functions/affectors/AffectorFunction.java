@@ -19,11 +19,16 @@
 import org.terasology.module.sandbox.API;
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.functions.ParticleSystemFunction;
 import org.terasology.utilities.random.Random;
 
 /**
  * A affector function is called on a particle's data when it is updated to set its fields (Ex. Apply a force to a particle).
+ * <br><br>
+ * The data mask must contain every field the function reads or writes, as only those fields are passed to
+ * {@link #update}. One function instance serves all emitters; see {@link #isThreadSafe()} for updating emitters
+ * on several threads.
  */
 
 @API
@@ -34,6 +39,21 @@ public AffectorFunction(Class<T> affectorComponent, ParticleDataMask dataMask, P
 
     public abstract void update(T component, ParticleData particleData, Random random, float delta);
 
+    /**
+     * Updates the living particles with indices from {@code start} (inclusive) to {@code end} (exclusive) at once.
+     * <br><br>
+     * By default this copies the masked fields of each particle into a {@link ParticleData}, calls {@link #update} and
+     * copies them back. Override it to work on the arrays of the pool directly, which avoids the copies.
+     */
+    public void updateBatch(T component, ParticlePool pool, int start, int end, Random random, float delta) {
+        final int dataMask = getDataMask();
+        for (int i = start; i < end; i++) {
+            pool.loadTemporaryDataFrom(i, dataMask);
+            update(component, pool.temporaryParticleData, random, delta);
+            pool.storeTemporaryDataAt(i, dataMask);
+        }
+    }
+
     public void beforeUpdates(T component, Random random, float delta) {
         // does nothing by default
     }
@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.affectors.VelocityAffectorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -28,6 +29,11 @@ public VelocityAffectorFunction() {
         super(VelocityAffectorComponent.class, ParticleDataMask.POSITION, ParticleDataMask.VELOCITY);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void update(final VelocityAffectorComponent component,
                        final ParticleData particleData,
@@ -40,4 +46,19 @@ public void update(final VelocityAffectorComponent component,
                 particleData.velocity.z() * delta
         );
     }
+
+    @Override
+    public void updateBatch(final VelocityAffectorComponent component,
+                            final ParticlePool pool,
+                            final int start,
+                            final int end,
+                            final Random random,
+                            final float delta
+    ) {
+        final float[] position = pool.position;
+        final float[] velocity = pool.velocity;
+        for (int i = start * 3; i < end * 3; i++) {
+            position[i] += velocity[i] * delta;
+        }
+    }
 }
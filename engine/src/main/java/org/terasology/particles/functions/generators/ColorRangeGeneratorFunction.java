@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.generators.ColorRangeGeneratorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -29,6 +30,11 @@ public ColorRangeGeneratorFunction() {
         super(ColorRangeGeneratorComponent.class, ParticleDataMask.COLOR);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onEmission(final ColorRangeGeneratorComponent component,
                            final ParticleData particleData,
@@ -39,4 +45,20 @@ public void onEmission(final ColorRangeGeneratorComponent component,
         particleData.color.setZ(random.nextFloat(component.minColorComponents.z(), component.maxColorComponents.z()));
         particleData.color.setW(random.nextFloat(component.minColorComponents.w(), component.maxColorComponents.w()));
     }
+
+    @Override
+    public void onEmissionBatch(final ColorRangeGeneratorComponent component,
+                                final ParticlePool pool,
+                                final int start,
+                                final int end,
+                                final Random random
+    ) {
+        final float[] color = pool.color;
+        for (int i4 = start * 4; i4 < end * 4; i4 += 4) {
+            color[i4] = random.nextFloat(component.minColorComponents.x(), component.maxColorComponents.x());
+            color[i4 + 1] = random.nextFloat(component.minColorComponents.y(), component.maxColorComponents.y());
+            color[i4 + 2] = random.nextFloat(component.minColorComponents.z(), component.maxColorComponents.z());
+            color[i4 + 3] = random.nextFloat(component.minColorComponents.w(), component.maxColorComponents.w());
+        }
+    }
 }
@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.generators.EnergyRangeGeneratorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -29,8 +30,20 @@ public EnergyRangeGeneratorFunction() {
         super(EnergyRangeGeneratorComponent.class, ParticleDataMask.ENERGY);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onEmission(EnergyRangeGeneratorComponent component, ParticleData particleData, Random random) {
         particleData.energy = random.nextFloat(component.minEnergy, component.maxEnergy);
     }
+
+    @Override
+    public void onEmissionBatch(EnergyRangeGeneratorComponent component, ParticlePool pool, int start, int end, Random random) {
+        for (int i = start; i < end; i++) {
+            pool.energy[i] = random.nextFloat(component.minEnergy, component.maxEnergy);
+        }
+    }
 }
@@ -19,11 +19,16 @@
 import org.terasology.module.sandbox.API;
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.functions.ParticleSystemFunction;
 import org.terasology.utilities.random.Random;
 
 /**
  * A generator function is called on a particle's data when it is created to set its fields.
+ * <br><br>
+ * The data mask must contain every field the function reads or writes, as only those fields are passed to
+ * {@link #onEmission}. Like affector functions, generator functions are only called for several emitters at once
+ * when they are {@link #isThreadSafe() thread safe}.
  */
 @API
 public abstract class GeneratorFunction<T extends Component> extends ParticleSystemFunction<T> {
@@ -32,4 +37,19 @@ public GeneratorFunction(Class<T> component, ParticleDataMask dataMask, Particle
     }
 
     public abstract void onEmission(T component, ParticleData particleData, Random random);
+
+    /**
+     * Initializes the newly emitted particles with indices from {@code start} (inclusive) to {@code end} (exclusive).
+     * <br><br>
+     * By default this copies the masked fields of each particle into a {@link ParticleData}, calls {@link #onEmission}
+     * and copies them back. Override it to work on the arrays of the pool directly, which avoids the copies.
+     */
+    public void onEmissionBatch(T component, ParticlePool pool, int start, int end, Random random) {
+        final int dataMask = getDataMask();
+        for (int i = start; i < end; i++) {
+            pool.loadTemporaryDataFrom(i, dataMask);
+            onEmission(component, pool.temporaryParticleData, random);
+            pool.storeTemporaryDataAt(i, dataMask);
+        }
+    }
 }
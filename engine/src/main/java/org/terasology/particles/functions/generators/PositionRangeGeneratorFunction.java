@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.generators.PositionRangeGeneratorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -29,6 +30,11 @@ public PositionRangeGeneratorFunction() {
         super(PositionRangeGeneratorComponent.class, ParticleDataMask.POSITION);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onEmission(final PositionRangeGeneratorComponent component,
                            final ParticleData particleData,
@@ -40,4 +46,19 @@ public void onEmission(final PositionRangeGeneratorComponent component,
                 random.nextFloat(component.minPosition.z(), component.maxPosition.z())
         );
     }
+
+    @Override
+    public void onEmissionBatch(final PositionRangeGeneratorComponent component,
+                                final ParticlePool pool,
+                                final int start,
+                                final int end,
+                                final Random random
+    ) {
+        final float[] position = pool.position;
+        for (int i3 = start * 3; i3 < end * 3; i3 += 3) {
+            position[i3] = random.nextFloat(component.minPosition.x(), component.maxPosition.x());
+            position[i3 + 1] = random.nextFloat(component.minPosition.y(), component.maxPosition.y());
+            position[i3 + 2] = random.nextFloat(component.minPosition.z(), component.maxPosition.z());
+        }
+    }
 }
@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.generators.ScaleRangeGeneratorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -28,6 +29,11 @@ public ScaleRangeGeneratorFunction() {
         super(ScaleRangeGeneratorComponent.class, ParticleDataMask.SCALE);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onEmission(final ScaleRangeGeneratorComponent component,
                            final ParticleData particleData,
@@ -39,4 +45,19 @@ public void onEmission(final ScaleRangeGeneratorComponent component,
                 random.nextFloat(component.minScale.z(), component.maxScale.z())
         );
     }
+
+    @Override
+    public void onEmissionBatch(final ScaleRangeGeneratorComponent component,
+                                final ParticlePool pool,
+                                final int start,
+                                final int end,
+                                final Random random
+    ) {
+        final float[] scale = pool.scale;
+        for (int i3 = start * 3; i3 < end * 3; i3 += 3) {
+            scale[i3] = random.nextFloat(component.minScale.x(), component.maxScale.x());
+            scale[i3 + 1] = random.nextFloat(component.minScale.y(), component.maxScale.y());
+            scale[i3 + 2] = random.nextFloat(component.minScale.z(), component.maxScale.z());
+        }
+    }
 }
@@ -30,6 +30,11 @@ public TextureOffsetGeneratorFunction() {
         super(TextureOffsetGeneratorComponent.class, ParticleDataMask.TEXTURE_OFFSET);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onEmission(TextureOffsetGeneratorComponent component, ParticleData particleData, Random random) {
         if (component.validOffsets.size() == 0) {
@@ -17,6 +17,7 @@
 
 import org.terasology.particles.ParticleData;
 import org.terasology.particles.ParticleDataMask;
+import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.generators.VelocityRangeGeneratorComponent;
 import org.terasology.utilities.random.Random;
 
@@ -28,6 +29,11 @@ public VelocityRangeGeneratorFunction() {
         super(VelocityRangeGeneratorComponent.class, ParticleDataMask.VELOCITY);
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     @Override
     public void onEmission(final VelocityRangeGeneratorComponent component,
                            final ParticleData particleData,
@@ -36,4 +42,19 @@ public void onEmission(final VelocityRangeGeneratorComponent component,
         particleData.velocity.setY(random.nextFloat(component.minVelocity.y(), component.maxVelocity.y()));
         particleData.velocity.setZ(random.nextFloat(component.minVelocity.z(), component.maxVelocity.z()));
     }
+
+    @Override
+    public void onEmissionBatch(final VelocityRangeGeneratorComponent component,
+                                final ParticlePool pool,
+                                final int start,
+                                final int end,
+                                final Random random
+    ) {
+        final float[] velocity = pool.velocity;
+        for (int i3 = start * 3; i3 < end * 3; i3 += 3) {
+            velocity[i3] = random.nextFloat(component.minVelocity.x(), component.maxVelocity.x());
+            velocity[i3 + 1] = random.nextFloat(component.minVelocity.y(), component.maxVelocity.y());
+            velocity[i3 + 2] = random.nextFloat(component.minVelocity.z(), component.maxVelocity.z());
+        }
+    }
 }
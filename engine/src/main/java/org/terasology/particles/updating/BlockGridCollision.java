@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.particles.updating;
+
+import org.terasology.math.TeraMath;
+import org.terasology.particles.ParticlePool;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * Collides particles with the blocks of the world by walking the block grid along the path every particle moved
+ * during the last update (a DDA traversal, as in Amanatides and Woo, "A Fast Voxel Traversal Algorithm").
+ * <br><br>
+ * Particles that touch a solid block are killed by setting their energy to 0. Blocks are treated as full cubes and
+ * unloaded chunks as empty, which matches the world collision shape closely enough for particles.
+ * <br><br>
+ * Neighbouring particles of an emitter mostly pass through the same few blocks, so the solidity of the visited
+ * blocks is cached while the particles of one pool are checked. Instances are not thread safe.
+ */
+class BlockGridCollision {
+
+    /**
+     * The most blocks walked per particle, for particles that are too fast to be checked reasonably.
+     */
+    private static final int MAX_STEPS = 64;
+
+    /**
+     * Entries of the block cache, must be a power of two.
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    private final WorldProvider worldProvider;
+
+    private final int[] cachedX = new int[CACHE_SIZE];
+    private final int[] cachedY = new int[CACHE_SIZE];
+    private final int[] cachedZ = new int[CACHE_SIZE];
+    private final int[] cachedPass = new int[CACHE_SIZE];
+    private final boolean[] cachedSolid = new boolean[CACHE_SIZE];
+    private int pass;
+
+    BlockGridCollision(WorldProvider worldProvider) {
+        this.worldProvider = worldProvider;
+    }
+
+    /**
+     * Kills the living particles of the pool that moved into a solid block since the last update.
+     *
+     * @param pool  The particles to check.
+     * @param delta The time of the last update, used to find where the particles came from.
+     */
+    void checkCollisions(ParticlePool pool, float delta) {
+        // Starts a new pass of the cache, as blocks may have changed since the last one
+        pass++;
+        if (pass == 0) {
+            Arrays.fill(cachedPass, 0);
+            pass = 1;
+        }
+
+        for (int i = 0; i < pool.livingParticles(); i++) {
+            int i3 = i * 3;
+            float x = pool.position[i3];
+            float y = pool.position[i3 + 1];
+            float z = pool.position[i3 + 2];
+            if (intersectsSolidBlock(x - pool.velocity[i3] * delta, y - pool.velocity[i3 + 1] * delta,
+                    z - pool.velocity[i3 + 2] * delta, x, y, z)) {
+                pool.energy[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Walks all blocks touched by the segment between the two points, in order.
+     *
+     * @return Whether any of them is solid.
+     */
+    boolean intersectsSolidBlock(float fromX, float fromY, float fromZ, float toX, float toY, float toZ) {
+        // Blocks are centered on integer positions, so the shifted coordinates round down to the block positions
+        float startX = fromX + 0.5f;
+        float startY = fromY + 0.5f;
+        float startZ = fromZ + 0.5f;
+        float dirX = toX - fromX;
+        float dirY = toY - fromY;
+        float dirZ = toZ - fromZ;
+
+        int blockX = TeraMath.floorToInt(startX);
+        int blockY = TeraMath.floorToInt(startY);
+        int blockZ = TeraMath.floorToInt(startZ);
+        if (isSolid(blockX, blockY, blockZ)) {
+            return true;
+        }
+
+        int steps = Math.min(MAX_STEPS, Math.abs(TeraMath.floorToInt(toX + 0.5f) - blockX)
+                + Math.abs(TeraMath.floorToInt(toY + 0.5f) - blockY)
+                + Math.abs(TeraMath.floorToInt(toZ + 0.5f) - blockZ));
+        if (steps == 0) {
+            return false;
+        }
+
+        int stepX = dirX > 0 ? 1 : -1;
+        int stepY = dirY > 0 ? 1 : -1;
+        int stepZ = dirZ > 0 ? 1 : -1;
+        float deltaX = Math.abs(1.0f / dirX);
+        float deltaY = Math.abs(1.0f / dirY);
+        float deltaZ = Math.abs(1.0f / dirZ);
+        float nextX = distanceToBoundary(startX, blockX, dirX) * deltaX;
+        float nextY = distanceToBoundary(startY, blockY, dirY) * deltaY;
+        float nextZ = distanceToBoundary(startZ, blockZ, dirZ) * deltaZ;
+
+        for (int step = 0; step < steps; step++) {
+            if (nextX <= nextY && nextX <= nextZ) {
+                blockX += stepX;
+                nextX += deltaX;
+            } else if (nextY <= nextZ) {
+                blockY += stepY;
+                nextY += deltaY;
+            } else {
+                blockZ += stepZ;
+                nextZ += deltaZ;
+            }
+            if (isSolid(blockX, blockY, blockZ)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static float distanceToBoundary(float start, int block, float dir) {
+        if (dir > 0) {
+            return block + 1 - start;
+        } else if (dir < 0) {
+            return start - block;
+        }
+        return Float.POSITIVE_INFINITY;
+    }
+
+    private boolean isSolid(int x, int y, int z) {
+        int index = ((x * 73856093) ^ (y * 19349663) ^ (z * 83492791)) & (CACHE_SIZE - 1);
+        if (cachedPass[index] == pass && cachedX[index] == x && cachedY[index] == y && cachedZ[index] == z) {
+            return cachedSolid[index];
+        }
+
+        Block block = worldProvider.getBlock(x, y, z);
+        // Unloaded chunks return a solid placeholder block, so only check relevance for solid blocks
+        boolean solid = block != null && !block.isPenetrable() && worldProvider.isBlockRelevant(x, y, z);
+
+        cachedX[index] = x;
+        cachedY[index] = y;
+        cachedZ[index] = z;
+        cachedPass[index] = pass;
+        cachedSolid[index] = solid;
+        return solid;
+    }
+}
@@ -22,6 +22,7 @@
 import org.terasology.particles.functions.affectors.AffectorFunction;
 import org.terasology.particles.functions.generators.GeneratorFunction;
 import org.terasology.physics.Physics;
+import org.terasology.world.WorldProvider;
 
 import java.util.Collection;
 
@@ -56,4 +57,21 @@ void configureEmitter(ParticleEmitterComponent emitter,
     static ParticleUpdater create(Physics physics) {
         return new ParticleUpdaterImpl(physics);
     }
+
+    /**
+     * @param physics  The physics used for particle collisions.
+     * @param parallel Whether several emitters may be updated on worker threads at the same time. Even then, this only
+     *                 happens while all their functions are {@link AffectorFunction#isThreadSafe() thread safe}.
+     */
+    static ParticleUpdater create(Physics physics, boolean parallel) {
+        return new ParticleUpdaterImpl(physics, parallel);
+    }
+
+    /**
+     * @param physics       The physics used for particle collisions of emitters that ask for them.
+     * @param worldProvider The world whose blocks particles collide with by default.
+     */
+    static ParticleUpdater create(Physics physics, WorldProvider worldProvider) {
+        return new ParticleUpdaterImpl(physics, worldProvider, true);
+    }
 }
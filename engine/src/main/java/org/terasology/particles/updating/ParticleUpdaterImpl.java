@@ -18,11 +18,13 @@
 import com.google.common.base.Preconditions;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3f;
-import org.terasology.particles.ParticleDataMask;
 import org.terasology.particles.ParticlePool;
 import org.terasology.particles.components.ParticleEmitterComponent;
 import org.terasology.particles.functions.affectors.AffectorFunction;
@@ -31,17 +33,35 @@
 import org.terasology.physics.Physics;
 import org.terasology.physics.StandardCollisionGroup;
 import org.terasology.utilities.random.FastRandom;
+import org.terasology.world.WorldProvider;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * See ParticleUpdater for more information.
+ * <br><br>
+ * Emission and affectors work on whole particle pools at once through the batch methods of the particle functions.
+ * As every emitter has its own pool, several emitters are simulated in parallel when there are enough particles to
+ * make that worthwhile and all their functions are thread safe. Collisions and changes to the emitter entities happen
+ * on the calling thread afterwards.
+ * <br><br>
+ * Particles collide with blocks either through the block grid of the world or through ray traces against the
+ * physics world, as chosen by the emitter. Without a world provider, all collisions use the physics.
  */
 class ParticleUpdaterImpl implements ParticleUpdater {
 
     private static final int PHYSICS_SKIP_NR = 100;
 
+    /**
+     * Below this number of living particles, all emitters are updated on the calling thread.
+     */
+    private static final int PARALLEL_PARTICLE_THRESHOLD = 4096;
+
     /**
      * Set of all particle emitters
      */
@@ -52,14 +72,26 @@ class ParticleUpdaterImpl implements ParticleUpdater {
      */
     //private final Map<Class<? extends ParticleDataComponent>, ParticleEmitterComponent> particleSystemsLookup = new HashMap<>();
 
-    private final FastRandom random = new FastRandom();
+    private final ThreadLocal<FastRandom> random = ThreadLocal.withInitial(FastRandom::new);
     private final Physics physics;
+    private final BlockGridCollision blockGridCollision;
+    private final boolean parallel;
     private float movingAvgDelta = 1.0f / 60.0f; //Starting guess average physics updateParticleSystem delta
 
     //== public ========================================================================================================
 
     ParticleUpdaterImpl(final Physics physics) {
+        this(physics, true);
+    }
+
+    ParticleUpdaterImpl(final Physics physics, final boolean parallel) {
+        this(physics, null, parallel);
+    }
+
+    ParticleUpdaterImpl(final Physics physics, final WorldProvider worldProvider, final boolean parallel) {
         this.physics = physics;
+        this.blockGridCollision = worldProvider != null ? new BlockGridCollision(worldProvider) : null;
+        this.parallel = parallel;
     }
 
     @Override
@@ -96,8 +128,18 @@ public void dispose(final EntityRef emitter) {
     public void update(final float delta) {
         movingAvgDelta = TeraMath.lerp(movingAvgDelta, delta, 0.05f);
 
-        for (ParticleEmitterComponent registeredParticleSystem : ImmutableList.copyOf(registeredParticleSystems)) {
-            updateParticleSystem(registeredParticleSystem, delta);
+        List<ParticleEmitterComponent> particleSystems = ImmutableList.copyOf(registeredParticleSystems);
+        if (parallel && particleSystems.size() > 1 && countLivingParticles(particleSystems) >= PARALLEL_PARTICLE_THRESHOLD
+                && allFunctionsThreadSafe(particleSystems)) {
+            simulateInParallel(particleSystems, delta);
+        } else {
+            for (ParticleEmitterComponent particleSystem : particleSystems) {
+                simulate(particleSystem, getEmitterPosition(particleSystem), delta);
+            }
+        }
+
+        for (ParticleEmitterComponent particleSystem : particleSystems) {
+            updateParticleSystem(particleSystem, delta);
         }
     }
 
@@ -162,80 +204,144 @@ private void updateLifeRemaining(final ParticlePool pool, final float delta) {
     * Updates particle life and processes particle affectors
     * */
     private void updateParticles(final ParticleEmitterComponent particleSystem, final float delta) {
-        updateLifeRemaining(particleSystem.particlePool, delta);
+        final ParticlePool pool = particleSystem.particlePool;
+        updateLifeRemaining(pool, delta);
+
+        final FastRandom rand = random.get();
+        final int livingParticles = pool.livingParticles();
 
         particleSystem.affectorFunctionMap.forEach(
-                (component, affector) -> affector.beforeUpdates(component, random, delta)
+                (component, affector) -> affector.beforeUpdates(component, rand, delta)
         );
 
-        for (int i = 0; i < particleSystem.particlePool.livingParticles(); i++) {
-            particleSystem.particlePool.loadTemporaryDataFrom(i, ParticleDataMask.ALL.toInt());
-
-            particleSystem.affectorFunctionMap.forEach(
-                    (component, affector) ->
-                            affector.update(component, particleSystem.particlePool.temporaryParticleData, random, delta)
-            );
+        particleSystem.affectorFunctionMap.forEach(
+                (component, affector) -> affector.updateBatch(component, pool, 0, livingParticles, rand, delta)
+        );
 
-            particleSystem.particlePool.storeTemporaryDataAt(i, ParticleDataMask.ALL.toInt());
-        }
+        particleSystem.affectorFunctionMap.forEach(
+                (component, affector) -> affector.afterUpdates(component, rand, delta)
+        );
     }
 
     //== emission ======================================================================================================
 
-    private void emitParticle(final ParticleEmitterComponent particleEmitter) {
-        int index = particleEmitter.particlePool.reviveParticle();
-
-        particleEmitter.particlePool.loadTemporaryDataFrom(index, ParticleDataMask.ALL.toInt());
+    private void emitParticles(final ParticleEmitterComponent particleEmitter, final Vector3f emitterPosition, final int count) {
+        final ParticlePool pool = particleEmitter.particlePool;
+        final FastRandom rand = random.get();
+        final int start = pool.reviveParticles(count);
+        final int end = start + count;
 
         particleEmitter.generatorFunctionMap.forEach(
-                (component, generator) ->
-                        generator.onEmission(component, particleEmitter.particlePool.temporaryParticleData, random)
+                (component, generator) -> generator.onEmissionBatch(component, pool, start, end, rand)
         );
 
-        particleEmitter.particlePool.temporaryParticleData.position.add(
-                particleEmitter.locationComponent.getWorldPosition()
-        );
-
-        particleEmitter.particlePool.storeTemporaryDataAt(index, ParticleDataMask.ALL.toInt());
+        for (int i3 = start * 3; i3 < end * 3; i3 += 3) {
+            pool.position[i3 + 0] += emitterPosition.x();
+            pool.position[i3 + 1] += emitterPosition.y();
+            pool.position[i3 + 2] += emitterPosition.z();
+        }
     }
 
     /*
     * Emits particles from emitter
     * */
-    private void updateEmitter(final ParticleEmitterComponent particleEmitter, final int particleReviveLimit, final float delta) {
+    private void updateEmitter(final ParticleEmitterComponent particleEmitter, final Vector3f emitterPosition,
+                               final int particleReviveLimit, final float delta) {
         float deltaLeft = delta;
+        int emissions = 0;
 
-        while (deltaLeft > 0 && particleEmitter.particlePool.deadParticles() > particleReviveLimit) {
+        while (deltaLeft > 0 && particleEmitter.particlePool.deadParticles() - emissions > particleReviveLimit) {
             if (particleEmitter.nextEmission < deltaLeft) {
                 deltaLeft -= particleEmitter.nextEmission;
                 float freq1 = 1.0f / particleEmitter.spawnRateMax;
                 float freq2 = 1.0f / particleEmitter.spawnRateMin;
-                particleEmitter.nextEmission = random.nextFloat(freq1, freq2);
+                particleEmitter.nextEmission = random.get().nextFloat(freq1, freq2);
 
                 if (particleEmitter.particleSpawnsLeft != ParticleEmitterComponent.INFINITE_PARTICLE_SPAWNS) {
                     particleEmitter.particleSpawnsLeft--;
                 }
 
-                emitParticle(particleEmitter);
+                emissions++;
             } else {
                 particleEmitter.nextEmission -= deltaLeft;
                 deltaLeft = 0;
             }
         }
+
+        if (emissions > 0) {
+            emitParticles(particleEmitter, emitterPosition, emissions);
+        }
     }
 
     //== general =======================================================================================================
 
-    private void updateParticleSystem(final ParticleEmitterComponent partSys, final float delta) {
+    private static int countLivingParticles(final List<ParticleEmitterComponent> particleSystems) {
+        int count = 0;
+        for (ParticleEmitterComponent particleSystem : particleSystems) {
+            count += particleSystem.particlePool.livingParticles();
+        }
+        return count;
+    }
+
+    /*
+    * Function instances are shared between emitters, so a single function that keeps state forces a serial update.
+    * */
+    private static boolean allFunctionsThreadSafe(final List<ParticleEmitterComponent> particleSystems) {
+        for (ParticleEmitterComponent particleSystem : particleSystems) {
+            for (AffectorFunction affector : particleSystem.affectorFunctionMap.values()) {
+                if (!affector.isThreadSafe()) {
+                    return false;
+                }
+            }
+            for (GeneratorFunction generator : particleSystem.generatorFunctionMap.values()) {
+                if (!generator.isThreadSafe()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+    * The position is read on the calling thread, as the entity system must not be accessed by the simulation threads.
+    * */
+    private static Vector3f getEmitterPosition(final ParticleEmitterComponent particleSystem) {
+        if (particleSystem.locationComponent == null) {
+            return new Vector3f();
+        }
+        return particleSystem.locationComponent.getWorldPosition();
+    }
+
+    private void simulateInParallel(final List<ParticleEmitterComponent> particleSystems, final float delta) {
+        List<Future<?>> simulations = Lists.newArrayListWithCapacity(particleSystems.size());
+        for (ParticleEmitterComponent particleSystem : particleSystems) {
+            Vector3f emitterPosition = getEmitterPosition(particleSystem);
+            simulations.add(SharedPool.EXECUTOR.submit(() -> simulate(particleSystem, emitterPosition, delta)));
+        }
+        for (Future<?> simulation : simulations) {
+            Futures.getUnchecked(simulation);
+        }
+    }
+
+    /*
+    * Emits new particles and applies the affectors. Only touches the emitter's own state and particle pool.
+    * */
+    private void simulate(final ParticleEmitterComponent partSys, final Vector3f emitterPosition, final float delta) {
         if (partSys.enabled && (partSys.particleSpawnsLeft == ParticleEmitterComponent.INFINITE_PARTICLE_SPAWNS || partSys.particleSpawnsLeft > 0)) {
-            updateEmitter(partSys, 0, delta); // Emit particles
+            updateEmitter(partSys, emitterPosition, 0, delta); // Emit particles
         }
 
         updateParticles(partSys, delta); // Update particle lifetime and Affectors
+    }
 
+    private void updateParticleSystem(final ParticleEmitterComponent partSys, final float delta) {
         if (partSys.particleCollision) {
-            checkCollision(partSys.particlePool, partSys.collisionUpdateIteration);
-            partSys.collisionUpdateIteration = (partSys.collisionUpdateIteration + 1) % PHYSICS_SKIP_NR;
+            if (partSys.collisionMode == ParticleEmitterComponent.CollisionMode.BLOCK_GRID && blockGridCollision != null) {
+                blockGridCollision.checkCollisions(partSys.particlePool, delta);
+            } else {
+                checkCollision(partSys.particlePool, partSys.collisionUpdateIteration);
+                partSys.collisionUpdateIteration = (partSys.collisionUpdateIteration + 1) % PHYSICS_SKIP_NR;
+            }
         }
 
         // System ran out of lifetime -> stop emission -> dispose
@@ -255,4 +361,16 @@ private void updateParticleSystem(final ParticleEmitterComponent partSys, final
             }
         }
     }
+
+    /**
+     * Creates the pool on first use, so that games with few particles do not start any threads.
+     */
+    private static final class SharedPool {
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                new ThreadFactoryBuilder().setNameFormat("Particle-Updater-%d").setDaemon(true).build());
+
+        private SharedPool() {
+        }
+    }
 }
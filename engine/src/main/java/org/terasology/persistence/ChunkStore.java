@@ -30,7 +30,7 @@ public interface ChunkStore {
     Vector3i getChunkPosition();
 
     /**
-     * @return The chunk itself
+     * @return The chunk itself, or null if a store that decodes lazily finds it corrupted
      */
     Chunk getChunk();
 
@@ -37,7 +37,6 @@
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.FileSystem;
@@ -46,7 +45,6 @@
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 
 /**
  * An abstract implementation of {@link StorageManager} that is able
@@ -65,12 +63,15 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final EngineEntityManager entityManager;
     private final PrefabSerializer prefabSerializer;
     private final OwnershipHelper helper;
+    private final ChunkCodec chunkCodec;
 
     private boolean storeChunksInZips = true;
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
-                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips,
+                                  ChunkCodec chunkCodec) {
         this.entityManager = entityManager;
+        this.chunkCodec = chunkCodec;
         this.environment = environment;
         this.storeChunksInZips = storeChunksInZips;
         this.prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
@@ -107,12 +108,11 @@ public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
         ChunkStore store = null;
         if (chunkData != null) {
-            ByteArrayInputStream bais = new ByteArrayInputStream(chunkData);
-            try (GZIPInputStream gzipIn = new GZIPInputStream(bais)) {
-                EntityData.ChunkStore storeData = EntityData.ChunkStore.parseFrom(gzipIn);
+            try {
+                EntityData.ChunkStore storeData = chunkCodec.decompress(chunkData);
                 store = new ChunkStoreInternal(storeData, entityManager, blockManager, extraDataManager);
             } catch (IOException e) {
-                logger.error("Failed to read existing saved chunk {}", chunkPos);
+                logger.error("Failed to read existing saved chunk {}", chunkPos, e);
             }
         }
         return store;
@@ -143,6 +143,13 @@ public boolean isStoreChunksInZips() {
         return storeChunksInZips;
     }
 
+    /**
+     * @return The codec with which the chunks of this world are compressed
+     */
+    public ChunkCodec getChunkCodec() {
+        return chunkCodec;
+    }
+
     /**
      * For tests only
      */
@@ -228,4 +235,12 @@ protected EngineEntityManager getEntityManager() {
     protected PrefabSerializer getPrefabSerializer() {
         return prefabSerializer;
     }
+
+    protected BlockManager getBlockManager() {
+        return blockManager;
+    }
+
+    protected ExtraBlockDataManager getExtraDataManager() {
+        return extraDataManager;
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.protobuf.CodedInputStream;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+
+/**
+ * Turns the encoded form of a chunk into the bytes that end up in the save game and back.
+ * <br><br>
+ * The codec is chosen once per world and recorded in the {@link org.terasology.game.GameManifest} under its id, so
+ * that a save is always read back with the codec it was written with. See {@link ChunkCodecs} for the available
+ * codecs.
+ * <br><br>
+ * Implementations must be thread safe, as chunks get compressed by the save threads and decompressed by the chunk
+ * loading threads at the same time.
+ */
+public interface ChunkCodec {
+
+    /**
+     * @return The id under which the codec gets recorded in the game manifest
+     */
+    String getId();
+
+    byte[] compress(EntityData.ChunkStore store);
+
+    /**
+     * @throws IOException if the data is corrupted or was not written by this codec
+     */
+    EntityData.ChunkStore decompress(byte[] data) throws IOException;
+
+    /**
+     * Decompresses the chunk without parsing it, for callers that only need parts of it.
+     * <br><br>
+     * The returned stream may read from a buffer that gets reused by the next call on the same thread, so it has to
+     * be consumed before this codec is used again.
+     *
+     * @throws IOException if the data is corrupted or was not written by this codec
+     */
+    CodedInputStream decompressToStream(byte[] data) throws IOException;
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.util.zip.Deflater;
+
+/**
+ * The chunk codecs known to the engine.
+ */
+public final class ChunkCodecs {
+
+    /**
+     * The codec of saves that do not record a codec: every save written before codecs could be chosen.
+     */
+    public static final ChunkCodec GZIP = new GzipChunkCodec();
+
+    /**
+     * Favours speed over size: chunks compress and decompress several times faster than with {@link #GZIP}, at the
+     * cost of somewhat larger save games.
+     */
+    public static final ChunkCodec FAST_DEFLATE = new DeflateChunkCodec("deflate-fast", Deflater.BEST_SPEED);
+
+    /**
+     * The codec that gets used for new worlds.
+     */
+    public static final ChunkCodec DEFAULT = FAST_DEFLATE;
+
+    private ChunkCodecs() {
+    }
+
+    /**
+     * @param id the id as recorded in the game manifest, or null if the manifest does not record one
+     * @return the codec with the given id
+     * @throws IllegalArgumentException if there is no codec with the given id
+     */
+    public static ChunkCodec forId(String id) {
+        if (id == null || id.equals(GZIP.getId())) {
+            return GZIP;
+        }
+        if (id.equals(FAST_DEFLATE.getId())) {
+            return FAST_DEFLATE;
+        }
+        throw new IllegalArgumentException("Unknown chunk codec: " + id);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores the encoded chunk as a zlib stream, prefixed by the encoded size of the chunk.
+ * <br><br>
+ * Knowing the encoded size up front allows the chunk to be inflated in one go into a buffer of the right size,
+ * instead of streaming it through a protobuf parser. Each thread keeps its own {@link Deflater}, {@link Inflater} and
+ * buffers, so that compressing a chunk does not allocate beyond the returned array.
+ */
+class DeflateChunkCodec implements ChunkCodec {
+
+    private static final int HEADER_SIZE = 4;
+
+    /**
+     * The protobuf size limit. A larger size in the header means the data is corrupted.
+     */
+    private static final int MAX_ENCODED_SIZE = 64 * 1024 * 1024;
+
+    private final String id;
+    private final ThreadLocal<Workspace> workspace;
+
+    DeflateChunkCodec(String id, int level) {
+        this.id = id;
+        this.workspace = ThreadLocal.withInitial(() -> new Workspace(level));
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public byte[] compress(EntityData.ChunkStore store) {
+        Workspace ws = workspace.get();
+        int encodedSize = store.getSerializedSize();
+        byte[] encoded = ws.getEncodedBuffer(encodedSize);
+        try {
+            CodedOutputStream codedOut = CodedOutputStream.newInstance(encoded, 0, encodedSize);
+            store.writeTo(codedOut);
+            codedOut.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+
+        Deflater deflater = ws.deflater;
+        deflater.reset();
+        deflater.setInput(encoded, 0, encodedSize);
+        deflater.finish();
+        byte[] compressed = ws.getCompressedBuffer(HEADER_SIZE + encodedSize / 2);
+        int length = HEADER_SIZE;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = ws.growCompressedBuffer();
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        compressed[0] = (byte) (encodedSize >>> 24);
+        compressed[1] = (byte) (encodedSize >>> 16);
+        compressed[2] = (byte) (encodedSize >>> 8);
+        compressed[3] = (byte) encodedSize;
+
+        byte[] result = Arrays.copyOf(compressed, length);
+        ws.releaseOversizedBuffers();
+        return result;
+    }
+
+    @Override
+    public EntityData.ChunkStore decompress(byte[] data) throws IOException {
+        EntityData.ChunkStore store = EntityData.ChunkStore.parseFrom(decompressToStream(data));
+        workspace.get().releaseOversizedBuffers();
+        return store;
+    }
+
+    @Override
+    public CodedInputStream decompressToStream(byte[] data) throws IOException {
+        if (data.length < HEADER_SIZE) {
+            throw new IOException("Chunk data is truncated");
+        }
+        int encodedSize = (data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8 | (data[3] & 0xFF);
+        if (encodedSize < 0 || encodedSize > MAX_ENCODED_SIZE) {
+            throw new IOException("Chunk data has an invalid size of " + encodedSize + " bytes");
+        }
+
+        Workspace ws = workspace.get();
+        // one spare byte, so that data exceeding the announced size gets noticed
+        int limit = encodedSize + 1;
+        byte[] encoded = ws.getEncodedBuffer(limit);
+        Inflater inflater = ws.inflater;
+        inflater.reset();
+        inflater.setInput(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        int length = 0;
+        try {
+            while (!inflater.finished()) {
+                if (length == limit) {
+                    throw new IOException("Chunk data exceeds its announced size of " + encodedSize + " bytes");
+                }
+                int inflated = inflater.inflate(encoded, length, limit - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Chunk data is truncated");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Chunk data is corrupted", e);
+        }
+        if (length != encodedSize) {
+            throw new IOException("Chunk data has " + length + " instead of the announced " + encodedSize + " bytes");
+        }
+        return CodedInputStream.newInstance(encoded, 0, length);
+    }
+
+    /**
+     * The (de)compressor and buffers of one thread.
+     */
+    private static final class Workspace {
+        private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+        private final Deflater deflater;
+        private final Inflater inflater = new Inflater();
+        private byte[] encodedBuffer = new byte[INITIAL_BUFFER_SIZE];
+        private byte[] compressedBuffer = new byte[INITIAL_BUFFER_SIZE];
+
+        Workspace(int level) {
+            deflater = new Deflater(level);
+        }
+
+        byte[] getEncodedBuffer(int minSize) {
+            if (encodedBuffer.length < minSize) {
+                encodedBuffer = new byte[minSize];
+            }
+            return encodedBuffer;
+        }
+
+        byte[] getCompressedBuffer(int minSize) {
+            if (compressedBuffer.length < minSize) {
+                compressedBuffer = new byte[minSize];
+            }
+            return compressedBuffer;
+        }
+
+        byte[] growCompressedBuffer() {
+            compressedBuffer = Arrays.copyOf(compressedBuffer, compressedBuffer.length * 2);
+            return compressedBuffer;
+        }
+
+        void releaseOversizedBuffers() {
+            if (encodedBuffer.length > ReusableByteArrayOutputStream.MAX_RETAINED_SIZE) {
+                encodedBuffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+            if (compressedBuffer.length > ReusableByteArrayOutputStream.MAX_RETAINED_SIZE) {
+                compressedBuffer = new byte[INITIAL_BUFFER_SIZE];
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.CodedInputStream;
+import org.terasology.protobuf.EntityData;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The original chunk format: the encoded chunk in a gzip stream.
+ * <br><br>
+ * The gzip streams can't be handed a (de)compressor to reuse, so only the output buffer is pooled here.
+ */
+class GzipChunkCodec implements ChunkCodec {
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final ThreadLocal<ReusableByteArrayOutputStream> outputBuffer =
+            ThreadLocal.withInitial(ReusableByteArrayOutputStream::new);
+
+    @Override
+    public String getId() {
+        return "gzip";
+    }
+
+    @Override
+    public byte[] compress(EntityData.ChunkStore store) {
+        ReusableByteArrayOutputStream out = outputBuffer.get();
+        out.reset();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, STREAM_BUFFER_SIZE)) {
+            store.writeTo(gzipOut);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        byte[] result = out.toByteArray();
+        out.releaseIfOversized();
+        return result;
+    }
+
+    @Override
+    public EntityData.ChunkStore decompress(byte[] data) throws IOException {
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data), STREAM_BUFFER_SIZE)) {
+            return EntityData.ChunkStore.parseFrom(gzipIn);
+        }
+    }
+
+    @Override
+    public CodedInputStream decompressToStream(byte[] data) throws IOException {
+        ReusableByteArrayOutputStream out = outputBuffer.get();
+        out.releaseIfOversized();
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data), STREAM_BUFFER_SIZE)) {
+            ByteStreams.copy(gzipIn, out);
+        }
+        return CodedInputStream.newInstance(out.getBuffer(), 0, out.size());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A {@link ChunkStore} that only splits the encoded chunk into its parts when loaded, and decodes each part when it
+ * is first needed.
+ * <br><br>
+ * Previews and other read-only uses often just look at the blocks of a chunk. They don't pay for parsing the stored
+ * entities, and with {@link #getBlockData()} not even for the extra data and lighting arrays of a full {@link Chunk}.
+ * <br><br>
+ * A part that turns out to be corrupted when decoded is logged and treated as missing, like a chunk that could not be
+ * loaded at all.
+ */
+final class LazyChunkStore implements ChunkStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyChunkStore.class);
+
+    private final Vector3i chunkPosition;
+    private final ByteString entityStore;
+    private final ByteString blockData;
+    private final List<ByteString> extraData;
+
+    private final EngineEntityManager entityManager;
+    private final BlockManager blockManager;
+    private final ExtraBlockDataManager extraDataManager;
+
+    private Chunk chunk;
+
+    private LazyChunkStore(Vector3i chunkPosition, ByteString entityStore, ByteString blockData, List<ByteString> extraData,
+                           EngineEntityManager entityManager, BlockManager blockManager,
+                           ExtraBlockDataManager extraDataManager) {
+        this.chunkPosition = chunkPosition;
+        this.entityStore = entityStore;
+        this.blockData = blockData;
+        this.extraData = extraData;
+        this.entityManager = entityManager;
+        this.blockManager = blockManager;
+        this.extraDataManager = extraDataManager;
+    }
+
+    /**
+     * Reads the top level fields of an encoded {@link EntityData.ChunkStore}, keeping the nested messages in their
+     * encoded form.
+     */
+    static LazyChunkStore read(CodedInputStream in, EngineEntityManager entityManager, BlockManager blockManager,
+                               ExtraBlockDataManager extraDataManager) throws IOException {
+        Integer x = null;
+        Integer y = null;
+        Integer z = null;
+        ByteString entityStore = ByteString.EMPTY;
+        ByteString blockData = null;
+        List<ByteString> extraData = Lists.newArrayList();
+
+        int tag = in.readTag();
+        while (tag != 0) {
+            int wireType = WireFormat.getTagWireType(tag);
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case EntityData.ChunkStore.STORE_FIELD_NUMBER:
+                    checkWireType(wireType, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    entityStore = in.readBytes();
+                    break;
+                case EntityData.ChunkStore.X_FIELD_NUMBER:
+                    checkWireType(wireType, WireFormat.WIRETYPE_VARINT);
+                    x = in.readSInt32();
+                    break;
+                case EntityData.ChunkStore.Y_FIELD_NUMBER:
+                    checkWireType(wireType, WireFormat.WIRETYPE_VARINT);
+                    y = in.readSInt32();
+                    break;
+                case EntityData.ChunkStore.Z_FIELD_NUMBER:
+                    checkWireType(wireType, WireFormat.WIRETYPE_VARINT);
+                    z = in.readSInt32();
+                    break;
+                case EntityData.ChunkStore.BLOCK_DATA_FIELD_NUMBER:
+                    checkWireType(wireType, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    blockData = in.readBytes();
+                    break;
+                case EntityData.ChunkStore.EXTRA_DATA_FIELD_NUMBER:
+                    checkWireType(wireType, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                    extraData.add(in.readBytes());
+                    break;
+                default:
+                    in.skipField(tag);
+                    break;
+            }
+            tag = in.readTag();
+        }
+
+        if (x == null || y == null || z == null) {
+            throw new InvalidProtocolBufferException("Ill-formed protobuf message. Missing chunk position.");
+        }
+        if (blockData == null) {
+            throw new InvalidProtocolBufferException("Ill-formed protobuf message. Missing block data.");
+        }
+        return new LazyChunkStore(new Vector3i(x, y, z), entityStore, blockData, extraData,
+                entityManager, blockManager, extraDataManager);
+    }
+
+    private static void checkWireType(int wireType, int expected) throws InvalidProtocolBufferException {
+        if (wireType != expected) {
+            throw new InvalidProtocolBufferException("Ill-formed protobuf message. Unexpected wire type " + wireType);
+        }
+    }
+
+    @Override
+    public Vector3i getChunkPosition() {
+        return new Vector3i(chunkPosition);
+    }
+
+    /**
+     * @return The chunk, or null if its block data is corrupted
+     */
+    @Override
+    public synchronized Chunk getChunk() {
+        if (chunk == null) {
+            EntityData.ChunkStore.Builder encoded = EntityData.ChunkStore.newBuilder()
+                    .setX(chunkPosition.x).setY(chunkPosition.y).setZ(chunkPosition.z);
+            try {
+                encoded.setBlockData(EntityData.RunLengthEncoding16.parseFrom(blockData));
+                for (ByteString data : extraData) {
+                    encoded.addExtraData(EntityData.RunLengthEncoding16.parseFrom(data));
+                }
+            } catch (InvalidProtocolBufferException e) {
+                logger.error("Failed to read the block data of saved chunk {}", chunkPosition, e);
+                return null;
+            }
+            chunk = ChunkSerializer.decode(encoded.build(), blockManager, extraDataManager);
+        }
+        chunk.prepareForReactivation();
+        return chunk;
+    }
+
+    /**
+     * Decodes only the blocks of the chunk, without creating the chunk itself.
+     *
+     * @return The block ids of the chunk, or null if they are corrupted
+     */
+    TeraArray getBlockData() {
+        try {
+            return ChunkSerializer.decodeBlockData(EntityData.RunLengthEncoding16.parseFrom(blockData));
+        } catch (InvalidProtocolBufferException e) {
+            logger.error("Failed to read the block data of saved chunk {}", chunkPosition, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void restoreEntities() {
+        try {
+            new EntityRestorer(entityManager).restore(EntityData.EntityStore.parseFrom(entityStore));
+        } catch (InvalidProtocolBufferException e) {
+            logger.error("Failed to read the entities of saved chunk {}", chunkPosition, e);
+        }
+    }
+}
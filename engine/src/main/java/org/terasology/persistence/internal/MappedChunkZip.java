@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Read-only access to a chunk zip that is mapped into memory.
+ * <br><br>
+ * The central directory gets indexed once, after which reading a chunk is a lookup and a copy (or inflate) out of the
+ * mapped file. Opening the zip as a {@link java.nio.file.FileSystem} for each chunk instead reads and parses the
+ * central directory every time.
+ * <br><br>
+ * Only what the save game writes is supported: stored or deflated entries, without zip64 extensions. Instances are
+ * thread safe.
+ * <br><br>
+ * The mapping holds on to the file until it is unmapped by {@link #close()}, or else until the buffer is garbage
+ * collected. Reads wait for close and vice versa, as reading an unmapped buffer crashes the JVM.
+ */
+final class MappedChunkZip implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedChunkZip.class);
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+    private static final int METHOD_STORED = 0;
+    private static final int METHOD_DEFLATED = 8;
+
+    private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, Entry> entries;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    private MappedChunkZip(MappedByteBuffer buffer, Map<String, Entry> entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    static MappedChunkZip open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return new MappedChunkZip(buffer, readCentralDirectory(buffer));
+    }
+
+    private static Map<String, Entry> readCentralDirectory(ByteBuffer zip) throws IOException {
+        int end = findEndOfCentralDirectory(zip);
+        int entryCount = zip.getShort(end + 10) & 0xFFFF;
+        long directoryOffset = zip.getInt(end + 16) & 0xFFFFFFFFL;
+        if (directoryOffset == ZIP64_MARKER || entryCount == 0xFFFF) {
+            throw new ZipException("Zip64 archives are not supported");
+        }
+
+        Map<String, Entry> result = Maps.newHashMapWithExpectedSize(entryCount);
+        int position = (int) directoryOffset;
+        for (int i = 0; i < entryCount; i++) {
+            if (position + CENTRAL_HEADER_SIZE > end || zip.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Corrupted central directory");
+            }
+            int method = zip.getShort(position + 10) & 0xFFFF;
+            long compressedSize = zip.getInt(position + 20) & 0xFFFFFFFFL;
+            long size = zip.getInt(position + 24) & 0xFFFFFFFFL;
+            int nameLength = zip.getShort(position + 28) & 0xFFFF;
+            int extraLength = zip.getShort(position + 30) & 0xFFFF;
+            int commentLength = zip.getShort(position + 32) & 0xFFFF;
+            long localHeaderOffset = zip.getInt(position + 42) & 0xFFFFFFFFL;
+            if (compressedSize == ZIP64_MARKER || size == ZIP64_MARKER || localHeaderOffset == ZIP64_MARKER) {
+                throw new ZipException("Zip64 archives are not supported");
+            }
+
+            byte[] name = new byte[nameLength];
+            ByteBuffer nameBuffer = zip.duplicate();
+            nameBuffer.position(position + CENTRAL_HEADER_SIZE);
+            nameBuffer.get(name);
+            result.put(new String(name, StandardCharsets.UTF_8),
+                    new Entry(method, (int) compressedSize, (int) size, (int) localHeaderOffset));
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return result;
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer zip) throws ZipException {
+        int last = zip.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        int first = Math.max(0, last - MAX_COMMENT_SIZE);
+        for (int position = last; position >= first; position--) {
+            if (zip.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new ZipException("Not a zip file");
+    }
+
+    /**
+     * @return The uncompressed content of the entry, or null if there is no such entry
+     * @throws ClosedChannelException If the zip has been closed
+     */
+    byte[] read(String name) throws IOException {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                throw new ClosedChannelException();
+            }
+            return read(name, entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Unmaps the zip once running reads have finished. Later reads fail.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                closed = true;
+                unmap(buffer);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Java offers no public way to unmap a buffer, so this uses the internal cleaner of the buffer: through
+     * sun.misc.Unsafe on Java 9 and later, and through the buffer's own cleaner on Java 8. If neither is available, the
+     * mapping stays until the buffer is garbage collected.
+     */
+    private static void unmap(MappedByteBuffer mappedBuffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), mappedBuffer);
+            return;
+        } catch (NoSuchMethodException e) {
+            // Java 8, handled below
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Unable to unmap a chunk zip, leaving it to the garbage collector", e);
+            return;
+        }
+        try {
+            Method cleanerMethod = mappedBuffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(mappedBuffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Unable to unmap a chunk zip, leaving it to the garbage collector", e);
+        }
+    }
+
+    private byte[] read(String name, Entry entry) throws IOException {
+        ByteBuffer zip = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (zip.getInt(entry.localHeaderOffset) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Corrupted local header of " + name);
+        }
+        // the lengths in the local header may differ from those in the central directory
+        int nameLength = zip.getShort(entry.localHeaderOffset + 26) & 0xFFFF;
+        int extraLength = zip.getShort(entry.localHeaderOffset + 28) & 0xFFFF;
+        int dataOffset = entry.localHeaderOffset + LOCAL_HEADER_SIZE + nameLength + extraLength;
+        if (dataOffset + entry.compressedSize > zip.limit()) {
+            throw new ZipException("Truncated data of " + name);
+        }
+
+        byte[] compressed = new byte[entry.compressedSize];
+        zip.position(dataOffset);
+        zip.get(compressed);
+        switch (entry.method) {
+            case METHOD_STORED:
+                return compressed;
+            case METHOD_DEFLATED:
+                return inflate(name, compressed, entry.size);
+            default:
+                throw new ZipException("Unsupported compression method " + entry.method + " of " + name);
+        }
+    }
+
+    private byte[] inflate(String name, byte[] compressed, int size) throws ZipException {
+        Inflater decompressor = inflater.get();
+        decompressor.reset();
+        decompressor.setInput(compressed);
+        byte[] result = new byte[size];
+        try {
+            int length = 0;
+            while (length < size) {
+                int inflated = decompressor.inflate(result, length, size - length);
+                if (inflated == 0 && (decompressor.needsInput() || decompressor.needsDictionary())) {
+                    throw new ZipException("Truncated data of " + name);
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupted data of " + name + ": " + e.getMessage());
+        }
+        return result;
+    }
+
+    private static final class Entry {
+        private final int method;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        Entry(int method, int compressedSize, int size, int localHeaderOffset) {
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
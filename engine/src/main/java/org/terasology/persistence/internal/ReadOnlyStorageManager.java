@@ -16,37 +16,145 @@
 
 package org.terasology.persistence.internal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.math.geom.Vector3i;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
+import org.terasology.persistence.ChunkStore;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.blockdata.ExtraBlockDataManager;
+import org.terasology.world.chunks.blockdata.TeraArray;
 
 import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * A {@link org.terasology.persistence.StorageManager} that performs reading only.
+ * <br><br>
+ * As the save game does not change underneath it, the chunk zips are mapped into memory and kept open for the chunks
+ * that follow. Loaded chunks are only decoded as far as they get used, see {@link LazyChunkStore}.
  */
 public final class ReadOnlyStorageManager extends AbstractStorageManager {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReadOnlyStorageManager.class);
+
+    /**
+     * The number of chunk zips that stay mapped. A zip covers 32x32x32 chunks, so this comfortably covers the view
+     * distance of a player or a map preview.
+     */
+    private static final int MAPPED_CHUNK_ZIPS = 16;
+
+    private final Map<Vector3i, MappedChunkZip> mappedChunkZips =
+            new LinkedHashMap<Vector3i, MappedChunkZip>(MAPPED_CHUNK_ZIPS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Vector3i, MappedChunkZip> eldest) {
+                    if (size() > MAPPED_CHUNK_ZIPS) {
+                        eldest.getValue().close();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager) {
-        this(savePath, environment, entityManager, blockManager, extraDataManager, true);
+        this(savePath, environment, entityManager, blockManager, extraDataManager, ChunkCodecs.GZIP);
+    }
+
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, ChunkCodec chunkCodec) {
+        this(savePath, environment, entityManager, blockManager, extraDataManager, true, chunkCodec);
     }
 
     public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
                                   BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips) {
-        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips);
+        this(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips, ChunkCodecs.GZIP);
+    }
+
+    public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager,
+                                  BlockManager blockManager, ExtraBlockDataManager extraDataManager, boolean storeChunksInZips,
+                                  ChunkCodec chunkCodec) {
+        super(savePath, environment, entityManager, blockManager, extraDataManager, storeChunksInZips, chunkCodec);
+    }
+
+    @Override
+    public ChunkStore loadChunkStore(Vector3i chunkPos) {
+        return loadLazyChunkStore(chunkPos);
+    }
+
+    /**
+     * Loads only the blocks of a saved chunk. This is all a preview of the world needs, and skips decoding the
+     * entities, the extra data and the lighting of the chunk.
+     *
+     * @return The block ids of the chunk, or null if the chunk has not been saved
+     */
+    public TeraArray loadBlockData(Vector3i chunkPos) {
+        LazyChunkStore store = loadLazyChunkStore(chunkPos);
+        return store != null ? store.getBlockData() : null;
+    }
+
+    private LazyChunkStore loadLazyChunkStore(Vector3i chunkPos) {
+        byte[] chunkData = loadCompressedChunk(chunkPos);
+        if (chunkData == null) {
+            return null;
+        }
+        try {
+            return LazyChunkStore.read(getChunkCodec().decompressToStream(chunkData), getEntityManager(),
+                    getBlockManager(), getExtraDataManager());
+        } catch (IOException e) {
+            logger.error("Failed to read existing saved chunk {}", chunkPos, e);
+            return null;
+        }
+    }
+
+    @Override
+    protected byte[] loadChunkZip(Vector3i chunkPos) {
+        Vector3i chunkZipPos = getStoragePathProvider().getChunkZipPosition(chunkPos);
+        while (true) {
+            MappedChunkZip chunkZip;
+            synchronized (mappedChunkZips) {
+                chunkZip = mappedChunkZips.get(chunkZipPos);
+                if (chunkZip == null) {
+                    Path chunkZipPath = getStoragePathProvider().getChunkZipPath(chunkZipPos);
+                    if (!Files.isRegularFile(chunkZipPath)) {
+                        return null;
+                    }
+                    try {
+                        chunkZip = MappedChunkZip.open(chunkZipPath);
+                    } catch (IOException e) {
+                        logger.warn("Unable to map chunk zip {}, reading it as a zip file system instead", chunkZipPath, e);
+                        return super.loadChunkZip(chunkPos);
+                    }
+                    mappedChunkZips.put(chunkZipPos, chunkZip);
+                }
+            }
+            try {
+                return chunkZip.read(getStoragePathProvider().getChunkFilename(chunkPos));
+            } catch (ClosedChannelException e) {
+                // evicted by another thread in the meantime, so the zip gets mapped again
+            } catch (IOException e) {
+                logger.error("Failed to load chunk {} from its chunk zip", chunkPos, e);
+                return null;
+            }
+        }
     }
 
     @Override
     public void finishSavingAndShutdown() {
-        // don't care
+        synchronized (mappedChunkZips) {
+            mappedChunkZips.values().forEach(MappedChunkZip::close);
+            mappedChunkZips.clear();
+        }
     }
 
     @Override
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A {@link ByteArrayOutputStream} that is meant to be {@link #reset()} and reused, and that can drop its buffer
+ * after it had to grow for an unusually large chunk.
+ */
+class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+    /**
+     * Buffers above this size are not kept around between uses.
+     */
+    static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_SIZE = 64 * 1024;
+
+    ReusableByteArrayOutputStream() {
+        super(INITIAL_SIZE);
+    }
+
+    /**
+     * @return The internal buffer, of which the first {@link #size()} bytes are valid
+     */
+    byte[] getBuffer() {
+        return buf;
+    }
+
+    void releaseIfOversized() {
+        if (buf.length > MAX_RETAINED_SIZE) {
+            buf = new byte[INITIAL_SIZE];
+        }
+        reset();
+    }
+}
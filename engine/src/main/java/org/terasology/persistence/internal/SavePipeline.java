@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the stages of a {@link SaveTransaction} (chunk compression, region and store writing) on a bounded pool of
+ * worker threads.
+ * <br><br>
+ * The work queue is bounded: once it is full, the submitting thread runs the stage itself. That way a save never
+ * buffers more than a few compressed chunks ahead of the writers, and the save thread helps out instead of idling.
+ * <br><br>
+ * The worker threads are shared by all saves and live as long as the game, so the per-thread compression workspaces
+ * of the {@link ChunkCodec}s are reused from save to save instead of being recreated and leaked with every pool.
+ * <br><br>
+ * The pipeline also counts the saved chunks and bytes, so the throughput of a save can be reported at its end.
+ */
+class SavePipeline implements AutoCloseable {
+
+    /**
+     * Work to run on the pipeline. Unlike a {@link java.util.concurrent.Callable} it may only throw IO exceptions.
+     */
+    @FunctionalInterface
+    interface Stage {
+        void run() throws IOException;
+    }
+
+    private static final int QUEUED_STAGES_PER_THREAD = 4;
+
+    private static final ThreadPoolExecutor SHARED_EXECUTOR = createExecutor(getDefaultThreadCount());
+
+    private final ExecutorService executor;
+    private final List<Future<?>> pendingStages = Lists.newArrayList();
+    // set once the pipeline is closed, so that stages which have not started yet are skipped
+    private volatile boolean aborted;
+
+    private final long startTime = System.nanoTime();
+    private final AtomicInteger chunkCount = new AtomicInteger();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    SavePipeline() {
+        this(SHARED_EXECUTOR);
+    }
+
+    /**
+     * @param executor the executor to run the stages on, which is not shut down by the pipeline
+     */
+    SavePipeline(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    static ThreadPoolExecutor createExecutor(int threadCount) {
+        return new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount * QUEUED_STAGES_PER_THREAD),
+                new ThreadFactoryBuilder().setNameFormat("Saving-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * @return A thread count that leaves one core for the game itself
+     */
+    static int getDefaultThreadCount() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * Schedules a stage. Blocks by running the stage on the calling thread if the pipeline is saturated.
+     */
+    void submit(Stage stage) {
+        pendingStages.add(executor.submit(() -> {
+            if (!aborted) {
+                stage.run();
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Waits for all submitted stages to finish.
+     *
+     * @throws IOException if any stage failed, in which case the remaining stages are left to {@link #close()}
+     */
+    void awaitCompletion() throws IOException {
+        try {
+            for (Future<?> stage : pendingStages) {
+                stage.get();
+            }
+            pendingStages.clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the save to be written");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    void recordChunkWritten(int sizeInBytes) {
+        chunkCount.incrementAndGet();
+        bytesWritten.addAndGet(sizeInBytes);
+    }
+
+    void recordBytesWritten(long sizeInBytes) {
+        bytesWritten.addAndGet(sizeInBytes);
+    }
+
+    int getChunkCount() {
+        return chunkCount.get();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * @return The time since the pipeline was created, in milliseconds
+     */
+    long getElapsedTimeMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Skips the stages that have not started yet and waits for the running ones, so that no stage is interrupted
+     * halfway through writing a file and nothing writes into the save once the transaction has given up on it.
+     */
+    @Override
+    public void close() {
+        aborted = true;
+        for (Future<?> stage : pendingStages) {
+            try {
+                Uninterruptibles.getUninterruptibly(stage);
+            } catch (ExecutionException e) {
+                // the first failure has already been reported by awaitCompletion
+            }
+        }
+        pendingStages.clear();
+    }
+}
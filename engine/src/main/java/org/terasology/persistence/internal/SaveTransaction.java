@@ -56,6 +56,7 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
@@ -63,6 +64,10 @@
 /**
  * Task that writes a previously created memory snapshot of the game to the disk.
  * <br><br>
+ * The chunks are compressed and written, per chunk or per chunk zip, on a {@link SavePipeline} while the entity stores
+ * are being built. All files end up in the unfinished save transaction directory, which only gets renamed and merged
+ * into the save game once everything has been written.
+ * <br><br>
  * The result of this task can be obtained via {@link #getResult()}.
  *
  */
@@ -88,9 +93,11 @@ public class SaveTransaction extends AbstractTask {
     private Map<String, EntityData.PlayerStore> allPlayers;
     private Map<Vector3i, CompressedChunkBuilder> allChunks;
 
+    private SavePipeline pipeline;
 
     // Save parameters:
     private final boolean storeChunksInZips;
+    private final ChunkCodec chunkCodec;
 
     // utility classes for saving:
     private final StoragePathProvider storagePathProvider;
@@ -110,7 +117,7 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
                            StoragePathProvider storagePathProvider, Lock worldDirectoryWriteLock,
                            RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
-                           RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
+                           RecordAndReplayCurrentStatus recordAndReplayCurrentStatus, ChunkCodec chunkCodec) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.unloadedPlayers = unloadedPlayers;
@@ -126,6 +133,7 @@ public SaveTransaction(EngineEntityManager privateEntityManager, EntitySetDeltaR
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
         this.recordAndReplayCurrentStatus = recordAndReplayCurrentStatus;
+        this.chunkCodec = chunkCodec;
     }
 
 
@@ -139,31 +147,43 @@ public void run() {
         if (isReplay()) {
             return;
         }
-        try {
+        try (SavePipeline savePipeline = new SavePipeline()) {
+            pipeline = savePipeline;
             if (Files.exists(storagePathProvider.getUnmergedChangesPath())) {
                 // should not happen, as initialization should clean it up
                 throw new IOException("Save rand while there were unmerged changes");
             }
             saveTransactionHelper.cleanupSaveTransactionDirectory();
             applyDeltaToPrivateEntityManager();
-            prepareChunksPlayersAndGlobalStore();
             createPreviewImagesFolder();
             createSaveTransactionDirectory();
+            prepareChunksPlayersAndGlobalStore();
             writePlayerStores();
             writeGlobalStore();
             writeChunkStores();
+            pipeline.awaitCompletion();
             saveGameManifest();
             perpareChangesForMerge();
             mergeChanges();
             result = SaveTransactionResult.createSuccessResult();
-            logger.info("Save game finished");
+            logSaveThroughput();
             saveRecordingData();
         } catch (IOException | RuntimeException t) {
             logger.error("Save game creation failed", t);
             result = SaveTransactionResult.createFailureResult(t);
+        } finally {
+            pipeline = null;
         }
     }
 
+    private void logSaveThroughput() {
+        long elapsedMs = Math.max(1, pipeline.getElapsedTimeMs());
+        int chunkCount = pipeline.getChunkCount();
+        double megabytes = pipeline.getBytesWritten() / (1024.0 * 1024.0);
+        logger.info(String.format(Locale.ENGLISH, "Save game finished: %d chunks, %.2f MB in %d ms (%.1f chunks/s, %.2f MB/s)",
+                chunkCount, megabytes, elapsedMs, chunkCount * 1000.0 / elapsedMs, megabytes * 1000.0 / elapsedMs));
+    }
+
     private void createPreviewImagesFolder() throws IOException {
         Files.createDirectories(storagePathProvider.getPreviewsPath());
     }
@@ -222,6 +242,7 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
 
         allChunks = Maps.newHashMap();
         allChunks.putAll(unloadedChunks);
+        unloadedChunks.values().forEach(this::compressInBackground);
         for (Map.Entry<Vector3i, ChunkImpl> chunkEntry : loadedChunks.entrySet()) {
             Collection<EntityRef> entitiesToStore = chunkPosToEntitiesMap.get(chunkEntry.getKey());
             if (entitiesToStore == null) {
@@ -230,12 +251,21 @@ private void prepareCompressedChunkBuilders(Set<EntityRef> unsavedEntities) {
             ChunkImpl chunk = chunkEntry.getValue();
             unsavedEntities.removeAll(entitiesToStore);
             CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(privateEntityManager, chunk,
-                    entitiesToStore, false);
+                    entitiesToStore, false, chunkCodec);
             unsavedEntities.removeAll(compressedChunkBuilder.getStoredEntities());
             allChunks.put(chunkEntry.getKey(), compressedChunkBuilder);
+            compressInBackground(compressedChunkBuilder);
         }
     }
 
+    /**
+     * Compresses the chunk on the pipeline, so that the compression overlaps with building the entity stores.
+     * The writers pick up the result, or compress the chunk themselves if they get to it first.
+     */
+    private void compressInBackground(CompressedChunkBuilder compressedChunkBuilder) {
+        pipeline.submit(compressedChunkBuilder::buildEncodedChunk);
+    }
+
     /**
      * @param unsavedEntities currently loaded persistent entities without owner that have not been saved yet.
      *                        This method removes entities it saves.
@@ -386,73 +416,88 @@ private void writePlayerStores() throws IOException {
         Files.createDirectories(storagePathProvider.getPlayersTempPath());
         for (Map.Entry<String, EntityData.PlayerStore> playerStoreEntry : allPlayers.entrySet()) {
             Path playerFile = storagePathProvider.getPlayerFileTempPath(playerStoreEntry.getKey());
-            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(playerFile))) {
-                playerStoreEntry.getValue().writeTo(out);
-            }
+            EntityData.PlayerStore playerStore = playerStoreEntry.getValue();
+            pipeline.submit(() -> {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(playerFile))) {
+                    playerStore.writeTo(out);
+                }
+                pipeline.recordBytesWritten(playerStore.getSerializedSize());
+            });
         }
     }
 
-    private void writeGlobalStore() throws IOException {
+    private void writeGlobalStore() {
         Path path = storagePathProvider.getGlobalEntityStoreTempPath();
-        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
-            globalStore.writeTo(out);
-        }
+        EntityData.GlobalStore store = globalStore;
+        pipeline.submit(() -> {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+                store.writeTo(out);
+            }
+            pipeline.recordBytesWritten(store.getSerializedSize());
+        });
     }
 
     private void writeChunkStores() throws IOException {
         Path chunksPath = storagePathProvider.getWorldTempPath();
         Files.createDirectories(chunksPath);
         if (storeChunksInZips) {
-            Map<Vector3i, FileSystem> newChunkZips = Maps.newHashMap();
+            Map<Vector3i, Map<Vector3i, CompressedChunkBuilder>> chunksByZip = Maps.newHashMap();
+            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
+                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(entry.getKey());
+                chunksByZip.computeIfAbsent(chunkZipPos, pos -> Maps.newHashMap()).put(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<Vector3i, Map<Vector3i, CompressedChunkBuilder>> zipEntry : chunksByZip.entrySet()) {
+                pipeline.submit(() -> writeChunkZip(zipEntry.getKey(), zipEntry.getValue()));
+            }
+        } else {
             for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
                 Vector3i chunkPos = entry.getKey();
-                Vector3i chunkZipPos = storagePathProvider.getChunkZipPosition(chunkPos);
-                FileSystem zip = newChunkZips.get(chunkZipPos);
-                if (zip == null) {
-                    Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
-                    Files.deleteIfExists(targetPath);
-                    zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS);
-                    newChunkZips.put(chunkZipPos, zip);
-                }
-                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(chunkPos));
                 CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
+                pipeline.submit(() -> {
+                    byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
+                    Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
+                        out.write(compressedChunk);
+                    }
+                    pipeline.recordChunkWritten(compressedChunk.length);
+                });
+            }
+        }
+    }
+
+    /**
+     * Writes the given chunks into a new version of the chunk zip, and copies the unmodified chunks over from the
+     * existing chunk zip.
+     */
+    private void writeChunkZip(Vector3i chunkZipPos, Map<Vector3i, CompressedChunkBuilder> chunks) throws IOException {
+        Path targetPath = storagePathProvider.getChunkZipTempPath(chunkZipPos);
+        Files.deleteIfExists(targetPath);
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + targetPath.toUri()), CREATE_ZIP_OPTIONS)) {
+            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : chunks.entrySet()) {
+                Path chunkPath = zip.getPath(storagePathProvider.getChunkFilename(entry.getKey()));
+                byte[] compressedChunk = entry.getValue().buildEncodedChunk();
                 try (BufferedOutputStream bos = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
                     bos.write(compressedChunk);
                 }
+                pipeline.recordChunkWritten(compressedChunk.length);
             }
-            // Copy existing, unmodified content into the zips and close them
-            for (Map.Entry<Vector3i, FileSystem> chunkZipEntry : newChunkZips.entrySet()) {
-                Vector3i chunkZipPos = chunkZipEntry.getKey();
-                Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
-                final FileSystem zip = chunkZipEntry.getValue();
-                if (Files.isRegularFile(oldChunkZipPath)) {
-                    try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
-                        for (Path root : oldZip.getRootDirectories()) {
-                            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
-                                @Override
-                                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
-                                        throws IOException {
-                                    if (!Files.isRegularFile(zip.getPath(file.toString()))) {
-                                        Files.copy(file, zip.getPath(file.toString()));
-                                    }
-                                    return FileVisitResult.CONTINUE;
+            // Copy existing, unmodified content into the zip
+            Path oldChunkZipPath = storagePathProvider.getChunkZipPath(chunkZipPos);
+            if (Files.isRegularFile(oldChunkZipPath)) {
+                try (FileSystem oldZip = FileSystems.newFileSystem(oldChunkZipPath, null)) {
+                    for (Path root : oldZip.getRootDirectories()) {
+                        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                            @Override
+                            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                                    throws IOException {
+                                if (!Files.isRegularFile(zip.getPath(file.toString()))) {
+                                    Files.copy(file, zip.getPath(file.toString()));
                                 }
-                            });
-                        }
+                                return FileVisitResult.CONTINUE;
+                            }
+                        });
                     }
                 }
-                zip.close();
-            }
-        } else {
-            for (Map.Entry<Vector3i, CompressedChunkBuilder> entry : allChunks.entrySet()) {
-                Vector3i chunkPos = entry.getKey();
-                CompressedChunkBuilder compressedChunkBuilder = entry.getValue();
-                byte[] compressedChunk = compressedChunkBuilder.buildEncodedChunk();
-                Path chunkPath = storagePathProvider.getChunkTempPath(chunkPos);
-                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(chunkPath))) {
-                    out.write(compressedChunk);
-                }
             }
         }
     }
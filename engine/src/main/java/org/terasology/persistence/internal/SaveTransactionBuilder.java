@@ -43,6 +43,7 @@ class SaveTransactionBuilder {
     private GlobalStoreBuilder globalStoreBuilder;
     private final boolean storeChunksInZips;
     private final StoragePathProvider storagePathProvider;
+    private final ChunkCodec chunkCodec;
     private GameManifest gameManifest;
     private RecordAndReplaySerializer recordAndReplaySerializer;
     private RecordAndReplayUtils recordAndReplayUtils;
@@ -52,7 +53,7 @@ class SaveTransactionBuilder {
                            boolean storeChunksInZips, StoragePathProvider storagePathProvider,
                            Lock worldDirectoryWriteLock, RecordAndReplaySerializer recordAndReplaySerializer,
                            RecordAndReplayUtils recordAndReplayUtils,
-                           RecordAndReplayCurrentStatus recordAndReplayCurrentStatus) {
+                           RecordAndReplayCurrentStatus recordAndReplayCurrentStatus, ChunkCodec chunkCodec) {
         this.privateEntityManager = privateEntityManager;
         this.deltaToSave = deltaToSave;
         this.storeChunksInZips = storeChunksInZips;
@@ -61,6 +62,7 @@ class SaveTransactionBuilder {
         this.recordAndReplaySerializer = recordAndReplaySerializer;
         this.recordAndReplayUtils = recordAndReplayUtils;
         this.recordAndReplayCurrentStatus = recordAndReplayCurrentStatus;
+        this.chunkCodec = chunkCodec;
     }
 
     public void addUnloadedPlayer(String id, EntityData.PlayerStore unloadedPlayer) {
@@ -87,7 +89,8 @@ void addLoadedChunk(final Vector3i chunkPosition, final ChunkImpl chunk) {
     public SaveTransaction build() {
         return new SaveTransaction(privateEntityManager, deltaToSave, unloadedPlayers, loadedPlayers, globalStoreBuilder,
                 unloadedChunks, loadedChunks, gameManifest, storeChunksInZips, storagePathProvider,
-                worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus);
+                worldDirectoryWriteLock, recordAndReplaySerializer, recordAndReplayUtils, recordAndReplayCurrentStatus,
+                chunkCodec);
 
     }
 
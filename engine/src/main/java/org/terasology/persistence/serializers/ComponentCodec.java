@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.serializers;
+
+import com.google.common.base.Objects;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector2i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.persistence.typeHandling.PersistedData;
+import org.terasology.persistence.typeHandling.Serializer;
+import org.terasology.persistence.typeHandling.TypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.BooleanTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.CollectionTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.DoubleTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.EnumTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.FloatTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.IntTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.LongTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.RuntimeDelegatingTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.StringTypeHandler;
+import org.terasology.persistence.typeHandling.extensionTypes.ColorTypeHandler;
+import org.terasology.persistence.typeHandling.extensionTypes.EntityRefTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Quat4fTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector2fTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector2iTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector3fTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector3iTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector4fTypeHandler;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedDataSerializer;
+import org.terasology.protobuf.EntityData;
+import org.terasology.rendering.nui.Color;
+
+import java.util.Collection;
+
+/**
+ * A ComponentCodec writes the fields of a single component type straight into protobuf values.
+ * <br><br>
+ * A codec is compiled per component type from the {@link Serializer} of that type, and is compiled again once the type
+ * handler library hands out a new serializer for the type, see {@link #isCompiledFrom(Serializer)}. Fields that are
+ * handled by one of the core type handlers (primitives, strings, enums, vectors, colors, entity refs and collections of these) get a
+ * writer that builds the {@link EntityData.Value} directly from the field value, skipping the intermediate
+ * {@link PersistedData} objects. All other fields fall back to their {@link TypeHandler}, so the produced data is the
+ * same as that of the plain serializer.
+ *
+ */
+public final class ComponentCodec {
+
+    private static final ProtobufPersistedDataSerializer FALLBACK_SERIALIZER = new ProtobufPersistedDataSerializer();
+
+    private final ComponentMetadata<?> componentMetadata;
+    private final Serializer serializer;
+    private final ReplicatedFieldMetadata<?, ?>[] fields;
+    private final ValueWriter[] writers;
+
+    private ComponentCodec(ComponentMetadata<?> componentMetadata, Serializer serializer, ReplicatedFieldMetadata<?, ?>[] fields,
+                           ValueWriter[] writers) {
+        this.componentMetadata = componentMetadata;
+        this.serializer = serializer;
+        this.fields = fields;
+        this.writers = writers;
+    }
+
+    /**
+     * Compiles a codec for the given component type.
+     *
+     * @param componentMetadata The metadata of the component type
+     * @param serializer        The serializer providing the type handler of each field
+     * @return The compiled codec
+     */
+    public static ComponentCodec compile(ComponentMetadata<?> componentMetadata, Serializer serializer) {
+        int fieldCount = componentMetadata.getFieldCount();
+        ReplicatedFieldMetadata<?, ?>[] fields = new ReplicatedFieldMetadata<?, ?>[fieldCount];
+        ValueWriter[] writers = new ValueWriter[fieldCount];
+        int index = 0;
+        for (ReplicatedFieldMetadata<?, ?> field : componentMetadata.getFields()) {
+            fields[index] = field;
+            TypeHandler<?> handler = serializer.getHandlerFor(field);
+            if (handler != null) {
+                ValueWriter writer = createDirectWriter(handler);
+                writers[index] = (writer != null) ? writer : createFallbackWriter(handler);
+            }
+            index++;
+        }
+        return new ComponentCodec(componentMetadata, serializer, fields, writers);
+    }
+
+    public ComponentMetadata<?> getComponentMetadata() {
+        return componentMetadata;
+    }
+
+    /**
+     * The type handler library replaces its serializers when type handlers are added, so a codec compiled from an
+     * older serializer may use outdated type handlers.
+     *
+     * @param currentSerializer The serializer the type handler library currently provides for the component type
+     * @return Whether this codec was compiled from that serializer
+     */
+    public boolean isCompiledFrom(Serializer currentSerializer) {
+        return serializer == currentSerializer;
+    }
+
+    /**
+     * @return The number of fields of the component type
+     */
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * @param index The index of the field, in the iteration order of the component metadata
+     * @return The metadata of the field
+     */
+    public ReplicatedFieldMetadata<?, ?> getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * @param index The index of the field
+     * @return Whether there is a type handler for the field
+     */
+    public boolean canWriteField(int index) {
+        return writers[index] != null;
+    }
+
+    /**
+     * Writes the given value of a field.
+     *
+     * @param index The index of the field
+     * @param value The value of the field, may be null
+     * @return The serialized value, or null if there is nothing to write (null value, no type handler or a value that
+     * serializes to null)
+     */
+    public EntityData.Value writeField(int index, Object value) {
+        ValueWriter writer = writers[index];
+        if (value == null || writer == null) {
+            return null;
+        }
+        EntityData.Value result = writer.write(value);
+        if (result == null || ProtobufPersistedData.isNull(result)) {
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Serializes all fields of a component that pass the check into the component message.
+     *
+     * @param component     The component to serialize
+     * @param check         A check to use to see if each field should be serialized
+     * @param usingFieldIds Whether to identify the fields by id rather than by name
+     * @param out           The message to add the fields to
+     */
+    public void serialize(Component component, FieldSerializeCheck<Component> check, boolean usingFieldIds, EntityData.Component.Builder out) {
+        for (int i = 0; i < fields.length; ++i) {
+            ReplicatedFieldMetadata<?, ?> field = fields[i];
+            if (check.shouldSerializeField(field, component)) {
+                EntityData.Value value = writeField(i, field.getValue(component));
+                if (value != null) {
+                    addField(out, field, value, usingFieldIds);
+                }
+            }
+        }
+    }
+
+    /**
+     * Serializes the fields in which delta differs from base into the component message.
+     *
+     * @param base          The base component to compare against
+     * @param delta         The component whose differences will be serialized
+     * @param check         A check to use to see if each field should be serialized
+     * @param usingFieldIds Whether to identify the fields by id rather than by name
+     * @param out           The message to add the fields to
+     * @return Whether any field was written
+     */
+    public boolean serializeDelta(Component base, Component delta, FieldSerializeCheck<Component> check, boolean usingFieldIds,
+                                  EntityData.Component.Builder out) {
+        boolean changed = false;
+        for (int i = 0; i < fields.length; ++i) {
+            ReplicatedFieldMetadata<?, ?> field = fields[i];
+            if (check.shouldSerializeField(field, delta) && writers[i] != null) {
+                Object origValue = field.getValue(base);
+                Object deltaValue = field.getValue(delta);
+                if (!Objects.equal(origValue, deltaValue)) {
+                    EntityData.Value value = writeField(i, deltaValue);
+                    if (value != null) {
+                        addField(out, field, value, usingFieldIds);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static void addField(EntityData.Component.Builder out, ReplicatedFieldMetadata<?, ?> field, EntityData.Value value, boolean usingFieldIds) {
+        if (usingFieldIds) {
+            out.addField(EntityData.NameValue.newBuilder().setNameIndex(field.getId()).setValue(value));
+        } else {
+            out.addField(EntityData.NameValue.newBuilder().setName(field.getName()).setValue(value));
+        }
+    }
+
+    /**
+     * Only the exact core handler classes are replaced, so that modules overriding or extending a handler keep their behaviour.
+     */
+    private static ValueWriter createDirectWriter(TypeHandler<?> handler) {
+        Class<?> handlerType = handler.getClass();
+        if (handlerType == FloatTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addFloat((Float) value).build();
+        } else if (handlerType == IntTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addInteger((Integer) value).build();
+        } else if (handlerType == LongTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addLong((Long) value).build();
+        } else if (handlerType == DoubleTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addDouble((Double) value).build();
+        } else if (handlerType == BooleanTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addBoolean((Boolean) value).build();
+        } else if (handlerType == StringTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addString((String) value).build();
+        } else if (handlerType == EnumTypeHandler.class) {
+            return value -> EntityData.Value.newBuilder().addString(value.toString()).build();
+        } else if (handlerType == Vector3fTypeHandler.class) {
+            return value -> {
+                Vector3f v = (Vector3f) value;
+                return EntityData.Value.newBuilder().addFloat(v.x).addFloat(v.y).addFloat(v.z).build();
+            };
+        } else if (handlerType == Quat4fTypeHandler.class) {
+            return value -> {
+                Quat4f q = (Quat4f) value;
+                return EntityData.Value.newBuilder().addFloat(q.x).addFloat(q.y).addFloat(q.z).addFloat(q.w).build();
+            };
+        } else if (handlerType == Vector2fTypeHandler.class) {
+            return value -> {
+                Vector2f v = (Vector2f) value;
+                return EntityData.Value.newBuilder().addFloat(v.x).addFloat(v.y).build();
+            };
+        } else if (handlerType == Vector4fTypeHandler.class) {
+            return value -> {
+                Vector4f v = (Vector4f) value;
+                return EntityData.Value.newBuilder().addFloat(v.x).addFloat(v.y).addFloat(v.z).addFloat(v.w).build();
+            };
+        } else if (handlerType == Vector3iTypeHandler.class) {
+            return value -> {
+                Vector3i v = (Vector3i) value;
+                return EntityData.Value.newBuilder().addInteger(v.x).addInteger(v.y).addInteger(v.z).build();
+            };
+        } else if (handlerType == Vector2iTypeHandler.class) {
+            return value -> {
+                Vector2i v = (Vector2i) value;
+                return EntityData.Value.newBuilder().addInteger(v.x).addInteger(v.y).build();
+            };
+        } else if (handlerType == ColorTypeHandler.class) {
+            return value -> {
+                Color c = (Color) value;
+                return EntityData.Value.newBuilder().addInteger(c.r()).addInteger(c.g()).addInteger(c.b()).addInteger(c.a()).build();
+            };
+        } else if (handlerType == EntityRefTypeHandler.class) {
+            return value -> {
+                EntityRef entity = (EntityRef) value;
+                if (entity.exists() && entity.isPersistent()) {
+                    return EntityData.Value.newBuilder().addLong(entity.getId()).build();
+                }
+                return null;
+            };
+        } else if (handlerType == RuntimeDelegatingTypeHandler.class) {
+            RuntimeDelegatingTypeHandler<?> runtimeHandler = (RuntimeDelegatingTypeHandler<?>) handler;
+            TypeHandler<?> delegateHandler = runtimeHandler.getDelegateHandler();
+            ValueWriter delegateWriter = (delegateHandler != null) ? createDirectWriter(delegateHandler) : null;
+            if (delegateWriter != null) {
+                // Values of exactly the declared type are written by the delegate, anything more specific needs the type information
+                Class<?> declaredType = runtimeHandler.getTypeInfo().getRawType();
+                ValueWriter runtimeWriter = createFallbackWriter(handler);
+                return value -> (value.getClass() == declaredType) ? delegateWriter.write(value) : runtimeWriter.write(value);
+            }
+        } else if (handlerType == CollectionTypeHandler.class) {
+            TypeHandler<?> elementHandler = ((CollectionTypeHandler<?>) handler).getElementTypeHandler();
+            ValueWriter elementWriter = (elementHandler != null) ? createDirectWriter(elementHandler) : null;
+            if (elementWriter != null) {
+                return value -> {
+                    EntityData.Value.Builder builder = EntityData.Value.newBuilder();
+                    for (Object element : (Collection<?>) value) {
+                        EntityData.Value elementValue = (element != null) ? elementWriter.write(element) : null;
+                        builder.addValue((elementValue != null) ? elementValue : EntityData.Value.getDefaultInstance());
+                    }
+                    return builder.build();
+                };
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ValueWriter createFallbackWriter(TypeHandler<?> handler) {
+        TypeHandler<Object> objectHandler = (TypeHandler<Object>) handler;
+        return value -> ((ProtobufPersistedData) objectHandler.serialize(value, FALLBACK_SERIALIZER)).getValue();
+    }
+
+    /**
+     * Writes a single non-null field value. May return null if the value serializes to nothing.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        EntityData.Value write(Object value);
+    }
+}
@@ -16,7 +16,6 @@
 
 package org.terasology.persistence.serializers;
 
-import com.google.common.base.Objects;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
@@ -26,17 +25,16 @@
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
 import org.terasology.entitySystem.metadata.ComponentMetadata;
-import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.module.Module;
 import org.terasology.persistence.typeHandling.PersistedData;
 import org.terasology.persistence.typeHandling.Serializer;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
-import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedDataSerializer;
 import org.terasology.protobuf.EntityData;
 import org.terasology.reflection.metadata.FieldMetadata;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * ComponentSerializer provides the ability to serialize and deserialize between Components and the protobuf
@@ -46,6 +44,9 @@
  * than the names of each component, saving some space.
  * <br><br>
  * When serializing, a FieldSerializeCheck can be provided to determine whether each field should be serialized or not
+ * <br><br>
+ * Serialization goes through a {@link ComponentCodec} compiled for each component type, which writes the protobuf values
+ * directly from the fields of the component.
  *
  */
 public class ComponentSerializer {
@@ -56,7 +57,7 @@ public class ComponentSerializer {
     private BiMap<Class<? extends Component>, Integer> idTable = ImmutableBiMap.<Class<? extends Component>, Integer>builder().build();
     private boolean usingFieldIds;
     private TypeHandlerLibrary typeHandlerLibrary;
-    private ProtobufPersistedDataSerializer serializationContext;
+    private final ConcurrentMap<ComponentMetadata<?>, ComponentCodec> codecs = Maps.newConcurrentMap();
 
     /**
      * Creates the component serializer.
@@ -66,7 +67,6 @@ public class ComponentSerializer {
     public ComponentSerializer(ComponentLibrary componentLibrary, TypeHandlerLibrary typeHandlerLibrary) {
         this.componentLibrary = componentLibrary;
         this.typeHandlerLibrary = typeHandlerLibrary;
-        this.serializationContext = new ProtobufPersistedDataSerializer();
     }
 
     public void setUsingFieldIds(boolean usingFieldIds) {
@@ -224,21 +224,7 @@ public EntityData.Component serialize(Component component, FieldSerializeCheck<C
         }
         EntityData.Component.Builder componentMessage = EntityData.Component.newBuilder();
         serializeComponentType(componentMetadata, componentMessage);
-
-        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
-        for (ReplicatedFieldMetadata<?, ?> field : componentMetadata.getFields()) {
-            if (check.shouldSerializeField(field, component)) {
-                PersistedData result = serializer.serialize(field, component, serializationContext);
-                if (!result.isNull()) {
-                    EntityData.Value itemValue = ((ProtobufPersistedData) result).getValue();
-                    if (usingFieldIds) {
-                        componentMessage.addField(EntityData.NameValue.newBuilder().setNameIndex(field.getId()).setValue(itemValue));
-                    } else {
-                        componentMessage.addField(EntityData.NameValue.newBuilder().setName(field.getName()).setValue(itemValue));
-                    }
-                }
-            }
-        }
+        getCodecFor(componentMetadata).serialize(component, check, usingFieldIds, componentMessage);
 
         return componentMessage.build();
     }
@@ -281,27 +267,7 @@ public EntityData.Component serialize(Component base, Component delta, FieldSeri
         EntityData.Component.Builder componentMessage = EntityData.Component.newBuilder();
         serializeComponentType(componentMetadata, componentMessage);
 
-        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
-        boolean changed = false;
-        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
-            if (check.shouldSerializeField(field, delta) && serializer.getHandlerFor(field) != null) {
-                Object origValue = field.getValue(base);
-                Object deltaValue = field.getValue(delta);
-
-                if (!Objects.equal(origValue, deltaValue)) {
-                    PersistedData value = serializer.serializeValue(field, deltaValue, serializationContext);
-                    if (!value.isNull()) {
-                        EntityData.Value dataValue = ((ProtobufPersistedData) value).getValue();
-                        if (usingFieldIds) {
-                            componentMessage.addField(EntityData.NameValue.newBuilder().setNameIndex(field.getId()).setValue(dataValue).build());
-                        } else {
-                            componentMessage.addField(EntityData.NameValue.newBuilder().setName(field.getName()).setValue(dataValue).build());
-                        }
-                        changed = true;
-                    }
-                }
-            }
-        }
+        boolean changed = getCodecFor(componentMetadata).serializeDelta(base, delta, check, usingFieldIds, componentMessage);
 
         if (changed) {
             return componentMessage.build();
@@ -310,6 +276,21 @@ public EntityData.Component serialize(Component base, Component delta, FieldSeri
         return null;
     }
 
+    /**
+     * @param componentMetadata The component type
+     * @return The codec used to serialize components of the given type
+     */
+    public ComponentCodec getCodecFor(ComponentMetadata<?> componentMetadata) {
+        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
+        ComponentCodec codec = codecs.get(componentMetadata);
+        if (codec == null || !codec.isCompiledFrom(serializer)) {
+            // New or changed type handlers, which the library publishes as a new serializer
+            codec = ComponentCodec.compile(componentMetadata, serializer);
+            codecs.put(componentMetadata, codec);
+        }
+        return codec;
+    }
+
     /**
      * Determines the component class that the serialized component is for.
      *
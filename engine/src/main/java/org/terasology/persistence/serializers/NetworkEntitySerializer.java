@@ -20,6 +20,7 @@
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.protobuf.ByteString;
@@ -34,15 +35,14 @@
 import org.terasology.entitySystem.metadata.ComponentMetadata;
 import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.entitySystem.prefab.Prefab;
-import org.terasology.persistence.typeHandling.PersistedData;
 import org.terasology.persistence.typeHandling.Serializer;
 import org.terasology.persistence.typeHandling.TypeHandlerLibrary;
 import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
-import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedDataSerializer;
 import org.terasology.protobuf.EntityData;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  */
@@ -53,14 +53,13 @@ public class NetworkEntitySerializer {
     private EngineEntityManager entityManager;
     private ComponentLibrary componentLibrary;
     private TypeHandlerLibrary typeHandlerLibrary;
-    private ProtobufPersistedDataSerializer serializationContext;
     private BiMap<Class<? extends Component>, Integer> idTable = ImmutableBiMap.<Class<? extends Component>, Integer>builder().build();
+    private final ConcurrentMap<ComponentMetadata<?>, ComponentCodec> codecs = Maps.newConcurrentMap();
 
     public NetworkEntitySerializer(EngineEntityManager entityManager, ComponentLibrary componentLibrary, TypeHandlerLibrary typeHandlerLibrary) {
         this.entityManager = entityManager;
         this.componentLibrary = componentLibrary;
         this.typeHandlerLibrary = typeHandlerLibrary;
-        this.serializationContext = new ProtobufPersistedDataSerializer();
     }
 
     public void setComponentSerializeCheck(ComponentSerializeCheck componentSerializeCheck) {
@@ -148,16 +147,17 @@ private void serializeComponentDelta(Component oldComponent, Component newCompon
         }
 
         byte fieldCount = 0;
-        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
-        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+        ComponentCodec codec = getCodecFor(componentMetadata);
+        for (int i = 0; i < codec.getFieldCount(); ++i) {
+            ReplicatedFieldMetadata<?, ?> field = codec.getField(i);
             if (fieldCheck.shouldSerializeField(field, newComponent, componentInitial)) {
                 Object oldValue = field.getValue(oldComponent);
                 Object newValue = field.getValue(newComponent);
                 if (!Objects.equal(oldValue, newValue)) {
-                    PersistedData data = serializer.serializeValue(field, newValue, serializationContext);
-                    if (!data.isNull()) {
+                    EntityData.Value data = codec.writeField(i, newValue);
+                    if (data != null) {
                         entityFieldIds.write(field.getId());
-                        entityData.addFieldValue(((ProtobufPersistedData) data).getValue());
+                        entityData.addFieldValue(data);
                         fieldCount++;
                     } else {
                         logger.error("Exception serializing component type: {}, field: {} - returned null", componentMetadata, field);
@@ -181,14 +181,15 @@ private void serializeComponentFull(Component component, boolean ignoreIfNoField
             return;
         }
 
-        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
+        ComponentCodec codec = getCodecFor(componentMetadata);
         byte fieldCount = 0;
-        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+        for (int i = 0; i < codec.getFieldCount(); ++i) {
+            ReplicatedFieldMetadata<?, ?> field = codec.getField(i);
             if (fieldCheck.shouldSerializeField(field, component, componentInitial)) {
-                PersistedData fieldValue = serializer.serialize(field, component, serializationContext);
+                EntityData.Value fieldValue = codec.writeField(i, field.getValue(component));
                 entityFieldIds.write(field.getId());
 
-                entityData.addFieldValue(((ProtobufPersistedData) fieldValue).getValue());
+                entityData.addFieldValue((fieldValue != null) ? fieldValue : EntityData.Value.getDefaultInstance());
                 fieldCount++;
             }
         }
@@ -199,6 +200,17 @@ private void serializeComponentFull(Component component, boolean ignoreIfNoField
         }
     }
 
+    private ComponentCodec getCodecFor(ComponentMetadata<?> componentMetadata) {
+        Serializer serializer = typeHandlerLibrary.getSerializerFor(componentMetadata);
+        ComponentCodec codec = codecs.get(componentMetadata);
+        if (codec == null || !codec.isCompiledFrom(serializer)) {
+            // New or changed type handlers, which the library publishes as a new serializer
+            codec = ComponentCodec.compile(componentMetadata, serializer);
+            codecs.put(componentMetadata, codec);
+        }
+        return codec;
+    }
+
     public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedEntity entityData) {
         deserializeOnto(entity, entityData, FieldSerializeCheck.NullCheck.<Component>newInstance());
     }
@@ -16,7 +16,7 @@
 
 package org.terasology.persistence.typeHandling;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import org.reflections.Reflections;
 import org.slf4j.Logger;
@@ -78,20 +78,30 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A library of type handlers. This is used for the construction of class metadata.
  * This library should be initialised by adding a number of base type handlers, describing how to serialize each supported type.
  * It will then produce serializers for classes (through their ClassMetadata) on request.
+ * <p>
+ * Lookups are safe to perform from multiple threads. Resolved type handlers and serializers are kept in immutable snapshot
+ * maps that are read without locking; a new snapshot is published whenever an entry is added, and the snapshots are reset
+ * whenever a new {@link TypeHandlerFactory} is registered.
  */
 public class TypeHandlerLibrary {
     private static final Logger logger = LoggerFactory.getLogger(TypeHandlerLibrary.class);
 
     private SerializationSandbox sandbox;
 
-    private List<TypeHandlerFactory> typeHandlerFactories = Lists.newArrayList();
+    private final List<TypeHandlerFactory> typeHandlerFactories = new CopyOnWriteArrayList<>();
 
-    private Map<TypeInfo<?>, TypeHandler<?>> typeHandlerCache = Maps.newHashMap();
+    /**
+     * Guards the publication of new cache snapshots. Readers never take this lock.
+     */
+    private final Object cacheLock = new Object();
+
+    private volatile Map<TypeInfo<?>, TypeHandler<?>> typeHandlerCache = ImmutableMap.of();
 
     /**
      * In certain object graphs, creating a {@link TypeHandler} for a type may recursively
@@ -102,10 +112,10 @@ public class TypeHandlerLibrary {
      */
     private final ThreadLocal<Map<TypeInfo<?>, FutureTypeHandler<?>>> futureTypeHandlers = new ThreadLocal<>();
 
-    private Map<Type, InstanceCreator<?>> instanceCreators = Maps.newHashMap();
+    private final Map<Type, InstanceCreator<?>> instanceCreators = Maps.newConcurrentMap();
     private ConstructorLibrary constructorLibrary;
 
-    private Map<ClassMetadata<?, ?>, Serializer> serializerMap = Maps.newHashMap();
+    private volatile Map<ClassMetadata<?, ?>, Serializer> serializerMap = ImmutableMap.of();
 
     private TypeHandlerLibrary(SerializationSandbox sandbox) {
         this.sandbox = sandbox;
@@ -209,10 +219,21 @@ private static void populateWithDefaultHandlers(TypeHandlerLibrary serialization
      */
     public Serializer getSerializerFor(ClassMetadata<?, ?> type) {
         Serializer serializer = serializerMap.get(type);
-        if (serializer == null) {
-            Map<FieldMetadata<?, ?>, TypeHandler> fieldHandlerMap = getFieldHandlerMap(type);
-            serializer = new Serializer(type, fieldHandlerMap);
-            serializerMap.put(type, serializer);
+        if (serializer != null) {
+            return serializer;
+        }
+
+        Map<FieldMetadata<?, ?>, TypeHandler> fieldHandlerMap = getFieldHandlerMap(type);
+        synchronized (cacheLock) {
+            // Another thread may have published a serializer for this type in the meantime, keep using that one
+            serializer = serializerMap.get(type);
+            if (serializer == null) {
+                serializer = new Serializer(type, fieldHandlerMap);
+                serializerMap = ImmutableMap.<ClassMetadata<?, ?>, Serializer>builder()
+                        .putAll(serializerMap)
+                        .put(type, serializer)
+                        .build();
+            }
         }
         return serializer;
     }
@@ -222,7 +243,12 @@ public Serializer getSerializerFor(ClassMetadata<?, ?> type) {
      * added later are given a higher priority during {@link TypeHandler} generation.
      */
     public void addTypeHandlerFactory(TypeHandlerFactory typeHandlerFactory) {
-        typeHandlerFactories.add(typeHandlerFactory);
+        synchronized (cacheLock) {
+            typeHandlerFactories.add(typeHandlerFactory);
+            // The new factory may take precedence for types that were already resolved
+            typeHandlerCache = ImmutableMap.of();
+            serializerMap = ImmutableMap.of();
+        }
     }
 
     /**
@@ -339,12 +365,13 @@ public <T> Optional<TypeHandler<T>> getTypeHandler(Class<T> typeClass) {
      */
     @SuppressWarnings("unchecked")
     public <T> Optional<TypeHandler<T>> getTypeHandler(TypeInfo<T> type) {
-        TypeHandlerContext context = new TypeHandlerContext(this, sandbox);
-
-        if (typeHandlerCache.containsKey(type)) {
-            return Optional.of((TypeHandler<T>) typeHandlerCache.get(type));
+        TypeHandler<T> cachedHandler = (TypeHandler<T>) typeHandlerCache.get(type);
+        if (cachedHandler != null) {
+            return Optional.of(cachedHandler);
         }
 
+        TypeHandlerContext context = new TypeHandlerContext(this, sandbox);
+
         Map<TypeInfo<?>, FutureTypeHandler<?>> futures = futureTypeHandlers.get();
         boolean cleanupFutureTypeHandlers = false;
 
@@ -376,7 +403,7 @@ public <T> Optional<TypeHandler<T>> getTypeHandler(TypeInfo<T> type) {
                         continue;
                     }
 
-                    typeHandlerCache.put(type, handler);
+                    handler = cacheTypeHandler(type, handler);
                     future.typeHandler = handler;
 
                     return Optional.of(handler);
@@ -407,6 +434,26 @@ public <T> TypeHandler<T> getBaseTypeHandler(TypeInfo<T> typeInfo) {
         return new RuntimeDelegatingTypeHandler<>(delegateHandler, typeInfo, context);
     }
 
+    /**
+     * Publishes a new snapshot of the type handler cache containing the given handler.
+     *
+     * @return The handler that is cached for the type, which is the given handler unless another thread got there first
+     */
+    @SuppressWarnings("unchecked")
+    private <T> TypeHandler<T> cacheTypeHandler(TypeInfo<T> type, TypeHandler<T> handler) {
+        synchronized (cacheLock) {
+            TypeHandler<T> existing = (TypeHandler<T>) typeHandlerCache.get(type);
+            if (existing != null) {
+                return existing;
+            }
+            typeHandlerCache = ImmutableMap.<TypeInfo<?>, TypeHandler<?>>builder()
+                    .putAll(typeHandlerCache)
+                    .put(type, handler)
+                    .build();
+            return handler;
+        }
+    }
+
     private Map<FieldMetadata<?, ?>, TypeHandler> getFieldHandlerMap(ClassMetadata<?, ?> type) {
         Map<FieldMetadata<?, ?>, TypeHandler> handlerMap = Maps.newHashMap();
         for (FieldMetadata<?, ?> field : type.getFields()) {
@@ -34,6 +34,13 @@ public CollectionTypeHandler(TypeHandler<E> elementTypeHandler, ObjectConstructo
         this.constructor = constructor;
     }
 
+    /**
+     * @return The handler used for the elements of the collection
+     */
+    public TypeHandler<E> getElementTypeHandler() {
+        return elementTypeHandler;
+    }
+
     @Override
     public PersistedData serializeNonNull(Collection<E> value, PersistedDataSerializer serializer) {
         List<PersistedData> items = Lists.newArrayList();
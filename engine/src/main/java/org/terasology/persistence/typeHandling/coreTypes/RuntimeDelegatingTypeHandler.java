@@ -59,6 +59,20 @@ public RuntimeDelegatingTypeHandler(TypeHandler<T> delegateHandler, TypeInfo<T>
         this.sandbox = context.getSandbox();
     }
 
+    /**
+     * @return The handler used for values whose runtime type is the declared type, may be null
+     */
+    public TypeHandler<T> getDelegateHandler() {
+        return delegateHandler;
+    }
+
+    /**
+     * @return The declared type handled by this handler
+     */
+    public TypeInfo<T> getTypeInfo() {
+        return typeInfo;
+    }
+
     @SuppressWarnings({"unchecked"})
     @Override
     public PersistedData serializeNonNull(T value, PersistedDataSerializer serializer) {
@@ -223,8 +223,16 @@ public boolean isValueMap() {
 
     @Override
     public boolean isNull() {
-        return !data.hasBytes() && data.getBooleanCount() + data.getFloatCount() + data.getDoubleCount() + data.getIntegerCount() + data.getLongCount()
-                + data.getStringCount() + data.getValueCount() + data.getNameValueCount() == 0;
+        return isNull(data);
+    }
+
+    /**
+     * @param value The protobuf value to check
+     * @return Whether the value holds no data at all, as produced by {@link ProtobufPersistedDataSerializer#serializeNull()}
+     */
+    public static boolean isNull(EntityData.Value value) {
+        return !value.hasBytes() && value.getBooleanCount() + value.getFloatCount() + value.getDoubleCount() + value.getIntegerCount() + value.getLongCount()
+                + value.getStringCount() + value.getValueCount() + value.getNameValueCount() == 0;
     }
 
     @Override
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.bullet;
+
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import org.terasology.world.block.Block;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Holds one immutable {@link VoxelInfo} per block id, created on first use.
+ * <br><br>
+ * The collision information of a voxel only depends on its block, so it is shared by every voxel of that block
+ * instead of being created anew each time Bullet asks for it.
+ */
+final class BlockVoxelInfos {
+
+    private final Function<Block, VoxelInfo> factory;
+
+    /**
+     * Only ever replaced by a larger copy. Concurrent lookups may create the same info twice, which is harmless.
+     */
+    private volatile VoxelInfo[] infos = new VoxelInfo[256];
+
+    BlockVoxelInfos(Function<Block, VoxelInfo> factory) {
+        this.factory = factory;
+    }
+
+    VoxelInfo get(Block block) {
+        int id = block.getId() & 0xFFFF;
+        VoxelInfo[] current = infos;
+        if (id < current.length) {
+            VoxelInfo info = current[id];
+            if (info != null) {
+                return info;
+            }
+        }
+        return create(block, id);
+    }
+
+    private synchronized VoxelInfo create(Block block, int id) {
+        VoxelInfo[] current = infos;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        } else if (current[id] != null) {
+            return current[id];
+        } else {
+            current = current.clone();
+        }
+        VoxelInfo info = factory.apply(block);
+        current[id] = info;
+        infos = current;
+        return info;
+    }
+}
@@ -78,6 +78,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.chunks.ChunkProvider;
 
 import javax.vecmath.Matrix3f;
 import javax.vecmath.Matrix4f;
@@ -125,10 +126,11 @@ public BulletPhysics(WorldProvider world) {
         discreteDynamicsWorld.setGravity(new Vector3f(0f, -15f, 0f));
         blockEntityRegistry = CoreRegistry.get(BlockEntityRegistry.class);
 
-        wrapper = new PhysicsWorldWrapper(world);
+        ChunkCachedBlockAccessor blocks = new ChunkCachedBlockAccessor(world, CoreRegistry.get(ChunkProvider.class));
+        wrapper = new PhysicsWorldWrapper(blocks);
         VoxelWorldShape worldShape = new VoxelWorldShape(wrapper);
 
-        liquidWrapper = new PhysicsLiquidWrapper(world);
+        liquidWrapper = new PhysicsLiquidWrapper(blocks);
         VoxelWorldShape liquidShape = new VoxelWorldShape(liquidWrapper);
 
         Matrix3f rot = new Matrix3f();
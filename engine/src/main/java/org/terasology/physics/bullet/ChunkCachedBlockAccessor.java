@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.bullet;
+
+import org.terasology.math.ChunkMath;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+
+/**
+ * Looks up the blocks that Bullet asks about, remembering the chunk of the last lookup.
+ * <br><br>
+ * Bullet queries the voxels around a body one by one, so consecutive lookups nearly always hit the same chunk. For
+ * those the chunk provider is skipped entirely, which saves its map lookup and the {@link org.terasology.math.geom.Vector3i}
+ * that goes with it. Blocks of chunks that are not loaded come from the {@link WorldProvider}, just as before.
+ */
+public class ChunkCachedBlockAccessor {
+
+    private WorldProvider world;
+    private ChunkProvider chunkProvider;
+
+    /**
+     * Replaced as a whole, so that concurrent lookups never see the position of one chunk with another chunk.
+     */
+    private volatile CachedChunk lastChunk;
+
+    /**
+     * @param world         provides the blocks of chunks that are not loaded
+     * @param chunkProvider provides the loaded chunks, or null to always look the blocks up through the world
+     */
+    public ChunkCachedBlockAccessor(WorldProvider world, ChunkProvider chunkProvider) {
+        this.world = world;
+        this.chunkProvider = chunkProvider;
+    }
+
+    public Block getBlock(int x, int y, int z) {
+        if (chunkProvider == null) {
+            return world.getBlock(x, y, z);
+        }
+        int chunkX = ChunkMath.calcChunkPosX(x);
+        int chunkY = ChunkMath.calcChunkPosY(y);
+        int chunkZ = ChunkMath.calcChunkPosZ(z);
+        CachedChunk cached = lastChunk;
+        if (cached == null || !cached.isAt(chunkX, chunkY, chunkZ) || !cached.chunk.isReady()) {
+            Chunk chunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+            if (chunk == null) {
+                return world.getBlock(x, y, z);
+            }
+            cached = new CachedChunk(chunkX, chunkY, chunkZ, chunk);
+            lastChunk = cached;
+        }
+        return cached.chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
+    }
+
+    public void dispose() {
+        world = null;
+        chunkProvider = null;
+        lastChunk = null;
+    }
+
+    private static final class CachedChunk {
+        private final int x;
+        private final int y;
+        private final int z;
+        private final Chunk chunk;
+
+        CachedChunk(int x, int y, int z, Chunk chunk) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.chunk = chunk;
+        }
+
+        boolean isAt(int chunkX, int chunkY, int chunkZ) {
+            return x == chunkX && y == chunkY && z == chunkZ;
+        }
+    }
+}
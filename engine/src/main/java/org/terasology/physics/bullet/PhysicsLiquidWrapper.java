@@ -20,44 +20,46 @@
 import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
 import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
 import org.terasology.math.VecMath;
-import org.terasology.math.geom.Vector3f;
-import org.terasology.math.geom.Vector3i;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
 
 /**
  */
 public class PhysicsLiquidWrapper implements VoxelPhysicsWorld {
-    private WorldProvider world;
+    private final BlockVoxelInfos voxelInfos = new BlockVoxelInfos(LiquidVoxelInfo::new);
+    private ChunkCachedBlockAccessor blocks;
 
     public PhysicsLiquidWrapper(WorldProvider world) {
-        this.world = world;
+        this(new ChunkCachedBlockAccessor(world, null));
+    }
+
+    public PhysicsLiquidWrapper(ChunkCachedBlockAccessor blocks) {
+        this.blocks = blocks;
     }
 
     @Override
     public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new LiquidVoxelInfo(block, new Vector3i(x, y, z));
+        VoxelInfo info = voxelInfos.get(blocks.getBlock(x, y, z));
+        return info.isColliding() ? new PositionedVoxelInfo(info, x, y, z) : info;
     }
 
     public void dispose() {
-        world = null;
+        blocks.dispose();
     }
 
     private static class LiquidVoxelInfo implements VoxelInfo {
 
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
+        private final boolean colliding;
+        private final boolean blocking;
+        private final com.bulletphysics.collision.shapes.CollisionShape shape;
+        private final javax.vecmath.Vector3f offset;
 
-         LiquidVoxelInfo(Block block, Vector3i position) {
-            this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
+        LiquidVoxelInfo(Block block) {
+            CollisionShape blockShape = block.getCollisionShape();
+            this.shape = blockShape != null ? ((BulletCollisionShape) blockShape).underlyingShape : null;
+            this.offset = block.getCollisionOffset() != null ? VecMath.to(block.getCollisionOffset()) : null;
             this.colliding = block.isLiquid();
             this.blocking = false;
-            this.position = position;
         }
 
         @Override
@@ -67,17 +69,17 @@ public boolean isColliding() {
 
         @Override
         public Object getUserData() {
-            return position;
+            return null;
         }
 
         @Override
         public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
-             return ((BulletCollisionShape) shape).underlyingShape;
+            return shape;
         }
 
         @Override
         public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
+            return offset;
         }
 
         @Override
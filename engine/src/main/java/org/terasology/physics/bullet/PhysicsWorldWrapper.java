@@ -21,49 +21,54 @@
 import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
 import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
 import org.terasology.math.VecMath;
-import org.terasology.math.geom.Vector3f;
-import org.terasology.math.geom.Vector3i;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
 
 /**
  * This class links Terasology's voxel world with the physics engine, providing it with the collision information for each block location.
+ * <br><br>
+ * The collision information is shared per block (see {@link BlockVoxelInfos}), so that answering Bullet's queries
+ * does not allocate for voxels without collision.
  *
  */
 public class PhysicsWorldWrapper implements VoxelPhysicsWorld {
 
-    private WorldProvider world;
+    private final BlockVoxelInfos voxelInfos = new BlockVoxelInfos(TeraVoxelInfo::new);
+    private ChunkCachedBlockAccessor blocks;
 
     public PhysicsWorldWrapper(WorldProvider world) {
-        this.world = world;
+        this(new ChunkCachedBlockAccessor(world, null));
+    }
+
+    public PhysicsWorldWrapper(ChunkCachedBlockAccessor blocks) {
+        this.blocks = blocks;
     }
 
     @Override
     public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new TeraVoxelInfo(block, block.isTargetable(), !block.isPenetrable(), new Vector3i(x, y, z));
+        VoxelInfo info = voxelInfos.get(blocks.getBlock(x, y, z));
+        return info.isColliding() ? new PositionedVoxelInfo(info, x, y, z) : info;
     }
 
     public void dispose() {
-        world = null;
+        blocks.dispose();
     }
 
     private static class TeraVoxelInfo implements VoxelInfo {
 
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
-        private float friction;
-        private float restitution;
-
-         TeraVoxelInfo(Block block, boolean colliding, boolean blocking, Vector3i position) {
-            this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
-            this.colliding = shape != null && colliding;
-            this.blocking = shape != null && blocking;
-            this.position = position;
+        private final boolean colliding;
+        private final boolean blocking;
+        private final com.bulletphysics.collision.shapes.CollisionShape shape;
+        private final javax.vecmath.Vector3f offset;
+        private final float friction;
+        private final float restitution;
+
+        TeraVoxelInfo(Block block) {
+            CollisionShape blockShape = block.getCollisionShape();
+            this.shape = blockShape != null ? ((BulletCollisionShape) blockShape).underlyingShape : null;
+            this.offset = block.getCollisionOffset() != null ? VecMath.to(block.getCollisionOffset()) : null;
+            this.colliding = blockShape != null && block.isTargetable();
+            this.blocking = blockShape != null && !block.isPenetrable();
             this.friction = block.getFriction();
             this.restitution = block.getRestitution();
         }
@@ -75,17 +80,17 @@ public boolean isColliding() {
 
         @Override
         public Object getUserData() {
-            return position;
+            return null;
         }
 
         @Override
         public com.bulletphysics.collision.shapes.CollisionShape getCollisionShape() {
-            return ((BulletCollisionShape) shape).underlyingShape;
+            return shape;
         }
 
         @Override
         public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
+            return offset;
         }
 
         @Override
@@ -95,7 +100,7 @@ public boolean isBlocking() {
 
         @Override
         public float getFriction() {
-             return friction;
+            return friction;
         }
 
         @Override
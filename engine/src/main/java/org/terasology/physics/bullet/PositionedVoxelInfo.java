@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.bullet;
+
+import com.bulletphysics.collision.shapes.CollisionShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import org.terasology.math.geom.Vector3i;
+
+import javax.vecmath.Vector3f;
+
+/**
+ * Pairs the shared {@link VoxelInfo} of a block with the position of one voxel.
+ * <br><br>
+ * Bullet reports the user data of the voxel it hit (for example to ray traces), which for the world is the position of
+ * the block. This is only needed for colliding voxels; all others are answered with the shared info directly.
+ */
+final class PositionedVoxelInfo implements VoxelInfo {
+
+    private final VoxelInfo blockInfo;
+    private final int x;
+    private final int y;
+    private final int z;
+
+    PositionedVoxelInfo(VoxelInfo blockInfo, int x, int y, int z) {
+        this.blockInfo = blockInfo;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public boolean isColliding() {
+        return blockInfo.isColliding();
+    }
+
+    @Override
+    public Object getUserData() {
+        return new Vector3i(x, y, z);
+    }
+
+    @Override
+    public CollisionShape getCollisionShape() {
+        return blockInfo.getCollisionShape();
+    }
+
+    @Override
+    public Vector3f getCollisionOffset() {
+        return blockInfo.getCollisionOffset();
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return blockInfo.isBlocking();
+    }
+
+    @Override
+    public float getFriction() {
+        return blockInfo.getFriction();
+    }
+
+    @Override
+    public float getRestitution() {
+        return blockInfo.getRestitution();
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.reflection;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.reflections.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.module.Module;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps the class index of a {@link TypeRegistry} on disk, so that an unchanged set of modules and libraries can be
+ * indexed without scanning their classes again.
+ * <br><br>
+ * Indexes are stored by a hash of the ids and versions of the code modules and of the contents of all scanned jars
+ * and class directories. Jar checksums are remembered together with the size and modification time of the jar, so
+ * validating the key at startup only reads the jars that changed. Class directories are fingerprinted by the names,
+ * sizes and modification times of their files.
+ */
+class ClassIndexCache {
+    private static final Logger logger = LoggerFactory.getLogger(ClassIndexCache.class);
+
+    private static final int MAGIC = 0x434C5358;
+    private static final int VERSION = 1;
+    private static final int MAX_CACHED_INDEXES = 4;
+    private static final String EXTENSION = ".index";
+    private static final String CHECKSUMS_FILE = "checksums.txt";
+
+    private final Path directory;
+    private Map<Path, FileChecksum> checksums;
+    private boolean checksumsChanged;
+
+    ClassIndexCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param classpath the scanned class path entries
+     * @param modules the code modules whose classes are indexed
+     * @return The key of the index of the given classes, or empty if some location cannot be fingerprinted
+     */
+    Optional<String> computeKey(Collection<URL> classpath, List<Module> modules) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(VERSION);
+        try {
+            hasher.putInt(classpath.size());
+            for (URL url : sortedByName(classpath)) {
+                putLocation(hasher, url);
+            }
+            hasher.putInt(modules.size());
+            for (Module module : modules) {
+                hasher.putString(module.getId().toString(), StandardCharsets.UTF_8);
+                hasher.putString(module.getVersion().toString(), StandardCharsets.UTF_8);
+                hasher.putInt(module.getClasspaths().size());
+                for (URL url : module.getClasspaths()) {
+                    putLocation(hasher, url);
+                }
+            }
+        } catch (IOException | URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+            logger.warn("Failed to fingerprint the class path, the class index will not be cached", e);
+            return Optional.empty();
+        } finally {
+            saveChecksums();
+        }
+        return Optional.of(hasher.hash().toString());
+    }
+
+    /**
+     * Fills the store with the index stored under the key.
+     *
+     * @return Whether the index was present and readable. If not, the store is left unchanged.
+     */
+    boolean load(String key, Store store) {
+        Path file = directory.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        Map<String, List<String[]>> indexes = Maps.newHashMap();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.warn("Ignoring class index {} with an unexpected format", file);
+                return false;
+            }
+            int indexCount = in.readInt();
+            for (int i = 0; i < indexCount; i++) {
+                String index = in.readUTF();
+                int keyCount = in.readInt();
+                List<String[]> entries = Lists.newArrayListWithCapacity(keyCount);
+                for (int k = 0; k < keyCount; k++) {
+                    String[] entry = new String[in.readInt() + 1];
+                    entry[0] = in.readUTF();
+                    for (int v = 1; v < entry.length; v++) {
+                        entry[v] = in.readUTF();
+                    }
+                    entries.add(entry);
+                }
+                indexes.put(index, entries);
+            }
+            // keep recently used indexes from being pruned
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.warn("Failed to read class index {}", file, e);
+            return false;
+        }
+        for (Map.Entry<String, List<String[]>> index : indexes.entrySet()) {
+            Multimap<String, String> values = store.getOrCreate(index.getKey());
+            for (String[] entry : index.getValue()) {
+                for (int v = 1; v < entry.length; v++) {
+                    values.put(entry[0], entry[v]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the index under the key, and removes the least recently used indexes.
+     */
+    void save(String key, Store store) {
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)), new Deflater(Deflater.BEST_SPEED)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(store.keySet().size());
+                for (String index : store.keySet()) {
+                    Map<String, Collection<String>> values = store.get(index).asMap();
+                    out.writeUTF(index);
+                    out.writeInt(values.size());
+                    for (Map.Entry<String, Collection<String>> entry : values.entrySet()) {
+                        out.writeInt(entry.getValue().size());
+                        out.writeUTF(entry.getKey());
+                        for (String value : entry.getValue()) {
+                            out.writeUTF(value);
+                        }
+                    }
+                }
+            }
+            Path file = directory.resolve(key + EXTENSION);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            prune(file);
+        } catch (IOException e) {
+            logger.warn("Failed to cache class index {}", key, e);
+        }
+    }
+
+    private void putLocation(Hasher hasher, URL url) throws IOException, URISyntaxException {
+        Path path = Paths.get(url.toURI()).toAbsolutePath().normalize();
+        hasher.putString(path.toString(), StandardCharsets.UTF_8);
+        if (Files.isDirectory(path)) {
+            putDirectory(hasher, path);
+        } else if (Files.isRegularFile(path)) {
+            hasher.putString(getChecksum(path), StandardCharsets.UTF_8);
+        } else {
+            hasher.putBoolean(false);
+        }
+    }
+
+    private static void putDirectory(Hasher hasher, Path root) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        hasher.putInt(files.size());
+        for (Path file : files) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            hasher.putString(root.relativize(file).toString(), StandardCharsets.UTF_8);
+            hasher.putLong(attributes.size());
+            hasher.putLong(attributes.lastModifiedTime().toMillis());
+        }
+    }
+
+    private String getChecksum(Path file) throws IOException {
+        if (checksums == null) {
+            checksums = loadChecksums();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        FileChecksum known = checksums.get(file);
+        if (known != null && known.size == size && known.lastModified == lastModified) {
+            return known.checksum;
+        }
+        String checksum = com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.murmur3_128()).toString();
+        checksums.put(file, new FileChecksum(size, lastModified, checksum));
+        checksumsChanged = true;
+        return checksum;
+    }
+
+    private Map<Path, FileChecksum> loadChecksums() {
+        Map<Path, FileChecksum> result = Maps.newHashMap();
+        Path file = directory.resolve(CHECKSUMS_FILE);
+        if (!Files.isRegularFile(file)) {
+            return result;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length == 4) {
+                    result.put(Paths.get(parts[3]), new FileChecksum(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[0]));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read jar checksums {}", file, e);
+            result.clear();
+        }
+        return result;
+    }
+
+    private void saveChecksums() {
+        if (!checksumsChanged) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, "checksums", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<Path, FileChecksum> entry : checksums.entrySet()) {
+                    FileChecksum checksum = entry.getValue();
+                    writer.write(checksum.checksum + "\t" + checksum.size + "\t" + checksum.lastModified + "\t" + entry.getKey());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, directory.resolve(CHECKSUMS_FILE), StandardCopyOption.REPLACE_EXISTING);
+            checksumsChanged = false;
+        } catch (IOException e) {
+            logger.warn("Failed to save jar checksums", e);
+        }
+    }
+
+    private void prune(Path savedFile) throws IOException {
+        List<Path> files = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            stream.forEach(files::add);
+        }
+        files.remove(savedFile);
+        if (files.size() < MAX_CACHED_INDEXES) {
+            return;
+        }
+        files.sort((a, b) -> lastModified(b).compareTo(lastModified(a)));
+        for (Path file : files.subList(MAX_CACHED_INDEXES - 1, files.size())) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<URL> sortedByName(Collection<URL> urls) {
+        List<URL> result = Lists.newArrayList(urls);
+        result.sort(Comparator.comparing(URL::toString));
+        return result;
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static final class FileChecksum {
+        private final long size;
+        private final long lastModified;
+        private final String checksum;
+
+        FileChecksum(long size, long lastModified, String checksum) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -18,24 +18,37 @@
 import com.google.common.collect.Lists;
 import org.reflections.ReflectionUtils;
 import org.reflections.Reflections;
+import org.reflections.Store;
 import org.reflections.scanners.SubTypesScanner;
 import org.reflections.scanners.TypeAnnotationsScanner;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.config.SystemConfig;
 import org.terasology.engine.module.ExternalApiWhitelist;
+import org.terasology.engine.paths.PathManager;
 import org.terasology.module.Module;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.module.sandbox.ModuleClassLoader;
 import org.terasology.utilities.ReflectionUtil;
 
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class TypeRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(TypeRegistry.class);
+
+    private static final String CLASS_INDEX_CACHE_DIR = "classIndex";
+
     private static final Set<String> WHITELISTED_CLASSES =
         ExternalApiWhitelist.CLASSES.stream().map(Class::getName).collect(Collectors.toSet());
 
@@ -78,10 +91,13 @@ private static boolean filterWhitelistedTypes(String typeName) {
     public void reload(ModuleEnvironment environment) {
         // FIXME: Reflection -- may break with updates to gestalt-module
         ClassLoader finalClassLoader = (ClassLoader) ReflectionUtil.readField(environment, "finalClassLoader");
-        initializeReflections(finalClassLoader, environment);
+        long startTime = System.nanoTime();
+        boolean fromCache = initializeReflections(finalClassLoader, environment);
+        logger.info("Indexed types in {} ms{}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                fromCache ? " from the cache" : "");
     }
 
-    private void initializeReflections(ClassLoader classLoader) {
+    private static List<ClassLoader> getClassLoaderHierarchy(ClassLoader classLoader) {
         List<ClassLoader> allClassLoaders = Lists.newArrayList();
 
         while (classLoader != null) {
@@ -93,6 +109,19 @@ private void initializeReflections(ClassLoader classLoader) {
         // reversed so that classes are loaded using the originally declaring/loading class loader,
         // not a child class loader (like a ModuleClassLoader, for example)
         Collections.reverse(allClassLoaders);
+        return allClassLoaders;
+    }
+
+    private static Collection<URL> getScannedUrls(List<ClassLoader> allClassLoaders) {
+        return ClasspathHelper.forClassLoader(
+            allClassLoaders.stream()
+                .filter(loader -> !(loader instanceof ModuleClassLoader))
+                .toArray(ClassLoader[]::new)
+        );
+    }
+
+    private void initializeReflections(ClassLoader classLoader) {
+        List<ClassLoader> allClassLoaders = getClassLoaderHierarchy(classLoader);
 
         classLoaders = allClassLoaders.toArray(new ClassLoader[0]);
 
@@ -104,26 +133,62 @@ private void initializeReflections(ClassLoader classLoader) {
                     new TypeAnnotationsScanner()
                 )
                 .addClassLoaders(allClassLoaders)
-                .addUrls(ClasspathHelper.forClassLoader(
-                    allClassLoaders.stream()
-                        .filter(loader -> !(loader instanceof ModuleClassLoader))
-                        .toArray(ClassLoader[]::new)
-                ))
+                .addUrls(getScannedUrls(allClassLoaders))
                 .filterInputsBy(TypeRegistry::filterWhitelistedTypes)
         );
 
     }
 
-    private void initializeReflections(ClassLoader classLoader, ModuleEnvironment environment) {
-        initializeReflections(classLoader);
-
+    /**
+     * @return Whether the index was loaded from the cache instead of being scanned
+     */
+    private boolean initializeReflections(ClassLoader classLoader, ModuleEnvironment environment) {
+        List<Module> codeModules = Lists.newArrayList();
         for (Module module : environment.getModulesOrderedByDependencies()) {
-            if (!module.isCodeModule()) {
-                continue;
+            if (module.isCodeModule()) {
+                codeModules.add(module);
+            }
+        }
+
+        ClassIndexCache indexCache = getIndexCache();
+        Optional<String> cacheKey = Optional.empty();
+        if (indexCache != null) {
+            List<ClassLoader> allClassLoaders = getClassLoaderHierarchy(classLoader);
+            cacheKey = indexCache.computeKey(getScannedUrls(allClassLoaders), codeModules);
+            if (cacheKey.isPresent()) {
+                // without scanners nothing is scanned, the store is filled from the cache instead
+                Reflections cachedReflections = new Reflections(new ConfigurationBuilder()
+                    .setScanners()
+                    .addClassLoaders(allClassLoaders));
+                Store store = cachedReflections.getStore();
+                store.getOrCreate(SubTypesScanner.class.getSimpleName());
+                store.getOrCreate(TypeAnnotationsScanner.class.getSimpleName());
+                if (indexCache.load(cacheKey.get(), store)) {
+                    classLoaders = allClassLoaders.toArray(new ClassLoader[0]);
+                    reflections = cachedReflections;
+                    return true;
+                }
             }
+        }
+
+        initializeReflections(classLoader);
 
+        for (Module module : codeModules) {
             reflections.merge(module.getReflectionsFragment());
         }
+
+        if (cacheKey.isPresent()) {
+            indexCache.save(cacheKey.get(), reflections.getStore());
+        }
+        return false;
+    }
+
+    private static ClassIndexCache getIndexCache() {
+        Path cachePath = PathManager.getInstance().getCachePath();
+        if (cachePath == null || Boolean.parseBoolean(System.getProperty(SystemConfig.CLASS_INDEX_CACHE_DISABLED_PROPERTY))) {
+            return null;
+        }
+        return new ClassIndexCache(cachePath.resolve(CLASS_INDEX_CACHE_DIR));
     }
 
     public <T> Set<Class<? extends T>> getSubtypesOf(Class<T> type) {
@@ -16,10 +16,10 @@
 package org.terasology.rendering.logic;
 
 import org.terasology.math.Transform;
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
 import java.nio.FloatBuffer;
-import java.util.Arrays;
 import java.util.Set;
 import org.lwjgl.BufferUtils;
 import org.slf4j.Logger;
@@ -72,21 +72,15 @@ public class MeshRenderer extends BaseComponentSystem implements RenderSystem {
     @In
     private WorldProvider worldProvider;
 
-    private NearestSortingList opaqueMeshSorter = new NearestSortingList();
-    private NearestSortingList translucentMeshSorter = new NearestSortingList();
+    private SpatialSortingGrid opaqueMeshes = new SpatialSortingGrid();
+    private SpatialSortingGrid translucentMeshes = new SpatialSortingGrid();
 
     private int lastRendered;
 
-    @Override
-    public void initialise() {
-        opaqueMeshSorter.initialise(worldRenderer.getActiveCamera());
-        translucentMeshSorter.initialise(worldRenderer.getActiveCamera());
-    }
-
     @Override
     public void shutdown() {
-        opaqueMeshSorter.stop();
-        translucentMeshSorter.stop();
+        opaqueMeshes.clear();
+        translucentMeshes.clear();
     }
 
     @ReceiveEvent(components = {MeshComponent.class, LocationComponent.class})
@@ -106,10 +100,11 @@ private boolean isHidden(EntityRef entity, MeshComponent mesh) {
     private void addMesh(EntityRef entity) {
         MeshComponent meshComponent = entity.getComponent(MeshComponent.class);
         if (meshComponent != null && meshComponent.material != null) {
+            Vector3f position = entity.getComponent(LocationComponent.class).getWorldPosition();
             if (meshComponent.translucent) {
-                translucentMeshSorter.add(entity);
+                translucentMeshes.add(entity, position);
             } else {
-                opaqueMeshSorter.add(entity);
+                opaqueMeshes.add(entity, position);
             }
         }
     }
@@ -126,13 +121,21 @@ private void removeMesh(EntityRef entity) {
         MeshComponent meshComponent = entity.getComponent(MeshComponent.class);
         if (meshComponent != null && meshComponent.material != null) {
             if (meshComponent.translucent) {
-                translucentMeshSorter.remove(entity);
+                translucentMeshes.remove(entity);
             } else {
-                opaqueMeshSorter.remove(entity);
+                opaqueMeshes.remove(entity);
             }
         }
     }
 
+    @ReceiveEvent(components = {MeshComponent.class, LocationComponent.class})
+    public void onMoveMesh(OnChangedComponent event, EntityRef entity) {
+        Vector3f position = entity.getComponent(LocationComponent.class).getWorldPosition();
+        if (!opaqueMeshes.update(entity, position)) {
+            translucentMeshes.update(entity, position);
+        }
+    }
+
     @ReceiveEvent(components = {MeshComponent.class, LocationComponent.class})
     public void onDestroyMesh(BeforeDeactivateComponent event, EntityRef entity) {
         removeMesh(entity);
@@ -140,33 +143,38 @@ public void onDestroyMesh(BeforeDeactivateComponent event, EntityRef entity) {
 
     @Override
     public void renderAlphaBlend() {
+        // Translucent meshes are drawn back to front
+        Vector3f cameraPosition = worldRenderer.getActiveCamera().getPosition();
         if (config.getRendering().isRenderNearest()) {
-            renderEntities(Arrays.asList(translucentMeshSorter.getNearest(config.getRendering().getMeshLimit())));
+            renderEntities(Lists.reverse(translucentMeshes.getNearest(cameraPosition, config.getRendering().getMeshLimit())),
+                    translucentMeshes);
         } else {
-            renderEntities(translucentMeshSorter.getEntities());
+            renderEntities(translucentMeshes.getBackToFront(cameraPosition), translucentMeshes);
         }
     }
 
     public void renderOpaque() {
+        Vector3f cameraPosition = worldRenderer.getActiveCamera().getPosition();
         if (config.getRendering().isRenderNearest()) {
-            renderEntities(Arrays.asList(opaqueMeshSorter.getNearest(config.getRendering().getMeshLimit())));
+            renderEntities(opaqueMeshes.getNearest(cameraPosition, config.getRendering().getMeshLimit()), opaqueMeshes);
         } else {
-            renderEntities(opaqueMeshSorter.getEntities());
+            renderEntities(opaqueMeshes.getFrontToBack(cameraPosition), opaqueMeshes);
         }
     }
 
-    private void renderEntities(Iterable<EntityRef> entityRefs) {
-        SetMultimap<Material, EntityRef> entitiesToRender = HashMultimap.create();
+    private void renderEntities(Iterable<EntityRef> entityRefs, SpatialSortingGrid grid) {
+        // Keeps the order of the entities within each material
+        SetMultimap<Material, EntityRef> entitiesToRender = LinkedHashMultimap.create();
         for (EntityRef entity : entityRefs) {
             MeshComponent meshComponent = entity.getComponent(MeshComponent.class);
             if (meshComponent != null && meshComponent.material != null) {
                 entitiesToRender.put(meshComponent.material, entity);
             }
         }
-        renderEntitiesByMaterial(entitiesToRender);
+        renderEntitiesByMaterial(entitiesToRender, grid);
     }
 
-    private void renderEntitiesByMaterial(SetMultimap<Material, EntityRef> meshByMaterial) {
+    private void renderEntitiesByMaterial(SetMultimap<Material, EntityRef> meshByMaterial, SpatialSortingGrid grid) {
         Vector3f cameraPosition = worldRenderer.getActiveCamera().getPosition();
 
         Quat4f worldRot = new Quat4f();
@@ -200,6 +208,8 @@ private void renderEntitiesByMaterial(SetMultimap<Material, EntityRef> meshByMat
 
                     location.getWorldRotation(worldRot);
                     location.getWorldPosition(worldPos);
+                    // Entities attached to a moving parent do not report their moves
+                    grid.update(entity, worldPos);
                     float worldScale = location.getWorldScale();
 
                     Transform toWorldSpace = new Transform(worldPos, worldRot, worldScale);
@@ -43,7 +43,9 @@
  * It it therefore use full for graphics purposes, to keep track of the nearest
  * entities to draw.
  *
+ * @deprecated Use {@link SpatialSortingGrid}, which keeps the entities in order without a background thread.
  */
+@Deprecated
 public class NearestSortingList implements Iterable<EntityRef> {
     private static final Logger logger = LoggerFactory.getLogger(NearestSortingList.class);
 
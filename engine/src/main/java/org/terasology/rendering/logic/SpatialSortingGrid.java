@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.logic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps entities in a grid of cells by their position, so they can be iterated from the nearest to the farthest (or
+ * the other way round) without sorting them.
+ * <br><br>
+ * Only the cells are sorted, by the distance of their centers to the cell of the origin, and only when the origin
+ * moves into another cell or a cell is created or emptied. Within a cell the entities are not ordered. The order is
+ * therefore exact up to the size of a cell, which is close enough to draw meshes front to back.
+ * <br><br>
+ * The positions are given by the owner of the grid, typically from location change events. Unlike
+ * {@link NearestSortingList}, nothing is sorted in the background and the grid must only be used from one thread.
+ */
+public class SpatialSortingGrid {
+
+    /**
+     * The edge length of a cell, in blocks.
+     */
+    public static final int CELL_SIZE = 16;
+
+    private final Map<Vector3i, Set<EntityRef>> cells = Maps.newHashMap();
+    private final Map<EntityRef, Vector3i> entityCells = Maps.newHashMap();
+
+    private final List<Vector3i> cellOrder = Lists.newArrayList();
+    private final Vector3i orderOrigin = new Vector3i();
+    private final Comparator<Vector3i> byDistanceToOrigin = Comparator.comparingLong(this::squaredDistanceToOrigin);
+    private boolean orderOutdated = true;
+
+    /**
+     * Adds an entity, or moves it if it is already in the grid.
+     *
+     * @param position The position of the entity, in world coordinates
+     */
+    public void add(EntityRef entity, Vector3f position) {
+        if (!update(entity, position)) {
+            Vector3i cell = toCell(position);
+            entityCells.put(entity, cell);
+            addToCell(cell, entity);
+        }
+    }
+
+    /**
+     * Moves an entity to its new position. Does nothing if the entity is not in the grid.
+     *
+     * @param position The position of the entity, in world coordinates
+     * @return Whether the entity is in the grid
+     */
+    public boolean update(EntityRef entity, Vector3f position) {
+        Vector3i current = entityCells.get(entity);
+        if (current == null) {
+            return false;
+        }
+        Vector3i cell = toCell(position);
+        if (!cell.equals(current)) {
+            removeFromCell(current, entity);
+            entityCells.put(entity, cell);
+            addToCell(cell, entity);
+        }
+        return true;
+    }
+
+    /**
+     * @return Whether the entity was in the grid
+     */
+    public boolean remove(EntityRef entity) {
+        Vector3i cell = entityCells.remove(entity);
+        if (cell == null) {
+            return false;
+        }
+        removeFromCell(cell, entity);
+        return true;
+    }
+
+    public boolean contains(EntityRef entity) {
+        return entityCells.containsKey(entity);
+    }
+
+    public int size() {
+        return entityCells.size();
+    }
+
+    public boolean isEmpty() {
+        return entityCells.isEmpty();
+    }
+
+    public void clear() {
+        cells.clear();
+        entityCells.clear();
+        cellOrder.clear();
+        orderOutdated = true;
+    }
+
+    /**
+     * @param origin The position to sort around, in world coordinates
+     * @return A copy of the entities, from the nearest to the farthest from the origin
+     */
+    public List<EntityRef> getFrontToBack(Vector3f origin) {
+        return getNearest(origin, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param origin The position to sort around, in world coordinates
+     * @return A copy of the entities, from the farthest to the nearest from the origin
+     */
+    public List<EntityRef> getBackToFront(Vector3f origin) {
+        return Lists.reverse(getFrontToBack(origin));
+    }
+
+    /**
+     * @param origin The position to sort around, in world coordinates
+     * @param count  The maximum number of entities to return
+     * @return A copy of the entities nearest to the origin, from the nearest to the farthest
+     */
+    public List<EntityRef> getNearest(Vector3f origin, int count) {
+        updateCellOrder(toCell(origin));
+        List<EntityRef> result = Lists.newArrayListWithCapacity(Math.min(count, size()));
+        for (Vector3i cell : cellOrder) {
+            for (EntityRef entity : cells.get(cell)) {
+                if (result.size() == count) {
+                    return result;
+                }
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private void updateCellOrder(Vector3i originCell) {
+        if (orderOutdated || !orderOrigin.equals(originCell)) {
+            orderOrigin.set(originCell);
+            cellOrder.clear();
+            cellOrder.addAll(cells.keySet());
+            cellOrder.sort(byDistanceToOrigin);
+            orderOutdated = false;
+        }
+    }
+
+    private void addToCell(Vector3i cell, EntityRef entity) {
+        Set<EntityRef> entities = cells.get(cell);
+        if (entities == null) {
+            entities = Sets.newLinkedHashSet();
+            cells.put(cell, entities);
+            orderOutdated = true;
+        }
+        entities.add(entity);
+    }
+
+    private void removeFromCell(Vector3i cell, EntityRef entity) {
+        Set<EntityRef> entities = cells.get(cell);
+        if (entities != null && entities.remove(entity) && entities.isEmpty()) {
+            cells.remove(cell);
+            orderOutdated = true;
+        }
+    }
+
+    private long squaredDistanceToOrigin(Vector3i cell) {
+        long dx = cell.x - orderOrigin.x;
+        long dy = cell.y - orderOrigin.y;
+        long dz = cell.z - orderOrigin.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static Vector3i toCell(Vector3f position) {
+        return new Vector3i((int) Math.floor(position.x / CELL_SIZE), (int) Math.floor(position.y / CELL_SIZE),
+                (int) Math.floor(position.z / CELL_SIZE));
+    }
+}
@@ -16,9 +16,12 @@
 
 package org.terasology.rendering.nui.layers.mainMenu.preview;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.math.IntMath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.engine.Observer;
+import org.terasology.entitySystem.Component;
 import org.terasology.math.Region3i;
 import org.terasology.math.geom.ImmutableVector2i;
 import org.terasology.math.geom.Rect2i;
@@ -30,6 +33,7 @@
 import org.terasology.world.generation.Region;
 import org.terasology.world.generation.World;
 import org.terasology.world.generation.WorldFacet;
+import org.terasology.world.generator.WorldConfigurator;
 import org.terasology.world.generator.WorldGenerator;
 import org.terasology.world.viewer.TileThreadFactory;
 import org.terasology.world.viewer.color.ColorModels;
@@ -47,12 +51,15 @@
 import java.awt.image.WritableRaster;
 import java.math.RoundingMode;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -71,12 +78,22 @@ public class FacetLayerPreview implements PreviewGenerator {
     private static final int TILE_SIZE_X = ChunkConstants.SIZE_X * 2;
     private static final int TILE_SIZE_Y = ChunkConstants.SIZE_Z * 2;
 
+    /**
+     * 16 MB at 4 bytes per pixel, which holds the tiles of about 25 full previews of 384 x 384 pixels
+     */
+    private static final long MAX_CACHED_PIXELS = 4 * 1024 * 1024;
+
     private final DirectColorModel colorModel = ColorModels.RGBA;
 
     private final WorldGenerator worldGenerator;
 
     private final List<FacetLayer> facetLayers;
 
+    private final PreviewTileCache tileCache = new PreviewTileCache(MAX_CACHED_PIXELS);
+    private final AtomicInteger layerVersion = new AtomicInteger();
+    private final AtomicInteger generatedTileCount = new AtomicInteger();
+    private final Observer<FacetLayer> layerObserver = layer -> layerVersion.incrementAndGet();
+
     private ExecutorService threadPool = Executors.newFixedThreadPool(
             Runtime.getRuntime().availableProcessors(),
             new TileThreadFactory());
@@ -87,6 +104,7 @@ public FacetLayerPreview(WorldGenerator worldGenerator, List<FacetLayer> facetLa
         this.facetLayers = facetLayers.stream()
                 .sorted(Comparator.comparingInt(layer -> layer.getClass().getAnnotation(Renders.class).order()))
                 .collect(Collectors.toList());
+        observeLayers();
     }
 
     public FacetLayerPreview(ModuleEnvironment environment, WorldGenerator worldGenerator) {
@@ -95,6 +113,16 @@ public FacetLayerPreview(ModuleEnvironment environment, WorldGenerator worldGene
         World world = worldGenerator.getWorld();
         Set<Class<? extends WorldFacet>> facets = world.getAllFacets();
         facetLayers = FacetLayers.createLayersFor(facets, environment);
+        observeLayers();
+    }
+
+    /**
+     * Layers notify their observers when they are shown, hidden or configured, which makes the cached tiles outdated.
+     */
+    private void observeLayers() {
+        for (FacetLayer layer : facetLayers) {
+            layer.addObserver(layerObserver);
+        }
     }
 
     @Override
@@ -121,35 +149,56 @@ public ByteBuffer render(TextureData texData, int scale, ProgressListener progre
         g.translate(-offX, -offY);
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 
-        Map<ImmutableVector2i, Future<BufferedImage>> imageFutures = new HashMap<>(tileCount);
+        String seed = worldGenerator.getWorldSeed();
+        WorldConfigurator configurator = worldGenerator.getConfigurator();
+        Map<String, Component> configuration = configurator != null
+                ? ImmutableMap.copyOf(configurator.getProperties()) : Collections.emptyMap();
+        int layers = layerVersion.get();
+        int tileResolution = PreviewTileCache.getTileResolution(TILE_SIZE_X, scale);
+
+        // Cached tiles are drawn right away, the others as soon as they are generated, in any order
+        CompletionService<TileResult> generatedTiles = new ExecutorCompletionService<>(threadPool);
+        List<Future<TileResult>> pendingTiles = new ArrayList<>();
         for (int z = tileArea.minY(); z < tileArea.maxY(); z++) {
             for (int x = tileArea.minX(); x < tileArea.maxX(); x++) {
-                ImmutableVector2i pos = new ImmutableVector2i(x, z);
-                imageFutures.put(pos, threadPool.submit(() -> {
-                    Region createRegion = createRegion(pos);
-                    BufferedImage image = rasterize(createRegion);
-                    if (progressListener != null) {
-                        progressListener.onProgress(tilesComplete.incrementAndGet() / (float) tileCount);
-                    }
-                    return image;
-                }));
+                PreviewTileCache.Key key = new PreviewTileCache.Key(seed, configuration, layers, new ImmutableVector2i(x, z), scale);
+                BufferedImage tileImage = tileCache.get(key);
+                if (tileImage == null) {
+                    tileImage = tileCache.getFromFinerTile(key, TILE_SIZE_X);
+                }
+                if (tileImage != null) {
+                    drawTile(g, key.getPosition(), tileImage);
+                    reportProgress(progressListener, tilesComplete.incrementAndGet(), tileCount);
+                } else {
+                    pendingTiles.add(generatedTiles.submit(() -> {
+                        BufferedImage image = PreviewTileCache.scaleDown(rasterize(createRegion(key.getPosition())), tileResolution);
+                        tileCache.put(key, image);
+                        generatedTileCount.incrementAndGet();
+                        reportProgress(progressListener, tilesComplete.incrementAndGet(), tileCount);
+                        return new TileResult(key.getPosition(), image);
+                    }));
+                }
             }
         }
 
-        for (int z = tileArea.minY(); z < tileArea.maxY(); z++) {
-            for (int x = tileArea.minX(); x < tileArea.maxX(); x++) {
-                ImmutableVector2i pos = new ImmutableVector2i(x, z);
+        try {
+            for (int i = 0; i < pendingTiles.size(); i++) {
+                Future<TileResult> tile = generatedTiles.take();
                 try {
-                    BufferedImage tileImage = imageFutures.get(pos).get();
-                    g.drawImage(tileImage, x * TILE_SIZE_X, z * TILE_SIZE_Y, null);
+                    TileResult result = tile.get();
+                    drawTile(g, result.position, result.image);
                 } catch (ExecutionException e) {
-                    logger.warn("Could not rasterize tile {}", pos, e);
+                    logger.warn("Could not rasterize tile", e.getCause());
                 }
 
                 if (Thread.currentThread().isInterrupted()) {
                     throw new InterruptedException();
                 }
             }
+        } finally {
+            for (Future<TileResult> tile : pendingTiles) {
+                tile.cancel(true);
+            }
         }
 
         // draw coordinate lines through 0 / 0
@@ -166,9 +215,38 @@ public ByteBuffer render(TextureData texData, int scale, ProgressListener progre
         return byteBuffer;
     }
 
+    /**
+     * @return the number of tiles generated so far, as opposed to taken from the cache
+     */
+    public int getGeneratedTileCount() {
+        return generatedTileCount.get();
+    }
+
+    /**
+     * Drops all cached tiles.
+     */
+    public void clearCache() {
+        tileCache.clear();
+    }
+
     @Override
     public void close() {
         threadPool.shutdown();
+        for (FacetLayer layer : facetLayers) {
+            layer.removeObserver(layerObserver);
+        }
+        tileCache.clear();
+    }
+
+    private void drawTile(Graphics2D g, ImmutableVector2i position, BufferedImage tileImage) {
+        // The graphics are in world coordinates, so the tile is stretched back to its size in blocks
+        g.drawImage(tileImage, position.getX() * TILE_SIZE_X, position.getY() * TILE_SIZE_Y, TILE_SIZE_X, TILE_SIZE_Y, null);
+    }
+
+    private static void reportProgress(ProgressListener progressListener, int tilesComplete, int tileCount) {
+        if (progressListener != null) {
+            progressListener.onProgress(tilesComplete / (float) tileCount);
+        }
     }
 
     private Region createRegion(ImmutableVector2i chunkPos) {
@@ -220,4 +298,14 @@ private BufferedImage rasterize(Region region) {
 
         return image;
     }
+
+    private static final class TileResult {
+        private final ImmutableVector2i position;
+        private final BufferedImage image;
+
+        TileResult(ImmutableVector2i position, BufferedImage image) {
+            this.position = position;
+            this.image = image;
+        }
+    }
 }
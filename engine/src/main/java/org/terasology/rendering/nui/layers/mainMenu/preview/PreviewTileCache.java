@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.nui.layers.mainMenu.preview;
+
+import com.google.common.collect.ImmutableMap;
+import org.terasology.entitySystem.Component;
+import org.terasology.math.geom.ImmutableVector2i;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the least recently used preview tiles, up to a number of pixels.
+ * <br><br>
+ * A tile is stored at the resolution it was displayed at, so zoomed out tiles take up less memory. When a tile is
+ * missing at one zoom level, it can be made from the same tile at a finer zoom level by scaling it down.
+ * <br><br>
+ * The methods may be called from the tile threads.
+ */
+class PreviewTileCache {
+
+    private final LinkedHashMap<Key, BufferedImage> tiles = new LinkedHashMap<>(256, 0.75f, true);
+    private final long maxPixels;
+    private long pixels;
+
+    /**
+     * @param maxPixels the number of pixels of all tiles above which the least recently used tiles are dropped
+     */
+    PreviewTileCache(long maxPixels) {
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * @return the tile, or <code>null</code> if it is not in the cache
+     */
+    synchronized BufferedImage get(Key key) {
+        return tiles.get(key);
+    }
+
+    /**
+     * Looks for the tile at the finer zoom levels (half the scale, a quarter, ...) and scales it down.
+     * The scaled down tile is added to the cache.
+     * @return the tile, or <code>null</code> if it is not in the cache at any finer zoom level
+     */
+    BufferedImage getFromFinerTile(Key key, int tileSize) {
+        for (int scale = key.scale / 2; scale >= 1; scale /= 2) {
+            BufferedImage finer = get(key.withScale(scale));
+            if (finer != null) {
+                BufferedImage tile = scaleDown(finer, getTileResolution(tileSize, key.scale));
+                put(key, tile);
+                return tile;
+            }
+        }
+        return null;
+    }
+
+    synchronized void put(Key key, BufferedImage tile) {
+        BufferedImage old = tiles.put(key, tile);
+        if (old != null) {
+            pixels -= pixelCount(old);
+        }
+        pixels += pixelCount(tile);
+
+        Iterator<BufferedImage> leastRecentlyUsed = tiles.values().iterator();
+        while (pixels > maxPixels && leastRecentlyUsed.hasNext()) {
+            pixels -= pixelCount(leastRecentlyUsed.next());
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    synchronized int size() {
+        return tiles.size();
+    }
+
+    synchronized long getPixelCount() {
+        return pixels;
+    }
+
+    synchronized void clear() {
+        tiles.clear();
+        pixels = 0;
+    }
+
+    /**
+     * @param tileSize the edge length of a tile, in blocks
+     * @param scale the number of blocks per pixel
+     * @return the edge length of a tile displayed at that scale, in pixels
+     */
+    static int getTileResolution(int tileSize, int scale) {
+        return Math.max(1, (tileSize + scale - 1) / scale);
+    }
+
+    static BufferedImage scaleDown(BufferedImage image, int resolution) {
+        if (image.getWidth() == resolution && image.getHeight() == resolution) {
+            return image;
+        }
+        BufferedImage scaled = new BufferedImage(image.getColorModel(),
+                image.getColorModel().createCompatibleWritableRaster(resolution, resolution), false, null);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, resolution, resolution, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    private static long pixelCount(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight();
+    }
+
+    /**
+     * Identifies a tile: what was generated (seed, generator configuration and layers), where and at which scale.
+     */
+    static final class Key {
+        private final String seed;
+        private final Map<String, Component> configuration;
+        private final int layerVersion;
+        private final ImmutableVector2i position;
+        private final int scale;
+
+        /**
+         * @param seed the world seed
+         * @param configuration the properties of the world generator. Changed properties are replaced by new
+         *                      component instances, so their identity tells whether they changed.
+         * @param layerVersion the number of changes to the facet layers so far
+         * @param position the tile position, in tiles
+         * @param scale the number of blocks per pixel
+         */
+        Key(String seed, Map<String, Component> configuration, int layerVersion, ImmutableVector2i position, int scale) {
+            this.seed = seed;
+            this.configuration = ImmutableMap.copyOf(configuration);
+            this.layerVersion = layerVersion;
+            this.position = position;
+            this.scale = scale;
+        }
+
+        Key withScale(int otherScale) {
+            return new Key(seed, configuration, layerVersion, position, otherScale);
+        }
+
+        int getScale() {
+            return scale;
+        }
+
+        ImmutableVector2i getPosition() {
+            return position;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return layerVersion == other.layerVersion && scale == other.scale && position.equals(other.position)
+                    && Objects.equals(seed, other.seed) && configuration.equals(other.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(seed, layerVersion, position, scale);
+        }
+
+        @Override
+        public String toString() {
+            return "Tile " + position + " at scale " + scale;
+        }
+    }
+}
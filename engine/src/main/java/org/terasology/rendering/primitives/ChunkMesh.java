@@ -28,6 +28,7 @@
 import org.terasology.module.sandbox.API;
 import org.terasology.rendering.VertexBufferObjectUtil;
 import org.terasology.rendering.assets.material.Material;
+import org.terasology.rendering.world.ChunkFaceConnectivity;
 import org.terasology.world.chunks.ChunkConstants;
 
 import java.nio.IntBuffer;
@@ -115,6 +116,9 @@ public enum RenderPhase {
     private int timeToGenerateBlockVertices;
     private int timeToGenerateOptimizedBuffers;
 
+    /* OCCLUSION */
+    private long faceConnectivity = ChunkFaceConnectivity.ALL_CONNECTED;
+
     private GLBufferPool bufferPool;
 
     public ChunkMesh(GLBufferPool bufferPool) {
@@ -359,6 +363,17 @@ public int getTimeToGenerateOptimizedBuffers() {
         return timeToGenerateOptimizedBuffers;
     }
 
+    void setFaceConnectivity(long faceConnectivity) {
+        this.faceConnectivity = faceConnectivity;
+    }
+
+    /**
+     * @return Which faces of the chunk can be seen through the chunk from which other faces, see {@link ChunkFaceConnectivity}
+     */
+    public long getFaceConnectivity() {
+        return faceConnectivity;
+    }
+
     /**
      * Data structure for storing vertex data. Abused like a "struct" in C/C++. Just sad.
      */
@@ -24,6 +24,7 @@
 import org.terasology.math.geom.Vector3f;
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.rendering.RenderMath;
+import org.terasology.rendering.world.ChunkFaceConnectivity;
 import org.terasology.world.ChunkView;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.ChunkConstants;
@@ -64,6 +65,12 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
 
+        if (meshHeight == ChunkConstants.SIZE_Y) {
+            PerformanceMonitor.startActivity("FaceConnectivity");
+            mesh.setFaceConnectivity(ChunkFaceConnectivity.compute(chunkView));
+            PerformanceMonitor.endActivity();
+        }
+
         watch.reset().start();
         generateOptimizedBuffers(chunkView, mesh);
         watch.stop();
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.Side;
+import org.terasology.world.ChunkView;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Which faces of a chunk can be seen from which other faces, looking through the chunk.
+ * <br><br>
+ * Two faces are connected if a path of blocks that do not block the sight leads from one to the other. The
+ * connectivity is computed once per chunk when its mesh is generated, and lets the {@link ChunkOcclusionCuller} skip
+ * the chunks hidden behind solid terrain.
+ * <br><br>
+ * The connectivity is stored in a long: the bit {@code from * 6 + to} is set if the faces {@code from} and {@code to}
+ * (by {@link Side#ordinal()}) are connected. The relation is symmetric.
+ */
+public final class ChunkFaceConnectivity {
+
+    /**
+     * All faces are connected to each other, as for an empty chunk.
+     */
+    public static final long ALL_CONNECTED = (1L << (Side.values().length * Side.values().length)) - 1;
+
+    /**
+     * No face is connected to another one, as for a chunk without any path through it.
+     */
+    public static final long NONE_CONNECTED = 0L;
+
+    private static final int SIDE_COUNT = Side.values().length;
+    private static final int VOLUME = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z;
+    private static final int LAYER = ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z;
+
+    private ChunkFaceConnectivity() {
+    }
+
+    /**
+     * @return Whether the sight can pass through a chunk with the given connectivity from one face to the other
+     */
+    public static boolean isConnected(long connectivity, Side from, Side to) {
+        return (connectivity & bit(from.ordinal(), to.ordinal())) != 0;
+    }
+
+    /**
+     * @return The connectivity with the given faces connected to each other
+     */
+    public static long connect(long connectivity, Side from, Side to) {
+        return connectivity | bit(from.ordinal(), to.ordinal()) | bit(to.ordinal(), from.ordinal());
+    }
+
+    /**
+     * Computes the connectivity of the chunk at the center of a view, in local block coordinates.
+     */
+    public static long compute(ChunkView view) {
+        Map<Block, Boolean> opaqueBlocks = Maps.newIdentityHashMap();
+        BitSet opaque = new BitSet(VOLUME);
+        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    Block block = view.getBlock(x, y, z);
+                    if (block != null && opaqueBlocks.computeIfAbsent(block, ChunkFaceConnectivity::isOpaque)) {
+                        opaque.set(index(x, y, z));
+                    }
+                }
+            }
+        }
+        return compute(opaque);
+    }
+
+    /**
+     * Computes the connectivity of a chunk by flood filling the blocks that do not block the sight, starting from
+     * every such block on the faces of the chunk.
+     *
+     * @param opaque The blocks that block the sight, indexed by {@link #index(int, int, int)}
+     */
+    public static long compute(BitSet opaque) {
+        BitSet visited = (BitSet) opaque.clone();
+        int[] queue = new int[VOLUME];
+        long connectivity = NONE_CONNECTED;
+
+        for (int start = visited.nextClearBit(0); start < VOLUME; start = visited.nextClearBit(start + 1)) {
+            if (faces(start) == 0) {
+                continue;
+            }
+            int faces = 0;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            visited.set(start);
+            while (head < tail) {
+                int current = queue[head++];
+                faces |= faces(current);
+                int x = current % ChunkConstants.SIZE_X;
+                int z = (current / ChunkConstants.SIZE_X) % ChunkConstants.SIZE_Z;
+                int y = current / LAYER;
+                if (x > 0) {
+                    tail = visit(current - 1, visited, queue, tail);
+                }
+                if (x < ChunkConstants.SIZE_X - 1) {
+                    tail = visit(current + 1, visited, queue, tail);
+                }
+                if (z > 0) {
+                    tail = visit(current - ChunkConstants.SIZE_X, visited, queue, tail);
+                }
+                if (z < ChunkConstants.SIZE_Z - 1) {
+                    tail = visit(current + ChunkConstants.SIZE_X, visited, queue, tail);
+                }
+                if (y > 0) {
+                    tail = visit(current - LAYER, visited, queue, tail);
+                }
+                if (y < ChunkConstants.SIZE_Y - 1) {
+                    tail = visit(current + LAYER, visited, queue, tail);
+                }
+            }
+            connectivity |= connectAll(faces);
+            if (connectivity == ALL_CONNECTED) {
+                break;
+            }
+        }
+        return connectivity;
+    }
+
+    /**
+     * @return The index of a block of a chunk, in local block coordinates
+     */
+    public static int index(int x, int y, int z) {
+        return (y * ChunkConstants.SIZE_Z + z) * ChunkConstants.SIZE_X + x;
+    }
+
+    /**
+     * A block blocks the sight if it is drawn, not translucent and fills all of its sides.
+     */
+    private static boolean isOpaque(Block block) {
+        if (block.getMeshGenerator() == null || block.isTranslucent()) {
+            return false;
+        }
+        for (Side side : Side.values()) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int visit(int index, BitSet visited, int[] queue, int tail) {
+        if (!visited.get(index)) {
+            visited.set(index);
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+
+    /**
+     * @return The faces of the chunk the block at the index lies on, as a mask of side ordinals
+     */
+    private static int faces(int index) {
+        int x = index % ChunkConstants.SIZE_X;
+        int z = (index / ChunkConstants.SIZE_X) % ChunkConstants.SIZE_Z;
+        int y = index / LAYER;
+        int faces = 0;
+        if (x == 0) {
+            faces |= 1 << Side.LEFT.ordinal();
+        } else if (x == ChunkConstants.SIZE_X - 1) {
+            faces |= 1 << Side.RIGHT.ordinal();
+        }
+        if (y == 0) {
+            faces |= 1 << Side.BOTTOM.ordinal();
+        } else if (y == ChunkConstants.SIZE_Y - 1) {
+            faces |= 1 << Side.TOP.ordinal();
+        }
+        if (z == 0) {
+            faces |= 1 << Side.FRONT.ordinal();
+        } else if (z == ChunkConstants.SIZE_Z - 1) {
+            faces |= 1 << Side.BACK.ordinal();
+        }
+        return faces;
+    }
+
+    private static long connectAll(int faces) {
+        long connectivity = NONE_CONNECTED;
+        for (int from = 0; from < SIDE_COUNT; from++) {
+            if ((faces & (1 << from)) != 0) {
+                for (int to = 0; to < SIDE_COUNT; to++) {
+                    if ((faces & (1 << to)) != 0) {
+                        connectivity |= bit(from, to);
+                    }
+                }
+            }
+        }
+        return connectivity;
+    }
+
+    private static long bit(int from, int to) {
+        return 1L << (from * SIDE_COUNT + to);
+    }
+}
@@ -22,7 +22,9 @@
 import org.terasology.math.ChunkMath;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.monitoring.chunk.ChunkStage;
 import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkTessellator;
 import org.terasology.utilities.concurrency.TaskMaster;
@@ -112,6 +114,7 @@ public List<RenderableChunk> availableChunksForUpdate() {
 
     private void executeChunkUpdate(final RenderableChunk c) {
         chunksProcessing.add(c);
+        ChunkLifecycleTracer.enqueued(c.getPosition(), ChunkStage.MESH);
 
         ChunkUpdateTask task = new ChunkUpdateTask(c, tessellator, worldProvider, this);
         try {
@@ -122,6 +125,7 @@ private void executeChunkUpdate(final RenderableChunk c) {
     }
 
     private void finishedProcessing(RenderableChunk c) {
+        ChunkLifecycleTracer.enqueued(c.getPosition(), ChunkStage.MESH_UPLOAD);
         chunksComplete.add(c);
     }
 
@@ -162,6 +166,7 @@ public boolean isTerminateSignal() {
         @Override
         public void run() {
             ChunkMesh newMesh;
+            long startTime = ChunkLifecycleTracer.started(c.getPosition(), ChunkStage.MESH);
             ChunkView chunkView = worldProvider.getLocalView(c.getPosition());
             if (chunkView != null) {
                 /*
@@ -177,6 +182,7 @@ public void run() {
                 }
 
             }
+            ChunkLifecycleTracer.finished(ChunkStage.MESH, startTime);
             chunkMeshUpdateManager.finishedProcessing(c);
             // Clean these up because the task executor holds the object in memory.
             c = null;
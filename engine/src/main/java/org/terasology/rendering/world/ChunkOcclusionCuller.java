@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+
+import java.util.Arrays;
+
+/**
+ * Finds the chunks that may be seen from the camera, walking from the camera's chunk through the faces of the chunks
+ * the sight can pass through (see {@link ChunkFaceConnectivity}).
+ * <br><br>
+ * The walk only ever steps away from the camera's chunk, as a line of sight does, and only into chunks in the view
+ * frustum. A chunk is entered through a face and left through the faces connected to it. The chunks that are never
+ * reached are hidden behind solid terrain and need not be drawn.
+ * <br><br>
+ * The culling is conservative: a chunk whose connectivity is not known yet is treated as empty, so nothing that may be
+ * seen is culled. It is not exact, as the connectivity does not keep track of where on a face the sight enters.
+ */
+public class ChunkOcclusionCuller {
+
+    /**
+     * Provides the chunks around the camera to the culler.
+     */
+    public interface ChunkGraph {
+
+        /**
+         * @return The face connectivity of the chunk at the position, {@link ChunkFaceConnectivity#ALL_CONNECTED} if
+         * it is not known
+         */
+        long getFaceConnectivity(Vector3i chunkPosition);
+
+        /**
+         * @return Whether the chunk at the position is inside the view frustum of the camera
+         */
+        boolean isInSight(Vector3i chunkPosition);
+    }
+
+    private static final Side[] SIDES = Side.values();
+    private static final int IN_QUEUE = 1 << 6;
+    private static final int CAMERA = 1 << 7;
+    private static final int ENTERED_FACES = (1 << SIDES.length) - 1;
+
+    private final Vector3i regionMin = new Vector3i();
+    private final Vector3i regionSize = new Vector3i();
+    private final Vector3i cameraChunk = new Vector3i();
+    private byte[] reached = new byte[0];
+    private int[] queue = new int[0];
+    private int reachedCount;
+    private boolean enabled;
+
+    /**
+     * Walks the chunks of the region from the camera's chunk. If the camera is outside the region, all chunks are
+     * considered visible.
+     *
+     * @param region The region to walk, usually the renderable region
+     * @param cameraPosition The position of the chunk the camera is in
+     * @param graph The chunks of the region
+     */
+    public void update(Region3i region, Vector3i cameraPosition, ChunkGraph graph) {
+        regionMin.set(region.min());
+        regionSize.set(region.size());
+        cameraChunk.set(cameraPosition);
+        reachedCount = 0;
+        enabled = region.encompasses(cameraPosition);
+        if (!enabled) {
+            return;
+        }
+
+        int volume = regionSize.x * regionSize.y * regionSize.z;
+        if (reached.length < volume) {
+            reached = new byte[volume];
+            queue = new int[volume];
+        } else {
+            Arrays.fill(reached, 0, volume, (byte) 0);
+        }
+
+        Vector3i position = new Vector3i();
+        Vector3i neighbour = new Vector3i();
+        int head = 0;
+        int size = 1;
+        int start = index(cameraPosition);
+        reached[start] = (byte) (CAMERA | IN_QUEUE);
+        queue[0] = start;
+        reachedCount = 1;
+
+        while (size > 0) {
+            int current = queue[head];
+            head = (head + 1) % volume;
+            size--;
+            reached[current] &= ~IN_QUEUE;
+            position(current, position);
+
+            int entered = reached[current] & 0xFF;
+            long connectivity = graph.getFaceConnectivity(position);
+            for (Side side : SIDES) {
+                Vector3i step = side.getVector3i();
+                neighbour.set(position.x + step.x, position.y + step.y, position.z + step.z);
+                if (!region.encompasses(neighbour) || !isAwayFromCamera(position, step)
+                        || !canLeave(entered, connectivity, side)) {
+                    continue;
+                }
+                int next = index(neighbour);
+                int face = 1 << side.reverse().ordinal();
+                if ((reached[next] & face) != 0 || !graph.isInSight(neighbour)) {
+                    continue;
+                }
+                if ((reached[next] & ENTERED_FACES) == 0) {
+                    reachedCount++;
+                }
+                reached[next] |= face;
+                if ((reached[next] & IN_QUEUE) == 0) {
+                    reached[next] |= IN_QUEUE;
+                    queue[(head + size) % volume] = next;
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether the chunk was reached by the last update. Chunks outside of the walked region are visible.
+     */
+    public boolean isVisible(Vector3i chunkPosition) {
+        if (!enabled || !isInRegion(chunkPosition)) {
+            return true;
+        }
+        return reached[index(chunkPosition)] != 0;
+    }
+
+    /**
+     * @return The number of chunks reached by the last update, including the camera's chunk
+     */
+    public int getReachedCount() {
+        return reachedCount;
+    }
+
+    private boolean canLeave(int entered, long connectivity, Side exit) {
+        if ((entered & CAMERA) != 0) {
+            return true;
+        }
+        for (Side side : SIDES) {
+            if ((entered & (1 << side.ordinal())) != 0 && ChunkFaceConnectivity.isConnected(connectivity, side, exit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A line of sight from the camera's chunk never comes back along any axis.
+     */
+    private boolean isAwayFromCamera(Vector3i position, Vector3i step) {
+        return (position.x - cameraChunk.x) * step.x >= 0
+                && (position.y - cameraChunk.y) * step.y >= 0
+                && (position.z - cameraChunk.z) * step.z >= 0;
+    }
+
+    private boolean isInRegion(Vector3i position) {
+        return position.x >= regionMin.x && position.x < regionMin.x + regionSize.x
+                && position.y >= regionMin.y && position.y < regionMin.y + regionSize.y
+                && position.z >= regionMin.z && position.z < regionMin.z + regionSize.z;
+    }
+
+    private int index(Vector3i position) {
+        return ((position.y - regionMin.y) * regionSize.z + position.z - regionMin.z) * regionSize.x + position.x - regionMin.x;
+    }
+
+    private void position(int index, Vector3i output) {
+        output.set(regionMin.x + index % regionSize.x,
+                regionMin.y + index / (regionSize.x * regionSize.z),
+                regionMin.z + (index / regionSize.x) % regionSize.z);
+    }
+}
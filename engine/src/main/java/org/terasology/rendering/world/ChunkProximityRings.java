@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.RenderableChunk;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The chunks around the camera, kept in front to back order without ever sorting them all.
+ * <br><br>
+ * The chunks are put into rings by their distance from the chunk the camera is in, each ring covering
+ * {@link #RING_WIDTH} blocks of distance. A ring is kept sorted by distance, so adding a chunk only shifts the
+ * chunks of its ring. Only when the camera moves into another chunk are all the chunks sorted again.
+ * <br><br>
+ * The order is the one seen from the center of the camera's chunk, not from the camera itself. It is therefore exact
+ * up to the position of the camera within its chunk, which is close enough for drawing front to back.
+ */
+public class ChunkProximityRings implements Iterable<RenderableChunk> {
+
+    /**
+     * The width of a ring, in blocks.
+     */
+    public static final int RING_WIDTH = ChunkConstants.SIZE_X;
+
+    private final List<List<RenderableChunk>> rings = Lists.newArrayList();
+    private final Map<Vector3i, RenderableChunk> chunks = Maps.newHashMap();
+    private final Vector3i center = new Vector3i();
+    private final Comparator<RenderableChunk> byDistance = Comparator.comparingLong(this::distanceKey);
+
+    /**
+     * Moves the center the chunks are ordered around. Reorders all the chunks if the center changes.
+     *
+     * @param chunkPosition The position of the chunk the camera is in
+     */
+    public void setCenter(Vector3i chunkPosition) {
+        if (center.equals(chunkPosition)) {
+            return;
+        }
+        center.set(chunkPosition);
+        RenderableChunk[] sorted = chunks.values().toArray(new RenderableChunk[chunks.size()]);
+        Arrays.sort(sorted, byDistance);
+        for (List<RenderableChunk> ring : rings) {
+            ring.clear();
+        }
+        for (RenderableChunk chunk : sorted) {
+            getRing(distanceKey(chunk)).add(chunk);
+        }
+    }
+
+    /**
+     * Adds a chunk in its place.
+     *
+     * @return false if there already is a chunk at its position
+     */
+    public boolean add(RenderableChunk chunk) {
+        if (chunks.putIfAbsent(chunk.getPosition(), chunk) != null) {
+            return false;
+        }
+        long key = distanceKey(chunk);
+        List<RenderableChunk> ring = getRing(key);
+        int low = 0;
+        int high = ring.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (distanceKey(ring.get(middle)) <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        ring.add(low, chunk);
+        return true;
+    }
+
+    /**
+     * Removes the chunk at a position.
+     *
+     * @return The removed chunk, or null if there was none
+     */
+    public RenderableChunk remove(Vector3i chunkPosition) {
+        RenderableChunk chunk = chunks.remove(chunkPosition);
+        if (chunk != null) {
+            getRing(distanceKey(chunk)).remove(chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * @return The chunk at a position, or null if there is none
+     */
+    public RenderableChunk get(Vector3i chunkPosition) {
+        return chunks.get(chunkPosition);
+    }
+
+    public boolean contains(RenderableChunk chunk) {
+        return chunks.get(chunk.getPosition()) == chunk;
+    }
+
+    public int size() {
+        return chunks.size();
+    }
+
+    public void clear() {
+        chunks.clear();
+        for (List<RenderableChunk> ring : rings) {
+            ring.clear();
+        }
+    }
+
+    /**
+     * @return The chunks, from the nearest to the farthest
+     */
+    @Override
+    public Iterator<RenderableChunk> iterator() {
+        return Iterators.unmodifiableIterator(Iterators.concat(Iterators.transform(rings.iterator(), List::iterator)));
+    }
+
+    private List<RenderableChunk> getRing(long distanceKey) {
+        int index = (int) Math.sqrt(distanceKey) / RING_WIDTH;
+        while (rings.size() <= index) {
+            rings.add(Lists.newArrayList());
+        }
+        return rings.get(index);
+    }
+
+    /**
+     * @return The squared distance between the centers of the chunk and of the center chunk, in blocks
+     */
+    private long distanceKey(RenderableChunk chunk) {
+        Vector3i position = chunk.getPosition();
+        long dx = (long) (position.x - center.x) * ChunkConstants.SIZE_X;
+        long dy = (long) (position.y - center.y) * ChunkConstants.SIZE_Y;
+        long dz = (long) (position.z - center.z) * ChunkConstants.SIZE_Z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
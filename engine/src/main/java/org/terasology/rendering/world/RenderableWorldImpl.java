@@ -15,18 +15,20 @@
  */
 package org.terasology.rendering.world;
 
-import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.config.Config;
 import org.terasology.config.RenderingConfig;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.AABB;
+import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
+import org.terasology.monitoring.chunk.ChunkStage;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.cameras.Camera;
 import org.terasology.rendering.primitives.ChunkMesh;
@@ -39,11 +41,8 @@
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.RenderableChunk;
 
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * TODO: write javadoc unless this class gets slated for removal, which might be.
@@ -53,7 +52,6 @@ class RenderableWorldImpl implements RenderableWorld {
     private static final int MAX_ANIMATED_CHUNKS = 64;
     private static final int MAX_BILLBOARD_CHUNKS = 64;
     private static final int MAX_LOADABLE_CHUNKS = ViewDistance.MEGA.getChunkDistance().x * ViewDistance.MEGA.getChunkDistance().y * ViewDistance.MEGA.getChunkDistance().z;
-    private static final Vector3f CHUNK_CENTER_OFFSET = new Vector3f(0.5f, 0.5f, 0.5f);
 
     private static final Logger logger = LoggerFactory.getLogger(RenderableWorldImpl.class);
 
@@ -64,7 +62,31 @@ class RenderableWorldImpl implements RenderableWorld {
 
     private ChunkTessellator chunkTessellator;
     private final ChunkMeshUpdateManager chunkMeshUpdateManager;
-    private final List<RenderableChunk> chunksInProximityOfCamera = Lists.newArrayListWithCapacity(MAX_LOADABLE_CHUNKS);
+    private final ChunkProximityRings chunksInProximityOfCamera = new ChunkProximityRings();
+    private final ChunkOcclusionCuller occlusionCuller = new ChunkOcclusionCuller();
+    private final ChunkOcclusionCuller.ChunkGraph chunksSeenFromCamera = new ChunkOcclusionCuller.ChunkGraph() {
+        @Override
+        public long getFaceConnectivity(Vector3i chunkPosition) {
+            RenderableChunk chunk = chunksInProximityOfCamera.get(chunkPosition);
+            if (chunk != null && chunk.hasMesh()) {
+                return chunk.getMesh().getFaceConnectivity();
+            }
+            return ChunkFaceConnectivity.ALL_CONNECTED;
+        }
+
+        @Override
+        public boolean isInSight(Vector3i chunkPosition) {
+            RenderableChunk chunk = chunksInProximityOfCamera.get(chunkPosition);
+            if (chunk != null) {
+                return isChunkVisible(chunk);
+            }
+            Vector3f min = new Vector3f(chunkPosition.x * ChunkConstants.SIZE_X, chunkPosition.y * ChunkConstants.SIZE_Y,
+                    chunkPosition.z * ChunkConstants.SIZE_Z);
+            Vector3f max = ChunkConstants.CHUNK_SIZE.toVector3f();
+            max.add(min);
+            return playerCamera.hasInSight(AABB.createMinMax(min, max));
+        }
+    };
     private Region3i renderableRegion = Region3i.empty();
     private ViewDistance currentViewDistance;
     private RenderQueuesHelper renderQueues;
@@ -77,6 +99,7 @@ class RenderableWorldImpl implements RenderableWorld {
 
     private int statDirtyChunks;
     private int statVisibleChunks;
+    private int statOccludedChunks;
     private int statIgnoredPhases;
 
 
@@ -92,11 +115,12 @@ class RenderableWorldImpl implements RenderableWorld {
 
         this.playerCamera = playerCamera;
 
-        renderQueues = new RenderQueuesHelper(new PriorityQueue<>(MAX_LOADABLE_CHUNKS, new ChunkFrontToBackComparator()),
-                new PriorityQueue<>(MAX_LOADABLE_CHUNKS, new ChunkFrontToBackComparator()),
-                new PriorityQueue<>(MAX_LOADABLE_CHUNKS, new ChunkFrontToBackComparator()),
-                new PriorityQueue<>(MAX_LOADABLE_CHUNKS, new ChunkFrontToBackComparator()),
-                new PriorityQueue<>(MAX_LOADABLE_CHUNKS, new ChunkBackToFrontComparator()));
+        // The chunks are queued in the front to back order of chunksInProximityOfCamera
+        renderQueues = new RenderQueuesHelper(new ArrayDeque<>(MAX_LOADABLE_CHUNKS),
+                new ArrayDeque<>(MAX_LOADABLE_CHUNKS),
+                new ArrayDeque<>(MAX_LOADABLE_CHUNKS),
+                new ArrayDeque<>(MAX_LOADABLE_CHUNKS),
+                new ArrayDeque<>(MAX_LOADABLE_CHUNKS));
     }
 
     @Override
@@ -105,7 +129,6 @@ public void onChunkLoaded(Vector3i chunkCoordinates) {
             Chunk chunk = chunkProvider.getChunk(chunkCoordinates);
             if (chunk != null) {
                 chunksInProximityOfCamera.add(chunk);
-                Collections.sort(chunksInProximityOfCamera, new ChunkFrontToBackComparator());
             } else {
                 logger.warn("Warning: onChunkLoaded called for a null chunk!");
             }
@@ -115,15 +138,9 @@ public void onChunkLoaded(Vector3i chunkCoordinates) {
     @Override
     public void onChunkUnloaded(Vector3i chunkCoordinates) {
         if (renderableRegion.encompasses(chunkCoordinates)) {
-            RenderableChunk chunk;
-            Iterator<RenderableChunk> iterator = chunksInProximityOfCamera.iterator();
-            while (iterator.hasNext()) {
-                chunk = iterator.next();
-                if (chunk.getPosition().equals(chunkCoordinates)) {
-                    chunk.disposeMesh();
-                    iterator.remove();
-                    break;
-                }
+            RenderableChunk chunk = chunksInProximityOfCamera.remove(chunkCoordinates);
+            if (chunk != null) {
+                chunk.disposeMesh();
             }
         }
     }
@@ -201,32 +218,26 @@ public boolean updateChunksInProximity(Region3i newRenderableRegion) {
 
             Iterator<Vector3i> chunksToRemove = renderableRegion.subtract(newRenderableRegion);
             while (chunksToRemove.hasNext()) {
-                chunkPosition = chunksToRemove.next();
-                Iterator<RenderableChunk> nearbyChunks = chunksInProximityOfCamera.iterator();
-                while (nearbyChunks.hasNext()) {
-                    chunk = nearbyChunks.next();
-                    if (chunk.getPosition().equals(chunkPosition)) {
-                        chunk.disposeMesh();
-                        nearbyChunks.remove();
-                        break;
-                    }
+                chunk = chunksInProximityOfCamera.remove(chunksToRemove.next());
+                if (chunk != null) {
+                    chunk.disposeMesh();
                 }
             }
 
-            boolean chunksHaveBeenAdded = false;
+            // The renderable region is centered on the chunk of the camera
+            Vector3i regionSize = newRenderableRegion.size();
+            chunksInProximityOfCamera.setCenter(new Vector3i(newRenderableRegion.minX() + regionSize.x / 2,
+                    newRenderableRegion.minY() + regionSize.y / 2, newRenderableRegion.minZ() + regionSize.z / 2));
+
             Iterator<Vector3i> chunksToAdd = newRenderableRegion.subtract(renderableRegion);
             while (chunksToAdd.hasNext()) {
                 chunkPosition = chunksToAdd.next();
                 chunk = chunkProvider.getChunk(chunkPosition);
                 if (chunk != null) {
                     chunksInProximityOfCamera.add(chunk);
-                    chunksHaveBeenAdded = true;
                 }
             }
 
-            if (chunksHaveBeenAdded) {
-                Collections.sort(chunksInProximityOfCamera, new ChunkFrontToBackComparator());
-            }
             renderableRegion = newRenderableRegion;
             return true;
         }
@@ -270,7 +281,7 @@ public void generateVBOs() {
         ChunkMesh pendingMesh;
         chunkMeshUpdateManager.setCameraPosition(playerCamera.getPosition());
         for (RenderableChunk chunk : chunkMeshUpdateManager.availableChunksForUpdate()) {
-
+            long startTime = ChunkLifecycleTracer.started(chunk.getPosition(), ChunkStage.MESH_UPLOAD);
             if (chunk.hasPendingMesh() && chunksInProximityOfCamera.contains(chunk)) {
                 pendingMesh = chunk.getPendingMesh();
                 pendingMesh.generateVBOs();
@@ -279,6 +290,7 @@ public void generateVBOs() {
                 }
                 chunk.setMesh(pendingMesh);
                 chunk.setPendingMesh(null);
+                ChunkLifecycleTracer.finished(ChunkStage.MESH_UPLOAD, startTime);
 
             } else {
                 if (chunk.hasPendingMesh()) {
@@ -299,6 +311,11 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         statDirtyChunks = 0;
         statVisibleChunks = 0;
         statIgnoredPhases = 0;
+        statOccludedChunks = 0;
+
+        PerformanceMonitor.startActivity("Occlusion Culling");
+        occlusionCuller.update(renderableRegion, ChunkMath.calcChunkPos(playerCamera.getPosition()), chunksSeenFromCamera);
+        PerformanceMonitor.endActivity();
 
         int processedChunks = 0;
         int chunkCounter = 0;
@@ -317,7 +334,13 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                     }
                 }
 
-                if (isChunkVisible(chunk)) {
+                boolean isVisible = isChunkVisible(chunk);
+                if (isVisible && !occlusionCuller.isVisible(chunk.getPosition())) {
+                    isVisible = false;
+                    statOccludedChunks++;
+                }
+
+                if (isVisible) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaque.add(chunk);
                     } else {
@@ -325,7 +348,8 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                     }
 
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.REFRACTIVE) > 0) {
-                        renderQueues.chunksAlphaBlend.add(chunk);
+                        // Alpha blended chunks are rendered back to front
+                        renderQueues.chunksAlphaBlend.addFirst(chunk);
                     } else {
                         statIgnoredPhases++;
                     }
@@ -427,62 +451,9 @@ public String getMetrics() {
         stringToReturn += "Visible Chunks: ";
         stringToReturn += statVisibleChunks;
         stringToReturn += "\n";
+        stringToReturn += "Occluded Chunks: ";
+        stringToReturn += statOccludedChunks;
+        stringToReturn += "\n";
         return stringToReturn;
     }
-
-    private static float squaredDistanceToCamera(RenderableChunk chunk, Vector3f cameraPosition) {
-        // For performance reasons, to avoid instantiating too many vectors in a frequently called method,
-        // comments are in use instead of appropriately named vectors.
-        Vector3f result = chunk.getPosition().toVector3f(); // chunk position in chunk coordinates
-        result.add(CHUNK_CENTER_OFFSET);                    // chunk center in chunk coordinates
-
-        result.x *= ChunkConstants.SIZE_X;    // chunk center in world coordinates
-        result.y *= ChunkConstants.SIZE_Y;
-        result.z *= ChunkConstants.SIZE_Z;
-
-        result.sub(cameraPosition); // camera to chunk vector
-
-        return result.lengthSquared();
-    }
-
-    // TODO: find the right place to check if the activeCamera has changed,
-    // TODO: so that the comparators can hold an up-to-date reference to it
-    // TODO: and avoid having to find it on a per-comparison basis.
-    private static class ChunkFrontToBackComparator implements Comparator<RenderableChunk> {
-
-        @Override
-        public int compare(RenderableChunk chunk1, RenderableChunk chunk2) {
-            Preconditions.checkNotNull(chunk1);
-            Preconditions.checkNotNull(chunk2);
-            Vector3f cameraPosition = CoreRegistry.get(WorldRenderer.class).getActiveCamera().getPosition();
-            double distance1 = squaredDistanceToCamera(chunk1, cameraPosition);
-            double distance2 = squaredDistanceToCamera(chunk2, cameraPosition);
-
-            // Using Double.compare as simple d1 < d2 comparison is flagged as problematic by Jenkins
-            // On the other hand Double.compare can return any positive/negative value apparently,
-            // hence the need for Math.signum().
-            return (int) Math.signum(Double.compare(distance1, distance2));
-        }
-    }
-
-    private static class ChunkBackToFrontComparator implements Comparator<RenderableChunk> {
-
-        @Override
-        public int compare(RenderableChunk chunk1, RenderableChunk chunk2) {
-            Preconditions.checkNotNull(chunk1);
-            Preconditions.checkNotNull(chunk2);
-            Vector3f cameraPosition = CoreRegistry.get(WorldRenderer.class).getActiveCamera().getPosition();
-            double distance1 = squaredDistanceToCamera(chunk1, cameraPosition);
-            double distance2 = squaredDistanceToCamera(chunk2, cameraPosition);
-
-            if (distance1 == distance2) {
-                return 0;
-            } else if (distance2 > distance1) {
-                return 1;
-            } else {
-                return -1;
-            }
-        }
-    }
-
 }
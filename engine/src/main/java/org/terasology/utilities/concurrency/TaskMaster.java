@@ -158,6 +158,13 @@ public void restart() {
         }
     }
 
+    /**
+     * @return The number of tasks waiting to be processed
+     */
+    public int getQueueSize() {
+        return taskQueue.size();
+    }
+
     /**
      * Get the {@link ExecutorService} underlying this TaskMaster. Note that by default the service will have a
      * {@link TaskProcessor} enqueued for each thread. In order to use the ExecutorService directly you will need to
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block.tiles;
+
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Keeps built block atlases on disk, so that an unchanged set of tiles can be loaded without building the atlas
+ * again.
+ * <br><br>
+ * Atlases are stored by a hash of everything they are built from: the atlas and tile sizes, and the name and pixels
+ * of every tile. Only the most recently written atlases are kept.
+ */
+class AtlasCache {
+    private static final Logger logger = LoggerFactory.getLogger(AtlasCache.class);
+
+    private static final int MAGIC = 0x54414C53;
+    private static final int VERSION = 1;
+    private static final int MAX_CACHED_ATLASES = 4;
+    private static final String EXTENSION = ".atlas";
+    private static final int COPY_BUFFER_SIZE = 65536;
+
+    private final Path directory;
+
+    AtlasCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param atlases the tiles of each atlas, in atlas order
+     * @return The key of the atlases built from the given tiles
+     */
+    static String computeKey(int atlasSize, int tileSize, List<List<BlockTile>> atlases) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putInt(VERSION).putInt(atlasSize).putInt(tileSize);
+        for (List<BlockTile> tiles : atlases) {
+            hasher.putInt(tiles.size());
+            for (BlockTile tile : tiles) {
+                if (tile == null) {
+                    hasher.putBoolean(false);
+                    continue;
+                }
+                hasher.putBoolean(true);
+                hasher.putString(tile.getUrn().toString(), StandardCharsets.UTF_8);
+                for (int frameIndex = 0; frameIndex < tile.getLength(); frameIndex++) {
+                    BufferedImage image = tile.getImage(frameIndex);
+                    int size = image.getWidth();
+                    hasher.putInt(size);
+                    ByteBuffer pixels = ByteBuffer.allocate(4 * size * size);
+                    pixels.asIntBuffer().put(image.getRGB(0, 0, size, size, null, 0, size));
+                    hasher.putBytes(pixels.array());
+                }
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * @return The mipmaps of each atlas stored under the key, if they are present and have the expected layout
+     */
+    Optional<ByteBuffer[][]> load(String key, int atlasCount, int mipmapCount) {
+        Path file = directory.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != atlasCount || in.readInt() != mipmapCount) {
+                logger.warn("Ignoring cached atlas {} with an unexpected layout", file);
+                return Optional.empty();
+            }
+            byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
+            ByteBuffer[][] result = new ByteBuffer[atlasCount][mipmapCount];
+            for (int atlas = 0; atlas < atlasCount; atlas++) {
+                for (int level = 0; level < mipmapCount; level++) {
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(in.readInt());
+                    while (buffer.hasRemaining()) {
+                        int length = Math.min(copyBuffer.length, buffer.remaining());
+                        in.readFully(copyBuffer, 0, length);
+                        buffer.put(copyBuffer, 0, length);
+                    }
+                    buffer.flip();
+                    result[atlas][level] = buffer;
+                }
+            }
+            // keep recently used atlases from being pruned
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(result);
+        } catch (IOException e) {
+            logger.warn("Failed to read cached atlas {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the mipmaps of each atlas under the key, and removes the least recently used atlases. The buffers are
+     * read without changing their position.
+     */
+    void save(String key, ByteBuffer[][] atlases) {
+        try {
+            Files.createDirectories(directory);
+            Path tempFile = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)), new Deflater(Deflater.BEST_SPEED), COPY_BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(atlases.length);
+                out.writeInt(atlases[0].length);
+                byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
+                for (ByteBuffer[] mipmaps : atlases) {
+                    for (ByteBuffer mipmap : mipmaps) {
+                        ByteBuffer data = mipmap.duplicate();
+                        data.rewind();
+                        out.writeInt(data.remaining());
+                        while (data.hasRemaining()) {
+                            int length = Math.min(copyBuffer.length, data.remaining());
+                            data.get(copyBuffer, 0, length);
+                            out.write(copyBuffer, 0, length);
+                        }
+                    }
+                }
+            }
+            Path file = directory.resolve(key + EXTENSION);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            prune(file);
+        } catch (IOException e) {
+            logger.warn("Failed to cache atlas {}", key, e);
+        }
+    }
+
+    private void prune(Path savedFile) throws IOException {
+        List<Path> files = Lists.newArrayList();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            stream.forEach(files::add);
+        }
+        files.remove(savedFile);
+        if (files.size() < MAX_CACHED_ATLASES) {
+            return;
+        }
+        files.sort((a, b) -> lastModified(b).compareTo(lastModified(a)));
+        for (Path file : files.subList(MAX_CACHED_ATLASES - 1, files.size())) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
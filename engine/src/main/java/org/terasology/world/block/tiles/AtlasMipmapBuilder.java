@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block.tiles;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Draws the tiles of a block atlas into the RGBA buffer of a single mipmap level.
+ * <br><br>
+ * Tiles are scaled to the tile size of the level by averaging (or repeating) their pixels, and drawn over the clear
+ * color like {@link java.awt.Graphics#drawImage} would. Every level is built from the original tile images, so
+ * the levels of all atlases can be built independently of each other.
+ */
+final class AtlasMipmapBuilder {
+
+    private static final int OPAQUE_BLACK = 0xFF000000;
+
+    private final int atlasSize;
+    private final int tileSize;
+
+    /**
+     * @param atlasSize the width and height of the atlas at mipmap level 0, in pixels
+     * @param tileSize  the width and height of a tile at mipmap level 0, in pixels
+     */
+    AtlasMipmapBuilder(int atlasSize, int tileSize) {
+        this.atlasSize = atlasSize;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * @param mipMapLevel    the level to build, 0 being the full resolution
+     * @param tiles          the tiles in atlas order, null entries leave a tile slot empty
+     * @param clearColor     the ARGB color of the empty parts of the atlas
+     * @param alphaMaskTiles tiles whose blue channel becomes the alpha channel of the atlas, or an empty list
+     * @return A direct buffer with the RGBA pixels of the level, ready to be read
+     */
+    ByteBuffer build(int mipMapLevel, List<BlockTile> tiles, int clearColor, List<BlockTile> alphaMaskTiles) {
+        int size = atlasSize >> mipMapLevel;
+        int[] pixels = drawTiles(mipMapLevel, tiles, clearColor);
+        if (!alphaMaskTiles.isEmpty()) {
+            int[] alphaMask = drawTiles(mipMapLevel, alphaMaskTiles, OPAQUE_BLACK);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = (pixels[i] & 0x00FFFFFF) | (alphaMask[i] << 24);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4 * size * size);
+        IntBuffer rgba = buffer.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+        for (int argb : pixels) {
+            rgba.put((argb << 8) | (argb >>> 24));
+        }
+        return buffer;
+    }
+
+    private int[] drawTiles(int mipMapLevel, List<BlockTile> tiles, int clearColor) {
+        int size = atlasSize >> mipMapLevel;
+        int textureSize = tileSize >> mipMapLevel;
+        int tilesPerDim = atlasSize / tileSize;
+
+        int[] pixels = new int[size * size];
+        Arrays.fill(pixels, clearColor);
+
+        int totalIndex = 0;
+        for (BlockTile tile : tiles) {
+            if (tile == null) {
+                totalIndex++;
+            } else {
+                for (int frameIndex = 0; frameIndex < tile.getLength(); frameIndex++) {
+                    int offsetX = (totalIndex % tilesPerDim) * textureSize;
+                    int offsetY = (totalIndex / tilesPerDim) * textureSize;
+                    int[] tilePixels = scale(tile.getImage(frameIndex), textureSize);
+                    for (int y = 0; y < textureSize; y++) {
+                        int row = (offsetY + y) * size + offsetX;
+                        for (int x = 0; x < textureSize; x++) {
+                            pixels[row + x] = blend(tilePixels[y * textureSize + x], pixels[row + x]);
+                        }
+                    }
+                    totalIndex++;
+                }
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Scales a square, power-of-two sized image to the given size.
+     *
+     * @return The ARGB pixels of the scaled image
+     */
+    static int[] scale(BufferedImage image, int targetSize) {
+        int sourceSize = image.getWidth();
+        int[] source = image.getRGB(0, 0, sourceSize, sourceSize, null, 0, sourceSize);
+        if (sourceSize == targetSize) {
+            return source;
+        }
+
+        int[] result = new int[targetSize * targetSize];
+        if (sourceSize < targetSize) {
+            int factor = targetSize / sourceSize;
+            for (int y = 0; y < targetSize; y++) {
+                for (int x = 0; x < targetSize; x++) {
+                    result[y * targetSize + x] = source[(y / factor) * sourceSize + x / factor];
+                }
+            }
+            return result;
+        }
+
+        // colors are weighted by their alpha, so that invisible pixels do not bleed into the smaller levels. The sums
+        // are longs, as down to a single pixel they exceed the range of an int for tiles of 256 pixels and more.
+        int factor = sourceSize / targetSize;
+        long count = (long) factor * factor;
+        for (int y = 0; y < targetSize; y++) {
+            for (int x = 0; x < targetSize; x++) {
+                long a = 0;
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                for (int sy = y * factor; sy < (y + 1) * factor; sy++) {
+                    for (int sx = x * factor; sx < (x + 1) * factor; sx++) {
+                        int argb = source[sy * sourceSize + sx];
+                        int alpha = argb >>> 24;
+                        a += alpha;
+                        r += ((argb >> 16) & 0xFF) * alpha;
+                        g += ((argb >> 8) & 0xFF) * alpha;
+                        b += (argb & 0xFF) * alpha;
+                    }
+                }
+                if (a > 0) {
+                    result[y * targetSize + x] = divide(a, count) << 24 | divide(r, a) << 16 | divide(g, a) << 8 | divide(b, a);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int divide(int dividend, int divisor) {
+        return (dividend + divisor / 2) / divisor;
+    }
+
+    private static int divide(long dividend, long divisor) {
+        return (int) ((dividend + divisor / 2) / divisor);
+    }
+
+    /**
+     * Draws a pixel over another one (source over destination, neither premultiplied).
+     */
+    static int blend(int source, int destination) {
+        int sourceAlpha = source >>> 24;
+        if (sourceAlpha == 0xFF) {
+            return source;
+        } else if (sourceAlpha == 0) {
+            return destination;
+        }
+        int destinationWeight = divide((destination >>> 24) * (0xFF - sourceAlpha), 0xFF);
+        int alpha = sourceAlpha + destinationWeight;
+        int result = alpha << 24;
+        for (int shift = 0; shift < 24; shift += 8) {
+            int sourceChannel = (source >> shift) & 0xFF;
+            int destinationChannel = (destination >> shift) & 0xFF;
+            result |= divide(sourceChannel * sourceAlpha + destinationChannel * destinationWeight, alpha) << shift;
+        }
+        return result;
+    }
+}
@@ -19,7 +19,8 @@
 import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import com.google.common.math.IntMath;
-import de.matthiasmann.twl.utils.PNGDecoder;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.hash.TObjectIntHashMap;
 import org.slf4j.Logger;
@@ -40,20 +41,27 @@
 import org.terasology.utilities.Assets;
 
 import javax.imageio.ImageIO;
-import java.awt.*;
+import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  */
@@ -61,9 +69,12 @@ public class WorldAtlasImpl implements WorldAtlas {
     private static final Logger logger = LoggerFactory.getLogger(WorldAtlasImpl.class);
 
     private static final int MAX_TILES = 65536;
-    private static final Color UNIT_Z_COLOR = new Color(0.5f, 0.5f, 1.0f, 1.0f);
-    private static final Color TRANSPARENT_COLOR = new Color(0.0f, 0.0f, 0.0f, 0.0f);
-    private static final Color MID_RED_COLOR = new Color(0.5f, 0.0f, 0.0f, 1.0f);
+    private static final int UNIT_Z_COLOR = new Color(0.5f, 0.5f, 1.0f, 1.0f).getRGB();
+    private static final int TRANSPARENT_COLOR = new Color(0.0f, 0.0f, 0.0f, 0.0f).getRGB();
+    private static final int MID_RED_COLOR = new Color(0.5f, 0.0f, 0.0f, 1.0f).getRGB();
+
+    private static final String ATLAS_CACHE_DIR = "atlas";
+    private static final String[] ATLAS_NAMES = {"tiles", "tilesNormal", "tilesHeight"};
 
     private int maxAtlasSize = 4096;
     private int atlasSize = 256;
@@ -215,9 +226,10 @@ private void buildAtlas() {
         calculateAtlasSizes();
 
         int numMipMaps = getNumMipmaps();
-        ByteBuffer[] data = createAtlasMipmaps(numMipMaps, TRANSPARENT_COLOR, tiles, "tiles.png");
-        ByteBuffer[] dataNormal = createAtlasMipmaps(numMipMaps, UNIT_Z_COLOR, tilesNormal, "tilesNormal.png", tilesGloss);
-        ByteBuffer[] dataHeight = createAtlasMipmaps(numMipMaps, MID_RED_COLOR, tilesHeight, "tilesHeight.png");
+        ByteBuffer[][] atlases = loadOrCreateAtlasMipmaps(numMipMaps);
+        ByteBuffer[] data = atlases[0];
+        ByteBuffer[] dataNormal = atlases[1];
+        ByteBuffer[] dataHeight = atlases[2];
 
         TextureData terrainTexData = new TextureData(atlasSize, atlasSize, data, Texture.WrapMode.CLAMP, Texture.FilterMode.NEAREST);
         Texture terrainTex = Assets.generateAsset(new ResourceUrn("engine:terrain"), terrainTexData, Texture.class);
@@ -260,42 +272,97 @@ private void createTextureAtlas(final Texture texture) {
         }
     }
 
-    private ByteBuffer[] createAtlasMipmaps(int numMipMaps, Color initialColor, List<BlockTile> tileImages, String screenshotName) {
-        return createAtlasMipmaps(numMipMaps, initialColor, tileImages, screenshotName, Lists.newArrayList());
-    }
+    /**
+     * Loads the color, normal and height atlases from the cache, or builds them and caches them in the background.
+     *
+     * @return The mipmaps of each atlas
+     */
+    private ByteBuffer[][] loadOrCreateAtlasMipmaps(int numMipMaps) {
+        AtlasCache cache = null;
+        String cacheKey = null;
+        Path cachePath = PathManager.getInstance().getCachePath();
+        if (cachePath != null) {
+            cache = new AtlasCache(cachePath.resolve(ATLAS_CACHE_DIR));
+            cacheKey = AtlasCache.computeKey(atlasSize, tileSize, Arrays.asList(tiles, tilesNormal, tilesGloss, tilesHeight));
+            Optional<ByteBuffer[][]> cached = cache.load(cacheKey, ATLAS_NAMES.length, numMipMaps);
+            if (cached.isPresent()) {
+                logger.info("Loaded the block atlas from the cache");
+                return cached.get();
+            }
+        }
 
-    private ByteBuffer[] createAtlasMipmaps(int numMipMaps, Color initialColor, List<BlockTile> tileImages, String screenshotName, List<BlockTile> alphaMaskTiles) {
-        ByteBuffer[] data = new ByteBuffer[numMipMaps];
-        for (int i = 0; i < numMipMaps; ++i) {
-            BufferedImage image = generateAtlas(i, tileImages, initialColor);
-            if (alphaMaskTiles.size() > 0) {
-                BufferedImage alphaMask = generateAtlas(i, alphaMaskTiles, Color.BLACK);
-                storeGreyscaleMapIntoAlpha(image, alphaMask);
+        // the atlases are written back by the pool once they are built, the pool shuts down after that
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("Atlas-Building-%d").setDaemon(true).build());
+        try {
+            ByteBuffer[][] atlases = createAtlasMipmaps(numMipMaps, executor);
+            if (cache != null) {
+                AtlasCache atlasCache = cache;
+                String key = cacheKey;
+                executor.execute(() -> atlasCache.save(key, atlases));
+            }
+            for (int i = 0; i < ATLAS_NAMES.length; i++) {
+                ByteBuffer level0 = atlases[i][0];
+                int size = atlasSize;
+                String screenshotName = ATLAS_NAMES[i] + ".png";
+                executor.execute(() -> writeScreenshot(level0, size, screenshotName));
             }
+            return atlases;
+        } finally {
+            executor.shutdown();
+        }
+    }
 
-            if (i == 0) {
-                try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(PathManager.getInstance().getScreenshotPath().resolve(screenshotName)))) {
-                    ImageIO.write(image, "png", stream);
-                } catch (IOException e) {
-                    logger.warn("Failed to write atlas");
-                }
+    /**
+     * Builds every mipmap level of the color, normal and height atlases as a separate task.
+     */
+    private ByteBuffer[][] createAtlasMipmaps(int numMipMaps, ExecutorService executor) {
+        AtlasMipmapBuilder builder = new AtlasMipmapBuilder(atlasSize, tileSize);
+        List<List<Future<ByteBuffer>>> pending = Lists.newArrayList();
+        pending.add(submitMipmaps(executor, numMipMaps, level -> builder.build(level, tiles, TRANSPARENT_COLOR, Collections.emptyList())));
+        pending.add(submitMipmaps(executor, numMipMaps, level -> builder.build(level, tilesNormal, UNIT_Z_COLOR, tilesGloss)));
+        pending.add(submitMipmaps(executor, numMipMaps, level -> builder.build(level, tilesHeight, MID_RED_COLOR, Collections.emptyList())));
+
+        ByteBuffer[][] result = new ByteBuffer[pending.size()][numMipMaps];
+        for (int atlas = 0; atlas < pending.size(); atlas++) {
+            for (int level = 0; level < numMipMaps; level++) {
+                result[atlas][level] = Futures.getUnchecked(pending.get(atlas).get(level));
             }
+        }
+        return result;
+    }
 
-            try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-                ImageIO.write(image, "png", bos);
-                PNGDecoder decoder = new PNGDecoder(new ByteArrayInputStream(bos.toByteArray()));
-                ByteBuffer buf = ByteBuffer.allocateDirect(4 * decoder.getWidth() * decoder.getHeight());
-                decoder.decode(buf, decoder.getWidth() * 4, PNGDecoder.Format.RGBA);
-                buf.flip();
-                data[i] = buf;
-            } catch (IOException e) {
-                logger.error("Failed to create atlas texture");
+    private List<Future<ByteBuffer>> submitMipmaps(ExecutorService executor, int numMipMaps, IntFunction<ByteBuffer> mipmapBuilder) {
+        List<Future<ByteBuffer>> result = Lists.newArrayListWithCapacity(numMipMaps);
+        for (int i = 0; i < numMipMaps; i++) {
+            int level = i;
+            result.add(executor.submit(() -> mipmapBuilder.apply(level)));
+        }
+        return result;
+    }
+
+    private void writeScreenshot(ByteBuffer rgba, int size, String screenshotName) {
+        IntBuffer pixels = rgba.duplicate().order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int value = pixels.get(y * size + x);
+                image.setRGB(x, y, (value >>> 8) | (value << 24));
             }
         }
-        return data;
+        try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(PathManager.getInstance().getScreenshotPath().resolve(screenshotName)))) {
+            ImageIO.write(image, "png", stream);
+        } catch (IOException e) {
+            logger.warn("Failed to write atlas");
+        }
     }
 
+    /**
+     * @deprecated The atlas is no longer drawn into BufferedImages. The alpha mask of the normal atlas is now applied
+     * while its mipmaps are built.
+     */
     // Ref: http://stackoverflow.com/questions/221830/set-bufferedimage-alpha-mask-in-java/8058442#8058442
+    @Deprecated
     public void storeGreyscaleMapIntoAlpha(BufferedImage imageWithoutAlpha, BufferedImage greyscaleImage) {
         int width = imageWithoutAlpha.getWidth();
         int height = imageWithoutAlpha.getHeight();
@@ -337,33 +404,4 @@ private void calculateAtlasSizes() {
             }
         }
     }
-
-    private BufferedImage generateAtlas(int mipMapLevel, List<BlockTile> tileImages, Color clearColor) {
-        int size = atlasSize / (1 << mipMapLevel);
-        int textureSize = tileSize / (1 << mipMapLevel);
-        int tilesPerDim = atlasSize / tileSize;
-
-        BufferedImage result = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
-        Graphics g = result.getGraphics();
-
-        g.setColor(clearColor);
-        g.fillRect(0, 0, size, size);
-        
-        int totalIndex = 0;
-        for (int tileIndex = 0; tileIndex < tileImages.size(); tileIndex++) {
-            BlockTile tile = tileImages.get(tileIndex);
-            if (tile == null) {
-                totalIndex++;
-            } else {
-                for (int frameIndex = 0; frameIndex < tile.getLength(); frameIndex++) {
-                    int posX = totalIndex % tilesPerDim;
-                    int posY = totalIndex / tilesPerDim;
-                    g.drawImage(tile.getImage(frameIndex).getScaledInstance(textureSize, textureSize, Image.SCALE_SMOOTH), posX * textureSize, posY * textureSize, null);
-                    totalIndex++;
-                }
-            }
-        }
-
-        return result;
-    }
 }
@@ -58,6 +58,18 @@ public interface CoreChunk {
      */
     Block getBlock(int x, int y, int z);
 
+    /**
+     * Returns the id of the block at given position relative to the chunk, without resolving the block itself.
+     *
+     * @param x X offset from the corner of the chunk
+     * @param y Y offset from the corner of the chunk
+     * @param z Z offset from the corner of the chunk
+     * @return Id of the block at given position
+     */
+    default short getBlockId(int x, int y, int z) {
+        return getBlock(x, y, z).getId();
+    }
+
     /**
      * Sets type of block at given position relative to the chunk.
      *
@@ -65,6 +65,13 @@ public static Chunk decode(EntityData.ChunkStore message, BlockManager blockMana
         return new ChunkImpl(pos, blockData, extraData, blockManager);
     }
 
+    /**
+     * Decodes only the block data of a chunk, for uses that don't need a full {@link Chunk}.
+     */
+    public static TeraArray decodeBlockData(EntityData.RunLengthEncoding16 blockData) {
+        return runLengthDecode(blockData);
+    }
+
     private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
         EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
         short lastItem = (short) array.get(0, 0, 0);
@@ -37,7 +37,9 @@
 import org.terasology.math.TeraMath;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.monitoring.chunk.ChunkStage;
 import org.terasology.persistence.ChunkStore;
 import org.terasology.persistence.StorageManager;
 import org.terasology.utilities.concurrency.TaskMaster;
@@ -264,7 +266,10 @@ public void removeRelevanceEntity(EntityRef entity) {
     public void completeUpdate() {
         ReadyChunkInfo readyChunkInfo = chunkFinalizer.completeFinalization();
         if (readyChunkInfo != null) {
+            long startTime = ChunkLifecycleTracer.started(readyChunkInfo.getPos(), ChunkStage.FINALIZE);
             processReadyChunk(readyChunkInfo);
+            ChunkLifecycleTracer.finished(ChunkStage.FINALIZE, startTime);
+            ChunkLifecycleTracer.ready(readyChunkInfo.getPos());
         }
     }
 
@@ -438,6 +443,7 @@ private boolean unloadChunkInternal(Vector3i pos) {
                     break;
                 }
             }
+            ChunkLifecycleTracer.discarded(pos);
             return true;
         }
         worldEntity.send(new BeforeChunkUnload(pos));
@@ -505,7 +511,9 @@ private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
                 return false;
             }
         }
+        long startTime = ChunkLifecycleTracer.started(readyChunkInfo.getPos(), ChunkStage.MAKE_AVAILABLE);
         chunkFinalizer.beginFinalization(chunk, readyChunkInfo);
+        ChunkLifecycleTracer.finished(ChunkStage.MAKE_AVAILABLE, startTime);
         return true;
     }
 
@@ -554,6 +562,34 @@ public Collection<Chunk> getAllChunks() {
     }
 
 
+    /**
+     * @return The number of chunks that are being loaded or generated, but are not ready yet
+     */
+    public int getPreparingChunkCount() {
+        return preparingChunks.size();
+    }
+
+    /**
+     * @return The number of chunk tasks waiting for a generator thread
+     */
+    public int getGenerationQueueSize() {
+        return pipeline.getQueueSize();
+    }
+
+    /**
+     * @return The number of ready chunks that still need to be added to the world
+     */
+    public int getReadyChunkCount() {
+        return readyChunks.size() + sortedReadyChunks.size();
+    }
+
+    /**
+     * @return The number of chunks waiting to be unloaded
+     */
+    public int getUnloadQueueSize() {
+        return unloadRequestTaskMaster.getQueueSize();
+    }
+
     @Override
     public void restart() {
         pipeline.restart();
@@ -637,6 +673,8 @@ private void createOrLoadChunk(Vector3i chunkPos) {
         Chunk chunk = chunkCache.get(chunkPos);
         if (chunk == null && !preparingChunks.contains(chunkPos)) {
             preparingChunks.add(chunkPos);
+            ChunkLifecycleTracer.requested(chunkPos);
+            ChunkLifecycleTracer.enqueued(chunkPos, ChunkStage.LOAD);
             pipeline.doTask(new AbstractChunkTask(chunkPos) {
                 @Override
                 public String getName() {
@@ -645,19 +683,28 @@ public String getName() {
 
                 @Override
                 public void run() {
+                    long startTime = ChunkLifecycleTracer.started(getPosition(), ChunkStage.LOAD);
                     ChunkStore chunkStore = storageManager.loadChunkStore(getPosition());
-                    Chunk chunk;
+                    ChunkLifecycleTracer.finished(ChunkStage.LOAD, startTime);
+                    Chunk chunk = chunkStore != null ? chunkStore.getChunk() : null;
                     EntityBufferImpl buffer = new EntityBufferImpl();
-                    if (chunkStore == null) {
+                    if (chunk == null) {
+                        // Not saved, or corrupted: generated anew, without any stored entities
+                        chunkStore = null;
                         chunk = new ChunkImpl(getPosition(), blockManager, extraDataManager);
+                        startTime = ChunkLifecycleTracer.started(getPosition(), ChunkStage.GENERATE);
                         generator.createChunk(chunk, buffer);
-                    } else {
-                        chunk = chunkStore.getChunk();
+                        ChunkLifecycleTracer.finished(ChunkStage.GENERATE, startTime);
                     }
 
+                    startTime = ChunkLifecycleTracer.started(getPosition(), ChunkStage.INTERNAL_LIGHTING);
                     InternalLightProcessor.generateInternalLighting(chunk);
+                    ChunkLifecycleTracer.finished(ChunkStage.INTERNAL_LIGHTING, startTime);
+                    startTime = ChunkLifecycleTracer.started(getPosition(), ChunkStage.DEFLATE);
                     chunk.deflate();
+                    ChunkLifecycleTracer.finished(ChunkStage.DEFLATE, startTime);
                     TShortObjectMap<TIntList> mappings = createBatchBlockEventMappings(chunk);
+                    ChunkLifecycleTracer.enqueued(getPosition(), ChunkStage.MAKE_AVAILABLE);
                     readyChunks.offer(new ReadyChunkInfo(chunk, mappings, chunkStore, buffer.getAll()));
                 }
             });
@@ -667,6 +714,7 @@ public void run() {
 
     @Override
     public void onChunkIsReady(Chunk chunk) {
+        ChunkLifecycleTracer.enqueued(chunk.getPosition(), ChunkStage.MAKE_AVAILABLE);
         readyChunks.offer(new ReadyChunkInfo(chunk, createBatchBlockEventMappings(chunk), Collections.emptyList()));
     }
 
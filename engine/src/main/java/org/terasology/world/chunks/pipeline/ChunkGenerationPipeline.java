@@ -42,6 +42,13 @@ public void doTask(ChunkTask task) {
         }
     }
 
+    /**
+     * @return The number of chunk tasks waiting for a generator thread
+     */
+    public int getQueueSize() {
+        return chunkGenerator.getQueueSize();
+    }
+
     public void shutdown() {
         chunkGenerator.shutdown(new ShutdownChunkTask(), false);
     }
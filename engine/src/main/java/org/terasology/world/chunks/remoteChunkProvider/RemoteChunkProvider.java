@@ -29,7 +29,9 @@
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
 import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.monitoring.chunk.ChunkStage;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
@@ -85,6 +87,8 @@ public void subscribe(ChunkReadyListener chunkReadyListener) {
     }
 
     public void receiveChunk(final Chunk chunk) {
+        ChunkLifecycleTracer.requested(chunk.getPosition());
+        ChunkLifecycleTracer.enqueued(chunk.getPosition(), ChunkStage.INTERNAL_LIGHTING);
         pipeline.doTask(new AbstractChunkTask(chunk.getPosition()) {
             @Override
             public String getName() {
@@ -93,8 +97,12 @@ public String getName() {
 
             @Override
             public void run() {
+                long startTime = ChunkLifecycleTracer.started(getPosition(), ChunkStage.INTERNAL_LIGHTING);
                 InternalLightProcessor.generateInternalLighting(chunk);
+                ChunkLifecycleTracer.finished(ChunkStage.INTERNAL_LIGHTING, startTime);
+                startTime = ChunkLifecycleTracer.started(getPosition(), ChunkStage.DEFLATE);
                 chunk.deflate();
+                ChunkLifecycleTracer.finished(ChunkStage.DEFLATE, startTime);
                 onChunkIsReady(chunk);
             }
         });
@@ -104,6 +112,7 @@ public void invalidateChunks(Vector3i pos) {
         Chunk removed = chunkCache.remove(pos);
         if (removed != null && !removed.isReady()) {
             sortedReadyChunks.remove(removed);
+            ChunkLifecycleTracer.discarded(pos);
         }
 
     }
@@ -145,7 +154,9 @@ private boolean makeChunkAvailable(final Chunk chunk) {
             }
         }
 
+        long startTime = ChunkLifecycleTracer.started(chunk.getPosition(), ChunkStage.MAKE_AVAILABLE);
         lightMerger.beginMerge(chunk, chunk);
+        ChunkLifecycleTracer.finished(ChunkStage.MAKE_AVAILABLE, startTime);
         return true;
     }
 
@@ -264,14 +275,18 @@ public void removeRelevanceEntity(EntityRef entity) {
     public void completeUpdate() {
         Chunk chunk = lightMerger.completeMerge();
         if (chunk != null) {
+            long startTime = ChunkLifecycleTracer.started(chunk.getPosition(), ChunkStage.FINALIZE);
             chunk.markReady();
             listener.onChunkReady(chunk.getPosition());
             worldEntity.send(new OnChunkLoaded(chunk.getPosition()));
+            ChunkLifecycleTracer.finished(ChunkStage.FINALIZE, startTime);
+            ChunkLifecycleTracer.ready(chunk.getPosition());
         }
     }
 
     @Override
     public void onChunkIsReady(Chunk chunk) {
+        ChunkLifecycleTracer.enqueued(chunk.getPosition(), ChunkStage.MAKE_AVAILABLE);
         try {
             readyChunks.put(chunk);
         } catch (InterruptedException e) {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The order in which the facet providers of a world have to run, as determined by their {@link Requires},
+ * {@link Produces} and {@link Updates} annotations.
+ * <br><br>
+ * Each provider knows the providers that have to finish before it can run. Providers that do not depend on each
+ * other (e.g. humidity and temperature) can process the same region at the same time, on a pool that is shared by
+ * all worlds.
+ */
+public final class FacetProviderGraph {
+
+    private final SetMultimap<FacetProvider, FacetProvider> prerequisites;
+
+    FacetProviderGraph(SetMultimap<FacetProvider, FacetProvider> prerequisites) {
+        this.prerequisites = ImmutableSetMultimap.copyOf(prerequisites);
+    }
+
+    /**
+     * @return The providers that have to run before the given one
+     */
+    public Set<FacetProvider> getPrerequisites(FacetProvider provider) {
+        return prerequisites.get(provider);
+    }
+
+    /**
+     * @return The pool that runs the facet providers
+     */
+    ExecutorService getExecutor() {
+        return SharedPool.EXECUTOR;
+    }
+
+    /**
+     * Creates the pool on first use, so that worlds generated sequentially do not start any threads.
+     */
+    private static final class SharedPool {
+        // at least two threads, so independent providers are never serialized by the pool itself
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors() - 1),
+                new ThreadFactoryBuilder().setNameFormat("Facet-Providers-%d").setDaemon(true).build());
+
+        private SharedPool() {
+        }
+    }
+}
@@ -15,15 +15,28 @@
  */
 package org.terasology.world.generation;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
+import org.terasology.monitoring.Activity;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.monitoring.ThreadActivity;
+import org.terasology.monitoring.ThreadMonitor;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
+ * The facets of a region, generated on demand by running the facet provider chains.
+ * <br><br>
+ * Given a {@link FacetProviderGraph}, the providers that do not depend on each other run concurrently on the shared
+ * provider pool. Otherwise they run one after another on the calling thread.
  */
 public class RegionImpl implements Region, GeneratingRegion {
 
@@ -31,30 +44,82 @@ public class RegionImpl implements Region, GeneratingRegion {
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
 
-    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
+    private final FacetProviderGraph providerGraph;
+
+    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create(Maps.newConcurrentMap());
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
+    private final Map<FacetProvider, CompletableFuture<Void>> scheduledProviders = Maps.newHashMap();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
     public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+        this(region, facetProviderChains, borders, null);
+    }
+
+    /**
+     * @param providerGraph the dependencies between the providers, or null to run them sequentially
+     */
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders,
+                      FacetProviderGraph providerGraph) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
         this.borders = borders;
+        this.providerGraph = providerGraph;
     }
 
     @Override
     public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            facetProviderChains.get(dataType).stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
-                provider.process(this);
-                processedProviders.add(provider);
-            });
+            List<FacetProvider> providerChain = facetProviderChains.get(dataType);
+            if (providerGraph != null) {
+                processConcurrently(providerChain);
+            } else {
+                providerChain.stream().filter(provider -> !processedProviders.contains(provider)).forEach(provider -> {
+                    process(provider);
+                    processedProviders.add(provider);
+                });
+            }
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
         }
         return facet;
     }
 
+    private void processConcurrently(List<FacetProvider> providerChain) {
+        CompletableFuture<?>[] pending = providerChain.stream().map(this::schedule).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(pending).join();
+        } catch (CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Submits a provider to the pool once all of its prerequisites are done, scheduling these first if needed.
+     * Every provider is scheduled at most once per region.
+     */
+    private synchronized CompletableFuture<Void> schedule(FacetProvider provider) {
+        CompletableFuture<Void> result = scheduledProviders.get(provider);
+        if (result == null) {
+            CompletableFuture<?>[] prerequisites = providerGraph.getPrerequisites(provider).stream()
+                    .map(this::schedule).toArray(CompletableFuture[]::new);
+            result = CompletableFuture.allOf(prerequisites).thenRunAsync(() -> {
+                try (ThreadActivity ignored = ThreadMonitor.startThreadActivity(provider.getClass().getSimpleName())) {
+                    process(provider);
+                }
+            }, providerGraph.getExecutor());
+            scheduledProviders.put(provider, result);
+        }
+        return result;
+    }
+
+    private void process(FacetProvider provider) {
+        try (Activity ignored = PerformanceMonitor.startActivity(provider.getClass().getSimpleName())) {
+            provider.process(this);
+        }
+    }
+
     @Override
     public Region3i getRegion() {
         return region;
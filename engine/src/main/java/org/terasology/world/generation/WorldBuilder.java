@@ -16,9 +16,11 @@
 package org.terasology.world.generation;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +48,7 @@ public class WorldBuilder extends ProviderStore {
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private final List<EntityProvider> entityProviders = new ArrayList<>();
     private int seaLevel = 32;
+    private boolean parallelEvaluation;
 
     private WorldGeneratorPluginLibrary pluginLibrary;
 
@@ -91,6 +94,19 @@ public WorldBuilder setSeaLevel(int level) {
         return this;
     }
 
+    /**
+     * Lets facet providers that do not depend on each other process a region concurrently, on a pool shared by all
+     * worlds. This cuts the time to generate a single region, which matters when only a few are generated at once,
+     * e.g. around the spawn point.
+     *
+     * @param parallel whether independent facet providers are evaluated concurrently
+     * @return this
+     */
+    public WorldBuilder setParallelEvaluation(boolean parallel) {
+        this.parallelEvaluation = parallel;
+        return this;
+    }
+
     public World build() {
         // TODO: ensure the required providers are present
 
@@ -101,7 +117,53 @@ public World build() {
             provider.setSeed(seed);
         }
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
-        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel);
+        FacetProviderGraph providerGraph = parallelEvaluation ? determineProviderGraph(providerChains) : null;
+        return new WorldImpl(providerChains, rasterizers, entityProviders, determineBorders(providerChains), seaLevel, providerGraph);
+    }
+
+    /**
+     * A provider has to run after everything that precedes it in the chain of a facet it produces or updates.
+     *
+     * @return the provider graph, or null if the chains order the providers inconsistently
+     */
+    private FacetProviderGraph determineProviderGraph(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
+        SetMultimap<FacetProvider, FacetProvider> prerequisites = HashMultimap.create();
+        for (Class<? extends WorldFacet> facet : providerChains.keySet()) {
+            List<FacetProvider> providerChain = providerChains.get(facet);
+            for (int i = 0; i < providerChain.size(); i++) {
+                FacetProvider provider = providerChain.get(i);
+                if (producesFacet(provider, facet) || updatesFacet(provider, facet)) {
+                    prerequisites.putAll(provider, providerChain.subList(0, i));
+                }
+            }
+        }
+
+        Set<FacetProvider> visited = Sets.newHashSet();
+        for (FacetProvider provider : prerequisites.keySet()) {
+            if (isCircular(provider, prerequisites, Sets.newHashSet(), visited)) {
+                logger.warn("Facet providers depend on each other through {}, evaluating them sequentially", provider);
+                return null;
+            }
+        }
+        return new FacetProviderGraph(prerequisites);
+    }
+
+    private boolean isCircular(FacetProvider provider, SetMultimap<FacetProvider, FacetProvider> prerequisites,
+                               Set<FacetProvider> inProgress, Set<FacetProvider> visited) {
+        if (visited.contains(provider)) {
+            return false;
+        }
+        if (!inProgress.add(provider)) {
+            return true;
+        }
+        for (FacetProvider prerequisite : prerequisites.get(provider)) {
+            if (isCircular(prerequisite, prerequisites, inProgress, visited)) {
+                return true;
+            }
+        }
+        inProgress.remove(provider);
+        visited.add(provider);
+        return false;
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
@@ -106,6 +106,16 @@ public Block getBlock(int x, int y, int z) {
         return base.getBlock(x, y, z);
     }
 
+    @Override
+    public void getBlocks(Region3i region, short[] out) {
+        base.getBlocks(region, out);
+    }
+
+    @Override
+    public int setBlocks(Region3i region, Block[] blocks) {
+        return base.setBlocks(region, blocks);
+    }
+
     @Override
     public byte getLight(int x, int y, int z) {
         return base.getLight(x, y, z);
@@ -15,6 +15,7 @@
  */
 package org.terasology.world.internal;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.math.Region3i;
@@ -131,6 +132,59 @@ default Map<Vector3i, Block> setBlocks(Map<Vector3i, Block> blocks) {
      */
     Block getBlock(int x, int y, int z);
 
+    /**
+     * Reads the ids of all blocks in a region.
+     * <br><br>
+     * The ids are laid out like the block data of a chunk: x varies fastest, then z, then y. The block at (x, y, z)
+     * is written to {@code out[(x - minX) + sizeX * ((z - minZ) + sizeZ * (y - minY))]}. Positions in chunks that
+     * are not loaded get the id of the block {@link #getBlock(int, int, int)} returns for them.
+     *
+     * @param region The region to read
+     * @param out    The array to write the block ids to, must be at least as large as the volume of the region
+     */
+    default void getBlocks(Region3i region, short[] out) {
+        Preconditions.checkArgument(out.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "Array of length %s is too small for region %s", out.length, region);
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    out[index++] = getBlock(x, y, z).getId();
+                }
+            }
+        }
+    }
+
+    /**
+     * Places blocks in a region, laid out like in {@link #getBlocks(Region3i, short[])}.
+     * <br><br>
+     * Null entries leave the block at their position unchanged. Positions in chunks that are not loaded are skipped.
+     *
+     * @param region The region to change
+     * @param blocks The blocks to place, must be at least as large as the volume of the region
+     * @return The number of blocks that changed
+     */
+    default int setBlocks(Region3i region, Block[] blocks) {
+        Preconditions.checkArgument(blocks.length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "Array of length %s is too small for region %s", blocks.length, region);
+        int changed = 0;
+        int index = 0;
+        for (int y = region.minY(); y <= region.maxY(); y++) {
+            for (int z = region.minZ(); z <= region.maxZ(); z++) {
+                for (int x = region.minX(); x <= region.maxX(); x++) {
+                    Block type = blocks[index++];
+                    if (type != null) {
+                        Block oldType = setBlock(new Vector3i(x, y, z), type);
+                        if (oldType != null && oldType != type) {
+                            changed++;
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
     /**
      * Returns the light value at the given position.
      *
@@ -17,6 +17,7 @@
 package org.terasology.world.internal;
 
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Predicate;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.Lists;
@@ -32,6 +33,7 @@
 import org.terasology.world.WorldComponent;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
 import org.terasology.world.chunks.CoreChunk;
 import org.terasology.world.chunks.LitChunk;
@@ -53,6 +55,7 @@
 import org.terasology.world.time.WorldTime;
 import org.terasology.world.time.WorldTimeImpl;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -81,6 +84,12 @@ public class WorldProviderCoreImpl implements WorldProviderCore {
 
     private Block unloadedBlock;
 
+    /**
+     * The chunk each thread looked at last. Most accesses hit the same chunk as the one before, so this saves the
+     * chunk map lookup (and the allocation of its key) for them.
+     */
+    private final ThreadLocal<LastChunk> lastChunk = ThreadLocal.withInitial(LastChunk::new);
+
     public WorldProviderCoreImpl(String title, String customTitle, String seed, long time, SimpleUri worldGenerator,
                                  GeneratingChunkProvider chunkProvider, Block unloadedBlock, Context context) {
         this.title = (title == null) ? seed : title;
@@ -277,51 +286,174 @@ private void notifyExtraDataChanged(int index, Vector3i pos, int newData, int ol
         }
     }
 
+    /**
+     * Looks up a chunk by its chunk coordinates without allocating, if it is the chunk this thread looked at last.
+     *
+     * @return The chunk, or null if it is not ready
+     */
+    private Chunk getChunk(int chunkX, int chunkY, int chunkZ) {
+        LastChunk last = lastChunk.get();
+        Chunk chunk = last.chunk;
+        if (chunk != null && last.x == chunkX && last.y == chunkY && last.z == chunkZ && chunk.isReady()) {
+            return chunk;
+        }
+        chunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+        last.chunk = chunk;
+        last.x = chunkX;
+        last.y = chunkY;
+        last.z = chunkZ;
+        return chunk;
+    }
+
+    private Chunk getChunkAt(int x, int y, int z) {
+        return getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+    }
+
     @Override
     public Block getBlock(int x, int y, int z) {
-        CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+        CoreChunk chunk = getChunkAt(x, y, z);
         if (chunk != null) {
             return chunk.getBlock(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return unloadedBlock;
     }
 
+    @Override
+    public void getBlocks(Region3i region, short[] out) {
+        checkArraySize(region, out.length);
+        short unloadedId = unloadedBlock.getId();
+        int sizeX = region.sizeX();
+        int sizeXZ = sizeX * region.sizeZ();
+        for (int chunkY = ChunkMath.calcChunkPosY(region.minY()); chunkY <= ChunkMath.calcChunkPosY(region.maxY()); chunkY++) {
+            int offsetY = chunkY * ChunkConstants.SIZE_Y;
+            int fromY = Math.max(region.minY(), offsetY);
+            int toY = Math.min(region.maxY(), offsetY + ChunkConstants.SIZE_Y - 1);
+            for (int chunkZ = ChunkMath.calcChunkPosZ(region.minZ()); chunkZ <= ChunkMath.calcChunkPosZ(region.maxZ()); chunkZ++) {
+                int offsetZ = chunkZ * ChunkConstants.SIZE_Z;
+                int fromZ = Math.max(region.minZ(), offsetZ);
+                int toZ = Math.min(region.maxZ(), offsetZ + ChunkConstants.SIZE_Z - 1);
+                for (int chunkX = ChunkMath.calcChunkPosX(region.minX()); chunkX <= ChunkMath.calcChunkPosX(region.maxX()); chunkX++) {
+                    int offsetX = chunkX * ChunkConstants.SIZE_X;
+                    int fromX = Math.max(region.minX(), offsetX);
+                    int toX = Math.min(region.maxX(), offsetX + ChunkConstants.SIZE_X - 1);
+                    CoreChunk chunk = getChunk(chunkX, chunkY, chunkZ);
+                    for (int y = fromY; y <= toY; y++) {
+                        for (int z = fromZ; z <= toZ; z++) {
+                            int rowStart = (y - region.minY()) * sizeXZ + (z - region.minZ()) * sizeX - region.minX();
+                            if (chunk == null) {
+                                Arrays.fill(out, rowStart + fromX, rowStart + toX + 1, unloadedId);
+                            } else {
+                                for (int x = fromX; x <= toX; x++) {
+                                    out[rowStart + x] = chunk.getBlockId(x - offsetX, y - offsetY, z - offsetZ);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public int setBlocks(Region3i region, Block[] blocks) {
+        checkArraySize(region, blocks.length);
+        List<BlockChange> changedBlocks = Lists.newArrayList();
+        int sizeX = region.sizeX();
+        int sizeXZ = sizeX * region.sizeZ();
+        for (int chunkY = ChunkMath.calcChunkPosY(region.minY()); chunkY <= ChunkMath.calcChunkPosY(region.maxY()); chunkY++) {
+            int offsetY = chunkY * ChunkConstants.SIZE_Y;
+            int fromY = Math.max(region.minY(), offsetY);
+            int toY = Math.min(region.maxY(), offsetY + ChunkConstants.SIZE_Y - 1);
+            for (int chunkZ = ChunkMath.calcChunkPosZ(region.minZ()); chunkZ <= ChunkMath.calcChunkPosZ(region.maxZ()); chunkZ++) {
+                int offsetZ = chunkZ * ChunkConstants.SIZE_Z;
+                int fromZ = Math.max(region.minZ(), offsetZ);
+                int toZ = Math.min(region.maxZ(), offsetZ + ChunkConstants.SIZE_Z - 1);
+                for (int chunkX = ChunkMath.calcChunkPosX(region.minX()); chunkX <= ChunkMath.calcChunkPosX(region.maxX()); chunkX++) {
+                    CoreChunk chunk = getChunk(chunkX, chunkY, chunkZ);
+                    if (chunk == null) {
+                        continue;
+                    }
+                    int offsetX = chunkX * ChunkConstants.SIZE_X;
+                    int fromX = Math.max(region.minX(), offsetX);
+                    int toX = Math.min(region.maxX(), offsetX + ChunkConstants.SIZE_X - 1);
+                    for (int y = fromY; y <= toY; y++) {
+                        for (int z = fromZ; z <= toZ; z++) {
+                            int rowStart = (y - region.minY()) * sizeXZ + (z - region.minZ()) * sizeX - region.minX();
+                            for (int x = fromX; x <= toX; x++) {
+                                Block type = blocks[rowStart + x];
+                                if (type == null) {
+                                    continue;
+                                }
+                                Block oldBlockType = chunk.setBlock(x - offsetX, y - offsetY, z - offsetZ, type);
+                                if (oldBlockType != type) {
+                                    Vector3i worldPos = new Vector3i(x, y, z);
+                                    BlockChange oldChange = blockChanges.get(worldPos);
+                                    if (oldChange == null) {
+                                        blockChanges.put(worldPos, new BlockChange(worldPos, oldBlockType, type));
+                                    } else {
+                                        oldChange.setTo(type);
+                                    }
+                                    changedBlocks.add(new BlockChange(worldPos, oldBlockType, type));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!changedBlocks.isEmpty()) {
+            for (Vector3i chunkPos : ChunkMath.calcChunkPos(region.expand(1))) {
+                RenderableChunk dirtiedChunk = chunkProvider.getChunk(chunkPos);
+                if (dirtiedChunk != null) {
+                    dirtiedChunk.setDirty(true);
+                }
+            }
+            for (BlockChange change : changedBlocks) {
+                notifyBlockChanged(change.getPosition(), change.getTo(), change.getFrom());
+            }
+        }
+        return changedBlocks.size();
+    }
+
+    private static void checkArraySize(Region3i region, int length) {
+        Preconditions.checkArgument(length >= region.sizeX() * region.sizeY() * region.sizeZ(),
+                "Array of length %s is too small for region %s", length, region);
+    }
+
     @Override
     public byte getLight(int x, int y, int z) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = getChunkAt(x, y, z);
         if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return chunk.getLight(blockPos);
+            return chunk.getLight(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return 0;
     }
 
     @Override
     public byte getSunlight(int x, int y, int z) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = getChunkAt(x, y, z);
         if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return chunk.getSunlight(blockPos);
+            return chunk.getSunlight(ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
         return 0;
     }
 
     @Override
     public byte getTotalLight(int x, int y, int z) {
-        Vector3i chunkPos = ChunkMath.calcChunkPos(x, y, z);
-        LitChunk chunk = chunkProvider.getChunk(chunkPos);
+        LitChunk chunk = getChunkAt(x, y, z);
         if (chunk != null) {
-            Vector3i blockPos = ChunkMath.calcBlockPos(x, y, z);
-            return (byte) Math.max(chunk.getSunlight(blockPos), chunk.getLight(blockPos));
+            int blockX = ChunkMath.calcBlockPosX(x);
+            int blockY = ChunkMath.calcBlockPosY(y);
+            int blockZ = ChunkMath.calcBlockPosZ(z);
+            return (byte) Math.max(chunk.getSunlight(blockX, blockY, blockZ), chunk.getLight(blockX, blockY, blockZ));
         }
         return 0;
     }
 
     @Override
     public int getExtraData(int index, int x, int y, int z) {
-        CoreChunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPosX(x), ChunkMath.calcChunkPosY(y), ChunkMath.calcChunkPosZ(z));
+        CoreChunk chunk = getChunkAt(x, y, z);
         if (chunk != null) {
             return chunk.getExtraData(index, ChunkMath.calcBlockPosX(x), ChunkMath.calcBlockPosY(y), ChunkMath.calcBlockPosZ(z));
         }
@@ -365,4 +497,11 @@ public Collection<Region3i> getRelevantRegions() {
 
         return FluentIterable.from(chunks).filter(isReady).transform(mapping).toList();
     }
+
+    private static final class LastChunk {
+        private Chunk chunk;
+        private int x;
+        private int y;
+        private int z;
+    }
 }
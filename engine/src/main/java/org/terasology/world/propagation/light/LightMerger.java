@@ -20,6 +20,8 @@
 import org.slf4j.LoggerFactory;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.chunk.ChunkLifecycleTracer;
+import org.terasology.monitoring.chunk.ChunkStage;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.LitChunk;
 import org.terasology.world.chunks.internal.GeneratingChunkProvider;
@@ -56,8 +58,12 @@ public LightMerger(GeneratingChunkProvider chunkProvider) {
     }
 
     public void beginMerge(final Chunk chunk, final T data) {
+        ChunkLifecycleTracer.enqueued(chunk.getPosition(), ChunkStage.LIGHT_MERGE);
         resultFuture = executorService.submit(() -> {
+            long startTime = ChunkLifecycleTracer.started(chunk.getPosition(), ChunkStage.LIGHT_MERGE);
             merge(chunk);
+            ChunkLifecycleTracer.finished(ChunkStage.LIGHT_MERGE, startTime);
+            ChunkLifecycleTracer.enqueued(chunk.getPosition(), ChunkStage.FINALIZE);
             return data;
         });
     }